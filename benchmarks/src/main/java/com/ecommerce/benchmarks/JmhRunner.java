@@ -0,0 +1,56 @@
+package com.ecommerce.benchmarks;
+
+import com.ecommerce.common.id.SnowflakeIdGenerator;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs JMH benchmarks with JMH's usual command line, but writes the results as JSON to
+ * {@value #DEFAULT_RESULT} unless {@code -rf} or {@code -rff} say otherwise, so every run
+ * leaves a machine-readable record to compare before and after a change. Forks get Snowflake
+ * node ID 0 unless one is configured.
+ *
+ * <p>Usage: {@code JmhRunner [benchmark regex...] [JMH options]}
+ */
+public final class JmhRunner {
+
+    private static final String DEFAULT_RESULT = "target/jmh-results.json";
+
+    private JmhRunner() {
+        // Entry point only
+    }
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        if (commandLine.shouldHelp()) {
+            commandLine.showHelp();
+            return;
+        }
+        ChainedOptionsBuilder options = new OptionsBuilder().parent(commandLine);
+        if (!commandLine.getResultFormat().hasValue()) {
+            options.resultFormat(ResultFormatType.JSON);
+        }
+        if (!commandLine.getResult().hasValue()) {
+            options.result(DEFAULT_RESULT);
+        }
+        if (!SnowflakeIdGenerator.nodeIdConfigured()) {
+            // Every fork is the only writer of its databases, so any node ID is unique
+            SnowflakeIdGenerator.defaultNodeId(0);
+            List<String> jvmArgs = new ArrayList<>(commandLine.getJvmArgsAppend().orElse(List.of()));
+            jvmArgs.add("-D" + SnowflakeIdGenerator.NODE_ID_PROPERTY + "=0");
+            options.jvmArgsAppend(jvmArgs.toArray(String[]::new));
+        }
+        Runner runner = new Runner(options.build());
+        if (commandLine.shouldList()) {
+            runner.list();
+            return;
+        }
+        runner.run();
+    }
+}
@@ -0,0 +1,35 @@
+package com.ecommerce.benchmarks.auth;
+
+import com.ecommerce.auth.security.JwtService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link JwtService#generateToken}, run on every login and registration: building the claims,
+ * serializing header and payload to JSON and signing them with HMAC-SHA256. Uses the
+ * auth-service's default secret and expiry.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtTokenBenchmark {
+
+    private final JwtService jwtService = new JwtService("01234567890123456789012345678901", 86_400_000);
+
+    @Benchmark
+    public String generateToken() {
+        return jwtService.generateToken(1287364512L, "jane.doe@example.com");
+    }
+}
@@ -0,0 +1,86 @@
+package com.ecommerce.benchmarks.bus;
+
+import com.ecommerce.common.bus.InProcessEventBus;
+import com.ecommerce.common.event.OrderCreatedEvent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * One saga hop through the {@link InProcessEventBus}: the time from publishing an event to its
+ * subscriber handling it, and how many events a subscriber takes in per second while
+ * publishers only enqueue.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InProcessEventBusBenchmark {
+
+    private static final String HOP_TOPIC = "hop-topic";
+    private static final String BULK_TOPIC = "bulk-topic";
+    private static final Map<String, byte[]> HEADERS = Map.of("saga-trace", new byte[40]);
+
+    @Param({"1"})
+    public int partitions;
+
+    private final AtomicLong delivered = new AtomicLong();
+    private final OrderCreatedEvent event = OrderCreatedEvent.builder().orderId(1287364512L).build();
+    private InProcessEventBus bus;
+    private long published;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        bus = new InProcessEventBus(65_536, partitions, Duration.ofSeconds(5));
+        bus.subscribe(HOP_TOPIC, "hop-group", OrderCreatedEvent.class, (received, headers) -> delivered.incrementAndGet());
+        bus.subscribe(BULK_TOPIC, "bulk-group", OrderCreatedEvent.class, (received, headers) -> {
+        });
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        bus.close();
+    }
+
+    /**
+     * Publishes one event and waits for its subscriber to have handled it.
+     */
+    @Benchmark
+    public long hop() {
+        long expected = ++published;
+        bus.publish(HOP_TOPIC, "1287364512", event, HEADERS);
+        while (delivered.get() < expected) {
+            // Yield rather than spin, so the dispatcher gets a core on small machines too
+            Thread.yield();
+        }
+        return expected;
+    }
+
+    /**
+     * Publishes without waiting; publishing blocks only when the subscriber's buffer is full,
+     * so this is the rate the subscriber drains at.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public Object publish() {
+        return bus.publish(BULK_TOPIC, "1287364512", event, HEADERS);
+    }
+}
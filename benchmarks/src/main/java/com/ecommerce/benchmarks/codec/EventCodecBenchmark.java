@@ -0,0 +1,94 @@
+package com.ecommerce.benchmarks.codec;
+
+import com.ecommerce.common.codec.EventDeserializer;
+import com.ecommerce.common.codec.EventSerializer;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serializes and deserializes one event through the binary event serializers and through the
+ * Spring JSON serializers they replace, both configured as the services configure them. JSON
+ * records carry their type in a header, so the JSON benchmarks write and read headers too.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EventCodecBenchmark {
+
+    private static final String TOPIC = "benchmark-topic";
+
+    @Param({"OrderCreatedEvent", "PaymentCompletedEvent"})
+    public String eventType;
+
+    @Param({"5"})
+    public int items;
+
+    private final EventSerializer binarySerializer = new EventSerializer();
+    private final EventDeserializer binaryDeserializer = new EventDeserializer();
+    private final JsonSerializer<Object> jsonSerializer = new JsonSerializer<>();
+    private final JsonDeserializer<Object> jsonDeserializer = new JsonDeserializer<>();
+
+    private Object event;
+    private byte[] binary;
+    private byte[] json;
+    private RecordHeaders binaryHeaders;
+    private Header[] jsonHeaders;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Map<String, Object> configs = new HashMap<>(SampleEvents.jsonConfigs());
+        binarySerializer.configure(SampleEvents.binaryConfigs(), false);
+        binaryDeserializer.configure(configs, false);
+        jsonSerializer.configure(configs, false);
+        jsonDeserializer.configure(configs, false);
+
+        event = SampleEvents.all(items).get(eventType);
+        binaryHeaders = new RecordHeaders();
+        binary = binarySerializer.serialize(TOPIC, binaryHeaders, event);
+        RecordHeaders headers = new RecordHeaders();
+        json = jsonSerializer.serialize(TOPIC, headers, event);
+        jsonHeaders = headers.toArray();
+    }
+
+    @Benchmark
+    public byte[] serializeBinary() {
+        return binarySerializer.serialize(TOPIC, new RecordHeaders(), event);
+    }
+
+    @Benchmark
+    public byte[] serializeJson() {
+        return jsonSerializer.serialize(TOPIC, new RecordHeaders(), event);
+    }
+
+    @Benchmark
+    public Object deserializeBinary() {
+        return binaryDeserializer.deserialize(TOPIC, binaryHeaders, binary);
+    }
+
+    @Benchmark
+    public Object deserializeJson() {
+        // The deserializer removes the type headers it reads, so each record gets fresh ones
+        return jsonDeserializer.deserialize(TOPIC, new RecordHeaders(jsonHeaders), json);
+    }
+}
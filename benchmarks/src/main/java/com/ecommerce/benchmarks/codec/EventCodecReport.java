@@ -0,0 +1,100 @@
+package com.ecommerce.benchmarks.codec;
+
+import com.ecommerce.common.codec.EventCodec;
+import com.ecommerce.common.codec.EventDeserializer;
+import com.ecommerce.common.codec.EventSchema;
+import com.ecommerce.common.codec.EventSchemas;
+import com.ecommerce.common.codec.EventSerializer;
+import com.ecommerce.common.event.InventoryReservedEvent;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/**
+ * Prints the record size of every event encoded as JSON, including its type header, and in
+ * the binary format. Then checks that the binary format round-trips every event, that version
+ * 1 and a hypothetical version 3 of {@code InventoryReservedEvent} are read by the current
+ * schema, and that JSON records are still read after the switch. Fails on any mismatch.
+ *
+ * <p>Usage: {@code EventCodecReport [items=5]}
+ */
+public class EventCodecReport {
+
+    private static final String TOPIC = "report-topic";
+
+    public static void main(String[] args) {
+        int items = args.length > 0 ? Integer.parseInt(args[0]) : 5;
+        EventSerializer binarySerializer = new EventSerializer();
+        EventDeserializer deserializer = new EventDeserializer();
+        JsonSerializer<Object> jsonSerializer = new JsonSerializer<>();
+        binarySerializer.configure(SampleEvents.binaryConfigs(), false);
+        deserializer.configure(SampleEvents.jsonConfigs(), false);
+        jsonSerializer.configure(SampleEvents.jsonConfigs(), false);
+
+        boolean passed = true;
+        System.out.printf("%-24s %10s %12s %10s %7s%n", "event", "json", "json+header", "binary", "ratio");
+        for (Map.Entry<String, Object> entry : new TreeMap<>(SampleEvents.all(items)).entrySet()) {
+            Object event = entry.getValue();
+            RecordHeaders jsonHeaders = new RecordHeaders();
+            byte[] json = jsonSerializer.serialize(TOPIC, jsonHeaders, event);
+            int headerBytes = 0;
+            for (Header header : jsonHeaders) {
+                headerBytes += header.key().length() + header.value().length;
+            }
+            byte[] binary = binarySerializer.serialize(TOPIC, new RecordHeaders(), event);
+            System.out.printf("%-24s %10d %12d %10d %6.1f%%%n", entry.getKey(), json.length, json.length + headerBytes,
+                    binary.length, 100.0 * binary.length / (json.length + headerBytes));
+
+            passed &= check(entry.getKey() + " binary round trip", event, deserializer.deserialize(TOPIC, new RecordHeaders(), binary));
+            passed &= check(entry.getKey() + " JSON fallback", event, deserializer.deserialize(TOPIC, jsonHeaders, json));
+        }
+
+        InventoryReservedEvent reserved = SampleEvents.inventoryReserved(items);
+        EventSchema<InventoryReservedEvent> current = EventSchemas.INVENTORY_RESERVED;
+        EventSchema<InventoryReservedEvent> v1 = current.atVersion(1);
+        current.checkCompatibleWith(v1);
+        InventoryReservedEvent fromV1 = (InventoryReservedEvent) deserializer.deserialize(TOPIC, new RecordHeaders(),
+                EventCodec.encode(v1, reserved));
+        InventoryReservedEvent expectedFromV1 = InventoryReservedEvent.builder()
+                .orderId(reserved.getOrderId())
+                .userId(reserved.getUserId())
+                .reservationSuccessful(reserved.isReservationSuccessful())
+                .message(reserved.getMessage())
+                .reservedAt(reserved.getReservedAt())
+                .build();
+        passed &= check("InventoryReservedEvent v1 read by v" + current.version(), expectedFromV1, fromV1);
+
+        EventSchema<InventoryReservedEvent> v3 = nextVersion(current);
+        v3.checkCompatibleWith(current);
+        Object fromV3 = deserializer.deserialize(TOPIC, new RecordHeaders(), EventCodec.encode(v3, reserved));
+        passed &= check("InventoryReservedEvent v3 read by v" + current.version(), reserved, fromV3);
+
+        if (!passed) {
+            System.err.println("FAILED: an event did not survive encoding");
+            System.exit(1);
+        }
+    }
+
+    /**
+     * The current schema plus a field this code does not know about, as a newer producer
+     * would write it.
+     */
+    private static EventSchema<InventoryReservedEvent> nextVersion(EventSchema<InventoryReservedEvent> current) {
+        return current.toBuilder()
+                .version(current.version() + 1)
+                .since(current.version() + 1)
+                .string(99, "warehouse", event -> "WH-EU-1", (event, warehouse) -> {
+                })
+                .build();
+    }
+
+    private static boolean check(String name, Object expected, Object actual) {
+        boolean equal = Objects.equals(expected, actual);
+        System.out.printf("%-45s %s%n", name, equal ? "ok" : "MISMATCH " + actual);
+        return equal;
+    }
+}
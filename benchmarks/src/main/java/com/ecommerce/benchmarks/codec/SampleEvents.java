@@ -0,0 +1,133 @@
+package com.ecommerce.benchmarks.codec;
+
+import com.ecommerce.common.codec.EventSerializer;
+import com.ecommerce.common.event.InventoryChangedEvent;
+import com.ecommerce.common.event.InventoryReservedEvent;
+import com.ecommerce.common.event.OrderCancelledEvent;
+import com.ecommerce.common.event.OrderCreatedEvent;
+import com.ecommerce.common.event.OrderCreatedEvent.OrderItemDto;
+import com.ecommerce.common.event.PaymentCompletedEvent;
+import com.ecommerce.common.id.SnowflakeIdGenerator;
+import com.ecommerce.common.id.Ulid;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Typical events with realistic IDs, amounts and timestamps, for codec comparisons.
+ */
+final class SampleEvents {
+
+    static final String JSON_TYPE_MAPPING = "orderCreated:" + OrderCreatedEvent.class.getName()
+            + ",inventoryReserved:" + InventoryReservedEvent.class.getName()
+            + ",paymentCompleted:" + PaymentCompletedEvent.class.getName()
+            + ",orderCancelled:" + OrderCancelledEvent.class.getName()
+            + ",inventoryChanged:" + InventoryChangedEvent.class.getName();
+
+    private static final SnowflakeIdGenerator IDS = new SnowflakeIdGenerator(1);
+
+    private SampleEvents() {
+    }
+
+    /**
+     * The serializer and deserializer properties the services set for JSON.
+     */
+    static Map<String, Object> jsonConfigs() {
+        return Map.of(
+                "spring.json.type.mapping", JSON_TYPE_MAPPING,
+                "spring.json.trusted.packages", "*");
+    }
+
+    /**
+     * {@link #jsonConfigs()} with the producers switched to the binary format.
+     */
+    static Map<String, Object> binaryConfigs() {
+        Map<String, Object> configs = new HashMap<>(jsonConfigs());
+        configs.put(EventSerializer.WRITE_FORMAT_CONFIG, "binary");
+        return configs;
+    }
+
+    static Map<String, Object> all(int items) {
+        return Map.of(
+                "OrderCreatedEvent", orderCreated(items),
+                "InventoryReservedEvent", inventoryReserved(items),
+                "PaymentCompletedEvent", paymentCompleted(),
+                "OrderCancelledEvent", orderCancelled(),
+                "InventoryChangedEvent", inventoryChanged());
+    }
+
+    static OrderCreatedEvent orderCreated(int items) {
+        List<OrderItemDto> orderItems = orderItems(items);
+        return OrderCreatedEvent.builder()
+                .orderId(IDS.nextId())
+                .userId(48_213L)
+                .totalAmount(total(orderItems))
+                .orderItems(orderItems)
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+
+    static InventoryReservedEvent inventoryReserved(int items) {
+        List<OrderItemDto> orderItems = orderItems(items);
+        return InventoryReservedEvent.builder()
+                .orderId(IDS.nextId())
+                .userId(48_213L)
+                .totalAmount(total(orderItems))
+                .orderItems(orderItems)
+                .reservationSuccessful(true)
+                .message("Inventory reserved successfully")
+                .reservedAt(LocalDateTime.now())
+                .build();
+    }
+
+    static PaymentCompletedEvent paymentCompleted() {
+        return PaymentCompletedEvent.builder()
+                .orderId(IDS.nextId())
+                .userId(48_213L)
+                .amount(new BigDecimal("249.97"))
+                .paymentSuccessful(true)
+                .transactionId("TXN-" + Ulid.next())
+                .message("Payment completed successfully")
+                .completedAt(LocalDateTime.now())
+                .build();
+    }
+
+    static OrderCancelledEvent orderCancelled() {
+        return OrderCancelledEvent.builder()
+                .orderId(IDS.nextId())
+                .userId(48_213L)
+                .cancelledAt(LocalDateTime.now())
+                .build();
+    }
+
+    static InventoryChangedEvent inventoryChanged() {
+        return InventoryChangedEvent.builder()
+                .productId(10_417L)
+                .availableQuantity(382)
+                .reservedQuantity(17)
+                .changedAt(LocalDateTime.now())
+                .build();
+    }
+
+    private static List<OrderItemDto> orderItems(int items) {
+        List<OrderItemDto> orderItems = new ArrayList<>(items);
+        for (int i = 0; i < items; i++) {
+            orderItems.add(OrderItemDto.builder()
+                    .productId(10_000L + i * 37)
+                    .quantity(1 + i % 3)
+                    .price(new BigDecimal("49.99").add(BigDecimal.valueOf(i * 5)))
+                    .build());
+        }
+        return orderItems;
+    }
+
+    private static BigDecimal total(List<OrderItemDto> orderItems) {
+        return orderItems.stream()
+                .map(item -> item.getPrice().multiply(BigDecimal.valueOf(item.getQuantity())))
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+}
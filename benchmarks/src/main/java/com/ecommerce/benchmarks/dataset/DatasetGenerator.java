@@ -0,0 +1,337 @@
+package com.ecommerce.benchmarks.dataset;
+
+import com.ecommerce.benchmarks.dataset.DatabaseWriter.Format;
+import com.ecommerce.benchmarks.dataset.DatabaseWriter.TableWriter;
+import com.ecommerce.common.id.SnowflakeIdGenerator;
+import com.ecommerce.order.entity.Order.OrderStatus;
+import com.ecommerce.payment.entity.Payment.PaymentStatus;
+import org.springframework.security.crypto.bcrypt.BCrypt;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Writes a synthetic data set for every service database: products with their inventory,
+ * users, orders with their items, and the payments of orders that reached payment. Row counts
+ * go to tens of millions; rows are streamed, and only product prices are held in memory.
+ *
+ * <p>The data is skewed the way a storefront's is: categories, product popularity and how
+ * often users order all follow Zipf distributions, with the most popular ranks scattered over
+ * the ID space rather than at its start. Prices are log-normal around each category's base.
+ * Orders are spread over 2025 in creation order with Snowflake IDs, as the order and payment
+ * services issue them, and the newest are still in flight. Every user's password is
+ * {@value #PASSWORD}.
+ *
+ * <p>Everything is drawn from {@code seed}, and each database from its own stream, so the same
+ * arguments give the same files and changing the order count leaves products and users alone.
+ * Load the scripts into empty tables created by the services, with
+ * {@code mysql --local-infile=1 < <database>.sql}.
+ *
+ * <p>Usage: {@code DatasetGenerator <output-dir> [products=100000] [users=200000] [orders=1000000] [sql|tsv] [seed=42]}
+ */
+public class DatasetGenerator {
+
+    static final String PASSWORD = "password123";
+
+    private static final double CATEGORY_SKEW = 0.8;
+    private static final double PRODUCT_SKEW = 1.05;
+    private static final double USER_SKEW = 0.7;
+    private static final long SPAN_MILLIS = TimeUnit.DAYS.toMillis(365);
+    /** Share of the newest orders whose saga is still running. */
+    private static final double IN_FLIGHT_SHARE = 0.002;
+    private static final int MAX_ITEMS = 8;
+    private static final char[] CROCKFORD_BASE32 = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+    /** A fixed salt keeps the users file identical between runs. */
+    private static final String PASSWORD_SALT = "$2a$10$Fq1n0dCkNvJb7aS4Xy2ZpO";
+
+    private static final Category[] CATEGORIES = {
+            new Category("Electronics", 300, "Smartphone", "Speaker", "Camera", "Projector", "E-Reader"),
+            new Category("Accessories", 40, "Charger", "Cable", "Case", "Stand", "Power Bank", "Mouse", "Keyboard"),
+            new Category("Computers", 1200, "Laptop", "Desktop", "Mini PC", "Workstation", "Chromebook"),
+            new Category("Gaming", 250, "Console", "Controller", "Headset", "Racing Wheel", "Gaming Chair"),
+            new Category("Audio", 150, "Headphones", "Earbuds", "Soundbar", "Turntable", "Amplifier"),
+            new Category("Wearables", 200, "Smartwatch", "Fitness Tracker", "Smart Ring", "Sport Band"),
+            new Category("Monitors", 400, "Monitor", "Ultrawide Monitor", "Portable Display"),
+            new Category("Tablets", 550, "Tablet", "Drawing Tablet", "Kids Tablet"),
+            new Category("Smart Home", 90, "Smart Bulb", "Smart Plug", "Doorbell", "Thermostat", "Hub"),
+            new Category("Networking", 120, "Router", "Mesh System", "Switch", "Access Point", "Modem"),
+            new Category("Storage", 110, "SSD", "Hard Drive", "Memory Card", "USB Drive", "NAS"),
+            new Category("Cameras", 800, "Mirrorless Camera", "Action Camera", "Lens", "Drone", "Tripod")
+    };
+    private static final String[] BRANDS = {
+            "Apex", "Nimbus", "Vertex", "Lumen", "Orbit", "Pulse", "Quanta", "Helix", "Nova", "Zenith",
+            "Arcadia", "Ember", "Kestrel", "Solace", "Tundra", "Vireo", "Cobalt", "Meridian", "Onyx", "Sable"
+    };
+    private static final String[] MODIFIERS = {
+            "Pro", "Max", "Lite", "Ultra", "Mini", "Plus", "Air", "Neo", "Elite", "Go", "Core", "Studio"
+    };
+    private static final String[] FEATURES = {
+            "USB-C charging", "a two-year warranty", "wireless connectivity", "an aluminum body",
+            "fast charging", "low-latency mode", "an OLED display", "noise cancellation",
+            "all-day battery life", "a water-resistant design", "Wi-Fi 6E", "a recycled plastic shell"
+    };
+    private static final String[] FIRST_NAMES = {
+            "James", "Mary", "Wei", "Aisha", "Carlos", "Priya", "Olivia", "Liam", "Yuki", "Fatima",
+            "Noah", "Sofia", "Mateo", "Amara", "Ivan", "Chloe", "Arjun", "Elena", "Kwame", "Hana",
+            "Lucas", "Mia", "Omar", "Zoe", "Diego", "Ingrid", "Ravi", "Leila", "Samuel", "Nora"
+    };
+    private static final String[] LAST_NAMES = {
+            "Smith", "Garcia", "Chen", "Okafor", "Patel", "Kim", "Müller", "Rossi", "Silva", "Nguyen",
+            "Johnson", "Kowalski", "Haddad", "Tanaka", "Ivanova", "Brown", "Dubois", "Singh", "Larsen", "Lopez",
+            "Mensah", "O'Brien", "Novak", "Sato", "Ahmed", "Walker", "Costa", "Yilmaz", "Fischer", "Reyes"
+    };
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("Usage: DatasetGenerator <output-dir> [products=100000] [users=200000] "
+                    + "[orders=1000000] [sql|tsv] [seed=42]");
+            System.exit(1);
+        }
+        Path output = Path.of(args[0]);
+        int products = args.length > 1 ? Integer.parseInt(args[1]) : 100_000;
+        int users = args.length > 2 ? Integer.parseInt(args[2]) : 200_000;
+        long orders = args.length > 3 ? Long.parseLong(args[3]) : 1_000_000;
+        Format format = args.length > 4 ? Format.valueOf(args[4].toUpperCase(Locale.ROOT)) : Format.SQL;
+        long seed = args.length > 5 ? Long.parseLong(args[5]) : 42;
+
+        long start = System.nanoTime();
+        long rows = generate(output, products, users, orders, format, seed);
+        long bytes;
+        try (Stream<Path> files = Files.walk(output)) {
+            bytes = files.filter(Files::isRegularFile).mapToLong(file -> file.toFile().length()).sum();
+        }
+        System.out.printf("Wrote %d rows to %s (%d bytes) in %d s%n", rows, output, bytes,
+                TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start));
+    }
+
+    /**
+     * @return rows written across all tables
+     */
+    static long generate(Path output, int products, int users, long orders, Format format, long seed)
+            throws IOException {
+        Files.createDirectories(output);
+        SplittableRandom random = new SplittableRandom(seed);
+        SplittableRandom productRandom = random.split();
+        SplittableRandom userRandom = random.split();
+        SplittableRandom orderRandom = random.split();
+
+        int[] priceCents = writeProducts(output, products, format, productRandom);
+        long rows = 2L * products;
+        rows += writeUsers(output, users, format, userRandom);
+        rows += writeOrders(output, orders, priceCents, users, format, orderRandom);
+        return rows;
+    }
+
+    /**
+     * Writes {@code products} and their {@code inventory} rows.
+     *
+     * @return each product's price in cents, indexed by ID
+     */
+    private static int[] writeProducts(Path output, int products, Format format, SplittableRandom random)
+            throws IOException {
+        int[] priceCents = new int[products + 1];
+        ZipfSampler categories = new ZipfSampler(CATEGORIES.length, CATEGORY_SKEW);
+        try (DatabaseWriter productDb = new DatabaseWriter(output, "product_db", format);
+             DatabaseWriter inventoryDb = new DatabaseWriter(output, "inventory_db", format)) {
+            TableWriter productTable = productDb.table("products", "id", "name", "description", "price", "category", "stock");
+            TableWriter inventoryTable = inventoryDb.table("inventory", "id", "product_id", "available_quantity", "reserved_quantity");
+            for (int id = 1; id <= products; id++) {
+                Category category = CATEGORIES[categories.sample(random) - 1];
+                String brand = pick(BRANDS, random);
+                String noun = pick(category.nouns(), random);
+                String modifier = pick(MODIFIERS, random);
+                String name = brand + " " + noun + " " + modifier + " " + (char) ('A' + random.nextInt(26))
+                        + (100 + random.nextInt(900));
+                String description = modifier + " " + noun.toLowerCase(Locale.ROOT) + " by " + brand + " with "
+                        + pick(FEATURES, random) + " and " + pick(FEATURES, random);
+                double dollars = category.basePrice() * Math.exp(0.6 * random.nextGaussian());
+                priceCents[id] = (int) Math.max(1, Math.round(dollars)) * 100 - 1;
+                int stock = random.nextDouble() < 0.03 ? 0 : random.nextInt(1_000);
+                int reserved = stock > 0 && random.nextDouble() < 0.1 ? random.nextInt(Math.min(stock, 20)) : 0;
+
+                productTable.row(id, name, description, BigDecimal.valueOf(priceCents[id], 2), category.name(), stock);
+                inventoryTable.row(id, id, stock - reserved, reserved);
+            }
+        }
+        return priceCents;
+    }
+
+    private static long writeUsers(Path output, int users, Format format, SplittableRandom random) throws IOException {
+        String password = BCrypt.hashpw(PASSWORD, PASSWORD_SALT);
+        try (DatabaseWriter authDb = new DatabaseWriter(output, "auth_db", format)) {
+            TableWriter userTable = authDb.table("users", "id", "name", "email", "password");
+            for (int id = 1; id <= users; id++) {
+                String first = pick(FIRST_NAMES, random);
+                String last = pick(LAST_NAMES, random);
+                String email = (first + "." + last).toLowerCase(Locale.ROOT).replaceAll("[^a-z.]", "")
+                        + "." + id + "@example.com";
+                userTable.row(id, first + " " + last, email, password);
+            }
+            return userTable.rows;
+        }
+    }
+
+    /**
+     * Writes {@code orders} with their {@code order_items}, and {@code payments} for the orders
+     * that reached payment.
+     */
+    private static long writeOrders(Path output, long orders, int[] priceCents, int users, Format format,
+                                    SplittableRandom random) throws IOException {
+        int products = priceCents.length - 1;
+        ZipfSampler productRanks = new ZipfSampler(products, PRODUCT_SKEW);
+        ZipfSampler userRanks = new ZipfSampler(users, USER_SKEW);
+        long productStride = stride(products);
+        long userStride = stride(users);
+        IdSequence orderIds = new IdSequence();
+        IdSequence itemIds = new IdSequence();
+        IdSequence paymentIds = new IdSequence();
+        long inFlightFrom = orders - Math.max(1, (long) (orders * IN_FLIGHT_SHARE));
+
+        try (DatabaseWriter orderDb = new DatabaseWriter(output, "order_db", format);
+             DatabaseWriter paymentDb = new DatabaseWriter(output, "payment_db", format)) {
+            TableWriter orderTable = orderDb.table("orders", "id", "user_id", "total_amount", "status", "created_at", "updated_at");
+            TableWriter itemTable = orderDb.table("order_items", "id", "order_id", "product_id", "quantity", "price");
+            TableWriter paymentTable = paymentDb.table("payments", "id", "order_id", "user_id", "amount", "status",
+                    "transaction_id", "message", "created_at", "updated_at");
+            for (long i = 0; i < orders; i++) {
+                long createdMillis = SnowflakeIdGenerator.EPOCH_MILLIS + (long) ((i + 1.0) / orders * SPAN_MILLIS);
+                long orderId = orderIds.next(createdMillis);
+                long userId = scatter(userRanks.sample(random), users, userStride);
+                OrderStatus status = i >= inFlightFrom ? inFlightStatus(random) : settledStatus(random);
+
+                long totalCents = 0;
+                int items = 1;
+                while (items < MAX_ITEMS && random.nextDouble() < 0.45) {
+                    items++;
+                }
+                for (int item = 0; item < items; item++) {
+                    int productId = (int) scatter(productRanks.sample(random), products, productStride);
+                    int quantity = random.nextDouble() < 0.8 ? 1 : 2 + random.nextInt(3);
+                    totalCents += (long) priceCents[productId] * quantity;
+                    itemTable.row(itemIds.next(createdMillis), orderId, productId, quantity,
+                            BigDecimal.valueOf(priceCents[productId], 2));
+                }
+                BigDecimal total = BigDecimal.valueOf(totalCents, 2);
+
+                long updatedMillis = createdMillis + switch (status) {
+                    case COMPLETED, FAILED -> 1_500 + random.nextInt(3_000);
+                    case CANCELLED, REJECTED -> TimeUnit.MINUTES.toMillis(5 + random.nextInt(24 * 60));
+                    default -> random.nextInt(1_000);
+                };
+                orderTable.row(orderId, userId, total, status, timestamp(createdMillis), timestamp(updatedMillis));
+
+                if (status == OrderStatus.COMPLETED || status == OrderStatus.FAILED
+                        || status == OrderStatus.PAYMENT_PROCESSING) {
+                    long paidMillis = createdMillis + 1_000 + random.nextInt(500);
+                    long paymentId = paymentIds.next(paidMillis);
+                    PaymentStatus paymentStatus = switch (status) {
+                        case COMPLETED -> PaymentStatus.COMPLETED;
+                        case FAILED -> PaymentStatus.FAILED;
+                        default -> PaymentStatus.PROCESSING;
+                    };
+                    String transactionId = status == OrderStatus.COMPLETED ? "TXN-" + base32(paymentId) : null;
+                    String message = switch (status) {
+                        case COMPLETED -> "Payment processed successfully";
+                        case FAILED -> "Payment declined by gateway";
+                        default -> null;
+                    };
+                    paymentTable.row(paymentId, orderId, userId, total, paymentStatus, transactionId, message,
+                            timestamp(paidMillis), timestamp(Math.max(paidMillis, updatedMillis)));
+                }
+                if ((i + 1) % 1_000_000 == 0) {
+                    System.out.printf("Generated %d of %d orders%n", i + 1, orders);
+                }
+            }
+            return orderTable.rows + itemTable.rows + paymentTable.rows;
+        }
+    }
+
+    private static OrderStatus settledStatus(SplittableRandom random) {
+        double draw = random.nextDouble();
+        if (draw < 0.90) {
+            return OrderStatus.COMPLETED;
+        }
+        if (draw < 0.94) {
+            return OrderStatus.CANCELLED;
+        }
+        return draw < 0.97 ? OrderStatus.FAILED : OrderStatus.REJECTED;
+    }
+
+    private static OrderStatus inFlightStatus(SplittableRandom random) {
+        return switch (random.nextInt(4)) {
+            case 0 -> OrderStatus.AWAITING_APPROVAL;
+            case 1 -> OrderStatus.PENDING;
+            case 2 -> OrderStatus.INVENTORY_RESERVED;
+            default -> OrderStatus.PAYMENT_PROCESSING;
+        };
+    }
+
+    /**
+     * Maps popularity rank 1..n onto an ID 1..n one-to-one, so popular rows are spread across
+     * the table instead of sitting on its first pages.
+     */
+    private static long scatter(long rank, long n, long stride) {
+        return rank * stride % n + 1;
+    }
+
+    /**
+     * A stride coprime with {@code n}, which makes {@link #scatter} a permutation.
+     */
+    private static long stride(long n) {
+        long stride = 2_654_435_761L % n;
+        while (n > 1 && (stride == 0 || gcd(stride, n) != 1)) {
+            stride++;
+        }
+        return stride;
+    }
+
+    private static long gcd(long a, long b) {
+        return b == 0 ? a : gcd(b, a % b);
+    }
+
+    private static String base32(long id) {
+        char[] chars = new char[11];
+        for (int i = chars.length - 1; i >= 0; i--) {
+            chars[i] = CROCKFORD_BASE32[(int) (id & 31)];
+            id >>>= 5;
+        }
+        return new String(chars);
+    }
+
+    private static LocalDateTime timestamp(long epochMillis) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(epochMillis, 1000),
+                (int) Math.floorMod(epochMillis, 1000) * 1_000_000, ZoneOffset.UTC);
+    }
+
+    private static String pick(String[] values, SplittableRandom random) {
+        return values[random.nextInt(values.length)];
+    }
+
+    private record Category(String name, double basePrice, String... nouns) {
+    }
+
+    /**
+     * Snowflake IDs for node 0 at given timestamps, strictly increasing like the services'
+     * generators: a timestamp at or before the last one takes the next sequence number.
+     */
+    private static final class IdSequence {
+
+        private static final int SEQUENCE_BITS = SnowflakeIdGenerator.SEQUENCE_BITS;
+        private static final int TIMESTAMP_SHIFT = SnowflakeIdGenerator.NODE_BITS + SEQUENCE_BITS;
+
+        private long last = -1;
+
+        long next(long epochMillis) {
+            last = Math.max((epochMillis - SnowflakeIdGenerator.EPOCH_MILLIS) << SEQUENCE_BITS, last + 1);
+            return (last >>> SEQUENCE_BITS) << TIMESTAMP_SHIFT | (last & ((1L << SEQUENCE_BITS) - 1));
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.ecommerce.benchmarks.dataset;
+
+import java.util.SplittableRandom;
+
+/**
+ * Draws ranks from 1 to {@code n} with probability proportional to {@code 1 / rank^exponent},
+ * by rejection-inversion (Hörmann and Derflinger, 1996): constant time and memory per draw, so
+ * skewing over tens of millions of products needs no cumulative table.
+ */
+final class ZipfSampler {
+
+    private final int n;
+    private final double exponent;
+    private final double hIntegralX1;
+    private final double hIntegralN;
+    private final double s;
+
+    ZipfSampler(int n, double exponent) {
+        if (n < 1) {
+            throw new IllegalArgumentException("Need at least one element, was " + n);
+        }
+        if (exponent <= 0) {
+            throw new IllegalArgumentException("Exponent must be positive, was " + exponent);
+        }
+        this.n = n;
+        this.exponent = exponent;
+        this.hIntegralX1 = hIntegral(1.5) - 1;
+        this.hIntegralN = hIntegral(n + 0.5);
+        this.s = 2 - hIntegralInverse(hIntegral(2.5) - h(2));
+    }
+
+    int sample(SplittableRandom random) {
+        while (true) {
+            double u = hIntegralN + random.nextDouble() * (hIntegralX1 - hIntegralN);
+            double x = hIntegralInverse(u);
+            int k = (int) (x + 0.5);
+            if (k < 1) {
+                k = 1;
+            } else if (k > n) {
+                k = n;
+            }
+            if (k - x <= s || u >= hIntegral(k + 0.5) - h(k)) {
+                return k;
+            }
+        }
+    }
+
+    private double hIntegral(double x) {
+        double logX = Math.log(x);
+        return expm1OverX((1 - exponent) * logX) * logX;
+    }
+
+    private double h(double x) {
+        return Math.exp(-exponent * Math.log(x));
+    }
+
+    private double hIntegralInverse(double x) {
+        double t = Math.max(x * (1 - exponent), -1);
+        return Math.exp(log1pOverX(t) * x);
+    }
+
+    private static double log1pOverX(double x) {
+        return Math.abs(x) > 1e-8 ? Math.log1p(x) / x : 1 - x * (0.5 - x * (1.0 / 3 - 0.25 * x));
+    }
+
+    private static double expm1OverX(double x) {
+        return Math.abs(x) > 1e-8 ? Math.expm1(x) / x : 1 + x * 0.5 * (1 + x / 3 * (1 + 0.25 * x));
+    }
+}
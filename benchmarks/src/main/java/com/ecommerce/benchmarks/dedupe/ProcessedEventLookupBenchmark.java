@@ -0,0 +1,84 @@
+package com.ecommerce.benchmarks.dedupe;
+
+import com.ecommerce.common.dedupe.ProcessedEventFilter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lookups per second against the in-memory front of the processed-event store once
+ * {@code recordedEvents} keys have been recorded. First deliveries should be answered
+ * {@code UNSEEN} without a query; the share that is not is the Bloom filter's false
+ * positive rate, printed after setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@Threads(4)
+public class ProcessedEventLookupBenchmark {
+
+    private static final int RECENT_CAPACITY = 100_000;
+
+    @Param({"100000000"})
+    private long recordedEvents;
+
+    private ProcessedEventFilter filter;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        filter = new ProcessedEventFilter(recordedEvents, 0.01, RECENT_CAPACITY);
+        for (long i = 0; i < recordedEvents - RECENT_CAPACITY; i++) {
+            filter.recordSeen(key(i));
+        }
+        for (long i = Math.max(0, recordedEvents - RECENT_CAPACITY); i < recordedEvents; i++) {
+            filter.recordProcessed(key(i));
+        }
+
+        int samples = 1_000_000;
+        int falsePositives = 0;
+        for (long i = recordedEvents; i < recordedEvents + samples; i++) {
+            if (filter.lookup(key(i)) != ProcessedEventFilter.Answer.UNSEEN) {
+                falsePositives++;
+            }
+        }
+        System.out.printf("%nrecorded=%d false positive rate=%.4f%n", recordedEvents, (double) falsePositives / samples);
+    }
+
+    @Benchmark
+    public ProcessedEventFilter.Answer firstDelivery() {
+        long unseen = recordedEvents + ThreadLocalRandom.current().nextLong(recordedEvents);
+        return filter.lookup(key(unseen));
+    }
+
+    @Benchmark
+    public ProcessedEventFilter.Answer recentRedelivery() {
+        long recent = recordedEvents - 1 - ThreadLocalRandom.current().nextInt(RECENT_CAPACITY);
+        return filter.lookup(key(recent));
+    }
+
+    @Benchmark
+    public ProcessedEventFilter.Answer olderRedelivery() {
+        long older = ThreadLocalRandom.current().nextLong(Math.max(1, recordedEvents - RECENT_CAPACITY));
+        return filter.lookup(key(older));
+    }
+
+    private static String key(long orderId) {
+        return "order-created:" + orderId;
+    }
+}
@@ -0,0 +1,72 @@
+package com.ecommerce.benchmarks.inventory;
+
+import com.ecommerce.benchmarks.support.ServiceContexts;
+import com.ecommerce.inventory.InventoryServiceApplication;
+import com.ecommerce.inventory.dto.BulkStockUploadResponse;
+import com.ecommerce.inventory.service.BulkStockUploadService;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Streams synthetic stock files through the bulk upload service three times: into an empty
+ * table (all rows created), the same file again (all unchanged) and a file with new
+ * quantities (almost all updated). An unmeasured create-and-update round warms up the JIT
+ * and the database first. Fails if any pass stays below 50,000 rows/s.
+ *
+ * <p>Usage: {@code BulkStockUploadBenchmark [rows=500000] [csv|ndjson]}
+ */
+public class BulkStockUploadBenchmark {
+
+    private static final double TARGET_ROWS_PER_SECOND = 50_000;
+
+    public static void main(String[] args) throws Exception {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 500_000;
+        boolean ndjson = args.length > 1 && "ndjson".equals(args[1]);
+        BulkStockUploadService.Format format = ndjson ? BulkStockUploadService.Format.NDJSON : BulkStockUploadService.Format.CSV;
+
+        Path initial = Files.createTempFile("stock-initial", ndjson ? ".ndjson" : ".csv");
+        Path restock = Files.createTempFile("stock-restock", ndjson ? ".ndjson" : ".csv");
+        StockFileGenerator.generate(initial, rows, ndjson, 42);
+        StockFileGenerator.generate(restock, rows, ndjson, 7);
+
+        try (ConfigurableApplicationContext context = ServiceContexts.start(
+                InventoryServiceApplication.class, "inventory_bulk_upload", 4,
+                "inventory.change-events.enabled=false")) {
+            BulkStockUploadService uploadService = context.getBean(BulkStockUploadService.class);
+            upload(uploadService, initial, format);
+            upload(uploadService, restock, format);
+            context.getBean(JdbcTemplate.class).update("DELETE FROM inventory");
+
+            boolean belowTarget = false;
+            for (Pass pass : new Pass[]{new Pass("create", initial), new Pass("unchanged", initial), new Pass("update", restock)}) {
+                BulkStockUploadResponse response = upload(uploadService, pass.file(), format);
+                double rowsPerSecond = response.getRowsRead() * 1000.0 / Math.max(1, response.getElapsedMillis());
+                System.out.printf("pass=%s format=%s rows=%d created=%d updated=%d unchanged=%d rejected=%d elapsed=%dms throughput=%.0f rows/s%n",
+                        pass.name(), format, response.getRowsRead(), response.getCreated(), response.getUpdated(),
+                        response.getUnchanged(), response.getRejected(), response.getElapsedMillis(), rowsPerSecond);
+                belowTarget |= rowsPerSecond < TARGET_ROWS_PER_SECOND;
+            }
+            if (belowTarget) {
+                System.err.printf("Bulk upload below %.0f rows/s%n", TARGET_ROWS_PER_SECOND);
+                System.exit(1);
+            }
+        } finally {
+            Files.deleteIfExists(initial);
+            Files.deleteIfExists(restock);
+        }
+    }
+
+    private static BulkStockUploadResponse upload(BulkStockUploadService uploadService, Path file,
+                                                  BulkStockUploadService.Format format) throws Exception {
+        try (InputStream input = Files.newInputStream(file)) {
+            return uploadService.upload(input, format);
+        }
+    }
+
+    private record Pass(String name, Path file) {
+    }
+}
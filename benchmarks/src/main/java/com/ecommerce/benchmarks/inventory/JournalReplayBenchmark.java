@@ -0,0 +1,114 @@
+package com.ecommerce.benchmarks.inventory;
+
+import com.ecommerce.benchmarks.support.ServiceContexts;
+import com.ecommerce.inventory.InventoryServiceApplication;
+import com.ecommerce.inventory.dto.JournalVerificationResponse;
+import com.ecommerce.inventory.service.BulkStockUploadService;
+import com.ecommerce.inventory.service.InventoryJournalReplayer;
+import com.ecommerce.inventory.service.InventoryService;
+import com.ecommerce.inventory.service.InventorySnapshotter;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Loads a catalogue through the bulk upload, runs concurrent reservations, releases and
+ * restocks, snapshots the journal and runs as many again. Then times rebuilding the stock
+ * state from the snapshot, and replaying the journal from the latest and from the baseline
+ * snapshot against the inventory table. Fails if either replay finds a mismatch.
+ *
+ * <p>Usage: {@code JournalReplayBenchmark [products=500000] [operations=200000] [threads=8]}
+ */
+public class JournalReplayBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int products = args.length > 0 ? Integer.parseInt(args[0]) : 500_000;
+        int operations = args.length > 1 ? Integer.parseInt(args[1]) : 200_000;
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : 8;
+
+        Path stockFile = Files.createTempFile("stock-journal", ".csv");
+        StockFileGenerator.generate(stockFile, products, false, 42);
+
+        try (ConfigurableApplicationContext context = ServiceContexts.start(
+                InventoryServiceApplication.class, "inventory_journal_replay", threads,
+                "inventory.change-events.enabled=false",
+                "inventory.journal.snapshot-lag=PT0S",
+                "inventory.journal.snapshot-interval-ms=3600000")) {
+            try (InputStream input = Files.newInputStream(stockFile)) {
+                context.getBean(BulkStockUploadService.class).upload(input, BulkStockUploadService.Format.CSV);
+            }
+            InventoryService inventoryService = context.getBean(InventoryService.class);
+            InventorySnapshotter snapshotter = context.getBean(InventorySnapshotter.class);
+            InventoryJournalReplayer replayer = context.getBean(InventoryJournalReplayer.class);
+
+            runOperations(inventoryService, products, operations / 2, threads);
+            long snapshotStart = System.nanoTime();
+            long snapshotSequence = snapshotter.takeSnapshot();
+            System.out.printf("snapshot sequence=%d elapsed=%dms%n", snapshotSequence, (System.nanoTime() - snapshotStart) / 1_000_000);
+            runOperations(inventoryService, products, operations - operations / 2, threads);
+
+            long rebuildStart = System.nanoTime();
+            InventoryJournalReplayer.Replay replay = replayer.rebuild();
+            System.out.printf("rebuild products=%d entries=%d elapsed=%dms%n",
+                    replay.stock().size(), replay.entriesReplayed(), (System.nanoTime() - rebuildStart) / 1_000_000);
+
+            boolean mismatched = false;
+            for (boolean fromOldest : new boolean[]{false, true}) {
+                JournalVerificationResponse response = replayer.verify(fromOldest);
+                System.out.printf("verify from=%s snapshot=%d lastSequence=%d entries=%d products=%d mismatches=%d elapsed=%dms%n",
+                        fromOldest ? "oldest" : "latest", response.getSnapshotSequence(), response.getLastSequence(),
+                        response.getEntriesReplayed(), response.getProductsChecked(), response.getMismatchCount(),
+                        response.getElapsedMillis());
+                mismatched |= response.getMismatchCount() > 0;
+            }
+            if (mismatched) {
+                System.err.println("Journal replay does not match the inventory table");
+                System.exit(1);
+            }
+        } finally {
+            Files.deleteIfExists(stockFile);
+        }
+    }
+
+    private static void runOperations(InventoryService inventoryService, int products, int operations, int threads)
+            throws Exception {
+        long startNanos = System.nanoTime();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<?>> futures = new ArrayList<>(threads);
+        for (int t = 0; t < threads; t++) {
+            int share = operations / threads + (t < operations % threads ? 1 : 0);
+            futures.add(executor.submit(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < share; i++) {
+                    long productId = 1 + random.nextInt(products);
+                    try {
+                        int roll = random.nextInt(10);
+                        if (roll < 6) {
+                            inventoryService.reserveInventory(productId, 1 + random.nextInt(3));
+                        } else if (roll < 9) {
+                            inventoryService.releaseInventory(productId, 1);
+                        } else {
+                            inventoryService.updateInventory(productId, random.nextInt(1_000));
+                        }
+                    } catch (RuntimeException ex) {
+                        // Short, nothing reserved or unknown product: rejected without a journal entry
+                    }
+                }
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        System.out.printf("operations=%d threads=%d elapsed=%dms%n", operations, threads, (System.nanoTime() - startNanos) / 1_000_000);
+    }
+}
@@ -0,0 +1,103 @@
+package com.ecommerce.benchmarks.inventory;
+
+import com.ecommerce.benchmarks.support.ServiceContexts;
+import com.ecommerce.inventory.InventoryServiceApplication;
+import com.ecommerce.inventory.entity.Inventory;
+import com.ecommerce.inventory.repository.InventoryRepository;
+import com.ecommerce.inventory.service.HotSkuLedger;
+import com.ecommerce.inventory.service.InventoryService;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hammers a single SKU with concurrent one-unit reservations until its stock runs out and
+ * checks that no unit was sold twice. Mode {@code db} reserves through conditional row
+ * updates; mode {@code hot-sku} serves the SKU from the in-memory hot-SKU ledger and checks
+ * the table after its write-behind flush.
+ *
+ * <p>Usage: {@code ReservationContentionBenchmark [threads=64] [stock=20000] [db|hot-sku]}
+ */
+public class ReservationContentionBenchmark {
+
+    private static final long PRODUCT_ID = 1L;
+
+    public static void main(String[] args) throws Exception {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : 64;
+        int stock = args.length > 1 ? Integer.parseInt(args[1]) : 20_000;
+        boolean hotSku = args.length > 2 && "hot-sku".equals(args[2]);
+
+        Path journalDir = Files.createTempDirectory("hot-sku-journal");
+        try (ConfigurableApplicationContext context = ServiceContexts.start(
+                InventoryServiceApplication.class, "inventory_contention", threads,
+                "inventory.hot-sku.enabled=" + hotSku,
+                "inventory.hot-sku.product-ids=" + PRODUCT_ID,
+                "inventory.hot-sku.journal-dir=" + journalDir,
+                "inventory.change-events.enabled=false")) {
+            InventoryService inventoryService = context.getBean(InventoryService.class);
+            InventoryRepository inventoryRepository = context.getBean(InventoryRepository.class);
+            HotSkuLedger hotSkuLedger = context.getBean(HotSkuLedger.class);
+            if (hotSku) {
+                // The ledger loads hot SKUs at startup, so restart it once the row exists
+                hotSkuLedger.stop();
+                inventoryService.createInventory(PRODUCT_ID, stock);
+                hotSkuLedger.start();
+            } else {
+                inventoryService.createInventory(PRODUCT_ID, stock);
+            }
+
+            AtomicLong reserved = new AtomicLong();
+            AtomicLong rejected = new AtomicLong();
+            CountDownLatch start = new CountDownLatch(1);
+            ExecutorService pool = Executors.newFixedThreadPool(threads);
+            List<Future<?>> workers = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                workers.add(pool.submit(() -> {
+                    start.await();
+                    while (true) {
+                        try {
+                            inventoryService.reserveInventory(PRODUCT_ID, 1);
+                            reserved.incrementAndGet();
+                        } catch (IllegalStateException soldOut) {
+                            rejected.incrementAndGet();
+                            return null;
+                        }
+                    }
+                }));
+            }
+
+            long startNanos = System.nanoTime();
+            start.countDown();
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+            long elapsedNanos = System.nanoTime() - startNanos;
+            pool.shutdown();
+
+            hotSkuLedger.flush();
+            Inventory result = inventoryRepository.findByProductId(PRODUCT_ID).orElseThrow();
+            double seconds = elapsedNanos / 1_000_000_000.0;
+            System.out.printf("mode=%s threads=%d stock=%d reserved=%d rejected=%d elapsed=%.2fs throughput=%.0f reservations/s%n",
+                    hotSku ? "hot-sku" : "db", threads, stock, reserved.get(), rejected.get(), seconds,
+                    reserved.get() / seconds);
+            System.out.printf("final available=%d reserved=%d%n",
+                    result.getAvailableQuantity(), result.getReservedQuantity());
+
+            boolean consistent = reserved.get() == stock
+                    && result.getAvailableQuantity() == 0
+                    && result.getReservedQuantity() == stock;
+            if (!consistent) {
+                System.err.println("Stock oversold or lost under contention");
+                System.exit(1);
+            }
+        }
+    }
+}
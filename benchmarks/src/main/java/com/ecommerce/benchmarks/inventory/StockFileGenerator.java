@@ -0,0 +1,48 @@
+package com.ecommerce.benchmarks.inventory;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+
+/**
+ * Writes a synthetic warehouse stock file for the bulk upload endpoint: one row per product
+ * ID from 1 to {@code rows} with a random quantity drawn from {@code seed}.
+ *
+ * <p>Usage: {@code StockFileGenerator <output> [rows=500000] [csv|ndjson] [seed=42]}
+ */
+public class StockFileGenerator {
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("Usage: StockFileGenerator <output> [rows=500000] [csv|ndjson] [seed=42]");
+            System.exit(1);
+        }
+        Path output = Path.of(args[0]);
+        int rows = args.length > 1 ? Integer.parseInt(args[1]) : 500_000;
+        boolean ndjson = args.length > 2 && "ndjson".equals(args[2]);
+        long seed = args.length > 3 ? Long.parseLong(args[3]) : 42;
+
+        generate(output, rows, ndjson, seed);
+        System.out.printf("Wrote %d rows to %s (%d bytes)%n", rows, output, Files.size(output));
+    }
+
+    public static void generate(Path output, int rows, boolean ndjson, long seed) throws IOException {
+        SplittableRandom random = new SplittableRandom(seed);
+        try (BufferedWriter writer = Files.newBufferedWriter(output, StandardCharsets.UTF_8)) {
+            if (!ndjson) {
+                writer.write("productId,quantity\n");
+            }
+            for (long productId = 1; productId <= rows; productId++) {
+                int quantity = random.nextInt(1_000);
+                if (ndjson) {
+                    writer.write("{\"productId\":" + productId + ",\"quantity\":" + quantity + "}\n");
+                } else {
+                    writer.write(productId + "," + quantity + "\n");
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.ecommerce.benchmarks.inventory;
+
+import com.ecommerce.inventory.service.StripedStockCounter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reserve-and-release throughput of the hot-SKU counter with every thread on one SKU.
+ * {@code stripes=1} is equivalent to a single CAS-updated stock word.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(64)
+public class StripedStockCounterBenchmark {
+
+    @Param({"1", "16", "64"})
+    private int stripes;
+
+    private StripedStockCounter counter;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        counter = new StripedStockCounter(1_000_000, stripes);
+    }
+
+    @Benchmark
+    public boolean reserveAndRelease() {
+        boolean reserved = counter.tryReserve(1);
+        if (reserved) {
+            counter.release(1);
+        }
+        return reserved;
+    }
+}
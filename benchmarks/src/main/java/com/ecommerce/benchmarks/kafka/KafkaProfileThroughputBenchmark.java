@@ -0,0 +1,184 @@
+package com.ecommerce.benchmarks.kafka;
+
+import com.ecommerce.common.codec.EventDeserializer;
+import com.ecommerce.common.codec.EventSerializer;
+import com.ecommerce.common.event.OrderCreatedEvent;
+import com.ecommerce.common.event.OrderCreatedEvent.OrderItemDto;
+import com.ecommerce.common.id.SnowflakeIdGenerator;
+import com.ecommerce.common.kafka.KafkaEventSender;
+import com.ecommerce.common.kafka.KafkaProfile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Runs each {@link KafkaProfile} against an embedded broker: sends {@code messages} order
+ * events through a {@link KafkaEventSender} as fast as it accepts them, consumes them back,
+ * and then times {@code roundTrips} single events from send to receipt. Fails if any send
+ * fails or any event is not received.
+ *
+ * <p>Usage: {@code KafkaProfileThroughputBenchmark [messages=200000] [roundTrips=200] [profiles=low-latency,throughput]}
+ */
+public class KafkaProfileThroughputBenchmark {
+
+    private static final int PARTITIONS = 3;
+    private static final Duration POLL_TIMEOUT = Duration.ofMillis(500);
+
+    public static void main(String[] args) throws Exception {
+        int messages = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        int roundTrips = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+        List<KafkaProfile> profiles = args.length > 2
+                ? Arrays.stream(args[2].split(",")).map(KafkaProfile::of).toList()
+                : List.of(KafkaProfile.values());
+
+        String[] topics = profiles.stream().flatMap(p -> List.of(topic(p, "bulk"), topic(p, "ping")).stream())
+                .toArray(String[]::new);
+        EmbeddedKafkaKraftBroker broker = new EmbeddedKafkaKraftBroker(1, PARTITIONS, topics);
+        broker.afterPropertiesSet();
+        boolean passed = true;
+        try {
+            for (KafkaProfile profile : profiles) {
+                passed &= run(broker.getBrokersAsString(), profile, messages, roundTrips);
+            }
+        } finally {
+            broker.destroy();
+        }
+        if (!passed) {
+            System.err.println("FAILED: events were lost or sends failed");
+            System.exit(1);
+        }
+    }
+
+    private static boolean run(String bootstrapServers, KafkaProfile profile, int messages, int roundTrips)
+            throws Exception {
+        DefaultKafkaProducerFactory<String, Object> producerFactory =
+                new DefaultKafkaProducerFactory<>(producerConfigs(bootstrapServers, profile));
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        KafkaEventSender sender = new KafkaEventSender(new KafkaTemplate<>(producerFactory), meterRegistry,
+                10_000, Duration.ofSeconds(30));
+        SnowflakeIdGenerator ids = new SnowflakeIdGenerator(1);
+        String bulkTopic = topic(profile, "bulk");
+        String pingTopic = topic(profile, "ping");
+
+        try (KafkaConsumer<String, Object> bulkConsumer = consumer(bootstrapServers, profile, bulkTopic);
+             KafkaConsumer<String, Object> pingConsumer = consumer(bootstrapServers, profile, pingTopic)) {
+            // Warm up the producer's metadata, the serializers and both consumers' assignments
+            sender.send(bulkTopic, "warmup", orderCreated(ids.nextId())).get();
+            sender.send(pingTopic, "warmup", orderCreated(ids.nextId())).get();
+            drain(bulkConsumer, 1);
+            drain(pingConsumer, 1);
+
+            List<CompletableFuture<?>> sends = new ArrayList<>(messages);
+            long sendStart = System.nanoTime();
+            for (int i = 0; i < messages; i++) {
+                long orderId = ids.nextId();
+                sends.add(sender.send(bulkTopic, Long.toString(orderId), orderCreated(orderId)));
+            }
+            CompletableFuture<Void> allAcknowledged = CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new));
+            boolean sendsSucceeded = allAcknowledged.handle((ok, ex) -> ex == null).get();
+            long sendNanos = System.nanoTime() - sendStart;
+
+            long consumeStart = System.nanoTime();
+            long consumed = drain(bulkConsumer, messages);
+            long consumeNanos = System.nanoTime() - consumeStart;
+
+            long[] latencies = new long[roundTrips];
+            long received = 0;
+            for (int i = 0; i < roundTrips; i++) {
+                long orderId = ids.nextId();
+                long start = System.nanoTime();
+                sender.send(pingTopic, Long.toString(orderId), orderCreated(orderId));
+                received += drain(pingConsumer, 1);
+                latencies[i] = System.nanoTime() - start;
+            }
+            Arrays.sort(latencies);
+
+            System.out.printf("profile=%s send=%.0f events/s consume=%.0f events/s round-trip p50=%.2fms p99=%.2fms "
+                            + "max=%.2fms producer=%s consumer=%s%n",
+                    profile, messages * 1e9 / sendNanos, consumed * 1e9 / consumeNanos,
+                    percentile(latencies, 0.50), percentile(latencies, 0.99), latencies[roundTrips - 1] / 1e6,
+                    profile.producerConfigs(), profile.consumerConfigs());
+            return sendsSucceeded && consumed == messages && received == roundTrips
+                    && meterRegistry.find("ecommerce.kafka.send.rejected").counters().isEmpty();
+        } finally {
+            producerFactory.destroy();
+        }
+    }
+
+    private static Map<String, Object> producerConfigs(String bootstrapServers, KafkaProfile profile) {
+        Map<String, Object> configs = new HashMap<>(profile.producerConfigs());
+        configs.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        configs.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        configs.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, EventSerializer.class);
+        configs.put(EventSerializer.WRITE_FORMAT_CONFIG, "binary");
+        return configs;
+    }
+
+    private static KafkaConsumer<String, Object> consumer(String bootstrapServers, KafkaProfile profile, String topic) {
+        Map<String, Object> configs = new HashMap<>(profile.consumerConfigs());
+        configs.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        configs.put(ConsumerConfig.GROUP_ID_CONFIG, topic);
+        configs.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        configs.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        configs.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, EventDeserializer.class);
+        configs.put("spring.json.trusted.packages", "*");
+        KafkaConsumer<String, Object> consumer = new KafkaConsumer<>(configs);
+        consumer.subscribe(List.of(topic));
+        return consumer;
+    }
+
+    /**
+     * Polls until {@code expected} records arrived or a poll comes back empty after the first
+     * record, and returns how many arrived.
+     */
+    private static long drain(KafkaConsumer<String, Object> consumer, long expected) {
+        long received = 0;
+        int emptyPolls = 0;
+        while (received < expected && emptyPolls < 20) {
+            ConsumerRecords<String, Object> records = consumer.poll(POLL_TIMEOUT);
+            received += records.count();
+            emptyPolls = records.isEmpty() ? emptyPolls + 1 : 0;
+        }
+        consumer.commitSync();
+        return received;
+    }
+
+    private static OrderCreatedEvent orderCreated(long orderId) {
+        List<OrderItemDto> items = List.of(
+                new OrderItemDto(1_204L, 2, new BigDecimal("19.99")),
+                new OrderItemDto(88_310L, 1, new BigDecimal("149.00")),
+                new OrderItemDto(5_002L, 3, new BigDecimal("4.50")));
+        return OrderCreatedEvent.builder()
+                .orderId(orderId)
+                .userId(48_213L)
+                .totalAmount(new BigDecimal("202.48"))
+                .orderItems(items)
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+
+    private static String topic(KafkaProfile profile, String purpose) {
+        return "benchmark-" + profile.name().toLowerCase().replace('_', '-') + "-" + purpose;
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        return sorted[(int) Math.min(sorted.length - 1, Math.ceil(quantile * sorted.length) - 1)] / 1e6;
+    }
+}
@@ -0,0 +1,72 @@
+package com.ecommerce.benchmarks.metrics;
+
+import com.ecommerce.common.metrics.MethodMetricsInterceptor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * What method timing adds to a call: a CGLIB proxy without advice, as every {@code @Service}
+ * with {@code @Transactional} methods already is, against the same proxy with the
+ * {@link MethodMetricsInterceptor} recording into a registry with percentile histograms.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MethodMetricsBenchmark {
+
+    private PriceService plain;
+    private PriceService timed;
+    private long productId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerSingleton("meterRegistry", new SimpleMeterRegistry());
+
+        ProxyFactory plainFactory = new ProxyFactory(new PriceService());
+        plainFactory.setProxyTargetClass(true);
+        plainFactory.addAdvice((MethodInterceptor) invocation -> invocation.proceed());
+        plain = (PriceService) plainFactory.getProxy();
+
+        ProxyFactory timedFactory = new ProxyFactory(new PriceService());
+        timedFactory.setProxyTargetClass(true);
+        timedFactory.addAdvice(new MethodMetricsInterceptor("service", beanFactory.getBeanProvider(MeterRegistry.class)));
+        timed = (PriceService) timedFactory.getProxy();
+    }
+
+    @Benchmark
+    public long proxied() {
+        return plain.price(++productId);
+    }
+
+    @Benchmark
+    public long timed() {
+        return timed.price(++productId);
+    }
+
+    public static class PriceService {
+
+        public long price(long productId) {
+            return productId * 31 + 7;
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package com.ecommerce.benchmarks.order;
+
+import ch.qos.logback.classic.LoggerContext;
+import com.ecommerce.common.bus.EventBus;
+import com.ecommerce.common.dedupe.ProcessedEventStore;
+import com.ecommerce.common.event.PaymentCompletedEvent;
+import com.ecommerce.common.trace.SagaTrace;
+import com.ecommerce.common.trace.SagaTracer;
+import com.ecommerce.order.dto.OrderRequest;
+import com.ecommerce.order.dto.OrderResponse;
+import com.ecommerce.order.entity.Order;
+import com.ecommerce.order.event.OrderEventProducer;
+import com.ecommerce.order.event.PaymentEventConsumer;
+import com.ecommerce.order.mapper.OrderMapperImpl;
+import com.ecommerce.order.repository.OrderRepository;
+import com.ecommerce.order.service.InventoryClient;
+import com.ecommerce.order.service.OrderService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.logging.LogLevel;
+import org.springframework.boot.logging.LoggingInitializationContext;
+import org.springframework.boot.logging.LoggingSystem;
+import org.springframework.core.env.StandardEnvironment;
+
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.PrintStream;
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Order and saga throughput of the order service under its two logging setups: {@code default},
+ * Spring Boot's synchronous console logging with the service's DEBUG level, and {@code perf},
+ * the perf profile's sampled, asynchronous logfmt logging. Console output goes to the null
+ * device, so writing it costs the system calls but no terminal.
+ *
+ * <p>The order path creates and approves an order, which logs seven lines and publishes
+ * {@code OrderCreatedEvent}; the saga path then completes it with a {@code PaymentCompletedEvent},
+ * for four more. Repository, inventory check and event bus are stubs, so what is left besides
+ * logging is the services' own work. Several threads log at once, as request threads do.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class LoggingModeBenchmark {
+
+    private static final String PERF_CONFIG = "classpath:com/ecommerce/common/logging/logback-perf.xml";
+
+    @Param({"default", "perf"})
+    public String mode;
+
+    private PrintStream console;
+
+    @Setup(Level.Trial)
+    public void setUp() throws FileNotFoundException {
+        console = System.out;
+        String nullDevice = System.getProperty("os.name").startsWith("Windows") ? "NUL" : "/dev/null";
+        System.setOut(new PrintStream(new FileOutputStream(nullDevice)));
+
+        LoggingSystem loggingSystem = LoggingSystem.get(getClass().getClassLoader());
+        loggingSystem.beforeInitialize();
+        boolean perf = "perf".equals(mode);
+        loggingSystem.initialize(new LoggingInitializationContext(new StandardEnvironment()),
+                perf ? PERF_CONFIG : null, null);
+        loggingSystem.setLogLevel("com.ecommerce.order", perf ? LogLevel.INFO : LogLevel.DEBUG);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        // Drains the async appender's queue before the console is put back
+        ((LoggerContext) LoggerFactory.getILoggerFactory()).stop();
+        System.setOut(console);
+    }
+
+    @Benchmark
+    public OrderResponse orderPath(OrderPath path) {
+        return path.approve();
+    }
+
+    @Benchmark
+    public OrderResponse sagaPath(OrderPath path) {
+        OrderResponse order = path.approve();
+        path.paymentCompleted();
+        return order;
+    }
+
+    @State(Scope.Thread)
+    public static class OrderPath {
+
+        private OrderService orderService;
+        private PaymentEventConsumer paymentEventConsumer;
+        private OrderRequest request;
+        private PaymentCompletedEvent payment;
+        private Order stored;
+        private long nextId;
+        private byte[] sagaTrace;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            // Keeps only the order in flight, which is all one pass through the path needs
+            OrderRepository repository = (OrderRepository) Proxy.newProxyInstance(
+                    OrderRepository.class.getClassLoader(), new Class<?>[]{OrderRepository.class},
+                    (proxy, method, args) -> switch (method.getName()) {
+                        case "save" -> save((Order) args[0]);
+                        case "findById" -> Optional.ofNullable(stored).filter(order -> order.getId().equals(args[0]));
+                        case "hashCode" -> System.identityHashCode(proxy);
+                        case "equals" -> proxy == args[0];
+                        case "toString" -> "OrderRepository stub";
+                        default -> throw new UnsupportedOperationException(method.getName());
+                    });
+            InventoryClient inventoryClient = new InventoryClient(null) {
+                @Override
+                public boolean isAvailable(Long productId, Integer quantity) {
+                    return true;
+                }
+            };
+            EventBus eventBus = (topic, key, event, headers) -> {
+                sagaTrace = headers.get(SagaTrace.HEADER);
+                return CompletableFuture.completedFuture(null);
+            };
+            SagaTracer sagaTracer = new SagaTracer("order-service", new SimpleMeterRegistry(), 100_000,
+                    Duration.ofMinutes(10));
+            ProcessedEventStore processedEventStore = new ProcessedEventStore(null, null, null, Duration.ofMinutes(5), null) {
+                @Override
+                public boolean processOnce(String eventKey, Runnable handler) {
+                    handler.run();
+                    return true;
+                }
+            };
+
+            orderService = new OrderService(repository, new OrderMapperImpl(),
+                    new OrderEventProducer(eventBus, sagaTracer), inventoryClient);
+            paymentEventConsumer = new PaymentEventConsumer(orderService, processedEventStore, sagaTracer);
+            request = SampleOrders.request(3);
+            payment = PaymentCompletedEvent.builder()
+                    .userId(request.getUserId())
+                    .paymentSuccessful(true)
+                    .message("Payment processed successfully")
+                    .build();
+        }
+
+        OrderResponse approve() {
+            OrderResponse created = orderService.createOrder(request);
+            return orderService.approveOrder(created.getId());
+        }
+
+        void paymentCompleted() {
+            payment.setOrderId(stored.getId());
+            payment.setAmount(stored.getTotalAmount());
+            paymentEventConsumer.handlePaymentCompletedEvent(payment, sagaTrace);
+        }
+
+        private Order save(Order order) {
+            if (order.getId() == null) {
+                order.setId(++nextId);
+            }
+            stored = order;
+            return order;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.ecommerce.benchmarks.order;
+
+import ch.qos.logback.classic.Logger;
+import com.ecommerce.order.dto.OrderRequest;
+import com.ecommerce.order.dto.OrderResponse;
+import com.ecommerce.order.mapper.OrderMapperImpl;
+import com.ecommerce.order.repository.OrderRepository;
+import com.ecommerce.order.service.OrderService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Proxy;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link OrderService#createOrder} without its database: mapping the request, adding up the
+ * total amount in {@code BigDecimal} and mapping the saved order back to a response. The
+ * repository hands back what it is given, so only the service's own work per request is
+ * measured.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrderCreationBenchmark {
+
+    @Param({"1", "5", "20"})
+    public int items;
+
+    private OrderService orderService;
+    private OrderRequest request;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // Console logging of every order would otherwise dominate what is measured
+        ((Logger) LoggerFactory.getLogger("com.ecommerce")).setLevel(ch.qos.logback.classic.Level.WARN);
+        OrderRepository repository = (OrderRepository) Proxy.newProxyInstance(
+                OrderRepository.class.getClassLoader(), new Class<?>[]{OrderRepository.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "save" -> args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> "OrderRepository stub";
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+        orderService = new OrderService(repository, new OrderMapperImpl(), null, null);
+        request = SampleOrders.request(items);
+    }
+
+    @Benchmark
+    public OrderResponse createOrder() {
+        return orderService.createOrder(request);
+    }
+}
@@ -0,0 +1,64 @@
+package com.ecommerce.benchmarks.order;
+
+import com.ecommerce.order.dto.OrderRequest;
+import com.ecommerce.order.dto.OrderResponse;
+import com.ecommerce.order.entity.Order;
+import com.ecommerce.order.entity.OrderItem;
+import com.ecommerce.order.mapper.OrderMapper;
+import com.ecommerce.order.mapper.OrderMapperImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The generated {@link OrderMapper} on an order of {@code items} lines: a request mapped to
+ * the entity and its items, as on order creation, and an order mapped to its response, as on
+ * every order read.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrderMappingBenchmark {
+
+    @Param({"1", "5", "20"})
+    public int items;
+
+    private final OrderMapper mapper = new OrderMapperImpl();
+    private OrderRequest request;
+    private Order order;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        request = SampleOrders.request(items);
+        order = SampleOrders.order(items);
+    }
+
+    @Benchmark
+    public Order requestToEntity() {
+        Order entity = mapper.toEntity(request);
+        for (OrderRequest.OrderItemRequest item : request.getOrderItems()) {
+            OrderItem orderItem = mapper.toOrderItem(item);
+            entity.addOrderItem(orderItem);
+        }
+        return entity;
+    }
+
+    @Benchmark
+    public OrderResponse entityToResponse() {
+        return mapper.toResponse(order);
+    }
+}
@@ -0,0 +1,51 @@
+package com.ecommerce.benchmarks.order;
+
+import com.ecommerce.order.dto.OrderRequest;
+import com.ecommerce.order.entity.Order;
+import com.ecommerce.order.entity.OrderItem;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Orders as the API receives and stores them, with prices that carry cents.
+ */
+final class SampleOrders {
+
+    private SampleOrders() {
+    }
+
+    static OrderRequest request(int items) {
+        List<OrderRequest.OrderItemRequest> orderItems = new ArrayList<>(items);
+        for (int i = 0; i < items; i++) {
+            orderItems.add(OrderRequest.OrderItemRequest.builder()
+                    .productId(1_000L + i)
+                    .quantity(1 + i % 3)
+                    .price(new BigDecimal("19.99").add(BigDecimal.valueOf(i * 7L, 2)))
+                    .build());
+        }
+        return OrderRequest.builder().userId(42L).orderItems(orderItems).build();
+    }
+
+    static Order order(int items) {
+        Order order = Order.builder()
+                .id(232399067347840L)
+                .userId(42L)
+                .totalAmount(new BigDecimal("219.89"))
+                .status(Order.OrderStatus.COMPLETED)
+                .createdAt(LocalDateTime.of(2024, 3, 1, 12, 0))
+                .updatedAt(LocalDateTime.of(2024, 3, 1, 12, 0, 2))
+                .build();
+        for (int i = 0; i < items; i++) {
+            order.addOrderItem(OrderItem.builder()
+                    .id(232399067347841L + i)
+                    .productId(1_000L + i)
+                    .quantity(1 + i % 3)
+                    .price(new BigDecimal("19.99"))
+                    .build());
+        }
+        return order;
+    }
+}
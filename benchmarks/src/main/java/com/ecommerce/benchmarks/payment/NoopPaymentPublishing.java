@@ -0,0 +1,33 @@
+package com.ecommerce.benchmarks.payment;
+
+import com.ecommerce.common.event.InventoryReservedEvent;
+import com.ecommerce.common.event.PaymentCompletedEvent;
+import com.ecommerce.payment.event.PaymentEventProducer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Replaces payment publishing with a no-op, so payment benchmarks need no broker.
+ */
+@Configuration
+class NoopPaymentPublishing {
+
+    @Bean
+    @Primary
+    PaymentEventProducer noopPaymentEventProducer() {
+        return new PaymentEventProducer(null, null) {
+            @Override
+            public CompletableFuture<Void> publishPaymentCompletedEvent(PaymentCompletedEvent event) {
+                return CompletableFuture.completedFuture(null);
+            }
+
+            @Override
+            public CompletableFuture<Void> parkPayment(InventoryReservedEvent event, int attempt, long notBeforeMillis) {
+                return CompletableFuture.completedFuture(null);
+            }
+        };
+    }
+}
@@ -0,0 +1,131 @@
+package com.ecommerce.benchmarks.payment;
+
+import com.ecommerce.benchmarks.support.ServiceContexts;
+import com.ecommerce.common.event.InventoryReservedEvent;
+import com.ecommerce.payment.PaymentServiceApplication;
+import com.ecommerce.payment.gateway.CircuitBreaker;
+import com.ecommerce.payment.gateway.GatewayRejectedException;
+import com.ecommerce.payment.gateway.PaymentGatewayGuard;
+import com.ecommerce.payment.gateway.SimulatedPaymentGateway;
+import com.ecommerce.payment.service.PaymentProcessor;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Offers payments to the processor as fast as it admits them while the gateway simulator goes
+ * through four phases: healthy, slow (above the limiter's latency threshold), failing, and
+ * healthy again. Prints the concurrency limit, calls in flight, breaker state, and completed
+ * and rejected payments every half second.
+ *
+ * <p>Fails unless calls in flight never exceed {@code max-in-flight}, the limit backs off while
+ * the gateway is slow, the breaker opens while it fails, and both recover afterwards.
+ * Publishing is replaced by a no-op, so no broker is needed.
+ *
+ * <p>Usage: {@code PaymentGatewayOverloadBenchmark [phaseSeconds=5] [latencyMs=50] [maxInFlight=64]}
+ */
+public class PaymentGatewayOverloadBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int phaseSeconds = args.length > 0 ? Integer.parseInt(args[0]) : 5;
+        int latencyMs = args.length > 1 ? Integer.parseInt(args[1]) : 50;
+        int maxInFlight = args.length > 2 ? Integer.parseInt(args[2]) : 64;
+        int latencyThresholdMs = latencyMs * 4;
+
+        boolean passed;
+        try (ConfigurableApplicationContext context = ServiceContexts.start(
+                PaymentServiceApplication.class, new Class<?>[]{NoopPaymentPublishing.class},
+                "payment_overload", Math.min(maxInFlight, 32) + 2,
+                "payment.processing.max-in-flight=" + maxInFlight,
+                "payment.gateway.timeout=" + latencyThresholdMs * 2 + "ms",
+                "payment.gateway.limiter.initial-limit=" + Math.max(1, maxInFlight / 4),
+                "payment.gateway.limiter.latency-threshold=" + latencyThresholdMs + "ms",
+                "payment.gateway.circuit-breaker.open-duration=PT1S",
+                "payment.gateway.simulator.latency=" + latencyMs + "ms",
+                "payment.gateway.simulator.latency-distribution=FIXED")) {
+            PaymentProcessor processor = context.getBean(PaymentProcessor.class);
+            PaymentGatewayGuard guard = context.getBean(PaymentGatewayGuard.class);
+            SimulatedPaymentGateway gateway = context.getBean(SimulatedPaymentGateway.class);
+
+            AtomicLong completed = new AtomicLong();
+            AtomicLong rejected = new AtomicLong();
+            AtomicBoolean running = new AtomicBoolean(true);
+            Thread driver = new Thread(() -> {
+                long orderId = 0;
+                while (running.get()) {
+                    InventoryReservedEvent event = InventoryReservedEvent.builder()
+                            .orderId(++orderId)
+                            .userId(orderId % 1000)
+                            .totalAmount(BigDecimal.valueOf(100))
+                            .reservationSuccessful(true)
+                            .reservedAt(LocalDateTime.now())
+                            .build();
+                    try {
+                        processor.process(event).whenComplete((payment, ex) -> completed.incrementAndGet());
+                    } catch (GatewayRejectedException ex) {
+                        rejected.incrementAndGet();
+                        LockSupport.parkNanos(1_000_000);
+                    }
+                }
+            }, "payment-driver");
+            driver.start();
+
+            Phase[] phases = {
+                    new Phase("healthy", latencyMs, 0),
+                    new Phase("slow", latencyThresholdMs * 3 / 2, 0),
+                    new Phase("failing", latencyMs, 1),
+                    new Phase("recovered", latencyMs, 0)
+            };
+            int[] minLimit = new int[phases.length];
+            int[] lastLimit = new int[phases.length];
+            boolean[] opened = new boolean[phases.length];
+            CircuitBreaker.State[] lastState = new CircuitBreaker.State[phases.length];
+            int maxObservedInFlight = 0;
+
+            System.out.printf("%-10s %6s %6s %9s %10s %10s %9s%n",
+                    "phase", "time", "limit", "inFlight", "circuit", "completed", "rejected");
+            long startNanos = System.nanoTime();
+            for (int p = 0; p < phases.length; p++) {
+                gateway.setLatency(Duration.ofMillis(phases[p].latencyMs()));
+                gateway.setErrorRate(phases[p].errorRate());
+                minLimit[p] = Integer.MAX_VALUE;
+                for (int tick = 0; tick < phaseSeconds * 2; tick++) {
+                    Thread.sleep(500);
+                    int limit = guard.getLimit();
+                    int inFlight = guard.getInFlight();
+                    CircuitBreaker.State state = guard.getCircuitState();
+                    minLimit[p] = Math.min(minLimit[p], limit);
+                    lastLimit[p] = limit;
+                    lastState[p] = state;
+                    opened[p] |= state != CircuitBreaker.State.CLOSED;
+                    maxObservedInFlight = Math.max(maxObservedInFlight, inFlight);
+                    System.out.printf("%-10s %5.1fs %6d %9d %10s %10d %9d%n", phases[p].name(),
+                            (System.nanoTime() - startNanos) / 1e9, limit, inFlight, state,
+                            completed.get(), rejected.get());
+                }
+            }
+            running.set(false);
+            driver.join();
+
+            boolean boundedInFlight = maxObservedInFlight <= maxInFlight;
+            boolean backedOff = minLimit[1] < lastLimit[0];
+            boolean breakerOpened = opened[2];
+            boolean recovered = lastState[3] == CircuitBreaker.State.CLOSED && lastLimit[3] > minLimit[2];
+            System.out.printf("maxInFlight=%d (bound %d) limitBackedOff=%b breakerOpened=%b recovered=%b%n",
+                    maxObservedInFlight, maxInFlight, backedOff, breakerOpened, recovered);
+            passed = boundedInFlight && backedOff && breakerOpened && recovered;
+        }
+        if (!passed) {
+            System.out.println("FAILED: the gateway guard did not hold the limit, back off or recover");
+            System.exit(1);
+        }
+    }
+
+    private record Phase(String name, int latencyMs, double errorRate) {
+    }
+}
@@ -0,0 +1,95 @@
+package com.ecommerce.benchmarks.payment;
+
+import com.ecommerce.benchmarks.support.ServiceContexts;
+import com.ecommerce.common.id.SnowflakeIdGenerator;
+import com.ecommerce.payment.PaymentServiceApplication;
+import com.ecommerce.payment.dto.ReconciliationReport;
+import com.ecommerce.payment.dto.ReconciliationReport.MismatchType;
+import com.ecommerce.payment.service.PaymentReconciliationService;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Loads {@code rows} completed payments for one day, generates their settlement file with
+ * injected mismatches and times reconciling the two, twice; the first run warms up the JIT.
+ * Fails unless every injected mismatch is reported exactly once and every other payment
+ * matches.
+ *
+ * <p>Usage: {@code PaymentReconciliationBenchmark [rows=1000000] [mismatchRate=0.001] [partitions=64]}
+ */
+public class PaymentReconciliationBenchmark {
+
+    private static final int INSERT_BATCH = 10_000;
+
+    public static void main(String[] args) throws Exception {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        double mismatchRate = args.length > 1 ? Double.parseDouble(args[1]) : 0.001;
+        int partitions = args.length > 2 ? Integer.parseInt(args[2]) : 64;
+
+        Path settlementFile = Files.createTempFile("settlement", ".csv");
+        Path reportFile = Files.createTempFile("reconciliation", ".csv");
+        SettlementFileGenerator.Injected injected = SettlementFileGenerator.generate(settlementFile, rows, mismatchRate, 42);
+        System.out.printf("settlement file=%d bytes injected=%s%n", Files.size(settlementFile), injected);
+
+        boolean passed = true;
+        try (ConfigurableApplicationContext context = ServiceContexts.start(
+                PaymentServiceApplication.class, "payment_reconciliation", 2,
+                "payment.reconciliation.partitions=" + partitions)) {
+            LocalDateTime day = LocalDate.now().minusDays(1).atStartOfDay();
+            long loadStart = System.nanoTime();
+            loadPayments(context.getBean(JdbcTemplate.class), rows, day);
+            System.out.printf("loaded payments=%d elapsed=%dms%n", rows, (System.nanoTime() - loadStart) / 1_000_000);
+
+            PaymentReconciliationService service = context.getBean(PaymentReconciliationService.class);
+            for (int run = 1; run <= 2; run++) {
+                ReconciliationReport report = service.reconcile(settlementFile, day, day.plusDays(1), reportFile);
+                System.out.printf("run=%d payments=%d settlements=%d matched=%d mismatches=%s elapsed=%dms throughput=%.0f payments/s%n",
+                        run, report.getPayments(), report.getSettlements(), report.getMatched(), report.getMismatches(),
+                        report.getElapsedMillis(), report.getPayments() * 1000.0 / Math.max(1, report.getElapsedMillis()));
+                passed &= report.getPayments() == rows
+                        && report.getMatched() == rows - injected.missingSettlements() - injected.amountMismatches()
+                        && count(report, MismatchType.MISSING_SETTLEMENT) == injected.missingSettlements()
+                        && count(report, MismatchType.AMOUNT_MISMATCH) == injected.amountMismatches()
+                        && count(report, MismatchType.DUPLICATE_SETTLEMENT) == injected.duplicateSettlements()
+                        && count(report, MismatchType.MISSING_PAYMENT) == injected.missingPayments()
+                        && count(report, MismatchType.ORDER_MISMATCH) == 0;
+            }
+        } finally {
+            Files.deleteIfExists(settlementFile);
+            Files.deleteIfExists(reportFile);
+        }
+        if (!passed) {
+            System.err.println("FAILED: the reported mismatches differ from the injected ones");
+            System.exit(1);
+        }
+    }
+
+    private static void loadPayments(JdbcTemplate jdbcTemplate, int rows, LocalDateTime day) {
+        SnowflakeIdGenerator ids = SnowflakeIdGenerator.shared();
+        long millisPerPayment = Math.max(1, 86_400_000L / rows);
+        List<Object[]> batch = new ArrayList<>(INSERT_BATCH);
+        for (long orderId = 1; orderId <= rows; orderId++) {
+            Timestamp createdAt = Timestamp.valueOf(day.plusNanos((orderId - 1) * millisPerPayment * 1_000_000));
+            batch.add(new Object[]{ids.nextId(), orderId, orderId % 1000, SettlementFileGenerator.amount(orderId),
+                    SettlementFileGenerator.transactionId(orderId), createdAt, createdAt});
+            if (batch.size() == INSERT_BATCH || orderId == rows) {
+                jdbcTemplate.batchUpdate("INSERT INTO payments (id, order_id, user_id, amount, status, transaction_id, " +
+                        "message, created_at, updated_at) VALUES (?, ?, ?, ?, 'COMPLETED', ?, 'Payment completed', ?, ?)",
+                        batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private static long count(ReconciliationReport report, MismatchType type) {
+        return report.getMismatches().getOrDefault(type, 0L);
+    }
+}
@@ -0,0 +1,108 @@
+package com.ecommerce.benchmarks.payment;
+
+import com.ecommerce.benchmarks.support.ServiceContexts;
+import com.ecommerce.common.event.InventoryReservedEvent;
+import com.ecommerce.common.event.PaymentCompletedEvent;
+import com.ecommerce.payment.PaymentServiceApplication;
+import com.ecommerce.payment.gateway.GatewayRejectedException;
+import com.ecommerce.payment.service.PaymentProcessor;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Feeds reserved orders to the payment processor from a single thread, as the Kafka listener
+ * does, against the gateway simulator with a fixed latency. Runs once per in-flight limit and
+ * reports payments/s, which should grow with the limit until the database or CPU saturates.
+ * The gateway's adaptive limit starts at the in-flight limit and a rejected payment is
+ * resubmitted after a short pause. Publishing is replaced by a no-op, so no broker is needed.
+ *
+ * <p>In {@code batch} mode payments go through the batch listener's path instead, one batch
+ * per in-flight limit's worth of payments, each recorded in a single transaction.
+ *
+ * <p>Usage: {@code PaymentThroughputBenchmark [latencyMs=20] [rounds=100] [inFlight=1,4,16,64,256] [record|batch]},
+ * where each run makes {@code rounds} payments per in-flight slot.
+ */
+public class PaymentThroughputBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int latencyMs = args.length > 0 ? Integer.parseInt(args[0]) : 20;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+        String[] limits = (args.length > 2 ? args[2] : "1,4,16,64,256").split(",");
+        boolean batchMode = args.length > 3 && args[3].equals("batch");
+
+        double baseline = 0;
+        for (String limit : limits) {
+            int maxInFlight = Integer.parseInt(limit.trim());
+            int payments = rounds * maxInFlight;
+            try (ConfigurableApplicationContext context = ServiceContexts.start(
+                    PaymentServiceApplication.class, new Class<?>[]{NoopPaymentPublishing.class},
+                    "payment_throughput_" + maxInFlight, Math.min(maxInFlight, 32) + 2,
+                    "payment.processing.max-in-flight=" + maxInFlight,
+                    "payment.gateway.limiter.initial-limit=" + maxInFlight,
+                    "payment.gateway.simulator.latency=" + latencyMs + "ms",
+                    "payment.gateway.simulator.latency-distribution=FIXED")) {
+                PaymentProcessor processor = context.getBean(PaymentProcessor.class);
+
+                long startNanos = System.nanoTime();
+                List<CompletableFuture<PaymentCompletedEvent>> results = new ArrayList<>(payments);
+                PaymentProcessor.Batch batch = processor.newBatch();
+                for (long orderId = 1; orderId <= payments; orderId++) {
+                    InventoryReservedEvent event = reservedOrder(orderId);
+                    if (!batchMode) {
+                        results.add(submit(processor, event));
+                        continue;
+                    }
+                    results.add(add(batch, event));
+                    if (orderId % maxInFlight == 0) {
+                        batch.complete();
+                        batch = processor.newBatch();
+                    }
+                }
+                batch.complete();
+                CompletableFuture.allOf(results.toArray(CompletableFuture[]::new)).join();
+                double seconds = (System.nanoTime() - startNanos) / 1e9;
+
+                double throughput = payments / seconds;
+                baseline = baseline == 0 ? throughput : baseline;
+                System.out.printf("mode=%s inFlight=%d payments=%d latency=%dms elapsed=%.2fs throughput=%.0f payments/s speedup=%.1fx%n",
+                        batchMode ? "batch" : "record", maxInFlight, payments, latencyMs, seconds, throughput, throughput / baseline);
+            }
+        }
+    }
+
+    private static CompletableFuture<PaymentCompletedEvent> submit(PaymentProcessor processor, InventoryReservedEvent event) {
+        while (true) {
+            try {
+                return processor.process(event);
+            } catch (GatewayRejectedException ex) {
+                LockSupport.parkNanos(100_000);
+            }
+        }
+    }
+
+    private static CompletableFuture<PaymentCompletedEvent> add(PaymentProcessor.Batch batch, InventoryReservedEvent event) {
+        while (true) {
+            try {
+                return batch.add(event);
+            } catch (GatewayRejectedException ex) {
+                LockSupport.parkNanos(100_000);
+            }
+        }
+    }
+
+    private static InventoryReservedEvent reservedOrder(long orderId) {
+        return InventoryReservedEvent.builder()
+                .orderId(orderId)
+                .userId(orderId % 1000)
+                .totalAmount(BigDecimal.valueOf(100))
+                .reservationSuccessful(true)
+                .reservedAt(LocalDateTime.now())
+                .build();
+    }
+}
@@ -0,0 +1,84 @@
+package com.ecommerce.benchmarks.payment;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+
+/**
+ * Writes a synthetic provider settlement file for payment reconciliation: one row per order ID
+ * from 1 to {@code rows}, settling transaction {@link #transactionId(long)} for
+ * {@link #amount(long)}. Each of the mismatches the reconciliation detects is injected into a
+ * {@code mismatchRate} share of the rows, drawn from {@code seed}: settlements left out, wrong
+ * amounts, duplicated settlements and settlements for unknown transactions.
+ *
+ * <p>Usage: {@code SettlementFileGenerator <output> [rows=1000000] [mismatchRate=0.001] [seed=42]}
+ */
+public class SettlementFileGenerator {
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("Usage: SettlementFileGenerator <output> [rows=1000000] [mismatchRate=0.001] [seed=42]");
+            System.exit(1);
+        }
+        Path output = Path.of(args[0]);
+        int rows = args.length > 1 ? Integer.parseInt(args[1]) : 1_000_000;
+        double mismatchRate = args.length > 2 ? Double.parseDouble(args[2]) : 0.001;
+        long seed = args.length > 3 ? Long.parseLong(args[3]) : 42;
+
+        Injected injected = generate(output, rows, mismatchRate, seed);
+        System.out.printf("Wrote %d payments to %s (%d bytes), injected %s%n", rows, output, Files.size(output), injected);
+    }
+
+    public static Injected generate(Path output, int rows, double mismatchRate, long seed) throws IOException {
+        SplittableRandom random = new SplittableRandom(seed);
+        long missing = 0;
+        long wrongAmount = 0;
+        long duplicated = 0;
+        long unknown = 0;
+        try (BufferedWriter writer = Files.newBufferedWriter(output, StandardCharsets.UTF_8)) {
+            writer.write("transactionId,orderId,amount,currency,settledAt\n");
+            for (long orderId = 1; orderId <= rows; orderId++) {
+                double draw = random.nextDouble();
+                BigDecimal amount = amount(orderId);
+                if (draw < mismatchRate) {
+                    missing++;
+                    continue;
+                }
+                if (draw < 2 * mismatchRate) {
+                    amount = amount.add(BigDecimal.ONE);
+                    wrongAmount++;
+                }
+                String row = transactionId(orderId) + "," + orderId + "," + amount.toPlainString() + ",USD,2025-01-01T00:00:00\n";
+                writer.write(row);
+                if (draw >= 2 * mismatchRate && draw < 3 * mismatchRate) {
+                    writer.write(row);
+                    duplicated++;
+                }
+                if (draw >= 3 * mismatchRate && draw < 4 * mismatchRate) {
+                    writer.write("TXN-UNKNOWN-" + orderId + "," + (rows + orderId) + "," + amount.toPlainString()
+                            + ",USD,2025-01-01T00:00:00\n");
+                    unknown++;
+                }
+            }
+        }
+        return new Injected(missing, wrongAmount, duplicated, unknown);
+    }
+
+    public static String transactionId(long orderId) {
+        return "TXN-" + orderId;
+    }
+
+    public static BigDecimal amount(long orderId) {
+        return BigDecimal.valueOf(1_000 + orderId % 100_000, 2);
+    }
+
+    /**
+     * Mismatches written to the file; each should be reported once.
+     */
+    public record Injected(long missingSettlements, long amountMismatches, long duplicateSettlements, long missingPayments) {
+    }
+}
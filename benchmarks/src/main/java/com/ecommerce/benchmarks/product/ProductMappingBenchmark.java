@@ -0,0 +1,83 @@
+package com.ecommerce.benchmarks.product;
+
+import com.ecommerce.product.dto.ProductRequest;
+import com.ecommerce.product.dto.ProductResponse;
+import com.ecommerce.product.entity.Product;
+import com.ecommerce.product.mapper.ProductMapper;
+import com.ecommerce.product.mapper.ProductMapperImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * The generated {@link ProductMapper}: one product to its response, a catalog page of
+ * {@value #PAGE_SIZE} products as {@code ProductService.findProducts} maps it, and a request
+ * to a new entity and onto an existing one.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProductMappingBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+
+    private final ProductMapper mapper = new ProductMapperImpl();
+    private final Product product = product(1);
+    private final List<Product> page = IntStream.rangeClosed(1, PAGE_SIZE)
+            .mapToObj(ProductMappingBenchmark::product)
+            .toList();
+    private final ProductRequest request = ProductRequest.builder()
+            .name("Noise Cancelling Headphones")
+            .description("Over-ear, 30 hours of battery")
+            .price(new BigDecimal("249.99"))
+            .category("Electronics")
+            .stock(120)
+            .build();
+    private final Product existing = product(2);
+
+    @Benchmark
+    public ProductResponse toResponse() {
+        return mapper.toResponse(product);
+    }
+
+    @Benchmark
+    public List<ProductResponse> pageToResponses() {
+        return page.stream().map(mapper::toResponse).toList();
+    }
+
+    @Benchmark
+    public Product toEntity() {
+        return mapper.toEntity(request);
+    }
+
+    @Benchmark
+    public Product updateEntity() {
+        mapper.updateEntity(existing, request);
+        return existing;
+    }
+
+    private static Product product(long id) {
+        return Product.builder()
+                .id(id)
+                .name("Product " + id)
+                .description("Description of product " + id)
+                .price(new BigDecimal("19.99").add(BigDecimal.valueOf(id)))
+                .category("Electronics")
+                .stock(100)
+                .build();
+    }
+}
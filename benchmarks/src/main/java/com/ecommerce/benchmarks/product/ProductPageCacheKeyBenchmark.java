@@ -0,0 +1,64 @@
+package com.ecommerce.benchmarks.product;
+
+import com.ecommerce.product.service.ProductService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.interceptor.SimpleKeyGenerator;
+import org.springframework.context.expression.MethodBasedEvaluationContext;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.expression.Expression;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+
+import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The {@code productsPaged} cache key of {@link ProductService#findProducts}, built on every
+ * catalog page request, hit or miss. The key expression is read from the method's
+ * {@link Cacheable} annotation, parsed once and evaluated against a method-based context per
+ * call, as Spring's cache interceptor does. {@link SimpleKeyGenerator}, the key Spring builds
+ * when none is given, is the reference.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProductPageCacheKeyBenchmark {
+
+    private final ParameterNameDiscoverer parameterNames = new DefaultParameterNameDiscoverer();
+    private final Object[] args = {2, 20, "price", "asc", "Electronics", null, new BigDecimal("10.00"), null};
+
+    private Method method;
+    private Expression key;
+
+    @Setup(Level.Trial)
+    public void setUp() throws NoSuchMethodException {
+        method = ProductService.class.getMethod("findProducts", int.class, int.class, String.class, String.class,
+                String.class, String.class, BigDecimal.class, BigDecimal.class);
+        key = new SpelExpressionParser().parseExpression(method.getAnnotation(Cacheable.class).key());
+    }
+
+    @Benchmark
+    public Object spelKey() {
+        return key.getValue(new MethodBasedEvaluationContext(null, method, args, parameterNames));
+    }
+
+    @Benchmark
+    public Object simpleKey() {
+        return SimpleKeyGenerator.generateKey(args);
+    }
+}
@@ -0,0 +1,83 @@
+package com.ecommerce.benchmarks.support;
+
+import com.ecommerce.common.id.SnowflakeIdGenerator;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Boots a service's Spring context against an in-memory H2 database with Eureka, Kafka
+ * listeners and the web server switched off, so benchmarks run offline.
+ *
+ * <p>Every service jar carries its own {@code application.properties}, so the one on the
+ * benchmark classpath is not necessarily the service's. The service's file is read from its
+ * own jar instead and applied as default properties.
+ */
+public final class ServiceContexts {
+
+    private ServiceContexts() {
+        // Utility class
+    }
+
+    public static ConfigurableApplicationContext start(Class<?> application, String database, int poolSize,
+                                                       String... extraProperties) {
+        return start(application, new Class<?>[0], database, poolSize, extraProperties);
+    }
+
+    /**
+     * Also registers {@code overrides}, configuration classes whose {@code @Primary} beans
+     * replace service beans, e.g. producers that would need a broker.
+     */
+    public static ConfigurableApplicationContext start(Class<?> application, Class<?>[] overrides, String database,
+                                                       int poolSize, String... extraProperties) {
+        // The benchmark's in-memory database has no other writer
+        SnowflakeIdGenerator.defaultNodeId(0);
+        List<String> args = new ArrayList<>(List.of(
+                "--spring.config.location=optional:classpath:/benchmarks-no-config/",
+                "--spring.datasource.url=jdbc:h2:mem:" + database + ";DB_CLOSE_DELAY=-1;MODE=MySQL",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.datasource.hikari.maximum-pool-size=" + poolSize,
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.jpa.show-sql=false",
+                "--spring.kafka.listener.auto-startup=false",
+                "--spring.kafka.admin.auto-create=false",
+                "--eureka.client.enabled=false",
+                "--logging.level.root=WARN",
+                "--logging.level." + application.getPackageName() + "=WARN"
+        ));
+        for (String property : extraProperties) {
+            args.add("--" + property);
+        }
+        return new SpringApplicationBuilder(application)
+                .sources(overrides)
+                .properties(applicationProperties(application))
+                .web(WebApplicationType.NONE)
+                .run(args.toArray(String[]::new));
+    }
+
+    private static Properties applicationProperties(Class<?> application) {
+        URL serviceJar = application.getProtectionDomain().getCodeSource().getLocation();
+        Properties properties = new Properties();
+        try (URLClassLoader loader = new URLClassLoader(new URL[]{serviceJar}, null);
+             InputStream input = loader.getResourceAsStream("application.properties")) {
+            if (input != null) {
+                properties.load(input);
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to read application.properties of " + serviceJar, ex);
+        }
+        return properties;
+    }
+}
@@ -0,0 +1,71 @@
+package com.ecommerce.benchmarks.trace;
+
+import com.ecommerce.common.trace.SagaTrace;
+import com.ecommerce.common.trace.SagaTracer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * What saga tracing adds to each event: starting a trace on the first send, a service
+ * receiving a traced event and sending the next one, and the last service recording the
+ * completed saga's stages.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SagaTracerBenchmark {
+
+    private static final String KEY = "1287364512";
+
+    private SagaTracer orderTracer;
+    private SagaTracer inventoryTracer;
+    private byte[] orderCreatedTrace;
+    private byte[] paymentCompletedTrace;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        orderTracer = new SagaTracer("order-service", meterRegistry, 100_000, Duration.ofMinutes(10));
+        inventoryTracer = new SagaTracer("inventory-service", meterRegistry, 100_000, Duration.ofMinutes(10));
+        long now = SagaTrace.nowMicros();
+        SagaTrace trace = SagaTrace.start("order-service");
+        orderCreatedTrace = trace.encode();
+        paymentCompletedTrace = trace
+                .received("inventory-service", now + 1_500).sent("inventory-service", now + 4_000)
+                .received("payment-service", now + 5_200).sent("payment-service", now + 60_000)
+                .encode();
+    }
+
+    @Benchmark
+    public Map<String, byte[]> begin() {
+        return orderTracer.begin();
+    }
+
+    @Benchmark
+    public Map<String, byte[]> receiveAndSend() {
+        inventoryTracer.received("order-created-topic", KEY, orderCreatedTrace);
+        return inventoryTracer.traced(KEY);
+    }
+
+    @Benchmark
+    public void complete() {
+        orderTracer.completed("payment-completed-topic", paymentCompletedTrace);
+    }
+}
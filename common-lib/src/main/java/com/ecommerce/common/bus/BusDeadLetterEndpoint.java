@@ -0,0 +1,33 @@
+package com.ecommerce.common.bus;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+
+import java.util.Map;
+
+/**
+ * {@code /actuator/busdeadletters} lists the in-process bus's dead letters per
+ * {@code <topic>/<group>}; {@code POST /actuator/busdeadletters/<topic>/<group>} replays
+ * those of one subscription.
+ */
+@Endpoint(id = "busdeadletters")
+public class BusDeadLetterEndpoint {
+
+    private final InProcessEventBus bus;
+
+    public BusDeadLetterEndpoint(InProcessEventBus bus) {
+        this.bus = bus;
+    }
+
+    @ReadOperation
+    public Map<String, Long> deadLetters() {
+        return bus.getDeadLetters();
+    }
+
+    @WriteOperation
+    public Map<String, Integer> replay(@Selector String topic, @Selector String group) {
+        return Map.of("replayed", bus.replayDeadLetters(topic, group));
+    }
+}
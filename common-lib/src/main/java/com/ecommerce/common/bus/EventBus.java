@@ -0,0 +1,24 @@
+package com.ecommerce.common.bus;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Publishes the platform's events to the services that consume them. Services run on Kafka
+ * through {@link KafkaEventBus}, or all in one JVM through {@link InProcessEventBus}.
+ *
+ * <p>Events are keyed, usually by order or product ID, and events with the same key reach each
+ * subscriber in the order they were published. Headers carry metadata such as the saga trace.
+ */
+public interface EventBus {
+
+    /**
+     * Publishes {@code event} on {@code topic}. The future completes once the bus has taken the
+     * event over, on Kafka once the broker has acknowledged it, and fails if it would not.
+     */
+    CompletableFuture<Void> publish(String topic, String key, Object event, Map<String, byte[]> headers);
+
+    default CompletableFuture<Void> publish(String topic, String key, Object event) {
+        return publish(topic, key, event, Map.of());
+    }
+}
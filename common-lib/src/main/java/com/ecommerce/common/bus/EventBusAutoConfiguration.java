@@ -0,0 +1,100 @@
+package com.ecommerce.common.bus;
+
+import com.ecommerce.common.kafka.KafkaEventSender;
+import com.ecommerce.common.kafka.KafkaProfileAutoConfiguration;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.actuate.autoconfigure.endpoint.condition.ConditionalOnAvailableEndpoint;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Provides the {@link EventBus} services publish through: Kafka, unless an application context
+ * further up the hierarchy already holds a bus, as the embedded launcher's does. When that bus
+ * delivers events itself, the service's {@link EventSubscriber event subscribers} subscribe to
+ * it on startup and unsubscribe on shutdown, and the {@link InProcessEventBus}'s dead letters
+ * can be replayed through {@link BusDeadLetterEndpoint}.
+ */
+@AutoConfiguration(after = KafkaProfileAutoConfiguration.class)
+public class EventBusAutoConfiguration {
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(KafkaEventSender.class)
+    static class KafkaEventBusConfiguration {
+
+        @Bean
+        @ConditionalOnBean(KafkaEventSender.class)
+        @ConditionalOnMissingBean(EventBus.class)
+        public KafkaEventBus kafkaEventBus(KafkaEventSender eventSender) {
+            return new KafkaEventBus(eventSender);
+        }
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(Endpoint.class)
+    static class BusDeadLetterEndpointConfiguration {
+
+        @Bean
+        @ConditionalOnBean(InProcessEventBus.class)
+        @ConditionalOnAvailableEndpoint(endpoint = BusDeadLetterEndpoint.class)
+        @ConditionalOnMissingBean
+        public BusDeadLetterEndpoint busDeadLetterEndpoint(InProcessEventBus bus) {
+            return new BusDeadLetterEndpoint(bus);
+        }
+    }
+
+    @Bean
+    @ConditionalOnBean(EventSubscriptions.class)
+    public EventSubscriberRegistrar eventSubscriberRegistrar(EventSubscriptions subscriptions,
+                                                             ObjectProvider<EventSubscriber> subscribers) {
+        return new EventSubscriberRegistrar(subscriptions, subscribers);
+    }
+
+    static class EventSubscriberRegistrar implements SmartLifecycle {
+
+        private final EventSubscriptions subscriptions;
+        private final ObjectProvider<EventSubscriber> subscribers;
+        private final List<EventSubscriptions.Subscription> active = new ArrayList<>();
+        private boolean running;
+
+        EventSubscriberRegistrar(EventSubscriptions subscriptions, ObjectProvider<EventSubscriber> subscribers) {
+            this.subscriptions = subscriptions;
+            this.subscribers = subscribers;
+        }
+
+        @Override
+        public synchronized void start() {
+            EventSubscriptions tracking = new EventSubscriptions() {
+                @Override
+                public <T> Subscription subscribe(String topic, String group, Class<T> type,
+                                                  EventHandler<? super T> handler) {
+                    Subscription subscription = subscriptions.subscribe(topic, group, type, handler);
+                    active.add(subscription);
+                    return subscription;
+                }
+            };
+            subscribers.orderedStream().forEach(subscriber -> subscriber.subscribe(tracking));
+            running = true;
+        }
+
+        @Override
+        public synchronized void stop() {
+            active.forEach(EventSubscriptions.Subscription::close);
+            active.clear();
+            running = false;
+        }
+
+        @Override
+        public synchronized boolean isRunning() {
+            return running;
+        }
+    }
+}
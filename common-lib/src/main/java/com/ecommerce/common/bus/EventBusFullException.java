@@ -0,0 +1,12 @@
+package com.ecommerce.common.bus;
+
+/**
+ * Thrown when an in-process subscriber falls so far behind that its ring buffer stays full for
+ * longer than the bus waits to publish.
+ */
+public class EventBusFullException extends RuntimeException {
+
+    public EventBusFullException(String message) {
+        super(message);
+    }
+}
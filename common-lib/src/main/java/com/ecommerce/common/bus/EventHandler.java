@@ -0,0 +1,15 @@
+package com.ecommerce.common.bus;
+
+import java.util.Map;
+
+/**
+ * Handles one event delivered by an {@link EventSubscriptions bus subscription}, with the
+ * headers it was published with.
+ *
+ * @param <T> the event type
+ */
+@FunctionalInterface
+public interface EventHandler<T> {
+
+    void handle(T event, Map<String, byte[]> headers);
+}
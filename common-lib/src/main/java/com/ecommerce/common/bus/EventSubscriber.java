@@ -0,0 +1,17 @@
+package com.ecommerce.common.bus;
+
+/**
+ * A consumer of the platform's events that can also receive them from a bus without listener
+ * containers of its own, such as the {@link InProcessEventBus}.
+ *
+ * <p>On Kafka, consumers receive events through their {@code @KafkaListener} methods, which
+ * keep Kafka-only behaviour: retry and dead-letter topics, manual acknowledgements and batch
+ * polls. Their subscriptions usually hand each event to the same method.
+ */
+public interface EventSubscriber {
+
+    /**
+     * Subscribes this consumer's handlers; called once when the service starts.
+     */
+    void subscribe(EventSubscriptions subscriptions);
+}
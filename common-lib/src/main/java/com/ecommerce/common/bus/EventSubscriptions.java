@@ -0,0 +1,26 @@
+package com.ecommerce.common.bus;
+
+/**
+ * Subscribes handlers to a bus that delivers events itself, such as the
+ * {@link InProcessEventBus}. On Kafka, listener containers deliver the events instead.
+ */
+public interface EventSubscriptions {
+
+    /**
+     * Delivers the events of {@code type} published on {@code topic} to {@code handler}, one
+     * at a time per key. As with Kafka consumer groups, each group receives every event once;
+     * a group has at most one subscription per topic.
+     *
+     * @throws IllegalStateException if {@code group} is already subscribed to {@code topic}
+     */
+    <T> Subscription subscribe(String topic, String group, Class<T> type, EventHandler<? super T> handler);
+
+    /**
+     * A handler's subscription to a topic; closing it stops deliveries.
+     */
+    interface Subscription extends AutoCloseable {
+
+        @Override
+        void close();
+    }
+}
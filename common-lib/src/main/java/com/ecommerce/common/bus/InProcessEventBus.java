@@ -0,0 +1,388 @@
+package com.ecommerce.common.bus;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Delivers events between services running in the same JVM, without serializing them and
+ * without a broker. Every subscription has {@code partitions} {@link RingBuffer ring buffers},
+ * each drained by its own thread; an event goes to the partition its key hashes to, so events
+ * with the same key are handled one at a time and in order, as with Kafka partitions.
+ *
+ * <p>Publishing only enqueues: the future is complete when every subscription has the event.
+ * A dispatcher thread spins briefly when its buffer runs empty, so bursts are handed over in
+ * microseconds, and then parks until a publisher wakes it. When a buffer is full, publishing
+ * waits up to {@code publishTimeout} for room and then fails with an
+ * {@link EventBusFullException}; subscriptions that already took the event keep it, so the
+ * publisher's retry may deliver it twice, which consumers already deduplicate.
+ *
+ * <p>A handler that throws gets the event again, up to {@code maxAttempts} times in all, after
+ * a backoff starting at {@code retryBackoff} and doubling with each attempt. The partition
+ * waits meanwhile, so events with the same key stay in order. An event that still fails is
+ * logged and kept as a {@link DeadLetter}, up to {@code deadLetterCapacity} of them with the
+ * oldest dropped first, until {@link #replayDeadLetters} hands it to its subscription again.
+ *
+ * <p>Events are handed to every subscription as the same object, so handlers must not modify
+ * them. Nothing is persisted: events still buffered or dead-lettered when the JVM stops are
+ * lost.
+ */
+@Slf4j
+public class InProcessEventBus implements EventBus, EventSubscriptions, AutoCloseable {
+
+    private static final int IDLE_SPINS = 200;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final long FULL_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+    private static final long CLOSE_TIMEOUT_MILLIS = 10_000;
+    private static final int DEFAULT_MAX_ATTEMPTS = 3;
+    private static final Duration DEFAULT_RETRY_BACKOFF = Duration.ofMillis(100);
+    private static final int DEFAULT_DEAD_LETTER_CAPACITY = 10_000;
+
+    private final int bufferSize;
+    private final int partitions;
+    private final long publishTimeoutNanos;
+    private final int maxAttempts;
+    private final long retryBackoffNanos;
+    private final int deadLetterCapacity;
+    private final Map<String, List<GroupSubscription>> subscriptionsByTopic = new ConcurrentHashMap<>();
+    private final ArrayDeque<DeadLetter> deadLetters = new ArrayDeque<>();
+    private volatile boolean closed;
+
+    /**
+     * @param bufferSize events each partition of a subscription can hold; a power of two
+     */
+    public InProcessEventBus(int bufferSize, int partitions, Duration publishTimeout) {
+        this(bufferSize, partitions, publishTimeout, DEFAULT_MAX_ATTEMPTS, DEFAULT_RETRY_BACKOFF,
+                DEFAULT_DEAD_LETTER_CAPACITY);
+    }
+
+    /**
+     * @param bufferSize  events each partition of a subscription can hold; a power of two
+     * @param maxAttempts deliveries of an event whose handler keeps failing, the first included
+     */
+    public InProcessEventBus(int bufferSize, int partitions, Duration publishTimeout, int maxAttempts,
+                             Duration retryBackoff, int deadLetterCapacity) {
+        if (bufferSize < 2 || Integer.bitCount(bufferSize) != 1) {
+            throw new IllegalArgumentException("Buffer size must be a power of two, was " + bufferSize);
+        }
+        if (partitions < 1) {
+            throw new IllegalArgumentException("A subscription needs at least one partition");
+        }
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("An event needs at least one attempt");
+        }
+        this.bufferSize = bufferSize;
+        this.partitions = partitions;
+        this.publishTimeoutNanos = publishTimeout.toNanos();
+        this.maxAttempts = maxAttempts;
+        this.retryBackoffNanos = retryBackoff.toNanos();
+        this.deadLetterCapacity = deadLetterCapacity;
+    }
+
+    @Override
+    public CompletableFuture<Void> publish(String topic, String key, Object event, Map<String, byte[]> headers) {
+        if (closed) {
+            return CompletableFuture.failedFuture(new IllegalStateException("Event bus is closed"));
+        }
+        Delivery delivery = new Delivery(topic, key, event, headers);
+        int partition = partition(key);
+        for (GroupSubscription subscription : subscriptionsByTopic.getOrDefault(topic, List.of())) {
+            if (!subscription.offer(partition, delivery)) {
+                return CompletableFuture.failedFuture(new EventBusFullException("Subscription of " + subscription.group
+                        + " to " + topic + " stayed full for " + Duration.ofNanos(publishTimeoutNanos)));
+            }
+        }
+        return CompletableFuture.completedFuture(null);
+    }
+
+    @Override
+    public <T> Subscription subscribe(String topic, String group, Class<T> type, EventHandler<? super T> handler) {
+        if (closed) {
+            throw new IllegalStateException("Event bus is closed");
+        }
+        GroupSubscription subscription = new GroupSubscription(topic, group, type, handler);
+        subscriptionsByTopic.compute(topic, (name, current) -> {
+            List<GroupSubscription> updated = current == null ? new ArrayList<>() : new ArrayList<>(current);
+            for (GroupSubscription existing : updated) {
+                if (existing.group.equals(group)) {
+                    throw new IllegalStateException(group + " is already subscribed to " + topic);
+                }
+            }
+            updated.add(subscription);
+            return List.copyOf(updated);
+        });
+        subscription.start();
+        log.info("{} subscribed to {} in process with {} partitions", group, topic, partitions);
+        return subscription;
+    }
+
+    /**
+     * Events waiting in the buffers of {@code group}'s subscription to {@code topic}.
+     */
+    public int getPending(String topic, String group) {
+        return subscriptionsByTopic.getOrDefault(topic, List.of()).stream()
+                .filter(subscription -> subscription.group.equals(group))
+                .mapToInt(GroupSubscription::pending)
+                .sum();
+    }
+
+    /**
+     * How many dead letters each subscription holds, by {@code <topic>/<group>}.
+     */
+    public Map<String, Long> getDeadLetters() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        synchronized (deadLetters) {
+            for (DeadLetter deadLetter : deadLetters) {
+                counts.merge(deadLetter.topic() + "/" + deadLetter.group(), 1L, Long::sum);
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * Hands the dead letters of {@code group}'s subscription to {@code topic} to it again, in
+     * the order they failed. Those that find no subscription, or no room in its buffer, stay.
+     *
+     * @return the events handed over
+     */
+    public int replayDeadLetters(String topic, String group) {
+        GroupSubscription subscription = subscriptionsByTopic.getOrDefault(topic, List.of()).stream()
+                .filter(candidate -> candidate.group.equals(group))
+                .findFirst()
+                .orElse(null);
+        if (subscription == null) {
+            return 0;
+        }
+        List<DeadLetter> replaying = new ArrayList<>();
+        synchronized (deadLetters) {
+            for (Iterator<DeadLetter> it = deadLetters.iterator(); it.hasNext(); ) {
+                DeadLetter deadLetter = it.next();
+                if (deadLetter.topic().equals(topic) && deadLetter.group().equals(group)) {
+                    replaying.add(deadLetter);
+                    it.remove();
+                }
+            }
+        }
+        int replayed = 0;
+        boolean full = false;
+        for (DeadLetter deadLetter : replaying) {
+            // Once the buffer stays full, the rest keep their order as dead letters
+            full = full || !subscription.offer(partition(deadLetter.key()),
+                    new Delivery(topic, deadLetter.key(), deadLetter.event(), deadLetter.headers()));
+            if (full) {
+                addDeadLetter(deadLetter);
+            } else {
+                replayed++;
+            }
+        }
+        log.info("Replayed {} of {} dead letters of {} on {}", replayed, replaying.size(), group, topic);
+        return replayed;
+    }
+
+    /**
+     * Stops every subscription; events still buffered are not delivered.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        subscriptionsByTopic.values().stream().flatMap(List::stream).forEach(GroupSubscription::close);
+    }
+
+    private int partition(String key) {
+        if (partitions == 1) {
+            return 0;
+        }
+        return key == null
+                ? ThreadLocalRandom.current().nextInt(partitions)
+                : (key.hashCode() & Integer.MAX_VALUE) % partitions;
+    }
+
+    private void addDeadLetter(DeadLetter deadLetter) {
+        synchronized (deadLetters) {
+            if (deadLetters.size() >= deadLetterCapacity) {
+                DeadLetter dropped = deadLetters.poll();
+                if (dropped != null) {
+                    log.warn("Dead letters full, dropped the oldest: {} on {} with key {}", dropped.group(),
+                            dropped.topic(), dropped.key());
+                }
+            }
+            if (deadLetterCapacity > 0) {
+                deadLetters.add(deadLetter);
+            }
+        }
+    }
+
+    private void remove(GroupSubscription subscription) {
+        subscriptionsByTopic.computeIfPresent(subscription.topic, (name, current) -> {
+            List<GroupSubscription> updated = new ArrayList<>(current);
+            updated.remove(subscription);
+            return updated.isEmpty() ? null : List.copyOf(updated);
+        });
+    }
+
+    private record Delivery(String topic, String key, Object event, Map<String, byte[]> headers) {
+    }
+
+    /**
+     * An event whose handler in {@code group} failed on every attempt, with the last failure.
+     */
+    public record DeadLetter(String topic, String group, String key, Object event, Map<String, byte[]> headers,
+                             String failure, Instant failedAt) {
+    }
+
+    private final class GroupSubscription implements Subscription {
+
+        private final String topic;
+        private final String group;
+        private final Class<?> type;
+        private final EventHandler<Object> handler;
+        private final Partition[] partitionsByIndex;
+
+        @SuppressWarnings("unchecked")
+        private GroupSubscription(String topic, String group, Class<?> type, EventHandler<?> handler) {
+            this.topic = topic;
+            this.group = group;
+            this.type = type;
+            this.handler = (EventHandler<Object>) handler;
+            this.partitionsByIndex = new Partition[partitions];
+            for (int i = 0; i < partitions; i++) {
+                partitionsByIndex[i] = new Partition("bus-" + group + "-" + topic + "-" + i);
+            }
+        }
+
+        private void start() {
+            for (Partition partition : partitionsByIndex) {
+                partition.thread.start();
+            }
+        }
+
+        private boolean offer(int index, Delivery delivery) {
+            Partition partition = partitionsByIndex[index];
+            long deadline = 0;
+            while (!partition.buffer.offer(delivery)) {
+                if (!partition.running) {
+                    // Closed while publishing: there is nobody left to deliver to
+                    return true;
+                }
+                long now = System.nanoTime();
+                if (deadline == 0) {
+                    deadline = now + publishTimeoutNanos;
+                } else if (now - deadline >= 0) {
+                    return false;
+                }
+                LockSupport.parkNanos(FULL_PARK_NANOS);
+            }
+            if (partition.waiting) {
+                LockSupport.unpark(partition.thread);
+            }
+            return true;
+        }
+
+        private int pending() {
+            int pending = 0;
+            for (Partition partition : partitionsByIndex) {
+                pending += partition.buffer.size();
+            }
+            return pending;
+        }
+
+        private void deliver(Delivery delivery, Partition partition) {
+            if (!type.isInstance(delivery.event())) {
+                log.warn("{} ignored a {} on {}, expected {}", group,
+                        delivery.event() == null ? "null event" : delivery.event().getClass().getSimpleName(),
+                        topic, type.getSimpleName());
+                return;
+            }
+            long backoffNanos = retryBackoffNanos;
+            for (int attempt = 1; ; attempt++) {
+                try {
+                    handler.handle(delivery.event(), delivery.headers());
+                    return;
+                } catch (RuntimeException ex) {
+                    if (attempt >= maxAttempts || !partition.running) {
+                        log.error("{} failed to handle the event on {} with key {} after {} attempts, dead-lettering it",
+                                group, topic, delivery.key(), attempt, ex);
+                        addDeadLetter(new DeadLetter(topic, group, delivery.key(), delivery.event(), delivery.headers(),
+                                ex.toString(), Instant.now()));
+                        return;
+                    }
+                    log.warn("{} failed to handle the event on {} with key {}, attempt {} of {}: {}", group, topic,
+                            delivery.key(), attempt, maxAttempts, ex.toString());
+                }
+                // Closing unparks the thread, and the next failure then dead-letters the event
+                LockSupport.parkNanos(this, backoffNanos);
+                backoffNanos *= 2;
+            }
+        }
+
+        @Override
+        public void close() {
+            remove(this);
+            for (Partition partition : partitionsByIndex) {
+                partition.running = false;
+                LockSupport.unpark(partition.thread);
+            }
+            for (Partition partition : partitionsByIndex) {
+                try {
+                    partition.thread.join(CLOSE_TIMEOUT_MILLIS);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                int dropped = partition.buffer.size();
+                if (dropped > 0) {
+                    log.warn("{} stopped with {} undelivered events on {}", group, dropped, topic);
+                }
+            }
+        }
+
+        private final class Partition implements Runnable {
+
+            private final RingBuffer<Delivery> buffer = new RingBuffer<>(bufferSize);
+            private final Thread thread;
+            private volatile boolean running = true;
+            private volatile boolean waiting;
+
+            private Partition(String name) {
+                this.thread = new Thread(this, name);
+                thread.setDaemon(true);
+            }
+
+            @Override
+            public void run() {
+                int idle = 0;
+                while (running) {
+                    Delivery delivery = buffer.poll();
+                    if (delivery != null) {
+                        idle = 0;
+                        deliver(delivery, this);
+                    } else if (++idle < IDLE_SPINS) {
+                        Thread.onSpinWait();
+                    } else {
+                        // Publishers read the flag after enqueueing and this thread checks the buffer
+                        // after setting it, both with volatile accesses, so one of them sees the
+                        // other: an event is never left waiting out the park
+                        waiting = true;
+                        if (buffer.isEmpty() && running) {
+                            LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                        }
+                        waiting = false;
+                        idle = 0;
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.ecommerce.common.bus;
+
+import com.ecommerce.common.kafka.KafkaEventSender;
+import lombok.RequiredArgsConstructor;
+import org.apache.kafka.clients.producer.ProducerRecord;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Publishes events to Kafka through the service's {@link KafkaEventSender}, which bounds the
+ * sends in flight and records their latency.
+ */
+@RequiredArgsConstructor
+public class KafkaEventBus implements EventBus {
+
+    private final KafkaEventSender eventSender;
+
+    @Override
+    public CompletableFuture<Void> publish(String topic, String key, Object event, Map<String, byte[]> headers) {
+        ProducerRecord<String, Object> record = new ProducerRecord<>(topic, key, event);
+        headers.forEach((name, value) -> record.headers().add(name, value));
+        return eventSender.send(record).thenApply(result -> null);
+    }
+}
@@ -0,0 +1,101 @@
+package com.ecommerce.common.bus;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded lock-free queue for many producers and a single consumer, after Dmitry Vyukov's
+ * bounded queue. Every slot carries a sequence number: a producer claims the next position
+ * with one compare-and-set on the tail, writes its element and then releases the slot by
+ * advancing the slot's sequence, which is what the consumer waits for. Neither side ever
+ * takes a lock, and a producer stalled between claim and release only holds up the consumer
+ * at that slot.
+ *
+ * @param <E> the element type
+ */
+final class RingBuffer<E> {
+
+    private final int mask;
+    private final Object[] elements;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong head = new AtomicLong();
+
+    /**
+     * @param capacity a power of two
+     */
+    RingBuffer(int capacity) {
+        if (capacity < 2 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Ring buffer capacity must be a power of two, was " + capacity);
+        }
+        this.mask = capacity - 1;
+        this.elements = new Object[capacity];
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Adds {@code element} unless the buffer is full; safe to call from any thread.
+     */
+    boolean offer(E element) {
+        long position;
+        int index;
+        while (true) {
+            position = tail.get();
+            index = (int) position & mask;
+            long lag = sequences.get(index) - position;
+            if (lag == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    break;
+                }
+            } else if (lag < 0) {
+                // The slot still holds the element from one lap ago
+                return false;
+            }
+        }
+        elements[index] = element;
+        // A volatile write, not just a release: the consumer's wake-up check relies on it
+        sequences.set(index, position + 1);
+        return true;
+    }
+
+    /**
+     * Removes the oldest element, or returns null if there is none; only the consumer thread
+     * may call this.
+     */
+    @SuppressWarnings("unchecked")
+    E poll() {
+        long position = head.getPlain();
+        int index = (int) position & mask;
+        if (sequences.getAcquire(index) != position + 1) {
+            return null;
+        }
+        E element = (E) elements[index];
+        elements[index] = null;
+        sequences.setRelease(index, position + elements.length);
+        head.setRelease(position + 1);
+        return element;
+    }
+
+    /**
+     * Whether the next element is missing, read with a volatile read so that it is ordered
+     * with the consumer's preceding volatile writes; only the consumer thread may call this.
+     */
+    boolean isEmpty() {
+        long position = head.getPlain();
+        return sequences.get((int) position & mask) != position + 1;
+    }
+
+    /**
+     * Elements waiting, as seen at some point during the call.
+     */
+    int size() {
+        return (int) Math.max(0, tail.get() - head.getAcquire());
+    }
+
+    int capacity() {
+        return elements.length;
+    }
+}
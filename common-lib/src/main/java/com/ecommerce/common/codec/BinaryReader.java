@@ -0,0 +1,95 @@
+package com.ecommerce.common.codec;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Cursor over an encoded event, bounded by {@code limit} while a nested message is read.
+ */
+final class BinaryReader {
+
+    private final byte[] buffer;
+    private int position;
+    private int limit;
+
+    BinaryReader(byte[] buffer) {
+        this.buffer = buffer;
+        this.limit = buffer.length;
+    }
+
+    boolean hasRemaining() {
+        return position < limit;
+    }
+
+    int readByte() {
+        checkAvailable(1);
+        return buffer[position++];
+    }
+
+    long readVarint() {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            checkAvailable(1);
+            byte b = buffer[position++];
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new EventCodecException("Malformed varint at offset " + position);
+    }
+
+    long readZigZag() {
+        long value = readVarint();
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    int readLength() {
+        long length = readVarint();
+        if (length < 0 || length > limit - position) {
+            throw new EventCodecException("Length " + length + " at offset " + position + " runs past the end of the event");
+        }
+        return (int) length;
+    }
+
+    String readString(int length) {
+        String value = new String(buffer, position, length, StandardCharsets.UTF_8);
+        position += length;
+        return value;
+    }
+
+    byte[] readBytes(int length) {
+        byte[] bytes = new byte[length];
+        System.arraycopy(buffer, position, bytes, 0, length);
+        position += length;
+        return bytes;
+    }
+
+    void skip(int length) {
+        position += length;
+    }
+
+    int position() {
+        return position;
+    }
+
+    /**
+     * Limits reading to the next {@code length} bytes and returns the previous limit for
+     * {@link #popLimit}.
+     */
+    int pushLimit(int length) {
+        int previous = limit;
+        limit = position + length;
+        return previous;
+    }
+
+    void popLimit(int previous) {
+        position = limit;
+        limit = previous;
+    }
+
+    private void checkAvailable(int bytes) {
+        if (position + bytes > limit) {
+            throw new EventCodecException("Event truncated at offset " + position);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.ecommerce.common.codec;
+
+import java.util.Arrays;
+
+/**
+ * Growable byte buffer with the varint primitives of the event encoding.
+ */
+final class BinaryWriter {
+
+    private byte[] buffer;
+    private int position;
+
+    BinaryWriter(int initialCapacity) {
+        buffer = new byte[initialCapacity];
+    }
+
+    void writeByte(int value) {
+        ensureCapacity(1);
+        buffer[position++] = (byte) value;
+    }
+
+    void writeVarint(long value) {
+        ensureCapacity(10);
+        while ((value & ~0x7FL) != 0) {
+            buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[position++] = (byte) value;
+    }
+
+    void writeZigZag(long value) {
+        writeVarint((value << 1) ^ (value >> 63));
+    }
+
+    void writeBytes(byte[] bytes) {
+        ensureCapacity(bytes.length);
+        System.arraycopy(bytes, 0, buffer, position, bytes.length);
+        position += bytes.length;
+    }
+
+    void writeLengthPrefixed(byte[] bytes) {
+        writeVarint(bytes.length);
+        writeBytes(bytes);
+    }
+
+    /**
+     * Reserves a one-byte length prefix for content written next; {@link #endLength} fills it
+     * in, moving the content if its length needs more bytes.
+     */
+    int beginLength() {
+        writeByte(0);
+        return position;
+    }
+
+    void endLength(int start) {
+        int length = position - start;
+        if (length < 0x80) {
+            buffer[start - 1] = (byte) length;
+            return;
+        }
+        int prefixLength = varintSize(length);
+        ensureCapacity(prefixLength - 1);
+        System.arraycopy(buffer, start, buffer, start + prefixLength - 1, length);
+        position = start - 1;
+        writeVarint(length);
+        position += length;
+    }
+
+    byte[] toByteArray() {
+        return Arrays.copyOf(buffer, position);
+    }
+
+    private static int varintSize(int value) {
+        int size = 1;
+        while ((value & ~0x7F) != 0) {
+            value >>>= 7;
+            size++;
+        }
+        return size;
+    }
+
+    private void ensureCapacity(int additional) {
+        if (position + additional > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + additional));
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package com.ecommerce.common.codec;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact binary encoding of events. An encoded event is a magic byte, the format version,
+ * the event's type ID and schema version as varints, and then its non-null fields as
+ * {@code (number << 3 | wire type)} tags followed by their values, in the style of Protocol
+ * Buffers. Fields the reader's schema does not know are skipped, and fields the writer did
+ * not send stay unset, so producers and consumers can run different schema versions.
+ *
+ * <p>The magic byte is never the first byte of a JSON document, so {@link #isBinary} tells the
+ * two encodings apart while topics still hold JSON records.
+ */
+public class EventCodec {
+
+    public static final byte MAGIC = (byte) 0xEC;
+    public static final byte FORMAT_VERSION = 1;
+
+    private static final int INITIAL_BUFFER_SIZE = 128;
+    private static final int BIG_DECIMAL_FLAG = 1;
+
+    private static final EventCodec STANDARD = new EventCodec(EventSchemas.all());
+
+    private final Map<Class<?>, EventSchema<?>> schemasByType = new HashMap<>();
+    private final Map<Integer, EventSchema<?>> schemasByTypeId = new HashMap<>();
+
+    public EventCodec(Collection<EventSchema<?>> schemas) {
+        for (EventSchema<?> schema : schemas) {
+            if (schema.typeId() <= 0) {
+                throw new IllegalArgumentException(schema.type().getSimpleName() + " needs a positive type ID");
+            }
+            EventSchema<?> clash = schemasByTypeId.put(schema.typeId(), schema);
+            if (clash != null) {
+                throw new IllegalArgumentException(clash.type().getSimpleName() + " and " + schema.type().getSimpleName()
+                        + " share type ID " + schema.typeId());
+            }
+            schemasByType.put(schema.type(), schema);
+        }
+    }
+
+    /**
+     * The codec for the platform's events in {@link EventSchemas}.
+     */
+    public static EventCodec standard() {
+        return STANDARD;
+    }
+
+    public static boolean isBinary(byte[] data) {
+        return data != null && data.length > 1 && data[0] == MAGIC;
+    }
+
+    public boolean supports(Class<?> type) {
+        return schemasByType.containsKey(type);
+    }
+
+    public byte[] encode(Object event) {
+        EventSchema<?> schema = schemasByType.get(event.getClass());
+        if (schema == null) {
+            throw new EventCodecException("No schema for " + event.getClass().getName());
+        }
+        return encode(schema, event);
+    }
+
+    /**
+     * Encodes {@code event} with a given schema, such as an {@linkplain EventSchema#atVersion
+     * earlier version} of its own.
+     */
+    public static byte[] encode(EventSchema<?> schema, Object event) {
+        BinaryWriter writer = new BinaryWriter(INITIAL_BUFFER_SIZE);
+        writer.writeByte(MAGIC);
+        writer.writeByte(FORMAT_VERSION);
+        writer.writeVarint(schema.typeId());
+        writer.writeVarint(schema.version());
+        writeFields(writer, schema, event);
+        return writer.toByteArray();
+    }
+
+    public Object decode(byte[] data) {
+        if (!isBinary(data)) {
+            throw new EventCodecException("Not a binary-encoded event");
+        }
+        BinaryReader reader = new BinaryReader(data);
+        reader.readByte();
+        int formatVersion = reader.readByte();
+        if (formatVersion != FORMAT_VERSION) {
+            throw new EventCodecException("Unsupported event format version " + formatVersion);
+        }
+        int typeId = (int) reader.readVarint();
+        EventSchema<?> schema = schemasByTypeId.get(typeId);
+        if (schema == null) {
+            throw new EventCodecException("Unknown event type ID " + typeId);
+        }
+        reader.readVarint(); // the writer's schema version; fields are resolved by number
+        return readFields(reader, schema);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> void writeFields(BinaryWriter writer, EventSchema<T> schema, Object message) {
+        T typed = (T) message;
+        for (EventSchema.Field<T> field : schema.fields()) {
+            Object value = field.getter().apply(typed);
+            if (value == null) {
+                continue;
+            }
+            writer.writeVarint((long) field.number() << 3 | field.type().wireType());
+            switch (field.type()) {
+                case BOOL -> writer.writeByte((Boolean) value ? 1 : 0);
+                case INT32 -> writer.writeZigZag((Integer) value);
+                case INT64 -> writer.writeZigZag((Long) value);
+                case STRING -> writer.writeLengthPrefixed(((String) value).getBytes(StandardCharsets.UTF_8));
+                case DECIMAL -> writeDecimal(writer, (BigDecimal) value);
+                case TIMESTAMP -> writeTimestamp(writer, (LocalDateTime) value);
+                case MESSAGE_LIST -> writeMessageList(writer, field, (List<?>) value);
+            }
+        }
+    }
+
+    private static void writeDecimal(BinaryWriter writer, BigDecimal value) {
+        int start = writer.beginLength();
+        BigInteger unscaled = value.unscaledValue();
+        if (unscaled.bitLength() < 64) {
+            writer.writeZigZag((long) value.scale() << 1);
+            writer.writeZigZag(unscaled.longValue());
+        } else {
+            writer.writeZigZag((long) value.scale() << 1 | BIG_DECIMAL_FLAG);
+            writer.writeBytes(unscaled.toByteArray());
+        }
+        writer.endLength(start);
+    }
+
+    private static void writeTimestamp(BinaryWriter writer, LocalDateTime value) {
+        int start = writer.beginLength();
+        writer.writeZigZag(value.toEpochSecond(ZoneOffset.UTC));
+        writer.writeVarint(value.getNano());
+        writer.endLength(start);
+    }
+
+    private static void writeMessageList(BinaryWriter writer, EventSchema.Field<?> field, List<?> elements) {
+        int start = writer.beginLength();
+        writer.writeVarint(elements.size());
+        for (Object element : elements) {
+            if (element == null) {
+                throw new EventCodecException("Field " + field.name() + " contains a null element");
+            }
+            int elementStart = writer.beginLength();
+            writeFields(writer, field.elementSchema(), element);
+            writer.endLength(elementStart);
+        }
+        writer.endLength(start);
+    }
+
+    private static <T> T readFields(BinaryReader reader, EventSchema<T> schema) {
+        T message = schema.newInstance();
+        while (reader.hasRemaining()) {
+            long tag = reader.readVarint();
+            int number = (int) (tag >>> 3);
+            int wireType = (int) (tag & 7);
+            EventSchema.Field<T> field = schema.field(number);
+            if (field == null) {
+                skip(reader, wireType, number);
+                continue;
+            }
+            if (field.type().wireType() != wireType) {
+                throw new EventCodecException(schema.type().getSimpleName() + " field " + number + " (" + field.name()
+                        + ") has wire type " + wireType + ", expected " + field.type());
+            }
+            Object value = switch (field.type()) {
+                case BOOL -> reader.readVarint() != 0;
+                case INT32 -> (int) reader.readZigZag();
+                case INT64 -> reader.readZigZag();
+                case STRING -> reader.readString(reader.readLength());
+                case DECIMAL -> readDecimal(reader);
+                case TIMESTAMP -> readTimestamp(reader);
+                case MESSAGE_LIST -> readMessageList(reader, field.elementSchema());
+            };
+            field.setter().accept(message, value);
+        }
+        return message;
+    }
+
+    private static BigDecimal readDecimal(BinaryReader reader) {
+        int length = reader.readLength();
+        int end = reader.position() + length;
+        int previousLimit = reader.pushLimit(length);
+        long header = reader.readZigZag();
+        int scale = (int) (header >> 1);
+        BigDecimal value = (header & BIG_DECIMAL_FLAG) == 0
+                ? BigDecimal.valueOf(reader.readZigZag(), scale)
+                : new BigDecimal(new BigInteger(reader.readBytes(end - reader.position())), scale);
+        reader.popLimit(previousLimit);
+        return value;
+    }
+
+    private static LocalDateTime readTimestamp(BinaryReader reader) {
+        int length = reader.readLength();
+        int previousLimit = reader.pushLimit(length);
+        LocalDateTime value = LocalDateTime.ofEpochSecond(reader.readZigZag(), (int) reader.readVarint(), ZoneOffset.UTC);
+        reader.popLimit(previousLimit);
+        return value;
+    }
+
+    private static List<Object> readMessageList(BinaryReader reader, EventSchema<?> elementSchema) {
+        int previousLimit = reader.pushLimit(reader.readLength());
+        int count = (int) reader.readVarint();
+        List<Object> elements = new ArrayList<>(Math.min(count, 1024));
+        for (int i = 0; i < count; i++) {
+            int elementLimit = reader.pushLimit(reader.readLength());
+            elements.add(readFields(reader, elementSchema));
+            reader.popLimit(elementLimit);
+        }
+        reader.popLimit(previousLimit);
+        return elements;
+    }
+
+    private static void skip(BinaryReader reader, int wireType, int number) {
+        switch (wireType) {
+            case FieldType.VARINT -> reader.readVarint();
+            case FieldType.LENGTH_DELIMITED -> reader.skip(reader.readLength());
+            default -> throw new EventCodecException("Field " + number + " has unknown wire type " + wireType);
+        }
+    }
+}
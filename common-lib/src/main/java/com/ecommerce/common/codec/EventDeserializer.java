@@ -0,0 +1,55 @@
+package com.ecommerce.common.codec;
+
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+
+import java.util.Map;
+
+/**
+ * Kafka value deserializer for records written by {@link EventSerializer}. Binary records are
+ * decoded by their type ID; anything else, such as JSON records from before the switch, goes
+ * through Spring's {@link JsonDeserializer}, configured from the same consumer properties, so
+ * the {@code spring.json.*} type mappings still apply to them.
+ */
+public class EventDeserializer implements Deserializer<Object> {
+
+    private final EventCodec codec;
+    private final JsonDeserializer<Object> jsonDeserializer = new JsonDeserializer<>();
+
+    public EventDeserializer() {
+        this(EventCodec.standard());
+    }
+
+    public EventDeserializer(EventCodec codec) {
+        this.codec = codec;
+    }
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        jsonDeserializer.configure(configs, isKey);
+    }
+
+    @Override
+    public Object deserialize(String topic, byte[] data) {
+        return deserialize(topic, null, data);
+    }
+
+    @Override
+    public Object deserialize(String topic, Headers headers, byte[] data) {
+        if (EventCodec.isBinary(data)) {
+            try {
+                return codec.decode(data);
+            } catch (EventCodecException ex) {
+                throw new SerializationException("Can't deserialize binary event from topic " + topic, ex);
+            }
+        }
+        return headers != null ? jsonDeserializer.deserialize(topic, headers, data) : jsonDeserializer.deserialize(topic, data);
+    }
+
+    @Override
+    public void close() {
+        jsonDeserializer.close();
+    }
+}
@@ -0,0 +1,285 @@
+package com.ecommerce.common.codec;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Binary layout of one event type, or of a message nested in one: numbered, typed fields read
+ * and written through the event's getters and setters.
+ *
+ * <p>Field numbers, not names or positions, identify fields on the wire. The rules that keep
+ * versions compatible in both directions, checked by {@link #checkCompatibleWith}, are:
+ * <ul>
+ *     <li>a new field gets a new number and the version it was added in ({@link Builder#since});
+ *     readers of older versions skip it, and readers of newer versions leave it unset when it
+ *     is missing</li>
+ *     <li>a field keeps its type for good; to change the type, add a new field</li>
+ *     <li>a removed field's number is {@linkplain Builder#reserved reserved} so it is never
+ *     reused</li>
+ * </ul>
+ *
+ * @param <T> the event class
+ */
+public final class EventSchema<T> {
+
+    private final Class<T> type;
+    private final Supplier<T> factory;
+    private final int typeId;
+    private final int version;
+    private final List<Field<T>> fields;
+    private final SortedSet<Integer> reserved;
+    private final Field<T>[] fieldsByNumber;
+
+    @SuppressWarnings("unchecked")
+    private EventSchema(Builder<T> builder) {
+        this.type = builder.type;
+        this.factory = builder.factory;
+        this.typeId = builder.typeId;
+        this.version = builder.version;
+        this.fields = List.copyOf(builder.fields);
+        this.reserved = Collections.unmodifiableSortedSet(new TreeSet<>(builder.reserved));
+        int maxNumber = fields.stream().mapToInt(Field::number).max().orElse(0);
+        this.fieldsByNumber = new Field[maxNumber + 1];
+        for (Field<T> field : fields) {
+            fieldsByNumber[field.number()] = field;
+        }
+    }
+
+    /**
+     * Starts the schema of {@code type}, version 1 unless {@link Builder#version} says
+     * otherwise. Nested message schemas need no type ID.
+     */
+    public static <T> Builder<T> builder(Class<T> type, Supplier<T> factory) {
+        return new Builder<>(type, factory);
+    }
+
+    public Class<T> type() {
+        return type;
+    }
+
+    public int typeId() {
+        return typeId;
+    }
+
+    public int version() {
+        return version;
+    }
+
+    public List<Field<T>> fields() {
+        return fields;
+    }
+
+    public SortedSet<Integer> reserved() {
+        return reserved;
+    }
+
+    /**
+     * A builder holding this schema's fields, for deriving the next version.
+     */
+    public Builder<T> toBuilder() {
+        Builder<T> builder = new Builder<>(type, factory).typeId(typeId).version(version);
+        fields.forEach(builder::add);
+        builder.reserved.addAll(reserved);
+        return builder;
+    }
+
+    /**
+     * This schema as a writer at an earlier {@code version} saw it: only the fields added up to
+     * that version. Useful to produce old payloads when checking compatibility.
+     */
+    public EventSchema<T> atVersion(int version) {
+        if (version < 1 || version > this.version) {
+            throw new IllegalArgumentException(type.getSimpleName() + " has no version " + version);
+        }
+        Builder<T> builder = new Builder<>(type, factory).typeId(typeId).version(version);
+        for (Field<T> field : fields) {
+            if (field.since() <= version) {
+                builder.add(field);
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Fails unless readers of this schema can read what writers of {@code previous} wrote and
+     * the other way round: no field of {@code previous} changed type or disappeared without its
+     * number being reserved, and no reserved number is in use again.
+     *
+     * @throws IllegalStateException describing the first incompatibility
+     */
+    public void checkCompatibleWith(EventSchema<?> previous) {
+        String name = type.getSimpleName();
+        if (previous.typeId != typeId) {
+            throw new IllegalStateException(name + " type ID changed from " + previous.typeId + " to " + typeId);
+        }
+        if (previous.version > version) {
+            throw new IllegalStateException(name + " version went back from " + previous.version + " to " + version);
+        }
+        for (Field<?> old : previous.fields) {
+            Field<T> current = field(old.number());
+            if (current == null && !reserved.contains(old.number())) {
+                throw new IllegalStateException(name + " field " + old.number() + " (" + old.name()
+                        + ") was removed without reserving its number");
+            }
+            if (current != null && current.type() != old.type()) {
+                throw new IllegalStateException(name + " field " + old.number() + " (" + old.name()
+                        + ") changed type from " + old.type() + " to " + current.type());
+            }
+            if (current != null && current.type() == FieldType.MESSAGE_LIST) {
+                current.elementSchema().checkCompatibleWith(old.elementSchema());
+            }
+        }
+        for (Integer number : previous.reserved) {
+            if (field(number) != null) {
+                throw new IllegalStateException(name + " field " + number + " reuses a reserved number");
+            }
+        }
+    }
+
+    Field<T> field(int number) {
+        return number < fieldsByNumber.length ? fieldsByNumber[number] : null;
+    }
+
+    T newInstance() {
+        return factory.get();
+    }
+
+    @Override
+    public String toString() {
+        return type.getSimpleName() + " v" + version + " " + fields + (reserved.isEmpty() ? "" : " reserved " + reserved);
+    }
+
+    /**
+     * One field: its number, name, type and the schema version that added it.
+     */
+    public record Field<T>(int number, String name, FieldType type, int since,
+                           Function<T, Object> getter, BiConsumer<T, Object> setter, EventSchema<?> elementSchema) {
+
+        @Override
+        public String toString() {
+            return number + ":" + name + ":" + type + (since > 1 ? "@" + since : "");
+        }
+    }
+
+    public static final class Builder<T> {
+
+        private final Class<T> type;
+        private final Supplier<T> factory;
+        private final List<Field<T>> fields = new ArrayList<>();
+        private final SortedSet<Integer> reserved = new TreeSet<>();
+        private int typeId;
+        private int version = 1;
+        private int since = 1;
+
+        private Builder(Class<T> type, Supplier<T> factory) {
+            this.type = type;
+            this.factory = factory;
+        }
+
+        /**
+         * Identifies the event type on the wire; must be unique within a codec and never change.
+         */
+        public Builder<T> typeId(int typeId) {
+            this.typeId = typeId;
+            return this;
+        }
+
+        public Builder<T> version(int version) {
+            this.version = version;
+            return this;
+        }
+
+        /**
+         * Marks the fields added after this call as introduced in {@code version}.
+         */
+        public Builder<T> since(int version) {
+            this.since = version;
+            return this;
+        }
+
+        /**
+         * Retires the numbers of removed fields.
+         */
+        public Builder<T> reserved(int... numbers) {
+            for (int number : numbers) {
+                reserved.add(number);
+            }
+            return this;
+        }
+
+        public Builder<T> bool(int number, String name, Function<T, Boolean> getter, BiConsumer<T, Boolean> setter) {
+            return field(number, name, FieldType.BOOL, getter, setter, null);
+        }
+
+        public Builder<T> int32(int number, String name, Function<T, Integer> getter, BiConsumer<T, Integer> setter) {
+            return field(number, name, FieldType.INT32, getter, setter, null);
+        }
+
+        public Builder<T> int64(int number, String name, Function<T, Long> getter, BiConsumer<T, Long> setter) {
+            return field(number, name, FieldType.INT64, getter, setter, null);
+        }
+
+        public Builder<T> string(int number, String name, Function<T, String> getter, BiConsumer<T, String> setter) {
+            return field(number, name, FieldType.STRING, getter, setter, null);
+        }
+
+        public Builder<T> decimal(int number, String name, Function<T, BigDecimal> getter, BiConsumer<T, BigDecimal> setter) {
+            return field(number, name, FieldType.DECIMAL, getter, setter, null);
+        }
+
+        public Builder<T> timestamp(int number, String name, Function<T, LocalDateTime> getter,
+                                    BiConsumer<T, LocalDateTime> setter) {
+            return field(number, name, FieldType.TIMESTAMP, getter, setter, null);
+        }
+
+        public <E> Builder<T> messageList(int number, String name, EventSchema<E> elementSchema,
+                                          Function<T, List<E>> getter, BiConsumer<T, List<E>> setter) {
+            return field(number, name, FieldType.MESSAGE_LIST, getter, setter, elementSchema);
+        }
+
+        @SuppressWarnings("unchecked")
+        private <V> Builder<T> field(int number, String name, FieldType fieldType, Function<T, V> getter,
+                                     BiConsumer<T, V> setter, EventSchema<?> elementSchema) {
+            return add(new Field<>(number, name, fieldType, since,
+                    (Function<T, Object>) getter, (BiConsumer<T, Object>) setter, elementSchema));
+        }
+
+        private Builder<T> add(Field<T> field) {
+            fields.add(field);
+            return this;
+        }
+
+        public EventSchema<T> build() {
+            String name = type.getSimpleName();
+            Map<Integer, String> numbers = new TreeMap<>();
+            for (Field<T> field : fields) {
+                if (field.number() < 1 || field.number() > 1 << 20) {
+                    throw new IllegalStateException(name + " field " + field.name() + " has invalid number " + field.number());
+                }
+                String clash = numbers.put(field.number(), field.name());
+                if (clash != null) {
+                    throw new IllegalStateException(name + " fields " + clash + " and " + field.name()
+                            + " share number " + field.number());
+                }
+                if (reserved.contains(field.number())) {
+                    throw new IllegalStateException(name + " field " + field.name() + " uses reserved number " + field.number());
+                }
+                if (field.since() < 1 || field.since() > version) {
+                    throw new IllegalStateException(name + " field " + field.name() + " is from version " + field.since()
+                            + " but the schema is at version " + version);
+                }
+            }
+            return new EventSchema<>(this);
+        }
+    }
+}
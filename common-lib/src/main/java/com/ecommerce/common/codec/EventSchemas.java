@@ -0,0 +1,94 @@
+package com.ecommerce.common.codec;
+
+import com.ecommerce.common.event.InventoryChangedEvent;
+import com.ecommerce.common.event.InventoryReservedEvent;
+import com.ecommerce.common.event.OrderCancelledEvent;
+import com.ecommerce.common.event.OrderCreatedEvent;
+import com.ecommerce.common.event.OrderCreatedEvent.OrderItemDto;
+import com.ecommerce.common.event.PaymentCompletedEvent;
+
+import java.util.List;
+
+/**
+ * Binary schemas of the platform's events. Adding a field to an event class means adding it
+ * here too, under a new number and {@code since} the next version; see {@link EventSchema}
+ * for the compatibility rules.
+ */
+public final class EventSchemas {
+
+    public static final EventSchema<OrderItemDto> ORDER_ITEM = EventSchema
+            .builder(OrderItemDto.class, OrderItemDto::new)
+            .int64(1, "productId", OrderItemDto::getProductId, OrderItemDto::setProductId)
+            .int32(2, "quantity", OrderItemDto::getQuantity, OrderItemDto::setQuantity)
+            .decimal(3, "price", OrderItemDto::getPrice, OrderItemDto::setPrice)
+            .build();
+
+    public static final EventSchema<OrderCreatedEvent> ORDER_CREATED = EventSchema
+            .builder(OrderCreatedEvent.class, OrderCreatedEvent::new)
+            .typeId(1)
+            .int64(1, "orderId", OrderCreatedEvent::getOrderId, OrderCreatedEvent::setOrderId)
+            .int64(2, "userId", OrderCreatedEvent::getUserId, OrderCreatedEvent::setUserId)
+            .decimal(3, "totalAmount", OrderCreatedEvent::getTotalAmount, OrderCreatedEvent::setTotalAmount)
+            .messageList(4, "orderItems", ORDER_ITEM, OrderCreatedEvent::getOrderItems, OrderCreatedEvent::setOrderItems)
+            .timestamp(5, "createdAt", OrderCreatedEvent::getCreatedAt, OrderCreatedEvent::setCreatedAt)
+            .build();
+
+    /**
+     * Version 2 carries the order total and items, so payment no longer looks them up.
+     */
+    public static final EventSchema<InventoryReservedEvent> INVENTORY_RESERVED = EventSchema
+            .builder(InventoryReservedEvent.class, InventoryReservedEvent::new)
+            .typeId(2)
+            .version(2)
+            .int64(1, "orderId", InventoryReservedEvent::getOrderId, InventoryReservedEvent::setOrderId)
+            .int64(2, "userId", InventoryReservedEvent::getUserId, InventoryReservedEvent::setUserId)
+            .bool(3, "reservationSuccessful", InventoryReservedEvent::isReservationSuccessful,
+                    InventoryReservedEvent::setReservationSuccessful)
+            .string(4, "message", InventoryReservedEvent::getMessage, InventoryReservedEvent::setMessage)
+            .timestamp(5, "reservedAt", InventoryReservedEvent::getReservedAt, InventoryReservedEvent::setReservedAt)
+            .since(2)
+            .decimal(6, "totalAmount", InventoryReservedEvent::getTotalAmount, InventoryReservedEvent::setTotalAmount)
+            .messageList(7, "orderItems", ORDER_ITEM, InventoryReservedEvent::getOrderItems,
+                    InventoryReservedEvent::setOrderItems)
+            .build();
+
+    public static final EventSchema<PaymentCompletedEvent> PAYMENT_COMPLETED = EventSchema
+            .builder(PaymentCompletedEvent.class, PaymentCompletedEvent::new)
+            .typeId(3)
+            .int64(1, "orderId", PaymentCompletedEvent::getOrderId, PaymentCompletedEvent::setOrderId)
+            .int64(2, "userId", PaymentCompletedEvent::getUserId, PaymentCompletedEvent::setUserId)
+            .decimal(3, "amount", PaymentCompletedEvent::getAmount, PaymentCompletedEvent::setAmount)
+            .bool(4, "paymentSuccessful", PaymentCompletedEvent::isPaymentSuccessful,
+                    PaymentCompletedEvent::setPaymentSuccessful)
+            .string(5, "transactionId", PaymentCompletedEvent::getTransactionId, PaymentCompletedEvent::setTransactionId)
+            .string(6, "message", PaymentCompletedEvent::getMessage, PaymentCompletedEvent::setMessage)
+            .timestamp(7, "completedAt", PaymentCompletedEvent::getCompletedAt, PaymentCompletedEvent::setCompletedAt)
+            .build();
+
+    public static final EventSchema<OrderCancelledEvent> ORDER_CANCELLED = EventSchema
+            .builder(OrderCancelledEvent.class, OrderCancelledEvent::new)
+            .typeId(4)
+            .int64(1, "orderId", OrderCancelledEvent::getOrderId, OrderCancelledEvent::setOrderId)
+            .int64(2, "userId", OrderCancelledEvent::getUserId, OrderCancelledEvent::setUserId)
+            .timestamp(3, "cancelledAt", OrderCancelledEvent::getCancelledAt, OrderCancelledEvent::setCancelledAt)
+            .build();
+
+    public static final EventSchema<InventoryChangedEvent> INVENTORY_CHANGED = EventSchema
+            .builder(InventoryChangedEvent.class, InventoryChangedEvent::new)
+            .typeId(5)
+            .int64(1, "productId", InventoryChangedEvent::getProductId, InventoryChangedEvent::setProductId)
+            .int32(2, "availableQuantity", InventoryChangedEvent::getAvailableQuantity,
+                    InventoryChangedEvent::setAvailableQuantity)
+            .int32(3, "reservedQuantity", InventoryChangedEvent::getReservedQuantity,
+                    InventoryChangedEvent::setReservedQuantity)
+            .timestamp(4, "changedAt", InventoryChangedEvent::getChangedAt, InventoryChangedEvent::setChangedAt)
+            .build();
+
+    private EventSchemas() {
+        // Utility class
+    }
+
+    public static List<EventSchema<?>> all() {
+        return List.of(ORDER_CREATED, INVENTORY_RESERVED, PAYMENT_COMPLETED, ORDER_CANCELLED, INVENTORY_CHANGED);
+    }
+}
@@ -0,0 +1,69 @@
+package com.ecommerce.common.codec;
+
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Serializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.util.Map;
+
+/**
+ * Kafka value serializer that writes events in the {@link EventCodec} binary format once
+ * {@value #WRITE_FORMAT_CONFIG} is {@code binary}. Until then, and for types without a schema,
+ * events go through Spring's {@link JsonSerializer}, configured from the same producer
+ * properties.
+ *
+ * <p>Producers write JSON by default, so the serializer can roll out ahead of the readers. Flip
+ * a producer to binary only once every consumer of its topics runs {@link EventDeserializer}.
+ */
+public class EventSerializer implements Serializer<Object> {
+
+    /**
+     * {@code json} (the default) or {@code binary}.
+     */
+    public static final String WRITE_FORMAT_CONFIG = "ecommerce.event.write-format";
+
+    private final EventCodec codec;
+    private final JsonSerializer<Object> jsonSerializer = new JsonSerializer<>();
+    private boolean writeBinary;
+
+    public EventSerializer() {
+        this(EventCodec.standard());
+    }
+
+    public EventSerializer(EventCodec codec) {
+        this.codec = codec;
+    }
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        jsonSerializer.configure(configs, isKey);
+        Object format = configs.get(WRITE_FORMAT_CONFIG);
+        writeBinary = format != null && "binary".equalsIgnoreCase(format.toString().trim());
+    }
+
+    @Override
+    public byte[] serialize(String topic, Object data) {
+        return serialize(topic, null, data);
+    }
+
+    @Override
+    public byte[] serialize(String topic, Headers headers, Object data) {
+        if (data == null) {
+            return null;
+        }
+        if (writeBinary && codec.supports(data.getClass())) {
+            try {
+                return codec.encode(data);
+            } catch (EventCodecException ex) {
+                throw new SerializationException("Can't serialize " + data.getClass().getSimpleName() + " for topic " + topic, ex);
+            }
+        }
+        return headers != null ? jsonSerializer.serialize(topic, headers, data) : jsonSerializer.serialize(topic, data);
+    }
+
+    @Override
+    public void close() {
+        jsonSerializer.close();
+    }
+}
@@ -0,0 +1,35 @@
+package com.ecommerce.common.codec;
+
+/**
+ * Value types of event fields and the wire type each is encoded with. A reader skips fields it
+ * does not know by their wire type alone, so the wire type of a field number must never
+ * change.
+ */
+public enum FieldType {
+    BOOL(FieldType.VARINT),
+    /** Zig-zag varint. */
+    INT32(FieldType.VARINT),
+    /** Zig-zag varint. */
+    INT64(FieldType.VARINT),
+    /** UTF-8 bytes. */
+    STRING(FieldType.LENGTH_DELIMITED),
+    /** Scale and unscaled value, exact like the JSON text it replaces. */
+    DECIMAL(FieldType.LENGTH_DELIMITED),
+    /** {@code LocalDateTime} as seconds and nanoseconds of the same wall-clock time in UTC. */
+    TIMESTAMP(FieldType.LENGTH_DELIMITED),
+    /** Element count followed by each element as a length-prefixed nested message. */
+    MESSAGE_LIST(FieldType.LENGTH_DELIMITED);
+
+    static final int VARINT = 0;
+    static final int LENGTH_DELIMITED = 2;
+
+    private final int wireType;
+
+    FieldType(int wireType) {
+        this.wireType = wireType;
+    }
+
+    int wireType() {
+        return wireType;
+    }
+}
@@ -0,0 +1,65 @@
+package com.ecommerce.common.dedupe;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.JdbcTemplateAutoConfiguration;
+import org.springframework.boot.autoconfigure.transaction.TransactionAutoConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Provides a {@link ProcessedEventStore} to every service with a database. Its table is
+ * created on startup if it does not exist, and it handles events in transactions of the
+ * service's transaction manager.
+ */
+@AutoConfiguration(after = {JdbcTemplateAutoConfiguration.class, TransactionAutoConfiguration.class})
+@ConditionalOnClass({JdbcTemplate.class, TransactionTemplate.class})
+@ConditionalOnBean({JdbcTemplate.class, TransactionTemplate.class})
+@ConditionalOnProperty(prefix = "ecommerce.dedupe", name = "enabled", matchIfMissing = true)
+public class DedupeAutoConfiguration {
+
+    /**
+     * The store completes asynchronous handlers on a small bounded pool. When its queue is full
+     * the completing thread runs the update itself, which slows the handlers down rather than
+     * losing a completion.
+     */
+    @Bean(initMethod = "createTableIfMissing", destroyMethod = "shutdown")
+    @ConditionalOnMissingBean
+    public ProcessedEventStore processedEventStore(
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            @Value("${ecommerce.dedupe.expected-events:10000000}") long expectedEvents,
+            @Value("${ecommerce.dedupe.false-positive-rate:0.01}") double falsePositiveRate,
+            @Value("${ecommerce.dedupe.recent-capacity:100000}") int recentCapacity,
+            @Value("${ecommerce.dedupe.claim-timeout:PT5M}") Duration claimTimeout,
+            @Value("${ecommerce.dedupe.completion-threads:4}") int completionThreads,
+            @Value("${ecommerce.dedupe.completion-queue-capacity:10000}") int completionQueueCapacity) {
+        ProcessedEventFilter filter = new ProcessedEventFilter(expectedEvents, falsePositiveRate, recentCapacity);
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("processed-event-completion-");
+        threadFactory.setDaemon(true);
+        ThreadPoolExecutor completionExecutor = new ThreadPoolExecutor(completionThreads, completionThreads,
+                0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(completionQueueCapacity), threadFactory,
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        return new ProcessedEventStore(jdbcTemplate, transactionTemplate, filter, claimTimeout, completionExecutor);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public ProcessedEventPurger processedEventPurger(
+            ProcessedEventStore processedEventStore,
+            @Value("${ecommerce.dedupe.retention:P7D}") Duration retention,
+            @Value("${ecommerce.dedupe.purge-interval:PT1H}") Duration purgeInterval) {
+        return new ProcessedEventPurger(processedEventStore, retention, purgeInterval);
+    }
+}
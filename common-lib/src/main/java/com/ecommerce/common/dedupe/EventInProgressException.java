@@ -0,0 +1,14 @@
+package com.ecommerce.common.dedupe;
+
+/**
+ * Thrown when an event's key is claimed by a handler that has not finished, on this instance
+ * or another. The claim may belong to a consumer that died, so the event must be redelivered
+ * rather than skipped: once the claim is older than the store's claim timeout, the
+ * redelivery takes it over.
+ */
+public class EventInProgressException extends RuntimeException {
+
+    public EventInProgressException(String eventKey) {
+        super("Event " + eventKey + " is being processed elsewhere");
+    }
+}
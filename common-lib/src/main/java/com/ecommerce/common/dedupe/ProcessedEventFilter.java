@@ -0,0 +1,56 @@
+package com.ecommerce.common.dedupe;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * In-memory front of the {@link ProcessedEventStore}: an LRU set of recently completed event
+ * keys backed by a {@link BloomFilter} of every key this instance has seen.
+ */
+public class ProcessedEventFilter {
+
+    /**
+     * What the filter knows about a key without asking the database.
+     */
+    public enum Answer {
+        /** Completed recently; a redelivery can be skipped outright. */
+        PROCESSED,
+        /** Never seen by this instance; safe to claim without a lookup. */
+        UNSEEN,
+        /** May have been processed; the store has to check. */
+        UNKNOWN
+    }
+
+    private final BloomFilter seen;
+    private final Map<String, Boolean> recent;
+
+    public ProcessedEventFilter(long expectedEvents, double falsePositiveRate, int recentCapacity) {
+        this.seen = new BloomFilter(expectedEvents, falsePositiveRate);
+        this.recent = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                return size() > recentCapacity;
+            }
+        };
+    }
+
+    public Answer lookup(String eventKey) {
+        synchronized (recent) {
+            if (recent.containsKey(eventKey)) {
+                return Answer.PROCESSED;
+            }
+        }
+        return seen.mightContain(eventKey) ? Answer.UNKNOWN : Answer.UNSEEN;
+    }
+
+    public void recordSeen(String eventKey) {
+        seen.put(eventKey);
+    }
+
+    public void recordProcessed(String eventKey) {
+        seen.put(eventKey);
+        synchronized (recent) {
+            recent.put(eventKey, Boolean.TRUE);
+        }
+    }
+}
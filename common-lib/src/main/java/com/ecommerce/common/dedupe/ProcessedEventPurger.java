@@ -0,0 +1,57 @@
+package com.ecommerce.common.dedupe;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodically removes processed event keys older than the retention period.
+ */
+@Slf4j
+public class ProcessedEventPurger implements SmartLifecycle {
+
+    private final ProcessedEventStore store;
+    private final Duration retention;
+    private final Duration interval;
+    private ScheduledExecutorService executor;
+
+    public ProcessedEventPurger(ProcessedEventStore store, Duration retention, Duration interval) {
+        this.store = store;
+        this.retention = retention;
+        this.interval = interval;
+    }
+
+    @Override
+    public void start() {
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "processed-event-purger");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::purge, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void stop() {
+        executor.shutdownNow();
+        executor = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return executor != null;
+    }
+
+    private void purge() {
+        try {
+            store.purgeCompletedBefore(Instant.now().minus(retention));
+        } catch (RuntimeException ex) {
+            log.error("Failed to purge processed event keys: {}", ex.getMessage());
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package com.ecommerce.common.dedupe;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Makes at-least-once event handlers run at most once per event key.
+ *
+ * <p>Keys are recorded in a {@code processed_events} table. A handler only runs after its
+ * key has been claimed there, so a redelivery that reaches another instance or arrives after
+ * a restart is still recognised. The claim is released if the handler throws, and a claim
+ * whose handler never finished, e.g. because the JVM died, can be taken over once
+ * {@code claimTimeout} has passed. Until then a delivery of a claimed but unfinished event
+ * fails with {@link EventInProgressException}, so that it is retried rather than skipped.
+ *
+ * <p>{@link #processOnce} runs the handler and marks its key completed in one transaction,
+ * which the handler's own transactional work joins. Either both commit or neither does, so a
+ * crash between them cannot leave a handled event whose key is still open, nor a completed
+ * key for an event whose changes were rolled back. The claim commits on its own before, so
+ * that other instances see it.
+ *
+ * <p>A {@link ProcessedEventFilter} in front of the table answers recent redeliveries without
+ * a query and lets first deliveries, the common case, go straight to the claim insert.
+ *
+ * <p>Asynchronous handlers usually finish on a client's I/O thread, such as the Kafka
+ * producer's network thread. Their keys are completed or released on the store's own
+ * {@code completionExecutor} instead, so those threads never wait for the database.
+ */
+@Slf4j
+public class ProcessedEventStore {
+
+    static final String CREATE_TABLE = """
+            CREATE TABLE IF NOT EXISTS processed_events (
+                event_key VARCHAR(191) NOT NULL PRIMARY KEY,
+                claimed_at DATETIME(3) NOT NULL,
+                completed_at DATETIME(3) NULL,
+                KEY idx_processed_events_completed_at (completed_at)
+            )""";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionOperations transactionOperations;
+    private final ProcessedEventFilter filter;
+    private final Duration claimTimeout;
+    private final ExecutorService completionExecutor;
+
+    public ProcessedEventStore(JdbcTemplate jdbcTemplate, TransactionOperations transactionOperations,
+                               ProcessedEventFilter filter, Duration claimTimeout,
+                               ExecutorService completionExecutor) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionOperations = transactionOperations;
+        this.filter = filter;
+        this.claimTimeout = claimTimeout;
+        this.completionExecutor = completionExecutor;
+    }
+
+    public void createTableIfMissing() {
+        jdbcTemplate.execute(CREATE_TABLE);
+    }
+
+    /**
+     * Runs {@code handler} unless the event was already processed, in the transaction that
+     * completes the key. Returns whether the handler ran.
+     *
+     * @throws EventInProgressException if the event is claimed but not yet completed
+     */
+    public boolean processOnce(String eventKey, Runnable handler) {
+        if (tryClaim(eventKey) == Claim.COMPLETED) {
+            return false;
+        }
+
+        try {
+            transactionOperations.executeWithoutResult(status -> {
+                handler.run();
+                markCompleted(eventKey);
+            });
+        } catch (RuntimeException ex) {
+            releaseClaim(eventKey);
+            throw ex;
+        }
+
+        filter.recordProcessed(eventKey);
+        return true;
+    }
+
+    /**
+     * Like {@link #processOnce}, for handlers that finish asynchronously: the key is claimed
+     * before {@code handler} is called and marked completed, or released if the returned stage
+     * fails, when that stage completes. The future tells whether the handler ran; it completes
+     * on the completion executor, and so do the callers' callbacks on it. It fails with
+     * {@link EventInProgressException} if the event is claimed but not yet completed.
+     *
+     * <p>An asynchronous handler cannot share the completion's transaction, so it must be
+     * idempotent itself for the case where it finished but the key was not completed.
+     */
+    public CompletableFuture<Boolean> processOnceAsync(String eventKey, Supplier<? extends CompletionStage<?>> handler) {
+        Claim claim;
+        try {
+            claim = tryClaim(eventKey);
+        } catch (EventInProgressException ex) {
+            return CompletableFuture.failedFuture(ex);
+        }
+        if (claim == Claim.COMPLETED) {
+            return CompletableFuture.completedFuture(false);
+        }
+
+        CompletionStage<?> stage;
+        try {
+            stage = handler.get();
+        } catch (RuntimeException ex) {
+            releaseClaim(eventKey);
+            return CompletableFuture.failedFuture(ex);
+        }
+        return stage.toCompletableFuture().handleAsync((result, ex) -> {
+            if (ex != null) {
+                releaseClaim(eventKey);
+                throw ex instanceof CompletionException completion ? completion : new CompletionException(ex);
+            }
+            complete(eventKey);
+            return true;
+        }, completionExecutor);
+    }
+
+    /**
+     * Stops the completion executor once the completions already handed to it have run.
+     */
+    public void shutdown() {
+        completionExecutor.shutdown();
+        try {
+            if (!completionExecutor.awaitTermination(10, TimeUnit.SECONDS)) {
+                log.warn("Processed-event completions still running at shutdown; their events will be redelivered");
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Deletes keys completed before {@code cutoff}. Redeliveries older than the retention
+     * are no longer recognised, so it must exceed the topics' retention.
+     */
+    public int purgeCompletedBefore(Instant cutoff) {
+        int purged = jdbcTemplate.update("DELETE FROM processed_events WHERE completed_at < ?", Timestamp.from(cutoff));
+        if (purged > 0) {
+            log.info("Purged {} processed event keys completed before {}", purged, cutoff);
+        }
+        return purged;
+    }
+
+    /**
+     * Claims the key unless it is completed.
+     *
+     * @throws EventInProgressException if another handler holds a claim that is not stale yet
+     */
+    private Claim tryClaim(String eventKey) {
+        ProcessedEventFilter.Answer answer = filter.lookup(eventKey);
+        if (answer == ProcessedEventFilter.Answer.PROCESSED) {
+            return Claim.COMPLETED;
+        }
+        if (answer == ProcessedEventFilter.Answer.UNKNOWN && isCompleted(eventKey)) {
+            filter.recordProcessed(eventKey);
+            return Claim.COMPLETED;
+        }
+        Claim claim = claim(eventKey);
+        if (claim == Claim.IN_PROGRESS) {
+            throw new EventInProgressException(eventKey);
+        }
+        return claim;
+    }
+
+    private void releaseClaim(String eventKey) {
+        jdbcTemplate.update("DELETE FROM processed_events WHERE event_key = ? AND completed_at IS NULL", eventKey);
+    }
+
+    private void complete(String eventKey) {
+        markCompleted(eventKey);
+        filter.recordProcessed(eventKey);
+    }
+
+    private void markCompleted(String eventKey) {
+        jdbcTemplate.update("UPDATE processed_events SET completed_at = ? WHERE event_key = ?",
+                Timestamp.from(Instant.now()), eventKey);
+    }
+
+    private boolean isCompleted(String eventKey) {
+        List<Timestamp> completed = jdbcTemplate.queryForList(
+                "SELECT completed_at FROM processed_events WHERE event_key = ?", Timestamp.class, eventKey);
+        return !completed.isEmpty() && completed.get(0) != null;
+    }
+
+    private Claim claim(String eventKey) {
+        Instant now = Instant.now();
+        filter.recordSeen(eventKey);
+        try {
+            jdbcTemplate.update("INSERT INTO processed_events (event_key, claimed_at) VALUES (?, ?)",
+                    eventKey, Timestamp.from(now));
+            return Claim.CLAIMED;
+        } catch (DuplicateKeyException duplicate) {
+            int takenOver = jdbcTemplate.update(
+                    "UPDATE processed_events SET claimed_at = ? WHERE event_key = ? AND completed_at IS NULL AND claimed_at < ?",
+                    Timestamp.from(now), eventKey, Timestamp.from(now.minus(claimTimeout)));
+            if (takenOver == 1) {
+                log.warn("Took over stale claim on event {}", eventKey);
+                return Claim.CLAIMED;
+            }
+            // Completed since the lookup, or claimed by a handler that may still finish
+            if (isCompleted(eventKey)) {
+                filter.recordProcessed(eventKey);
+                return Claim.COMPLETED;
+            }
+            return Claim.IN_PROGRESS;
+        }
+    }
+
+    private enum Claim {
+        /** Claimed by this call; the handler may run. */
+        CLAIMED,
+        /** Already processed; the delivery is a duplicate. */
+        COMPLETED,
+        /** Claimed by a handler that has neither finished nor gone stale. */
+        IN_PROGRESS
+    }
+}
@@ -0,0 +1,19 @@
+package com.ecommerce.common.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryChangedEvent {
+    private Long productId;
+    private Integer availableQuantity;
+    private Integer reservedQuantity;
+    private LocalDateTime changedAt;
+}
@@ -5,7 +5,9 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Data
 @Builder
@@ -14,6 +16,8 @@ import java.time.LocalDateTime;
 public class InventoryReservedEvent {
     private Long orderId;
     private Long userId;
+    private BigDecimal totalAmount;
+    private List<OrderCreatedEvent.OrderItemDto> orderItems;
     private boolean reservationSuccessful;
     private String message;
     private LocalDateTime reservedAt;
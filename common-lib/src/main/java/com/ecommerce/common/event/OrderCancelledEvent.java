@@ -0,0 +1,18 @@
+package com.ecommerce.common.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderCancelledEvent {
+    private Long orderId;
+    private Long userId;
+    private LocalDateTime cancelledAt;
+}
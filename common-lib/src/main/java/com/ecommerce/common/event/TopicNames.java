@@ -4,6 +4,9 @@ public class TopicNames {
     public static final String ORDER_CREATED = "order-created-topic";
     public static final String INVENTORY_RESERVED = "inventory-reserved-topic";
     public static final String PAYMENT_COMPLETED = "payment-completed-topic";
+    public static final String ORDER_CANCELLED = "order-cancelled-topic";
+    public static final String INVENTORY_CHANGED = "inventory-changed-topic";
+    public static final String PAYMENT_RETRY = "payment-retry-topic";
     
     private TopicNames() {
         // Utility class
@@ -0,0 +1,19 @@
+package com.ecommerce.common.id;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Assigns an entity's {@code Long} ID from {@link SnowflakeIdGenerator#shared()} before it
+ * is inserted. Use it instead of {@code @GeneratedValue}; unlike identity columns it leaves
+ * Hibernate free to batch inserts.
+ */
+@IdGeneratorType(SnowflakeIdentifierGenerator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface SnowflakeId {
+}
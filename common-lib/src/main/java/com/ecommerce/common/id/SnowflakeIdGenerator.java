@@ -0,0 +1,142 @@
+package com.ecommerce.common.id;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Time-ordered 63-bit IDs, Snowflake style: 41 bits of milliseconds since 2025-01-01 UTC,
+ * 10 bits of node ID and a 12-bit sequence within the millisecond, so each node issues up to
+ * 4096 IDs per millisecond. The IDs exceed the 53 bits JavaScript numbers hold exactly, so
+ * the services' responses carry them as JSON strings.
+ *
+ * <p>IDs from one generator are strictly increasing. Generation is a compare-and-set on the
+ * last issued timestamp and sequence, with no locking or allocation. An ID never carries a
+ * millisecond the clock has not reached: once a millisecond's sequence numbers are used up,
+ * callers spin until the next one, and after the clock steps back they wait for it to catch
+ * up, up to {@value #MAX_CLOCK_WAIT_MILLIS} ms before giving up. A restarted node therefore
+ * cannot reissue IDs its predecessor had taken from the future.
+ *
+ * <p>Nodes that write to the same table must have different node IDs, and {@link #shared()}
+ * will not guess one: it takes it from the {@value #NODE_ID_PROPERTY} system property or the
+ * {@value #NODE_ID_ENV} environment variable and fails without either. A process that is the
+ * only writer of its databases, such as a benchmark, may set it with {@link #defaultNodeId}.
+ */
+public class SnowflakeIdGenerator {
+
+    public static final long EPOCH_MILLIS = Instant.parse("2025-01-01T00:00:00Z").toEpochMilli();
+    public static final int NODE_BITS = 10;
+    public static final int SEQUENCE_BITS = 12;
+    public static final int MAX_NODE_ID = (1 << NODE_BITS) - 1;
+    public static final String NODE_ID_PROPERTY = "ecommerce.id.node-id";
+    public static final String NODE_ID_ENV = "ID_NODE_ID";
+
+    private static final int TIMESTAMP_SHIFT = NODE_BITS + SEQUENCE_BITS;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    private static final long MAX_CLOCK_WAIT_MILLIS = 1_000;
+
+    private static volatile SnowflakeIdGenerator shared;
+
+    private final long nodeBits;
+    /** Last issued timestamp and sequence, as {@code timestamp << SEQUENCE_BITS | sequence}. */
+    private final AtomicLong last = new AtomicLong();
+
+    public SnowflakeIdGenerator(int nodeId) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("Node ID must be between 0 and " + MAX_NODE_ID);
+        }
+        this.nodeBits = (long) nodeId << SEQUENCE_BITS;
+    }
+
+    /**
+     * The process-wide generator, for the node ID configured as {@value #NODE_ID_PROPERTY} or
+     * {@value #NODE_ID_ENV}.
+     *
+     * @throws IllegalStateException if no node ID is configured
+     */
+    public static SnowflakeIdGenerator shared() {
+        SnowflakeIdGenerator generator = shared;
+        if (generator == null) {
+            synchronized (SnowflakeIdGenerator.class) {
+                generator = shared;
+                if (generator == null) {
+                    generator = new SnowflakeIdGenerator(configuredNodeId());
+                    shared = generator;
+                }
+            }
+        }
+        return generator;
+    }
+
+    /**
+     * Configures {@code nodeId} for {@link #shared()} unless a node ID is configured already.
+     * Only for processes that are the only writer of their databases.
+     */
+    public static void defaultNodeId(int nodeId) {
+        if (!nodeIdConfigured()) {
+            System.setProperty(NODE_ID_PROPERTY, Integer.toString(nodeId));
+        }
+    }
+
+    public static boolean nodeIdConfigured() {
+        return configured() != null;
+    }
+
+    /**
+     * @throws IllegalStateException if the clock stays more than {@value #MAX_CLOCK_WAIT_MILLIS}
+     *                               ms behind the last issued ID
+     */
+    public long nextId() {
+        while (true) {
+            long clock = System.currentTimeMillis() - EPOCH_MILLIS;
+            long previous = last.get();
+            long next = Math.max(clock << SEQUENCE_BITS, previous + 1);
+            long ahead = (next >>> SEQUENCE_BITS) - clock;
+            if (ahead > 0) {
+                awaitClock(ahead);
+            } else if (last.compareAndSet(previous, next)) {
+                return (next >>> SEQUENCE_BITS) << TIMESTAMP_SHIFT | nodeBits | (next & SEQUENCE_MASK);
+            }
+        }
+    }
+
+    public static Instant timestampOf(long id) {
+        return Instant.ofEpochMilli((id >>> TIMESTAMP_SHIFT) + EPOCH_MILLIS);
+    }
+
+    public static int nodeIdOf(long id) {
+        return (int) (id >>> SEQUENCE_BITS) & MAX_NODE_ID;
+    }
+
+    private static void awaitClock(long millis) {
+        if (millis > MAX_CLOCK_WAIT_MILLIS) {
+            throw new IllegalStateException("Clock is " + millis + " ms behind the last issued ID");
+        }
+        if (millis == 1) {
+            // The millisecond's sequence is used up and the next one is less than a millisecond away
+            Thread.onSpinWait();
+        } else {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(millis - 1));
+        }
+    }
+
+    private static int configuredNodeId() {
+        String configured = configured();
+        if (configured == null) {
+            throw new IllegalStateException("No node ID for Snowflake IDs: set the " + NODE_ID_PROPERTY
+                    + " system property or the " + NODE_ID_ENV + " environment variable, unique among the nodes"
+                    + " writing the same tables");
+        }
+        try {
+            return Integer.parseInt(configured.trim());
+        } catch (NumberFormatException ex) {
+            throw new IllegalStateException("Node ID must be a number, was " + configured, ex);
+        }
+    }
+
+    private static String configured() {
+        String configured = System.getProperty(NODE_ID_PROPERTY, System.getenv(NODE_ID_ENV));
+        return configured == null || configured.isBlank() ? null : configured;
+    }
+}
@@ -0,0 +1,18 @@
+package com.ecommerce.common.id;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+
+/**
+ * Hibernate side of {@link SnowflakeId}. Takes the shared generator when Hibernate boots, so a
+ * service without a configured node ID fails to start instead of failing its first insert.
+ */
+public class SnowflakeIdentifierGenerator implements IdentifierGenerator {
+
+    private final SnowflakeIdGenerator generator = SnowflakeIdGenerator.shared();
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object entity) {
+        return generator.nextId();
+    }
+}
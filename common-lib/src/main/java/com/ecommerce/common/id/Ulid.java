@@ -0,0 +1,40 @@
+package com.ecommerce.common.id;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * ULIDs: 48 bits of milliseconds since the Unix epoch and 80 random bits, as 26 Crockford
+ * base-32 characters. They sort by creation millisecond, and unlike {@link SnowflakeIdGenerator}
+ * IDs they need no node ID and have no per-millisecond limit, which suits string IDs such as
+ * transaction references.
+ */
+public final class Ulid {
+
+    private static final char[] CROCKFORD_BASE32 = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+    private static final int TIME_CHARS = 10;
+    private static final int RANDOM_CHARS = 8;
+
+    private Ulid() {
+        // Utility class
+    }
+
+    public static String next() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        char[] chars = new char[TIME_CHARS + 2 * RANDOM_CHARS];
+        encode(System.currentTimeMillis(), chars, 0, TIME_CHARS);
+        encode(random.nextLong(), chars, TIME_CHARS, RANDOM_CHARS);
+        encode(random.nextLong(), chars, TIME_CHARS + RANDOM_CHARS, RANDOM_CHARS);
+        return new String(chars);
+    }
+
+    /**
+     * Writes the low {@code 5 * length} bits of {@code value} into {@code chars}, most
+     * significant first.
+     */
+    private static void encode(long value, char[] chars, int offset, int length) {
+        for (int i = offset + length - 1; i >= offset; i--) {
+            chars[i] = CROCKFORD_BASE32[(int) (value & 31)];
+            value >>>= 5;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.ecommerce.common.kafka;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+
+import java.util.Map;
+
+/**
+ * {@code /actuator/deadletters} lists the service's dead-letter topics with the records each
+ * holds that were not replayed yet; {@code POST /actuator/deadletters/<topic>} replays one of
+ * them.
+ */
+@Endpoint(id = "deadletters")
+public class DeadLetterEndpoint {
+
+    private final DeadLetterReplayer replayer;
+
+    public DeadLetterEndpoint(DeadLetterReplayer replayer) {
+        this.replayer = replayer;
+    }
+
+    @ReadOperation
+    public Map<String, Long> pending() {
+        return replayer.pending();
+    }
+
+    @WriteOperation
+    public Map<String, Long> replay(@Selector String topic) {
+        return replayer.replay(topic);
+    }
+}
@@ -0,0 +1,223 @@
+package com.ecommerce.common.kafka;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.retrytopic.RetryTopicHeaders;
+import org.springframework.kafka.support.KafkaHeaders;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * Sends the records of a dead-letter topic back to the topics they originally failed on, once
+ * the cause of their failure is fixed. The records keep their key, value and headers, minus
+ * the dead-letter and retry headers, so they go through the listener's retry tiers afresh.
+ *
+ * <p>Only the service's own dead-letter topics, those ending in its {@code dltSuffix}, are
+ * listed and replayed, so a service never re-sends records another service dead-lettered.
+ *
+ * <p>Progress is committed under the {@code <service>-dlt-replay} consumer group: a replay
+ * covers the records that arrived since the previous one, up to the end of the topic when it
+ * started.
+ */
+@Slf4j
+public class DeadLetterReplayer {
+
+    private static final Duration POLL_TIMEOUT = Duration.ofSeconds(1);
+    private static final int MAX_EMPTY_POLLS = 10;
+
+    private final ConsumerFactory<?, ?> consumerFactory;
+    private final Map<String, Object> producerConfigs;
+    private final String groupId;
+    private final String dltSuffix;
+    private final MeterRegistry meterRegistry;
+
+    public DeadLetterReplayer(ConsumerFactory<?, ?> consumerFactory, Map<String, Object> producerConfigs,
+                              String service, String dltSuffix, MeterRegistry meterRegistry) {
+        this.consumerFactory = consumerFactory;
+        this.producerConfigs = producerConfigs;
+        this.groupId = service + "-dlt-replay";
+        this.dltSuffix = dltSuffix;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * The service's dead-letter topics and how many records each holds that were not replayed
+     * yet.
+     */
+    public Map<String, Long> pending() {
+        Map<String, Long> pending = new TreeMap<>();
+        try (Consumer<byte[], byte[]> consumer = createConsumer()) {
+            for (Map.Entry<String, List<PartitionInfo>> topic : consumer.listTopics().entrySet()) {
+                if (topic.getKey().endsWith(dltSuffix)) {
+                    List<TopicPartition> partitions = partitions(topic.getValue());
+                    Map<TopicPartition, Long> start = startOffsets(consumer, partitions);
+                    long count = 0;
+                    for (Map.Entry<TopicPartition, Long> end : consumer.endOffsets(partitions).entrySet()) {
+                        count += end.getValue() - start.get(end.getKey());
+                    }
+                    pending.put(topic.getKey(), count);
+                }
+            }
+        }
+        return pending;
+    }
+
+    /**
+     * Replays the records of {@code dltTopic} not replayed yet and returns how many went back
+     * to each original topic.
+     *
+     * @throws IllegalArgumentException if {@code dltTopic} is not one of the service's
+     *                                  dead-letter topics
+     */
+    public Map<String, Long> replay(String dltTopic) {
+        if (!dltTopic.endsWith(dltSuffix)) {
+            throw new IllegalArgumentException(dltTopic + " is not a dead-letter topic of this service");
+        }
+        Map<String, Long> replayed = new TreeMap<>();
+        try (Consumer<byte[], byte[]> consumer = createConsumer();
+             KafkaProducer<byte[], byte[]> producer = createProducer()) {
+            List<TopicPartition> partitions = partitions(consumer.partitionsFor(dltTopic));
+            if (partitions.isEmpty()) {
+                throw new IllegalArgumentException("Dead-letter topic " + dltTopic + " does not exist");
+            }
+            consumer.assign(partitions);
+            Map<TopicPartition, Long> end = consumer.endOffsets(partitions);
+            startOffsets(consumer, partitions).forEach(consumer::seek);
+
+            List<Future<RecordMetadata>> sends = new ArrayList<>();
+            Map<TopicPartition, OffsetAndMetadata> done = new HashMap<>();
+            int emptyPolls = 0;
+            while (!caughtUp(consumer, end) && emptyPolls < MAX_EMPTY_POLLS) {
+                List<ConsumerRecord<byte[], byte[]>> records = new ArrayList<>();
+                consumer.poll(POLL_TIMEOUT).forEach(records::add);
+                emptyPolls = records.isEmpty() ? emptyPolls + 1 : 0;
+                for (ConsumerRecord<byte[], byte[]> record : records) {
+                    TopicPartition partition = new TopicPartition(record.topic(), record.partition());
+                    if (record.offset() >= end.get(partition)) {
+                        continue;
+                    }
+                    String originalTopic = originalTopic(record);
+                    sends.add(producer.send(toOriginal(record, originalTopic)));
+                    replayed.merge(originalTopic, 1L, Long::sum);
+                    done.put(partition, new OffsetAndMetadata(record.offset() + 1));
+                }
+            }
+            producer.flush();
+            for (Future<RecordMetadata> send : sends) {
+                send.get();
+            }
+            consumer.commitSync(done);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while replaying " + dltTopic, ex);
+        } catch (ExecutionException ex) {
+            throw new IllegalStateException("Failed to replay " + dltTopic + ", nothing was committed", ex.getCause());
+        }
+        replayed.forEach((topic, count) -> Counter.builder("ecommerce.kafka.dlt.replayed")
+                .tag("topic", topic)
+                .register(meterRegistry)
+                .increment(count));
+        log.info("Replayed {} to {}", dltTopic, replayed);
+        return replayed;
+    }
+
+    private Consumer<byte[], byte[]> createConsumer() {
+        Properties overrides = new Properties();
+        overrides.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class.getName());
+        overrides.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class.getName());
+        overrides.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, "false");
+        overrides.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        @SuppressWarnings("unchecked")
+        Consumer<byte[], byte[]> consumer = (Consumer<byte[], byte[]>) consumerFactory
+                .createConsumer(groupId, null, null, overrides);
+        return consumer;
+    }
+
+    private KafkaProducer<byte[], byte[]> createProducer() {
+        Map<String, Object> configs = new HashMap<>(producerConfigs);
+        configs.remove(ProducerConfig.TRANSACTIONAL_ID_CONFIG);
+        return new KafkaProducer<>(configs, new ByteArraySerializer(), new ByteArraySerializer());
+    }
+
+    /**
+     * The committed offset of each partition, or its beginning if nothing was replayed yet.
+     */
+    private static Map<TopicPartition, Long> startOffsets(Consumer<?, ?> consumer, List<TopicPartition> partitions) {
+        Map<TopicPartition, OffsetAndMetadata> committed = consumer.committed(new HashSet<>(partitions));
+        Map<TopicPartition, Long> start = new HashMap<>(consumer.beginningOffsets(partitions));
+        committed.forEach((partition, offset) -> {
+            if (offset != null) {
+                start.merge(partition, offset.offset(), Math::max);
+            }
+        });
+        return start;
+    }
+
+    private static boolean caughtUp(Consumer<?, ?> consumer, Map<TopicPartition, Long> end) {
+        for (Map.Entry<TopicPartition, Long> partition : end.entrySet()) {
+            if (consumer.position(partition.getKey()) < partition.getValue()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static List<TopicPartition> partitions(List<PartitionInfo> infos) {
+        List<TopicPartition> partitions = new ArrayList<>();
+        if (infos != null) {
+            for (PartitionInfo info : infos) {
+                partitions.add(new TopicPartition(info.topic(), info.partition()));
+            }
+        }
+        return partitions;
+    }
+
+    private String originalTopic(ConsumerRecord<?, ?> record) {
+        Header header = record.headers().lastHeader(KafkaHeaders.DLT_ORIGINAL_TOPIC);
+        if (header != null) {
+            return new String(header.value(), StandardCharsets.UTF_8);
+        }
+        return record.topic().substring(0, record.topic().length() - dltSuffix.length());
+    }
+
+    private static ProducerRecord<byte[], byte[]> toOriginal(ConsumerRecord<byte[], byte[]> record, String topic) {
+        ProducerRecord<byte[], byte[]> replay = new ProducerRecord<>(topic, null, record.key(), record.value());
+        for (Header header : record.headers()) {
+            if (!header.key().startsWith(KafkaHeaders.PREFIX + "dlt-") && !isRetryHeader(header.key())) {
+                replay.headers().add(header);
+            }
+        }
+        return replay;
+    }
+
+    private static boolean isRetryHeader(String key) {
+        return key.equals(RetryTopicHeaders.DEFAULT_HEADER_ATTEMPTS)
+                || key.equals(RetryTopicHeaders.DEFAULT_HEADER_BACKOFF_TIMESTAMP)
+                || key.equals(RetryTopicHeaders.DEFAULT_HEADER_ORIGINAL_TIMESTAMP);
+    }
+}
@@ -0,0 +1,119 @@
+package com.ecommerce.common.kafka;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sends events through the {@link KafkaTemplate} with at most {@code max-in-flight} sends
+ * awaiting the broker's acknowledgement. A send past the limit waits up to
+ * {@code acquire-timeout} for a slot, which slows producers down to the rate the broker
+ * acknowledges instead of letting unacknowledged records pile up in memory.
+ *
+ * <p>Every send's outcome is logged when it fails and recorded per topic as the
+ * {@code ecommerce.kafka.send} timer, tagged {@code outcome=success|failure}, and the
+ * {@code ecommerce.kafka.send.rejected} counter. The meters are registered on a topic's first
+ * send and then looked up by topic, so a send allocates nothing for them. Callers may still
+ * use the returned future but need not.
+ */
+@Slf4j
+public class KafkaEventSender {
+
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final MeterRegistry meterRegistry;
+    private final int maxInFlight;
+    private final Semaphore inFlight;
+    private final long acquireTimeoutNanos;
+    private final Map<String, Timer> successTimers = new ConcurrentHashMap<>();
+    private final Map<String, Timer> failureTimers = new ConcurrentHashMap<>();
+    private final Map<String, Counter> rejectedCounters = new ConcurrentHashMap<>();
+
+    public KafkaEventSender(KafkaTemplate<String, Object> kafkaTemplate, MeterRegistry meterRegistry,
+                            int maxInFlight, Duration acquireTimeout) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.meterRegistry = meterRegistry;
+        this.maxInFlight = maxInFlight;
+        this.inFlight = new Semaphore(maxInFlight);
+        this.acquireTimeoutNanos = acquireTimeout.toNanos();
+        Gauge.builder("ecommerce.kafka.send.in-flight", this::getInFlight)
+                .description("Sends awaiting the broker's acknowledgement")
+                .register(meterRegistry);
+    }
+
+    public CompletableFuture<SendResult<String, Object>> send(String topic, String key, Object event) {
+        return send(new ProducerRecord<>(topic, key, event));
+    }
+
+    public CompletableFuture<SendResult<String, Object>> send(ProducerRecord<String, Object> record) {
+        String topic = record.topic();
+        try {
+            if (!inFlight.tryAcquire(acquireTimeoutNanos, TimeUnit.NANOSECONDS)) {
+                rejected(topic).increment();
+                return CompletableFuture.failedFuture(new KafkaSendRejectedException(
+                        "Too many unacknowledged sends, rejected record for topic " + topic));
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return CompletableFuture.failedFuture(ex);
+        }
+
+        long startNanos = System.nanoTime();
+        CompletableFuture<SendResult<String, Object>> future;
+        try {
+            future = kafkaTemplate.send(record);
+        } catch (RuntimeException ex) {
+            completed(record, startNanos, ex);
+            return CompletableFuture.failedFuture(ex);
+        }
+        return future.whenComplete((result, ex) -> completed(record, startNanos, ex));
+    }
+
+    public int getInFlight() {
+        return maxInFlight - inFlight.availablePermits();
+    }
+
+    private void completed(ProducerRecord<String, Object> record, long startNanos, Throwable ex) {
+        inFlight.release();
+        String outcome = ex == null ? "success" : "failure";
+        Map<String, Timer> timers = ex == null ? successTimers : failureTimers;
+        Timer timer = timers.get(record.topic());
+        if (timer == null) {
+            timer = timers.computeIfAbsent(record.topic(), topic -> sendTimer(topic, outcome));
+        }
+        timer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        if (ex != null) {
+            log.error("Failed to send {} with key {} to topic {}",
+                    record.value() != null ? record.value().getClass().getSimpleName() : "tombstone",
+                    record.key(), record.topic(), ex);
+        }
+    }
+
+    private Counter rejected(String topic) {
+        Counter counter = rejectedCounters.get(topic);
+        if (counter == null) {
+            counter = rejectedCounters.computeIfAbsent(topic, name -> Counter.builder("ecommerce.kafka.send.rejected")
+                    .tag("topic", name)
+                    .register(meterRegistry));
+        }
+        return counter;
+    }
+
+    private Timer sendTimer(String topic, String outcome) {
+        return Timer.builder("ecommerce.kafka.send")
+                .tag("topic", topic)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,77 @@
+package com.ecommerce.common.kafka;
+
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.producer.ProducerConfig;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Tuned Kafka client settings, selected per service with {@code ecommerce.kafka.profile}.
+ * Both profiles make producers idempotent with {@code acks=all}, so retried sends are neither
+ * lost nor duplicated. Settings a service configures explicitly under {@code spring.kafka.*}
+ * take precedence over the profile.
+ */
+public enum KafkaProfile {
+
+    /**
+     * Sends each record as soon as it is produced and returns fetches as soon as any data is
+     * available, for the request path of the order saga.
+     */
+    LOW_LATENCY(
+            Map.of(
+                    ProducerConfig.LINGER_MS_CONFIG, 0,
+                    ProducerConfig.BATCH_SIZE_CONFIG, 16_384,
+                    ProducerConfig.COMPRESSION_TYPE_CONFIG, "none"),
+            Map.of(
+                    ConsumerConfig.FETCH_MIN_BYTES_CONFIG, 1,
+                    ConsumerConfig.FETCH_MAX_WAIT_MS_CONFIG, 100,
+                    ConsumerConfig.MAX_POLL_RECORDS_CONFIG, 100)),
+
+    /**
+     * Lingers to fill large LZ4-compressed batches and fetches in large chunks, for high-volume
+     * streams where a few milliseconds per record do not matter.
+     */
+    THROUGHPUT(
+            Map.of(
+                    ProducerConfig.LINGER_MS_CONFIG, 20,
+                    ProducerConfig.BATCH_SIZE_CONFIG, 131_072,
+                    ProducerConfig.COMPRESSION_TYPE_CONFIG, "lz4",
+                    ProducerConfig.BUFFER_MEMORY_CONFIG, 67_108_864L),
+            Map.of(
+                    ConsumerConfig.FETCH_MIN_BYTES_CONFIG, 65_536,
+                    ConsumerConfig.FETCH_MAX_WAIT_MS_CONFIG, 100,
+                    ConsumerConfig.MAX_POLL_RECORDS_CONFIG, 1_000,
+                    ConsumerConfig.MAX_PARTITION_FETCH_BYTES_CONFIG, 2_097_152));
+
+    private static final Map<String, Object> RELIABLE_PRODUCER = Map.of(
+            ProducerConfig.ACKS_CONFIG, "all",
+            ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true,
+            ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, 5);
+
+    private final Map<String, Object> producerConfigs;
+    private final Map<String, Object> consumerConfigs;
+
+    KafkaProfile(Map<String, Object> producerConfigs, Map<String, Object> consumerConfigs) {
+        this.producerConfigs = producerConfigs;
+        this.consumerConfigs = consumerConfigs;
+    }
+
+    /**
+     * Parses {@code low-latency} or {@code throughput}, in any case.
+     */
+    public static KafkaProfile of(String name) {
+        return valueOf(name.trim().replace('-', '_').toUpperCase(Locale.ROOT));
+    }
+
+    public Map<String, Object> producerConfigs() {
+        Map<String, Object> configs = new HashMap<>(RELIABLE_PRODUCER);
+        configs.putAll(producerConfigs);
+        return configs;
+    }
+
+    public Map<String, Object> consumerConfigs() {
+        return consumerConfigs;
+    }
+}
@@ -0,0 +1,76 @@
+package com.ecommerce.common.kafka;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.kafka.DefaultKafkaConsumerFactoryCustomizer;
+import org.springframework.boot.autoconfigure.kafka.DefaultKafkaProducerFactoryCustomizer;
+import org.springframework.boot.autoconfigure.kafka.KafkaAutoConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Applies the {@link KafkaProfile} named by {@code ecommerce.kafka.profile} to the service's
+ * producer and consumer factories, and provides a {@link KafkaEventSender} to every service
+ * that sends events. Per-topic client metrics are already bound by Spring Boot's actuator.
+ */
+@Slf4j
+@AutoConfiguration(
+        after = KafkaAutoConfiguration.class,
+        afterName = "org.springframework.boot.actuate.autoconfigure.metrics.CompositeMeterRegistryAutoConfiguration")
+@ConditionalOnClass(KafkaTemplate.class)
+public class KafkaProfileAutoConfiguration {
+
+    @Bean
+    @ConditionalOnProperty(prefix = "ecommerce.kafka", name = "profile")
+    public DefaultKafkaProducerFactoryCustomizer kafkaProfileProducerCustomizer(
+            @Value("${ecommerce.kafka.profile}") String profile) {
+        KafkaProfile kafkaProfile = KafkaProfile.of(profile);
+        return factory -> {
+            Map<String, Object> configs = missing(kafkaProfile.producerConfigs(), factory.getConfigurationProperties());
+            factory.updateConfigs(configs);
+            log.info("Kafka producers use the {} profile: {}", kafkaProfile, configs);
+        };
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "ecommerce.kafka", name = "profile")
+    public DefaultKafkaConsumerFactoryCustomizer kafkaProfileConsumerCustomizer(
+            @Value("${ecommerce.kafka.profile}") String profile) {
+        KafkaProfile kafkaProfile = KafkaProfile.of(profile);
+        return factory -> {
+            Map<String, Object> configs = missing(kafkaProfile.consumerConfigs(), factory.getConfigurationProperties());
+            factory.updateConfigs(configs);
+            log.info("Kafka consumers use the {} profile: {}", kafkaProfile, configs);
+        };
+    }
+
+    @Bean
+    @ConditionalOnBean({KafkaTemplate.class, MeterRegistry.class})
+    @ConditionalOnMissingBean
+    public KafkaEventSender kafkaEventSender(
+            KafkaTemplate<String, Object> kafkaTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${ecommerce.kafka.sender.max-in-flight:10000}") int maxInFlight,
+            @Value("${ecommerce.kafka.sender.acquire-timeout:PT5S}") Duration acquireTimeout) {
+        return new KafkaEventSender(kafkaTemplate, meterRegistry, maxInFlight, acquireTimeout);
+    }
+
+    /**
+     * The profile's settings the service has not configured itself.
+     */
+    private static Map<String, Object> missing(Map<String, Object> profileConfigs, Map<String, Object> configured) {
+        Map<String, Object> configs = new HashMap<>(profileConfigs);
+        configs.keySet().removeAll(configured.keySet());
+        return configs;
+    }
+}
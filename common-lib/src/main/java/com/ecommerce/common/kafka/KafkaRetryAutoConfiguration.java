@@ -0,0 +1,113 @@
+package com.ecommerce.common.kafka;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.endpoint.condition.ConditionalOnAvailableEndpoint;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.kafka.KafkaAutoConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.KafkaException;
+import org.springframework.kafka.annotation.RetryableTopic;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.retrytopic.DeadLetterPublishingRecovererFactory;
+import org.springframework.kafka.retrytopic.RetryTopicConfigurationSupport;
+import org.springframework.kafka.retrytopic.RetryTopicSchedulerWrapper;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+
+/**
+ * Infrastructure of the listeners' {@link RetryableTopic retry topics}: counts every record
+ * forwarded to a retry tier or dead-letter topic as {@code ecommerce.kafka.retry.forwarded},
+ * tagged with the destination topic and the listener's exception, and provides the
+ * {@link DeadLetterReplayer} with its {@link DeadLetterEndpoint}.
+ */
+@AutoConfiguration(after = KafkaAutoConfiguration.class,
+        afterName = "org.springframework.boot.actuate.autoconfigure.metrics.CompositeMeterRegistryAutoConfiguration")
+@ConditionalOnClass({RetryableTopic.class, MeterRegistry.class})
+@ConditionalOnProperty(prefix = "ecommerce.kafka.retry", name = "enabled", matchIfMissing = true)
+public class KafkaRetryAutoConfiguration extends RetryTopicConfigurationSupport {
+
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    public KafkaRetryAutoConfiguration(ObjectProvider<MeterRegistry> meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected Consumer<DeadLetterPublishingRecovererFactory> configureDeadLetterPublishingContainerFactory() {
+        return factory -> factory.setDeadLetterPublisherCreator((templateResolver, destinationResolver) ->
+                new DeadLetterPublishingRecoverer(templateResolver, counting(destinationResolver)));
+    }
+
+    private BiFunction<ConsumerRecord<?, ?>, Exception, TopicPartition> counting(
+            BiFunction<ConsumerRecord<?, ?>, Exception, TopicPartition> destinationResolver) {
+        return (record, exception) -> {
+            TopicPartition destination = destinationResolver.apply(record, exception);
+            MeterRegistry registry = meterRegistry.getIfAvailable();
+            if (destination != null && registry != null) {
+                Throwable cause = exception;
+                while (cause instanceof KafkaException && cause.getCause() != null) {
+                    cause = cause.getCause();
+                }
+                Counter.builder("ecommerce.kafka.retry.forwarded")
+                        .tag("topic", destination.topic())
+                        .tag("exception", cause.getClass().getSimpleName())
+                        .register(registry)
+                        .increment();
+            }
+            return destination;
+        };
+    }
+
+    /**
+     * Resumes partitions paused until their retry is due, on a scheduler of its own so the
+     * services' scheduled jobs cannot delay retries.
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public RetryTopicSchedulerWrapper retryTopicSchedulerWrapper() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setThreadNamePrefix("retry-topic-");
+        return new RetryTopicSchedulerWrapper(scheduler);
+    }
+
+    @Bean
+    @ConditionalOnBean({ConsumerFactory.class, ProducerFactory.class, MeterRegistry.class})
+    @ConditionalOnMissingBean
+    public DeadLetterReplayer deadLetterReplayer(
+            ConsumerFactory<?, ?> consumerFactory,
+            ProducerFactory<?, ?> producerFactory,
+            MeterRegistry meterRegistry,
+            @Value("${spring.application.name:application}") String service,
+            @Value(RetryTopics.DLT_SUFFIX) String dltSuffix) {
+        return new DeadLetterReplayer(consumerFactory, producerFactory.getConfigurationProperties(), service, dltSuffix,
+                meterRegistry);
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(Endpoint.class)
+    static class DeadLetterEndpointConfiguration {
+
+        @Bean
+        @ConditionalOnBean({ConsumerFactory.class, ProducerFactory.class, MeterRegistry.class})
+        @ConditionalOnAvailableEndpoint(endpoint = DeadLetterEndpoint.class)
+        @ConditionalOnMissingBean
+        public DeadLetterEndpoint deadLetterEndpoint(DeadLetterReplayer deadLetterReplayer) {
+            return new DeadLetterEndpoint(deadLetterReplayer);
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.ecommerce.common.kafka;
+
+/**
+ * Thrown through a send's future when the sender's in-flight limit stayed full for the whole
+ * acquire timeout, i.e. the broker has not acknowledged earlier sends for that long.
+ */
+public class KafkaSendRejectedException extends RuntimeException {
+
+    public KafkaSendRejectedException(String message) {
+        super(message);
+    }
+}
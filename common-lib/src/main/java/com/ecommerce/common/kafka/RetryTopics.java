@@ -0,0 +1,50 @@
+package com.ecommerce.common.kafka;
+
+/**
+ * Retry settings shared by the saga listeners' {@code @RetryableTopic} annotations, as
+ * placeholders so each service can tune them. A failed record moves on to the next retry
+ * topic and is retried there after the tier's delay, without holding up the records behind
+ * it; after the last attempt it lands on the listener's dead-letter topic.
+ */
+public final class RetryTopics {
+
+    /**
+     * Deliveries in total, the first included.
+     */
+    public static final String ATTEMPTS = "${ecommerce.kafka.retry.attempts:4}";
+
+    public static final String DELAY_MS = "${ecommerce.kafka.retry.delay-ms:1000}";
+
+    public static final String MULTIPLIER = "${ecommerce.kafka.retry.multiplier:4}";
+
+    public static final String MAX_DELAY_MS = "${ecommerce.kafka.retry.max-delay-ms:60000}";
+
+    /**
+     * Partitions of the topics a listener creates: its retry and dead-letter topics, and its
+     * main topic too when the consuming service starts before the publishing one has created
+     * it. Matches the services' own topic definitions, since a consumer that joined with fewer
+     * partitions would not see the ones added later until its metadata next refreshes.
+     */
+    public static final String PARTITIONS = "${ecommerce.kafka.retry.partitions:3}";
+
+    /**
+     * The service that owns a listener's retry and dead-letter topics. Several services consume
+     * the same topic, e.g. the payment outcome, so each names its own tiers and never handles
+     * another service's failures.
+     */
+    public static final String OWNER = "${ecommerce.kafka.retry.owner:${spring.application.name:application}}";
+
+    /**
+     * {@code <topic>-<owner>-retry-<n>}, one per retry tier.
+     */
+    public static final String RETRY_SUFFIX = "-" + OWNER + "-retry";
+
+    /**
+     * {@code <topic>-<owner>-dlt}. As a placeholder, resolve it before comparing topic names.
+     */
+    public static final String DLT_SUFFIX = "-" + OWNER + "-dlt";
+
+    private RetryTopics() {
+        // Utility class
+    }
+}
@@ -0,0 +1,108 @@
+package com.ecommerce.common.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lets through only the first and then every {@code rate}-th occurrence of each log message of
+ * the {@code loggers} it is configured for, at {@code level} and below; warnings and errors
+ * always pass. Occurrences are counted per logger and message format, so each repetitive
+ * hot-path line is thinned out on its own and rare lines are still logged.
+ *
+ * <p>As a turbo filter it decides before Logback creates the logging event. Counters are kept
+ * per logger and then per format, so a sampled-out message costs two map lookups and an
+ * increment and allocates nothing. Formats built at runtime are not sampled once
+ * {@value #MAX_FORMATS} distinct ones have been counted.
+ *
+ * <pre>{@code
+ * <turboFilter class="com.ecommerce.common.logging.SamplingTurboFilter">
+ *     <loggers>com.ecommerce.order.service, com.ecommerce.order.event</loggers>
+ *     <rate>100</rate>
+ * </turboFilter>
+ * }</pre>
+ */
+public class SamplingTurboFilter extends TurboFilter {
+
+    static final int MAX_FORMATS = 10_000;
+
+    private final List<String> loggers = new ArrayList<>();
+    private final Map<Logger, Map<String, AtomicLong>> occurrences = new ConcurrentHashMap<>();
+    private final AtomicInteger formats = new AtomicInteger();
+    private int rate = 100;
+    private Level level = Level.INFO;
+
+    /**
+     * Comma-separated logger names; a name also covers the loggers below it.
+     */
+    public void setLoggers(String names) {
+        loggers.clear();
+        for (String name : names.split(",")) {
+            if (!name.isBlank()) {
+                loggers.add(name.trim());
+            }
+        }
+    }
+
+    public void setRate(int rate) {
+        this.rate = rate;
+    }
+
+    public void setLevel(String level) {
+        this.level = Level.toLevel(level, Level.INFO);
+    }
+
+    @Override
+    public void start() {
+        if (rate < 1) {
+            addError("Sampling rate must be at least 1, was " + rate);
+            return;
+        }
+        super.start();
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level eventLevel, String format, Object[] params,
+                              Throwable t) {
+        // Level checks such as isInfoEnabled() come without a format and are left alone
+        if (format == null || rate == 1 || eventLevel.levelInt > level.levelInt || !sampled(logger.getName())) {
+            return FilterReply.NEUTRAL;
+        }
+        Map<String, AtomicLong> byFormat = occurrences.get(logger);
+        if (byFormat == null) {
+            byFormat = occurrences.computeIfAbsent(logger, missing -> new ConcurrentHashMap<>());
+        }
+        AtomicLong count = byFormat.get(format);
+        if (count == null) {
+            if (formats.get() >= MAX_FORMATS) {
+                return FilterReply.NEUTRAL;
+            }
+            count = byFormat.computeIfAbsent(format, missing -> {
+                formats.incrementAndGet();
+                return new AtomicLong();
+            });
+        }
+        return count.getAndIncrement() % rate == 0 ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+
+    private boolean sampled(String name) {
+        // Indexed, as an iterator would be an allocation per call
+        for (int i = 0; i < loggers.size(); i++) {
+            String prefix = loggers.get(i);
+            if (name.startsWith(prefix)
+                    && (name.length() == prefix.length() || name.charAt(prefix.length()) == '.')) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,126 @@
+package com.ecommerce.common.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times the methods it intercepts as {@code ecommerce.method.invocations}, tagged with the
+ * {@code layer} (service, repository or listener), the bean's {@code class}, the
+ * {@code method}, the {@code outcome} and the simple name of the thrown {@code exception}.
+ * Timers publish percentile histograms between 100 µs and 30 s.
+ *
+ * <p>Timers are kept per method and then per bean type, so an invocation costs two clock
+ * reads and two map lookups and allocates nothing. The registry is resolved on the first invocation rather than when
+ * the interceptor is created: advisors are instantiated while post-processors are still being
+ * registered, too early for the registry to be configured.
+ */
+public class MethodMetricsInterceptor implements MethodInterceptor {
+
+    public static final String METRIC = "ecommerce.method.invocations";
+
+    private static final Duration MIN_EXPECTED = Duration.ofNanos(100_000);
+    private static final Duration MAX_EXPECTED = Duration.ofSeconds(30);
+
+    private final String layer;
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+    private final Map<Method, Map<Class<?>, MethodTimers>> timers = new ConcurrentHashMap<>();
+    private volatile MeterRegistry registry;
+
+    public MethodMetricsInterceptor(String layer, ObjectProvider<MeterRegistry> meterRegistry) {
+        this.layer = layer;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        MeterRegistry registry = registry();
+        if (registry == null) {
+            return invocation.proceed();
+        }
+        Method method = invocation.getMethod();
+        Object target = invocation.getThis();
+        Class<?> type = target == null ? method.getDeclaringClass() : target.getClass();
+        Map<Class<?>, MethodTimers> byType = timers.get(method);
+        if (byType == null) {
+            byType = timers.computeIfAbsent(method, missing -> new ConcurrentHashMap<>());
+        }
+        MethodTimers methodTimers = byType.get(type);
+        if (methodTimers == null) {
+            methodTimers = byType.computeIfAbsent(type, missing -> new MethodTimers(registry, method, missing));
+        }
+
+        long start = System.nanoTime();
+        try {
+            Object result = invocation.proceed();
+            methodTimers.success.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return result;
+        } catch (Throwable ex) {
+            methodTimers.failure(ex).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw ex;
+        }
+    }
+
+    private MeterRegistry registry() {
+        MeterRegistry current = registry;
+        if (current == null) {
+            current = meterRegistry.getIfAvailable();
+            registry = current;
+        }
+        return current;
+    }
+
+    /**
+     * The name the bean is known by: a JDK proxy, as Spring Data repositories are, by the
+     * interface it implements first, and any other bean by its class without CGLIB suffixes.
+     */
+    private static String beanType(Class<?> type) {
+        if (Proxy.isProxyClass(type) && type.getInterfaces().length > 0) {
+            return type.getInterfaces()[0].getSimpleName();
+        }
+        return ClassUtils.getUserClass(type).getSimpleName();
+    }
+
+    private final class MethodTimers {
+
+        private final MeterRegistry registry;
+        private final String type;
+        private final String method;
+        private final Timer success;
+        private final Map<Class<?>, Timer> failures = new ConcurrentHashMap<>();
+
+        private MethodTimers(MeterRegistry registry, Method method, Class<?> type) {
+            this.registry = registry;
+            this.type = beanType(type);
+            this.method = method.getName();
+            this.success = timer("SUCCESS", "none");
+        }
+
+        private Timer failure(Throwable ex) {
+            return failures.computeIfAbsent(ex.getClass(), exception -> timer("ERROR", exception.getSimpleName()));
+        }
+
+        private Timer timer(String outcome, String exception) {
+            return Timer.builder(METRIC)
+                    .tag("layer", layer)
+                    .tag("class", type)
+                    .tag("method", method)
+                    .tag("outcome", outcome)
+                    .tag("exception", exception)
+                    .publishPercentileHistogram()
+                    .minimumExpectedValue(MIN_EXPECTED)
+                    .maximumExpectedValue(MAX_EXPECTED)
+                    .register(registry);
+        }
+    }
+}
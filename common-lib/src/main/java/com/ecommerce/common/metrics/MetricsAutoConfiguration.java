@@ -0,0 +1,121 @@
+package com.ecommerce.common.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.ClassFilter;
+import org.springframework.aop.MethodMatcher;
+import org.springframework.aop.support.ComposablePointcut;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.StaticMethodMatcher;
+import org.springframework.aop.support.annotation.AnnotationClassFilter;
+import org.springframework.aop.support.annotation.AnnotationMethodMatcher;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.Ordered;
+import org.springframework.data.repository.Repository;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+/**
+ * Times every public method of {@link Service @Service} beans, every repository call and every
+ * {@link KafkaListener @KafkaListener} handler through a {@link MethodMetricsInterceptor}, and
+ * counts the SQL statements of each HTTP request with a {@link SqlStatementMetricsFilter}.
+ * Either can be switched off with {@code ecommerce.metrics.methods.enabled} and
+ * {@code ecommerce.metrics.sql.enabled}.
+ *
+ * <p>The advisors are infrastructure beans, so they apply whether or not AspectJ is on the
+ * classpath, and they are ordered first, so the timings include transactions and caching.
+ */
+@AutoConfiguration(
+        afterName = "org.springframework.boot.actuate.autoconfigure.metrics.CompositeMeterRegistryAutoConfiguration")
+@ConditionalOnClass({MeterRegistry.class, Advisor.class})
+public class MetricsAutoConfiguration {
+
+    private static final MethodMatcher PUBLIC_METHODS = new StaticMethodMatcher() {
+        @Override
+        public boolean matches(Method method, Class<?> targetClass) {
+            return Modifier.isPublic(method.getModifiers()) && method.getDeclaringClass() != Object.class;
+        }
+    };
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnProperty(prefix = "ecommerce.metrics.methods", name = "enabled", matchIfMissing = true)
+    static class MethodMetricsConfiguration {
+
+        @Bean
+        @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+        static Advisor serviceMetricsAdvisor(ObjectProvider<MeterRegistry> meterRegistry) {
+            return advisor(new ComposablePointcut(new AnnotationClassFilter(Service.class, true), PUBLIC_METHODS),
+                    new MethodMetricsInterceptor("service", meterRegistry));
+        }
+
+        @Configuration(proxyBeanMethods = false)
+        @ConditionalOnClass(Repository.class)
+        static class RepositoryMetricsConfiguration {
+
+            @Bean
+            @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+            static Advisor repositoryMetricsAdvisor(ObjectProvider<MeterRegistry> meterRegistry) {
+                ClassFilter repositories = Repository.class::isAssignableFrom;
+                return advisor(new ComposablePointcut(repositories, PUBLIC_METHODS),
+                        new MethodMetricsInterceptor("repository", meterRegistry));
+            }
+        }
+
+        @Configuration(proxyBeanMethods = false)
+        @ConditionalOnClass(KafkaListener.class)
+        static class ListenerMetricsConfiguration {
+
+            @Bean
+            @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+            static Advisor listenerMetricsAdvisor(ObjectProvider<MeterRegistry> meterRegistry) {
+                return advisor(new ComposablePointcut(ClassFilter.TRUE, new AnnotationMethodMatcher(KafkaListener.class)),
+                        new MethodMetricsInterceptor("listener", meterRegistry));
+            }
+        }
+
+        private static Advisor advisor(ComposablePointcut pointcut, MethodMetricsInterceptor interceptor) {
+            DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(pointcut, interceptor);
+            advisor.setOrder(Ordered.HIGHEST_PRECEDENCE);
+            return advisor;
+        }
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass({DelegatingDataSource.class, HandlerMapping.class})
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    @ConditionalOnBean(MeterRegistry.class)
+    @ConditionalOnProperty(prefix = "ecommerce.metrics.sql", name = "enabled", matchIfMissing = true)
+    static class SqlStatementMetricsConfiguration {
+
+        @Bean
+        static SqlStatementCounter sqlStatementCounter() {
+            return new SqlStatementCounter();
+        }
+
+        @Bean
+        public FilterRegistrationBean<SqlStatementMetricsFilter> sqlStatementMetricsFilter(
+                MeterRegistry meterRegistry,
+                @Value("${ecommerce.metrics.sql.warn-threshold:50}") int warnThreshold) {
+            FilterRegistrationBean<SqlStatementMetricsFilter> registration =
+                    new FilterRegistrationBean<>(new SqlStatementMetricsFilter(meterRegistry, warnThreshold));
+            registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+            return registration;
+        }
+    }
+}
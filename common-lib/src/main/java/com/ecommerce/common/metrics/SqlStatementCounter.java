@@ -0,0 +1,125 @@
+package com.ecommerce.common.metrics;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Set;
+
+/**
+ * Counts the SQL statements sent on the current thread while a {@link #start() count} is open;
+ * statements outside one are not counted. As a bean post-processor it wraps every
+ * {@link DataSource} bean, so Hibernate, {@code JdbcTemplate} and plain JDBC are all counted.
+ * A prepared statement counts once however often it runs, so batched inserts and updates
+ * count once per statement, not per row.
+ *
+ * <p>Connections are only wrapped while a count is open on the thread that borrows them, so
+ * threads that never count, such as Kafka listeners, use the pool's connections as they are.
+ */
+public class SqlStatementCounter implements BeanPostProcessor {
+
+    private static final ThreadLocal<int[]> COUNT = new ThreadLocal<>();
+    private static final Set<String> PREPARES = Set.of("prepareStatement", "prepareCall");
+    private static final Set<String> EXECUTES = Set.of("execute", "executeQuery", "executeUpdate",
+            "executeLargeUpdate", "executeBatch");
+
+    /**
+     * Starts counting on this thread, discarding any count still open.
+     */
+    public static void start() {
+        COUNT.set(new int[1]);
+    }
+
+    /**
+     * Stops counting on this thread.
+     *
+     * @return statements since {@link #start()}, or 0 if no count was open
+     */
+    public static int stop() {
+        int[] count = COUNT.get();
+        COUNT.remove();
+        return count == null ? 0 : count[0];
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && !(bean instanceof CountingDataSource)) {
+            return new CountingDataSource(dataSource);
+        }
+        return bean;
+    }
+
+    private static void count() {
+        int[] count = COUNT.get();
+        if (count != null) {
+            count[0]++;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T counting(T target, Class<T> type) {
+        return (T) Proxy.newProxyInstance(SqlStatementCounter.class.getClassLoader(), new Class<?>[]{type},
+                new Counting(target));
+    }
+
+    /**
+     * A {@link DelegatingDataSource}, so Spring Boot's pool metrics and health checks still
+     * find the pool behind it.
+     */
+    private static final class CountingDataSource extends DelegatingDataSource {
+
+        CountingDataSource(DataSource target) {
+            super(target);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            Connection connection = super.getConnection();
+            return COUNT.get() == null ? connection : counting(connection, Connection.class);
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            Connection connection = super.getConnection(username, password);
+            return COUNT.get() == null ? connection : counting(connection, Connection.class);
+        }
+    }
+
+    /**
+     * Counts a connection's prepared statements when they are prepared and its plain statements
+     * each time they run.
+     */
+    private record Counting(Object target) implements InvocationHandler {
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if ("equals".equals(name) && args.length == 1) {
+                return proxy == args[0];
+            }
+            if ("hashCode".equals(name) && args == null) {
+                return System.identityHashCode(proxy);
+            }
+            if (target instanceof Connection ? PREPARES.contains(name) : EXECUTES.contains(name)) {
+                count();
+            }
+            Object result;
+            try {
+                result = method.invoke(target, args);
+            } catch (InvocationTargetException ex) {
+                throw ex.getCause();
+            }
+            if (result instanceof Statement statement && "createStatement".equals(name)) {
+                return counting(statement, Statement.class);
+            }
+            return result;
+        }
+    }
+}
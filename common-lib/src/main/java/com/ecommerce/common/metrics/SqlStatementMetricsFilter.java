@@ -0,0 +1,71 @@
+package com.ecommerce.common.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Records the SQL statements each HTTP request issued as {@code ecommerce.http.sql.statements},
+ * tagged with the request's {@code method} and {@code uri} template, and logs requests that
+ * issue more than {@code warnThreshold}, which usually means an N+1 query. Summaries are kept
+ * per method and then per template, so recording one is two map lookups.
+ */
+@Slf4j
+public class SqlStatementMetricsFilter extends OncePerRequestFilter {
+
+    public static final String METRIC = "ecommerce.http.sql.statements";
+
+    private final MeterRegistry meterRegistry;
+    private final int warnThreshold;
+    private final Map<String, Map<String, DistributionSummary>> summaries = new ConcurrentHashMap<>();
+
+    public SqlStatementMetricsFilter(MeterRegistry meterRegistry, int warnThreshold) {
+        this.meterRegistry = meterRegistry;
+        this.warnThreshold = warnThreshold;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        SqlStatementCounter.start();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            int statements = SqlStatementCounter.stop();
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            String uri = pattern == null ? "UNKNOWN" : pattern.toString();
+            summary(request.getMethod(), uri).record(statements);
+            if (statements > warnThreshold) {
+                log.warn("{} {} issued {} SQL statements", request.getMethod(), request.getRequestURI(), statements);
+            }
+        }
+    }
+
+    private DistributionSummary summary(String method, String uri) {
+        Map<String, DistributionSummary> byUri = summaries.get(method);
+        if (byUri == null) {
+            byUri = summaries.computeIfAbsent(method, missing -> new ConcurrentHashMap<>());
+        }
+        DistributionSummary summary = byUri.get(uri);
+        if (summary == null) {
+            summary = byUri.computeIfAbsent(uri, template -> DistributionSummary.builder(METRIC)
+                    .baseUnit("statements")
+                    .tag("method", method)
+                    .tag("uri", template)
+                    .publishPercentileHistogram()
+                    .maximumExpectedValue(1_000.0)
+                    .register(meterRegistry));
+        }
+        return summary;
+    }
+}
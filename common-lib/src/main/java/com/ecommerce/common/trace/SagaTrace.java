@@ -0,0 +1,151 @@
+package com.ecommerce.common.trace;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The trace an order saga's events carry in their {@value #HEADER} header: a trace ID and a
+ * timestamp for every hop so far, each service stamping when it received the previous event
+ * and when it sent the next. Consecutive stamps give the saga's {@linkplain #stages()
+ * stages}: time on a hop between two services, over Kafka or in process, and time spent
+ * inside one.
+ *
+ * <p>Trace IDs are random: they only tell traces apart, so they need no coordination
+ * between nodes and cost no ID from the services' Snowflake generators.
+ *
+ * <p>Timestamps are wall-clock microseconds, so hop times between hosts include their clock
+ * offset; negative spans are reported as zero.
+ */
+public final class SagaTrace {
+
+    public static final String HEADER = "saga-trace";
+
+    private static final byte RECEIVED = 0;
+    private static final byte SENT = 1;
+
+    private final long traceId;
+    private final List<Stamp> stamps;
+
+    private SagaTrace(long traceId, List<Stamp> stamps) {
+        this.traceId = traceId;
+        this.stamps = stamps;
+    }
+
+    /**
+     * A new trace whose first stamp is {@code service} sending the saga's first event now.
+     */
+    public static SagaTrace start(String service) {
+        return new SagaTrace(ThreadLocalRandom.current().nextLong(), List.of(new Stamp(service, true, nowMicros())));
+    }
+
+    public static SagaTrace decode(byte[] header) {
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(header);
+            long traceId = buffer.getLong();
+            int count = buffer.get();
+            List<Stamp> stamps = new ArrayList<>(count + 2);
+            for (int i = 0; i < count; i++) {
+                boolean sent = buffer.get() == SENT;
+                byte[] service = new byte[buffer.get()];
+                buffer.get(service);
+                stamps.add(new Stamp(new String(service, StandardCharsets.UTF_8), sent, buffer.getLong()));
+            }
+            return new SagaTrace(traceId, stamps);
+        } catch (BufferUnderflowException | NegativeArraySizeException ex) {
+            throw new IllegalArgumentException("Malformed " + HEADER + " header", ex);
+        }
+    }
+
+    public byte[] encode() {
+        int size = Long.BYTES + 1;
+        List<byte[]> services = new ArrayList<>(stamps.size());
+        for (Stamp stamp : stamps) {
+            byte[] service = stamp.service().getBytes(StandardCharsets.UTF_8);
+            services.add(service);
+            size += 2 + service.length + Long.BYTES;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(size).putLong(traceId).put((byte) stamps.size());
+        for (int i = 0; i < stamps.size(); i++) {
+            Stamp stamp = stamps.get(i);
+            byte[] service = services.get(i);
+            buffer.put(stamp.sent() ? SENT : RECEIVED).put((byte) service.length).put(service).putLong(stamp.epochMicros());
+        }
+        return buffer.array();
+    }
+
+    public long traceId() {
+        return traceId;
+    }
+
+    public List<Stamp> stamps() {
+        return stamps;
+    }
+
+    public SagaTrace received(String service, long epochMicros) {
+        return plus(new Stamp(service, false, epochMicros));
+    }
+
+    public SagaTrace sent(String service, long epochMicros) {
+        return plus(new Stamp(service, true, epochMicros));
+    }
+
+    /**
+     * Microseconds from the last stamp to {@code epochMicros}.
+     */
+    public long sinceLast(long epochMicros) {
+        return Math.max(0, epochMicros - stamps.get(stamps.size() - 1).epochMicros());
+    }
+
+    /**
+     * Microseconds from the first stamp to {@code epochMicros}.
+     */
+    public long sinceStart(long epochMicros) {
+        return Math.max(0, epochMicros - stamps.get(0).epochMicros());
+    }
+
+    /**
+     * The spans between consecutive stamps: {@code a->b} for the hop from service {@code a} to
+     * service {@code b}, and the service's name for time spent inside it.
+     */
+    public List<Stage> stages() {
+        List<Stage> stages = new ArrayList<>(stamps.size());
+        for (int i = 1; i < stamps.size(); i++) {
+            Stamp from = stamps.get(i - 1);
+            Stamp to = stamps.get(i);
+            String name = from.service().equals(to.service()) ? to.service() : from.service() + "->" + to.service();
+            stages.add(new Stage(name, Math.max(0, to.epochMicros() - from.epochMicros())));
+        }
+        return stages;
+    }
+
+    public static long nowMicros() {
+        Instant now = Instant.now();
+        return now.getEpochSecond() * 1_000_000 + now.getNano() / 1_000;
+    }
+
+    private SagaTrace plus(Stamp stamp) {
+        if (stamps.size() >= Byte.MAX_VALUE) {
+            return this;
+        }
+        List<Stamp> next = new ArrayList<>(stamps.size() + 1);
+        next.addAll(stamps);
+        next.add(stamp);
+        return new SagaTrace(traceId, next);
+    }
+
+    @Override
+    public String toString() {
+        return Long.toHexString(traceId) + " " + stages();
+    }
+
+    public record Stamp(String service, boolean sent, long epochMicros) {
+    }
+
+    public record Stage(String name, long micros) {
+    }
+}
@@ -0,0 +1,34 @@
+package com.ecommerce.common.trace;
+
+import com.ecommerce.common.kafka.KafkaProfileAutoConfiguration;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import java.time.Duration;
+
+/**
+ * Provides a {@link SagaTracer} to every service that takes part in the order saga, named
+ * after the application.
+ */
+@AutoConfiguration(after = KafkaProfileAutoConfiguration.class,
+        afterName = "org.springframework.boot.actuate.autoconfigure.metrics.CompositeMeterRegistryAutoConfiguration")
+@ConditionalOnClass({KafkaTemplate.class, MeterRegistry.class})
+@ConditionalOnBean(MeterRegistry.class)
+public class SagaTraceAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public SagaTracer sagaTracer(
+            MeterRegistry meterRegistry,
+            @Value("${spring.application.name:application}") String service,
+            @Value("${ecommerce.saga.max-pending:100000}") int maxPending,
+            @Value("${ecommerce.saga.pending-ttl:PT10M}") Duration pendingTtl) {
+        return new SagaTracer(service, meterRegistry, maxPending, pendingTtl);
+    }
+}
@@ -0,0 +1,188 @@
+package com.ecommerce.common.trace;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Carries a {@link SagaTrace} through this service and records its latencies. A consumer
+ * reports each saga event it {@linkplain #received receives}; the trace is then held under the
+ * event's key, the order ID, until the service publishes its next saga event for that order,
+ * which {@linkplain #traced picks it up}. The trace needs no passing along between threads, so
+ * it follows payments through the asynchronous processor and batch listener alike.
+ *
+ * <p>Recorded per service, with 50th, 95th and 99th percentiles:
+ * <ul>
+ *     <li>{@code ecommerce.saga.transit}, per topic: from the upstream send to the receipt</li>
+ *     <li>{@code ecommerce.saga.processing}: from the receipt to the next send</li>
+ *     <li>{@code ecommerce.saga.stage}, per stage, and {@code ecommerce.saga.duration}: the
+ *     whole saga, recorded by the service that {@linkplain #completed completes} it</li>
+ * </ul>
+ *
+ * <p>Traces whose next event is never sent, such as duplicates, expire after
+ * {@code pending-ttl}. Held traces are kept in the order they arrived, so expiring them only
+ * looks at the oldest; past {@code max-pending} held traces, the oldest is dropped for the new
+ * one and counted as {@code ecommerce.saga.dropped}.
+ */
+@Slf4j
+public class SagaTracer {
+
+    public static final String TRANSIT_TIMER = "ecommerce.saga.transit";
+    public static final String PROCESSING_TIMER = "ecommerce.saga.processing";
+    public static final String STAGE_TIMER = "ecommerce.saga.stage";
+    public static final String DURATION_TIMER = "ecommerce.saga.duration";
+
+    private final String service;
+    private final MeterRegistry meterRegistry;
+    private final int maxPending;
+    private final long pendingTtlMicros;
+    /** Held traces, oldest first; guarded by itself. */
+    private final LinkedHashMap<String, Pending> pending = new LinkedHashMap<>();
+    private final Map<String, Timer> transitTimers = new ConcurrentHashMap<>();
+    private final Map<String, Timer> stageTimers = new ConcurrentHashMap<>();
+    private final Timer processingTimer;
+    private final Timer durationTimer;
+    private final Counter droppedCounter;
+
+    public SagaTracer(String service, MeterRegistry meterRegistry, int maxPending, Duration pendingTtl) {
+        if (service.getBytes(StandardCharsets.UTF_8).length > Byte.MAX_VALUE) {
+            throw new IllegalArgumentException("Service name too long for a saga trace: " + service);
+        }
+        this.service = service;
+        this.meterRegistry = meterRegistry;
+        this.maxPending = maxPending;
+        this.pendingTtlMicros = pendingTtl.toNanos() / 1_000;
+        this.processingTimer = timer(PROCESSING_TIMER, "service", service);
+        this.durationTimer = timer(DURATION_TIMER, "service", service);
+        this.droppedCounter = Counter.builder("ecommerce.saga.dropped").register(meterRegistry);
+    }
+
+    /**
+     * Starts a saga: the headers that carry a new trace with the saga's first event.
+     */
+    public Map<String, byte[]> begin() {
+        return Map.of(SagaTrace.HEADER, SagaTrace.start(service).encode());
+    }
+
+    /**
+     * The headers that carry the trace held for {@code key}, if any, with the service's next
+     * event for it; also records the time this service spent on the saga.
+     */
+    public Map<String, byte[]> traced(String key) {
+        if (key == null) {
+            return Map.of();
+        }
+        Pending held;
+        synchronized (pending) {
+            held = pending.remove(key);
+        }
+        if (held == null) {
+            return Map.of();
+        }
+        long now = SagaTrace.nowMicros();
+        processingTimer.record(now - held.receivedAtMicros(), TimeUnit.MICROSECONDS);
+        return Map.of(SagaTrace.HEADER, held.trace().sent(service, now).encode());
+    }
+
+    /**
+     * Records the hop that delivered a saga event and holds its trace until the service sends
+     * the next event for {@code key}. Events without a trace are ignored.
+     */
+    public void received(String topic, String key, byte[] header) {
+        long now = SagaTrace.nowMicros();
+        SagaTrace trace = decode(topic, header);
+        if (trace == null || key == null) {
+            return;
+        }
+        transitTimer(topic).record(trace.sinceLast(now), TimeUnit.MICROSECONDS);
+        Pending received = new Pending(trace.received(service, now), now);
+        boolean dropped;
+        synchronized (pending) {
+            evictExpired(now);
+            // Removed first so that a redelivery moves to the back
+            pending.remove(key);
+            dropped = pending.size() >= maxPending;
+            if (dropped) {
+                Iterator<Pending> oldest = pending.values().iterator();
+                oldest.next();
+                oldest.remove();
+            }
+            pending.put(key, received);
+        }
+        if (dropped) {
+            droppedCounter.increment();
+        }
+    }
+
+    /**
+     * Records the hop that delivered a saga's last event, every stage of the saga and its
+     * duration.
+     */
+    public void completed(String topic, byte[] header) {
+        long now = SagaTrace.nowMicros();
+        SagaTrace trace = decode(topic, header);
+        if (trace == null) {
+            return;
+        }
+        transitTimer(topic).record(trace.sinceLast(now), TimeUnit.MICROSECONDS);
+        for (SagaTrace.Stage stage : trace.received(service, now).stages()) {
+            stageTimers.computeIfAbsent(stage.name(), name -> timer(STAGE_TIMER, "stage", name))
+                    .record(stage.micros(), TimeUnit.MICROSECONDS);
+        }
+        durationTimer.record(trace.sinceStart(now), TimeUnit.MICROSECONDS);
+    }
+
+    public int getPending() {
+        synchronized (pending) {
+            return pending.size();
+        }
+    }
+
+    private SagaTrace decode(String topic, byte[] header) {
+        if (header == null) {
+            return null;
+        }
+        try {
+            return SagaTrace.decode(header);
+        } catch (IllegalArgumentException ex) {
+            log.warn("Ignoring malformed saga trace on topic {}", topic);
+            return null;
+        }
+    }
+
+    /**
+     * Removes the held traces older than the TTL, which are all at the front. Called while
+     * holding the lock on {@code pending}.
+     */
+    private void evictExpired(long nowMicros) {
+        for (Iterator<Pending> it = pending.values().iterator(); it.hasNext(); ) {
+            if (nowMicros - it.next().receivedAtMicros() <= pendingTtlMicros) {
+                return;
+            }
+            it.remove();
+        }
+    }
+
+    private Timer transitTimer(String topic) {
+        return transitTimers.computeIfAbsent(topic, name -> timer(TRANSIT_TIMER, "topic", name));
+    }
+
+    private Timer timer(String name, String tag, String value) {
+        return Timer.builder(name)
+                .tag(tag, value)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+    }
+
+    private record Pending(SagaTrace trace, long receivedAtMicros) {
+    }
+}
@@ -0,0 +1,187 @@
+package com.ecommerce.launcher;
+
+import com.ecommerce.common.bus.InProcessEventBus;
+import com.ecommerce.common.id.SnowflakeIdGenerator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.SimpleCommandLinePropertySource;
+import org.springframework.core.env.StandardEnvironment;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the product, inventory, payment, order and auth services in one JVM, without Eureka,
+ * the gateway or Kafka. The services publish and consume their events through one
+ * {@link InProcessEventBus}, held by a parent application context, so a saga hop takes
+ * microseconds instead of a broker round trip. Each service keeps its own application context,
+ * port, actuator endpoints and database: an H2 file database under {@code embedded.data-dir}.
+ *
+ * <p>Every service jar carries its own {@code application.properties}, so the one on the
+ * launcher classpath is not necessarily the service's. The service's file is read from its
+ * own jar instead and applied as default properties. Services find each other's ports through
+ * Spring Cloud's simple discovery client in place of Eureka.
+ *
+ * <p>Arguments apply to every service, e.g. {@code --logging.level.root=WARN}. The launcher's
+ * own settings, as arguments or system properties:
+ * <ul>
+ *     <li>{@code embedded.data-dir}, default {@code data/embedded}</li>
+ *     <li>{@code embedded.id.node-id}, default 0: the Snowflake node ID, unless
+ *     {@code ecommerce.id.node-id} or {@code ID_NODE_ID} is set</li>
+ *     <li>{@code embedded.bus.buffer-size}, default 65536: events each dispatcher buffers</li>
+ *     <li>{@code embedded.bus.partitions}, default 1: dispatcher threads per subscription</li>
+ *     <li>{@code embedded.bus.publish-timeout}, default {@code PT5S}: how long publishing
+ *     waits for room in a full buffer</li>
+ *     <li>{@code embedded.bus.max-attempts}, default 3: deliveries of an event whose handler
+ *     fails before it becomes a dead letter, replayable at {@code /actuator/busdeadletters}</li>
+ *     <li>{@code embedded.bus.retry-backoff}, default {@code PT0.1S}: wait before the second
+ *     attempt, doubling for each one after</li>
+ *     <li>{@code embedded.bus.dead-letter-capacity}, default 10000: dead letters kept</li>
+ * </ul>
+ */
+@Slf4j
+public final class EmbeddedLauncher {
+
+    private EmbeddedLauncher() {
+        // Entry point only
+    }
+
+    public static void main(String[] args) {
+        long startedAt = System.nanoTime();
+        StandardEnvironment environment = new StandardEnvironment();
+        environment.getPropertySources().addFirst(new SimpleCommandLinePropertySource(args));
+        Path dataDir = Path.of(environment.getProperty("embedded.data-dir", "data/embedded")).toAbsolutePath();
+        // The services share one JVM and so one ID generator; nothing else writes their databases
+        SnowflakeIdGenerator.defaultNodeId(environment.getProperty("embedded.id.node-id", Integer.class, 0));
+
+        GenericApplicationContext busContext = busContext(environment);
+        Deque<ConfigurableApplicationContext> services = new ArrayDeque<>();
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> stop(services, busContext), "embedded-shutdown"));
+
+        Map<EmbeddedService, Properties> serviceProperties = new EnumMap<>(EmbeddedService.class);
+        for (EmbeddedService service : EmbeddedService.values()) {
+            serviceProperties.put(service, applicationProperties(service.application()));
+        }
+        Map<String, Object> discovery = discoveryProperties(serviceProperties);
+        for (EmbeddedService service : EmbeddedService.values()) {
+            ConfigurableApplicationContext context;
+            try {
+                context = start(service, serviceProperties.get(service), discovery, dataDir, busContext, args);
+            } catch (RuntimeException ex) {
+                log.error("Failed to start {}, stopping", service, ex);
+                System.exit(1);
+                return;
+            }
+            synchronized (services) {
+                services.push(context);
+            }
+        }
+        log.info("Started {} services in one JVM in {} ms, data in {}", services.size(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt), dataDir);
+    }
+
+    private static GenericApplicationContext busContext(StandardEnvironment environment) {
+        int bufferSize = environment.getProperty("embedded.bus.buffer-size", Integer.class, 65_536);
+        int partitions = environment.getProperty("embedded.bus.partitions", Integer.class, 1);
+        Duration publishTimeout = Duration.parse(environment.getProperty("embedded.bus.publish-timeout", "PT5S"));
+        int maxAttempts = environment.getProperty("embedded.bus.max-attempts", Integer.class, 3);
+        Duration retryBackoff = Duration.parse(environment.getProperty("embedded.bus.retry-backoff", "PT0.1S"));
+        int deadLetterCapacity = environment.getProperty("embedded.bus.dead-letter-capacity", Integer.class, 10_000);
+
+        GenericApplicationContext context = new GenericApplicationContext();
+        context.setEnvironment(environment);
+        context.registerBean(InProcessEventBus.class,
+                () -> new InProcessEventBus(bufferSize, partitions, publishTimeout, maxAttempts, retryBackoff,
+                        deadLetterCapacity),
+                definition -> definition.setDestroyMethodName("close"));
+        context.refresh();
+        return context;
+    }
+
+    private static ConfigurableApplicationContext start(EmbeddedService service, Properties defaults,
+                                                        Map<String, Object> discovery, Path dataDir,
+                                                        ConfigurableApplicationContext busContext, String[] args) {
+        Map<String, Object> overrides = new LinkedHashMap<>(discovery);
+        overrides.put("spring.config.location", "optional:classpath:/embedded-no-config/");
+        overrides.put("spring.main.banner-mode", "off");
+        // The logging system is shared, so one application name would label every service's lines
+        overrides.put("logging.include-application-name", "false");
+        overrides.put("spring.datasource.url",
+                "jdbc:h2:file:" + dataDir.resolve(service.database()) + ";MODE=MySQL;DB_CLOSE_ON_EXIT=FALSE");
+        overrides.put("spring.datasource.driver-class-name", "org.h2.Driver");
+        overrides.put("spring.datasource.username", "sa");
+        overrides.put("spring.datasource.password", "");
+        overrides.put("spring.jpa.properties.hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+        // Kafka stays on the classpath but idle: listener containers never start and no topic is created
+        overrides.put("spring.kafka.listener.auto-startup", "false");
+        overrides.put("spring.kafka.admin.auto-create", "false");
+        overrides.put("eureka.client.enabled", "false");
+        // Every service now sees product-service's Redis starter on the classpath
+        overrides.put("management.health.redis.enabled", "false");
+        overrides.put("spring.data.redis.repositories.enabled", "false");
+
+        StandardEnvironment environment = new StandardEnvironment();
+        environment.getPropertySources().addFirst(new MapPropertySource("embedded", overrides));
+        return new SpringApplicationBuilder(service.application())
+                .main(service.application())
+                .parent(busContext)
+                .environment(environment)
+                .properties(defaults)
+                .registerShutdownHook(false)
+                .run(args);
+    }
+
+    /**
+     * Every service's address, under its application name, for services that call another.
+     */
+    private static Map<String, Object> discoveryProperties(Map<EmbeddedService, Properties> serviceProperties) {
+        Map<String, Object> discovery = new LinkedHashMap<>();
+        serviceProperties.forEach((service, properties) -> discovery.put(
+                "spring.cloud.discovery.client.simple.instances." + properties.getProperty("spring.application.name")
+                        + "[0].uri",
+                "http://localhost:" + properties.getProperty("server.port")));
+        return discovery;
+    }
+
+    private static Properties applicationProperties(Class<?> application) {
+        URL serviceJar = application.getProtectionDomain().getCodeSource().getLocation();
+        Properties properties = new Properties();
+        try (URLClassLoader loader = new URLClassLoader(new URL[]{serviceJar}, null);
+             InputStream input = loader.getResourceAsStream("application.properties")) {
+            if (input != null) {
+                properties.load(input);
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to read application.properties of " + serviceJar, ex);
+        }
+        return properties;
+    }
+
+    /**
+     * Stops the services in reverse start order, so none publishes to a consumer already gone,
+     * and the bus last.
+     */
+    private static void stop(Deque<ConfigurableApplicationContext> services, GenericApplicationContext busContext) {
+        synchronized (services) {
+            while (!services.isEmpty()) {
+                services.pop().close();
+            }
+        }
+        busContext.close();
+    }
+}
@@ -0,0 +1,39 @@
+package com.ecommerce.launcher;
+
+import com.ecommerce.auth.AuthServiceApplication;
+import com.ecommerce.inventory.InventoryServiceApplication;
+import com.ecommerce.order.OrderServiceApplication;
+import com.ecommerce.payment.PaymentServiceApplication;
+import com.ecommerce.product.ProductServiceApplication;
+
+/**
+ * The services the launcher runs, in start order: consumers start before the services that
+ * publish to them, so no event is published before its subscribers are in place.
+ */
+enum EmbeddedService {
+
+    PRODUCT(ProductServiceApplication.class, "product"),
+    INVENTORY(InventoryServiceApplication.class, "inventory"),
+    PAYMENT(PaymentServiceApplication.class, "payment"),
+    ORDER(OrderServiceApplication.class, "order"),
+    AUTH(AuthServiceApplication.class, "auth");
+
+    private final Class<?> application;
+    private final String database;
+
+    EmbeddedService(Class<?> application, String database) {
+        this.application = application;
+        this.database = database;
+    }
+
+    Class<?> application() {
+        return application;
+    }
+
+    /**
+     * Name of the service's H2 database file.
+     */
+    String database() {
+        return database;
+    }
+}
@@ -266,7 +266,7 @@ export default function App() {
     event.preventDefault();
     notify("");
     try {
-      const response = await getOrder(Number(orderLookupId));
+      const response = await getOrder(orderLookupId.trim());
       setOrderResult(response);
     } catch (error) {
       notify(`Get order failed: ${error.message}`, "error");
@@ -0,0 +1,23 @@
+package com.ecommerce.inventory.config;
+
+import com.ecommerce.common.event.TopicNames;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.TopicBuilder;
+
+@Configuration
+public class KafkaTopicConfig {
+
+    /**
+     * Keyed by product ID and compacted, so the topic keeps the latest stock of every product.
+     */
+    @Bean
+    public NewTopic inventoryChangedTopic() {
+        return TopicBuilder.name(TopicNames.INVENTORY_CHANGED)
+                .partitions(3)
+                .replicas(1)
+                .compact()
+                .build();
+    }
+}
@@ -1,12 +1,18 @@
 package com.ecommerce.inventory.controller;
 
+import com.ecommerce.inventory.dto.BulkStockUploadResponse;
 import com.ecommerce.inventory.dto.InventoryResponse;
+import com.ecommerce.inventory.dto.JournalVerificationResponse;
+import com.ecommerce.inventory.dto.StockLevel;
+import com.ecommerce.inventory.service.BulkStockUploadService;
+import com.ecommerce.inventory.service.InventoryJournalReplayer;
 import com.ecommerce.inventory.service.InventoryService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.InputStream;
 import java.util.List;
 
 @RestController
@@ -15,6 +21,8 @@ import java.util.List;
 public class InventoryController {
 
     private final InventoryService inventoryService;
+    private final BulkStockUploadService bulkStockUploadService;
+    private final InventoryJournalReplayer inventoryJournalReplayer;
 
     @PostMapping
     public ResponseEntity<InventoryResponse> createInventory(
@@ -44,6 +52,18 @@ public class InventoryController {
         return ResponseEntity.ok(response);
     }
 
+    @PostMapping(value = "/bulk", consumes = "text/csv")
+    public ResponseEntity<BulkStockUploadResponse> bulkUploadCsv(InputStream body) {
+        BulkStockUploadResponse response = bulkStockUploadService.upload(body, BulkStockUploadService.Format.CSV);
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping(value = "/bulk", consumes = "application/x-ndjson")
+    public ResponseEntity<BulkStockUploadResponse> bulkUploadNdjson(InputStream body) {
+        BulkStockUploadResponse response = bulkStockUploadService.upload(body, BulkStockUploadService.Format.NDJSON);
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping("/check")
     public ResponseEntity<Boolean> checkAvailability(
             @RequestParam Long productId,
@@ -52,6 +72,12 @@ public class InventoryController {
         return ResponseEntity.ok(available);
     }
 
+    @GetMapping("/product/{productId}/stock-level")
+    public ResponseEntity<StockLevel> getStockLevel(@PathVariable Long productId) {
+        StockLevel stockLevel = inventoryService.getStockLevel(productId);
+        return ResponseEntity.ok(stockLevel);
+    }
+
     @PostMapping("/reserve")
     public ResponseEntity<Void> reserveInventory(
             @RequestParam Long productId,
@@ -67,4 +93,17 @@ public class InventoryController {
         inventoryService.releaseInventory(productId, quantity);
         return ResponseEntity.ok().build();
     }
+
+    @PostMapping("/orders/{orderId}/release")
+    public ResponseEntity<Void> releaseOrder(@PathVariable Long orderId) {
+        inventoryService.releaseOrder(orderId);
+        return ResponseEntity.ok().build();
+    }
+
+    @GetMapping("/journal/verify")
+    public ResponseEntity<JournalVerificationResponse> verifyJournal(
+            @RequestParam(defaultValue = "false") boolean fromOldestSnapshot) {
+        JournalVerificationResponse response = inventoryJournalReplayer.verify(fromOldestSnapshot);
+        return ResponseEntity.ok(response);
+    }
 }
@@ -0,0 +1,25 @@
+package com.ecommerce.inventory.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * What a bulk stock upload changed. {@code errors} holds the first rejected rows only.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkStockUploadResponse {
+    private long rowsRead;
+    private long created;
+    private long updated;
+    private long unchanged;
+    private long rejected;
+    private List<String> errors;
+    private long elapsedMillis;
+}
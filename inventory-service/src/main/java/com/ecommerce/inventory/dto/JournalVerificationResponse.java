@@ -0,0 +1,41 @@
+package com.ecommerce.inventory.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Outcome of replaying the inventory journal from a snapshot and comparing the result with
+ * the inventory table. {@code mismatches} holds the first differing products only.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class JournalVerificationResponse {
+    private long snapshotSequence;
+    private long lastSequence;
+    private long entriesReplayed;
+    private long productsChecked;
+    private long mismatchCount;
+    private List<Mismatch> mismatches;
+    private long elapsedMillis;
+
+    /**
+     * Stock of a product according to the journal and to its inventory record; either side is
+     * null when the product only exists on the other.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Mismatch {
+        private Long productId;
+        private Integer journalAvailable;
+        private Integer journalReserved;
+        private Integer tableAvailable;
+        private Integer tableReserved;
+    }
+}
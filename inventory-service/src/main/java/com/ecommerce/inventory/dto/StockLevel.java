@@ -0,0 +1,10 @@
+package com.ecommerce.inventory.dto;
+
+/**
+ * Coarse availability bucket for storefront display.
+ */
+public enum StockLevel {
+    IN_STOCK,
+    LOW_STOCK,
+    OUT_OF_STOCK
+}
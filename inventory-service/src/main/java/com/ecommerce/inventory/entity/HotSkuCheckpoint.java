@@ -0,0 +1,37 @@
+package com.ecommerce.inventory.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Highest hot-SKU journal sequence whose stock deltas have been written to the inventory
+ * table, stored in the same transaction as the deltas so journal replay never applies twice.
+ */
+@Entity
+@Table(name = "hot_sku_checkpoints")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class HotSkuCheckpoint {
+
+    @Id
+    private String ownerId;
+
+    @Column(nullable = false)
+    private Long journalSequence;
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onWrite() {
+        updatedAt = LocalDateTime.now();
+    }
+}
@@ -30,17 +30,4 @@ public class Inventory {
     public boolean hasAvailableStock(Integer quantity) {
         return availableQuantity >= quantity;
     }
-
-    public void reserveStock(Integer quantity) {
-        if (!hasAvailableStock(quantity)) {
-            throw new IllegalStateException("Insufficient stock for product ID: " + productId);
-        }
-        availableQuantity -= quantity;
-        reservedQuantity += quantity;
-    }
-
-    public void releaseStock(Integer quantity) {
-        availableQuantity += quantity;
-        reservedQuantity -= quantity;
-    }
 }
@@ -0,0 +1,104 @@
+package com.ecommerce.inventory.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * One change to a product's stock, appended in the same transaction as the change itself.
+ * The entry ID is the journal sequence; replaying entries in that order over a snapshot
+ * reproduces the inventory table.
+ */
+@Entity
+@Table(
+        name = "inventory_journal",
+        indexes = {
+                @Index(name = "idx_inventory_journal_product", columnList = "productId"),
+                @Index(name = "idx_inventory_journal_created_at", columnList = "createdAt")
+        }
+)
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryJournalEntry {
+
+    public enum Type {
+        /** Record created with {@code availableQuantity} and nothing reserved. */
+        CREATE,
+        /** Available stock set to {@code availableQuantity}. */
+        SET_AVAILABLE,
+        RESERVE,
+        RELEASE,
+        /** Net deltas of a hot-SKU ledger write-behind batch. */
+        HOT_SKU_FLUSH
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long productId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Type type;
+
+    @Column(nullable = false)
+    private Integer availableDelta;
+
+    @Column(nullable = false)
+    private Integer reservedDelta;
+
+    private Integer availableQuantity;
+
+    private Long orderId;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    public static InventoryJournalEntry create(Long productId, int available) {
+        return absolute(Type.CREATE, productId, available);
+    }
+
+    public static InventoryJournalEntry setAvailable(Long productId, int available) {
+        return absolute(Type.SET_AVAILABLE, productId, available);
+    }
+
+    public static InventoryJournalEntry reserve(Long productId, int quantity, Long orderId) {
+        return delta(Type.RESERVE, productId, -quantity, quantity, orderId);
+    }
+
+    public static InventoryJournalEntry release(Long productId, int quantity, Long orderId) {
+        return delta(Type.RELEASE, productId, quantity, -quantity, orderId);
+    }
+
+    public static InventoryJournalEntry hotSkuFlush(Long productId, int availableDelta, int reservedDelta) {
+        return delta(Type.HOT_SKU_FLUSH, productId, availableDelta, reservedDelta, null);
+    }
+
+    private static InventoryJournalEntry absolute(Type type, Long productId, int available) {
+        return InventoryJournalEntry.builder()
+                .productId(productId)
+                .type(type)
+                .availableDelta(0)
+                .reservedDelta(0)
+                .availableQuantity(available)
+                .build();
+    }
+
+    private static InventoryJournalEntry delta(Type type, Long productId, int availableDelta, int reservedDelta, Long orderId) {
+        return InventoryJournalEntry.builder()
+                .productId(productId)
+                .type(type)
+                .availableDelta(availableDelta)
+                .reservedDelta(reservedDelta)
+                .orderId(orderId)
+                .build();
+    }
+}
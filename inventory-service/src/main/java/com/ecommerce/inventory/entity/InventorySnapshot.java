@@ -0,0 +1,40 @@
+package com.ecommerce.inventory.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Compressed stock of every product as of a journal sequence, so rebuilding the stock state
+ * only has to replay the journal entries after it.
+ */
+@Entity
+@Table(name = "inventory_snapshots")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventorySnapshot {
+
+    @Id
+    private Long journalSequence;
+
+    @Column(nullable = false)
+    private Integer productCount;
+
+    @Lob
+    @Column(nullable = false, columnDefinition = "LONGBLOB")
+    private byte[] data;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,111 @@
+package com.ecommerce.inventory.event;
+
+import com.ecommerce.common.event.InventoryChangedEvent;
+import com.ecommerce.inventory.entity.Inventory;
+import com.ecommerce.inventory.repository.InventoryRepository;
+import com.ecommerce.inventory.service.HotSkuLedger;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Publishes the stock of changed products as {@link InventoryChangedEvent}s, at most one per
+ * product per window however many reservations touched it.
+ *
+ * <p>Products are marked once the transaction that changed them commits. Each window the
+ * marked products are read back in batches and their current figures published, so an event
+ * always carries the latest state rather than a delta. Products whose event could not be
+ * sent are marked again for the next window.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class InventoryChangePublisher {
+
+    private final InventoryRepository inventoryRepository;
+    private final HotSkuLedger hotSkuLedger;
+    private final InventoryEventProducer inventoryEventProducer;
+
+    @Value("${inventory.change-events.enabled:true}")
+    private boolean enabled;
+
+    @Value("${inventory.change-events.batch-size:500}")
+    private int batchSize;
+
+    private final Set<Long> changed = ConcurrentHashMap.newKeySet();
+
+    public void markChangedAfterCommit(Collection<Long> productIds) {
+        if (!enabled || productIds.isEmpty()) {
+            return;
+        }
+        List<Long> snapshot = List.copyOf(productIds);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            changed.addAll(snapshot);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                changed.addAll(snapshot);
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.change-events.window-ms:500}")
+    public void publishChanges() {
+        if (changed.isEmpty()) {
+            return;
+        }
+        List<Long> productIds = new ArrayList<>(changed.size());
+        for (Long productId : changed) {
+            if (changed.remove(productId)) {
+                productIds.add(productId);
+            }
+        }
+
+        LocalDateTime changedAt = LocalDateTime.now();
+        for (int from = 0; from < productIds.size(); from += batchSize) {
+            List<Long> batch = productIds.subList(from, Math.min(from + batchSize, productIds.size()));
+            List<Inventory> inventories;
+            try {
+                inventories = inventoryRepository.findByProductIdIn(batch);
+            } catch (RuntimeException ex) {
+                log.error("Failed to read changed inventory, retrying next window: {}", ex.getMessage());
+                changed.addAll(productIds.subList(from, productIds.size()));
+                return;
+            }
+            for (Inventory inventory : inventories) {
+                publish(inventory, changedAt);
+            }
+        }
+        log.debug("Published inventory changes for {} products", productIds.size());
+    }
+
+    private void publish(Inventory inventory, LocalDateTime changedAt) {
+        Long productId = inventory.getProductId();
+        boolean hot = hotSkuLedger.isHot(productId);
+        InventoryChangedEvent event = InventoryChangedEvent.builder()
+                .productId(productId)
+                .availableQuantity(hot ? hotSkuLedger.available(productId) : inventory.getAvailableQuantity())
+                .reservedQuantity(hot ? hotSkuLedger.reserved(productId) : inventory.getReservedQuantity())
+                .changedAt(changedAt)
+                .build();
+        inventoryEventProducer.publishInventoryChangedEvent(event).whenComplete((result, ex) -> {
+            if (ex != null) {
+                log.warn("Failed to publish InventoryChangedEvent for product ID: {}, retrying next window", productId);
+                changed.add(productId);
+            }
+        });
+    }
+}
@@ -1,22 +1,33 @@
 package com.ecommerce.inventory.event;
 
+import com.ecommerce.common.bus.EventBus;
+import com.ecommerce.common.event.InventoryChangedEvent;
 import com.ecommerce.common.event.InventoryReservedEvent;
 import com.ecommerce.common.event.TopicNames;
+import com.ecommerce.common.trace.SagaTracer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Component;
 
+import java.util.concurrent.CompletableFuture;
+
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class InventoryEventProducer {
 
-    private final KafkaTemplate<String, InventoryReservedEvent> kafkaTemplate;
+    private final EventBus eventBus;
+    private final SagaTracer sagaTracer;
 
     public void publishInventoryReservedEvent(InventoryReservedEvent event) {
         log.info("Publishing InventoryReservedEvent for order ID: {}", event.getOrderId());
-        kafkaTemplate.send(TopicNames.INVENTORY_RESERVED, event.getOrderId().toString(), event);
-        log.info("InventoryReservedEvent published successfully for order ID: {}", event.getOrderId());
+        String key = event.getOrderId().toString();
+        eventBus.publish(TopicNames.INVENTORY_RESERVED, key, event, sagaTracer.traced(key))
+                .thenRun(() -> log.info("InventoryReservedEvent published successfully for order ID: {}", event.getOrderId()));
+    }
+
+    public CompletableFuture<Void> publishInventoryChangedEvent(InventoryChangedEvent event) {
+        log.debug("Publishing InventoryChangedEvent for product ID: {}", event.getProductId());
+        return eventBus.publish(TopicNames.INVENTORY_CHANGED, event.getProductId().toString(), event);
     }
 }
@@ -1,33 +1,85 @@
 package com.ecommerce.inventory.event;
 
+import com.ecommerce.common.bus.EventSubscriber;
+import com.ecommerce.common.bus.EventSubscriptions;
+import com.ecommerce.common.dedupe.ProcessedEventStore;
 import com.ecommerce.common.event.InventoryReservedEvent;
 import com.ecommerce.common.event.OrderCreatedEvent;
 import com.ecommerce.common.event.TopicNames;
+import com.ecommerce.common.kafka.RetryTopics;
+import com.ecommerce.common.trace.SagaTrace;
+import com.ecommerce.common.trace.SagaTracer;
 import com.ecommerce.inventory.service.InventoryService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.kafka.annotation.DltHandler;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.annotation.RetryableTopic;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.retry.annotation.Backoff;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
 
+/**
+ * Reserves the stock of new orders. An order that cannot be reserved, for lack of stock or
+ * any other reason, is answered with a failed reservation, except when the database failed
+ * transiently: then the order is retried on the retry topics, without holding up the orders
+ * behind it, and ends up on the dead-letter topic if the database does not recover in time.
+ */
 @Component
 @RequiredArgsConstructor
 @Slf4j
-public class OrderEventConsumer {
+public class OrderEventConsumer implements EventSubscriber {
+
+    private static final String GROUP = "inventory-service-group";
 
     private final InventoryService inventoryService;
     private final InventoryEventProducer inventoryEventProducer;
+    private final ProcessedEventStore processedEventStore;
+    private final SagaTracer sagaTracer;
 
-    @KafkaListener(topics = TopicNames.ORDER_CREATED, groupId = "inventory-service-group")
-    public void handleOrderCreatedEvent(OrderCreatedEvent event) {
+    @RetryableTopic(attempts = RetryTopics.ATTEMPTS, numPartitions = RetryTopics.PARTITIONS,
+            backoff = @Backoff(delayExpression = RetryTopics.DELAY_MS, multiplierExpression = RetryTopics.MULTIPLIER,
+                    maxDelayExpression = RetryTopics.MAX_DELAY_MS),
+            retryTopicSuffix = RetryTopics.RETRY_SUFFIX, dltTopicSuffix = RetryTopics.DLT_SUFFIX)
+    @KafkaListener(topics = TopicNames.ORDER_CREATED, groupId = GROUP)
+    public void handleOrderCreatedEvent(OrderCreatedEvent event,
+                                        @Header(name = SagaTrace.HEADER, required = false) byte[] sagaTrace) {
         log.info("Received OrderCreatedEvent for order ID: {}", event.getOrderId());
+        sagaTracer.received(TopicNames.ORDER_CREATED, event.getOrderId().toString(), sagaTrace);
+
+        if (!processedEventStore.processOnce("order-created:" + event.getOrderId(), () -> reserveOrder(event))) {
+            log.info("Skipping duplicate OrderCreatedEvent for order ID: {}", event.getOrderId());
+        }
+    }
+
+    @Override
+    public void subscribe(EventSubscriptions subscriptions) {
+        subscriptions.subscribe(TopicNames.ORDER_CREATED, GROUP, OrderCreatedEvent.class,
+                (event, headers) -> handleOrderCreatedEvent(event, headers.get(SagaTrace.HEADER)));
+    }
 
+    @DltHandler
+    public void handleDeadLetter(OrderCreatedEvent event, @Header(KafkaHeaders.RECEIVED_TOPIC) String topic) {
+        log.error("OrderCreatedEvent for order ID: {} failed all retries and was moved to {}", event.getOrderId(), topic);
+    }
+
+    private void reserveOrder(OrderCreatedEvent event) {
         try {
-            // Reserve inventory for all order items
+            // Reserve inventory for all order items in one all-or-nothing operation
+            Map<Long, Integer> quantities = new HashMap<>();
             for (OrderCreatedEvent.OrderItemDto item : event.getOrderItems()) {
-                inventoryService.reserveInventory(item.getProductId(), item.getQuantity());
+                quantities.merge(item.getProductId(), item.getQuantity(), Integer::sum);
             }
+            inventoryService.reserveOrder(event.getOrderId(), quantities);
 
             log.info("Inventory reserved successfully for order ID: {}", event.getOrderId());
 
@@ -35,6 +87,8 @@ public class OrderEventConsumer {
             InventoryReservedEvent reservedEvent = InventoryReservedEvent.builder()
                     .orderId(event.getOrderId())
                     .userId(event.getUserId())
+                    .totalAmount(event.getTotalAmount())
+                    .orderItems(event.getOrderItems())
                     .reservationSuccessful(true)
                     .message("Inventory reserved successfully")
                     .reservedAt(LocalDateTime.now())
@@ -42,7 +96,12 @@ public class OrderEventConsumer {
 
             inventoryEventProducer.publishInventoryReservedEvent(reservedEvent);
 
-        } catch (Exception ex) {
+        } catch (RuntimeException ex) {
+            if (isTransient(ex)) {
+                log.warn("Transient failure reserving inventory for order ID: {}, retrying: {}",
+                        event.getOrderId(), ex.getMessage());
+                throw ex;
+            }
             log.error("Failed to reserve inventory for order ID: {}. Error: {}", 
                     event.getOrderId(), ex.getMessage());
 
@@ -50,6 +109,8 @@ public class OrderEventConsumer {
             InventoryReservedEvent reservedEvent = InventoryReservedEvent.builder()
                     .orderId(event.getOrderId())
                     .userId(event.getUserId())
+                    .totalAmount(event.getTotalAmount())
+                    .orderItems(event.getOrderItems())
                     .reservationSuccessful(false)
                     .message("Inventory reservation failed: " + ex.getMessage())
                     .reservedAt(LocalDateTime.now())
@@ -58,4 +119,14 @@ public class OrderEventConsumer {
             inventoryEventProducer.publishInventoryReservedEvent(reservedEvent);
         }
     }
+
+    /**
+     * Failures that may well not recur: lock timeouts, deadlocks, lost connections.
+     */
+    private static boolean isTransient(RuntimeException ex) {
+        return ex instanceof TransientDataAccessException
+                || ex instanceof RecoverableDataAccessException
+                || ex instanceof DataAccessResourceFailureException
+                || ex instanceof CannotCreateTransactionException;
+    }
 }
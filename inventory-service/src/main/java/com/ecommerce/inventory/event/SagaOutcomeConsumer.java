@@ -0,0 +1,86 @@
+package com.ecommerce.inventory.event;
+
+import com.ecommerce.common.bus.EventSubscriber;
+import com.ecommerce.common.bus.EventSubscriptions;
+import com.ecommerce.common.dedupe.ProcessedEventStore;
+import com.ecommerce.common.event.OrderCancelledEvent;
+import com.ecommerce.common.event.PaymentCompletedEvent;
+import com.ecommerce.common.event.TopicNames;
+import com.ecommerce.common.kafka.RetryTopics;
+import com.ecommerce.inventory.exception.InventoryNotFoundException;
+import com.ecommerce.inventory.service.InventoryService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.annotation.DltHandler;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.annotation.RetryableTopic;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.retry.annotation.Backoff;
+import org.springframework.stereotype.Component;
+
+/**
+ * Settles the stock holds of an order once the saga knows its outcome: paid orders keep
+ * their stock, failed and cancelled orders give it back. Outcomes that cannot be settled are
+ * retried on the retry topics and end up on the dead-letter topics; outcomes for unknown
+ * stock go there directly.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SagaOutcomeConsumer implements EventSubscriber {
+
+    private static final String GROUP = "inventory-service-group";
+
+    private final InventoryService inventoryService;
+    private final ProcessedEventStore processedEventStore;
+
+    @RetryableTopic(attempts = RetryTopics.ATTEMPTS, numPartitions = RetryTopics.PARTITIONS,
+            backoff = @Backoff(delayExpression = RetryTopics.DELAY_MS, multiplierExpression = RetryTopics.MULTIPLIER,
+                    maxDelayExpression = RetryTopics.MAX_DELAY_MS),
+            retryTopicSuffix = RetryTopics.RETRY_SUFFIX, dltTopicSuffix = RetryTopics.DLT_SUFFIX,
+            exclude = InventoryNotFoundException.class)
+    @KafkaListener(topics = TopicNames.PAYMENT_COMPLETED, groupId = GROUP)
+    public void handlePaymentCompletedEvent(PaymentCompletedEvent event) {
+        log.info("Received PaymentCompletedEvent for order ID: {}", event.getOrderId());
+
+        boolean processed = processedEventStore.processOnce("payment-completed:" + event.getOrderId(), () -> {
+            if (event.isPaymentSuccessful()) {
+                inventoryService.confirmOrder(event.getOrderId());
+            } else {
+                inventoryService.releaseOrder(event.getOrderId());
+            }
+        });
+        if (!processed) {
+            log.info("Skipping duplicate PaymentCompletedEvent for order ID: {}", event.getOrderId());
+        }
+    }
+
+    @RetryableTopic(attempts = RetryTopics.ATTEMPTS, numPartitions = RetryTopics.PARTITIONS,
+            backoff = @Backoff(delayExpression = RetryTopics.DELAY_MS, multiplierExpression = RetryTopics.MULTIPLIER,
+                    maxDelayExpression = RetryTopics.MAX_DELAY_MS),
+            retryTopicSuffix = RetryTopics.RETRY_SUFFIX, dltTopicSuffix = RetryTopics.DLT_SUFFIX,
+            exclude = InventoryNotFoundException.class)
+    @KafkaListener(topics = TopicNames.ORDER_CANCELLED, groupId = GROUP)
+    public void handleOrderCancelledEvent(OrderCancelledEvent event) {
+        log.info("Received OrderCancelledEvent for order ID: {}", event.getOrderId());
+
+        if (!processedEventStore.processOnce("order-cancelled:" + event.getOrderId(),
+                () -> inventoryService.releaseOrder(event.getOrderId()))) {
+            log.info("Skipping duplicate OrderCancelledEvent for order ID: {}", event.getOrderId());
+        }
+    }
+
+    @Override
+    public void subscribe(EventSubscriptions subscriptions) {
+        subscriptions.subscribe(TopicNames.PAYMENT_COMPLETED, GROUP, PaymentCompletedEvent.class,
+                (event, headers) -> handlePaymentCompletedEvent(event));
+        subscriptions.subscribe(TopicNames.ORDER_CANCELLED, GROUP, OrderCancelledEvent.class,
+                (event, headers) -> handleOrderCancelledEvent(event));
+    }
+
+    @DltHandler
+    public void handleDeadLetter(Object event, @Header(KafkaHeaders.RECEIVED_TOPIC) String topic) {
+        log.error("{} failed all retries and was moved to {}", event, topic);
+    }
+}
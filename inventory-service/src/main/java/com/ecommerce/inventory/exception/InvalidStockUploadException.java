@@ -0,0 +1,7 @@
+package com.ecommerce.inventory.exception;
+
+public class InvalidStockUploadException extends RuntimeException {
+    public InvalidStockUploadException(String message) {
+        super(message);
+    }
+}
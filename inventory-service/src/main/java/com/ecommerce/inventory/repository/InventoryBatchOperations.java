@@ -0,0 +1,71 @@
+package com.ecommerce.inventory.repository;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.SortedMap;
+
+/**
+ * JDBC-batched stock reads and updates for multi-item operations. Each batch method sends one
+ * statement per product in a single batch, in ascending product ID order so concurrent
+ * writers lock rows in the same order, and returns the affected-row count per product in
+ * that order.
+ */
+public interface InventoryBatchOperations {
+
+    /**
+     * Conditionally moves stock from available to reserved; a count of 0 means the product
+     * is missing or short.
+     */
+    int[] batchReserveStock(SortedMap<Long, Integer> quantitiesByProductId);
+
+    /**
+     * Conditionally moves stock from reserved back to available; a count of 0 means the
+     * product is missing or fewer units are reserved.
+     */
+    int[] batchReleaseStock(SortedMap<Long, Integer> quantitiesByProductId);
+
+    /**
+     * Unconditionally applies net deltas that were already validated elsewhere, such as the
+     * write-behind batches of the hot-SKU ledger.
+     */
+    int[] batchApplyStockDeltas(SortedMap<Long, StockDelta> deltasByProductId);
+
+    /**
+     * Sets available stock of existing products, leaving reserved stock as it is.
+     */
+    int[] batchSetAvailableStock(SortedMap<Long, Integer> availableByProductId);
+
+    /**
+     * Creates inventory records with nothing reserved. Fails with a duplicate key if a product
+     * already has one.
+     */
+    int[] batchInsertStock(SortedMap<Long, Integer> availableByProductId);
+
+    /**
+     * Available stock of the given products in one query; products without a record are absent.
+     */
+    Map<Long, Integer> findAvailableQuantities(Collection<Long> productIds);
+
+    /**
+     * Available and reserved stock of every product, in ascending product ID order.
+     */
+    SortedMap<Long, StockQuantities> findAllStockQuantities();
+
+    /**
+     * Net stock change for one product: {@code reserved} units moved from available to
+     * reserved (negative for releases) and {@code availableAdjustment} units added to or
+     * removed from available stock by restocking.
+     */
+    record StockDelta(int reserved, int availableAdjustment) {
+
+        public StockDelta plus(StockDelta other) {
+            return new StockDelta(reserved + other.reserved, availableAdjustment + other.availableAdjustment);
+        }
+    }
+
+    /**
+     * Stock of one product as stored in its inventory record.
+     */
+    record StockQuantities(int available, int reserved) {
+    }
+}
@@ -0,0 +1,109 @@
+package com.ecommerce.inventory.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+@RequiredArgsConstructor
+public class InventoryBatchOperationsImpl implements InventoryBatchOperations {
+
+    private static final String RESERVE_SQL =
+            "UPDATE inventory SET available_quantity = available_quantity - ?, reserved_quantity = reserved_quantity + ? " +
+            "WHERE product_id = ? AND available_quantity >= ?";
+
+    private static final String RELEASE_SQL =
+            "UPDATE inventory SET available_quantity = available_quantity + ?, reserved_quantity = reserved_quantity - ? " +
+            "WHERE product_id = ? AND reserved_quantity >= ?";
+
+    private static final String APPLY_DELTA_SQL =
+            "UPDATE inventory SET available_quantity = available_quantity - ? + ?, reserved_quantity = reserved_quantity + ? " +
+            "WHERE product_id = ?";
+
+    private static final String SET_AVAILABLE_SQL =
+            "UPDATE inventory SET available_quantity = ? WHERE product_id = ?";
+
+    private static final String INSERT_SQL =
+            "INSERT INTO inventory (available_quantity, product_id, reserved_quantity) VALUES (?, ?, 0)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public int[] batchReserveStock(SortedMap<Long, Integer> quantitiesByProductId) {
+        return jdbcTemplate.batchUpdate(RESERVE_SQL, toBatchArgs(quantitiesByProductId));
+    }
+
+    @Override
+    public int[] batchReleaseStock(SortedMap<Long, Integer> quantitiesByProductId) {
+        return jdbcTemplate.batchUpdate(RELEASE_SQL, toBatchArgs(quantitiesByProductId));
+    }
+
+    @Override
+    public int[] batchApplyStockDeltas(SortedMap<Long, StockDelta> deltasByProductId) {
+        List<Object[]> batchArgs = new ArrayList<>(deltasByProductId.size());
+        for (Map.Entry<Long, StockDelta> entry : deltasByProductId.entrySet()) {
+            StockDelta delta = entry.getValue();
+            batchArgs.add(new Object[]{delta.reserved(), delta.availableAdjustment(), delta.reserved(), entry.getKey()});
+        }
+        return jdbcTemplate.batchUpdate(APPLY_DELTA_SQL, batchArgs);
+    }
+
+    @Override
+    public int[] batchSetAvailableStock(SortedMap<Long, Integer> availableByProductId) {
+        return jdbcTemplate.batchUpdate(SET_AVAILABLE_SQL, toAvailableArgs(availableByProductId));
+    }
+
+    @Override
+    public int[] batchInsertStock(SortedMap<Long, Integer> availableByProductId) {
+        return jdbcTemplate.batchUpdate(INSERT_SQL, toAvailableArgs(availableByProductId));
+    }
+
+    @Override
+    public Map<Long, Integer> findAvailableQuantities(Collection<Long> productIds) {
+        if (productIds.isEmpty()) {
+            return Map.of();
+        }
+        String placeholders = String.join(",", Collections.nCopies(productIds.size(), "?"));
+        Map<Long, Integer> available = new HashMap<>(productIds.size() * 2);
+        jdbcTemplate.query("SELECT product_id, available_quantity FROM inventory WHERE product_id IN (" + placeholders + ")",
+                rs -> {
+                    available.put(rs.getLong(1), rs.getInt(2));
+                },
+                productIds.toArray());
+        return available;
+    }
+
+    @Override
+    public SortedMap<Long, StockQuantities> findAllStockQuantities() {
+        SortedMap<Long, StockQuantities> quantities = new TreeMap<>();
+        jdbcTemplate.query("SELECT product_id, available_quantity, reserved_quantity FROM inventory",
+                rs -> {
+                    quantities.put(rs.getLong(1), new StockQuantities(rs.getInt(2), rs.getInt(3)));
+                });
+        return quantities;
+    }
+
+    private List<Object[]> toAvailableArgs(SortedMap<Long, Integer> availableByProductId) {
+        List<Object[]> batchArgs = new ArrayList<>(availableByProductId.size());
+        for (Map.Entry<Long, Integer> entry : availableByProductId.entrySet()) {
+            batchArgs.add(new Object[]{entry.getValue(), entry.getKey()});
+        }
+        return batchArgs;
+    }
+
+    private List<Object[]> toBatchArgs(SortedMap<Long, Integer> quantitiesByProductId) {
+        List<Object[]> batchArgs = new ArrayList<>(quantitiesByProductId.size());
+        for (Map.Entry<Long, Integer> entry : quantitiesByProductId.entrySet()) {
+            Integer quantity = entry.getValue();
+            batchArgs.add(new Object[]{quantity, quantity, entry.getKey(), quantity});
+        }
+        return batchArgs;
+    }
+}
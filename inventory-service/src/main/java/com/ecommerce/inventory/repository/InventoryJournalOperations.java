@@ -0,0 +1,27 @@
+package com.ecommerce.inventory.repository;
+
+import com.ecommerce.inventory.entity.InventoryJournalEntry;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * JDBC access to the inventory journal: batched appends and paged, sequence-ordered reads
+ * that never hold more than one page in memory.
+ */
+public interface InventoryJournalOperations {
+
+    /**
+     * Appends the entries in one batch. Call it after the stock update the entries describe,
+     * in the same transaction, so entries of one product are sequenced in row-lock order.
+     */
+    void append(List<InventoryJournalEntry> entries);
+
+    /**
+     * Passes the entries after {@code afterSequence} to {@code action} in sequence order,
+     * stopping at the first one created at or after {@code createdBefore} when it is not null.
+     * Returns the sequence of the last entry passed, or {@code afterSequence} if there was none.
+     */
+    long replay(long afterSequence, LocalDateTime createdBefore, Consumer<InventoryJournalEntry> action);
+}
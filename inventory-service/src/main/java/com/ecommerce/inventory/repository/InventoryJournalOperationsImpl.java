@@ -0,0 +1,75 @@
+package com.ecommerce.inventory.repository;
+
+import com.ecommerce.inventory.entity.InventoryJournalEntry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+@RequiredArgsConstructor
+public class InventoryJournalOperationsImpl implements InventoryJournalOperations {
+
+    private static final int PAGE_SIZE = 10_000;
+
+    private static final String INSERT_SQL =
+            "INSERT INTO inventory_journal (product_id, type, available_delta, reserved_delta, available_quantity, order_id, created_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String PAGE_SQL =
+            "SELECT id, product_id, type, available_delta, reserved_delta, available_quantity, order_id, created_at " +
+            "FROM inventory_journal WHERE id > ? ORDER BY id LIMIT " + PAGE_SIZE;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void append(List<InventoryJournalEntry> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> batchArgs = new ArrayList<>(entries.size());
+        for (InventoryJournalEntry entry : entries) {
+            batchArgs.add(new Object[]{
+                    entry.getProductId(), entry.getType().name(), entry.getAvailableDelta(), entry.getReservedDelta(),
+                    entry.getAvailableQuantity(), entry.getOrderId(), now});
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, batchArgs);
+    }
+
+    @Override
+    public long replay(long afterSequence, LocalDateTime createdBefore, Consumer<InventoryJournalEntry> action) {
+        long lastSequence = afterSequence;
+        while (true) {
+            List<InventoryJournalEntry> page = jdbcTemplate.query(PAGE_SQL, this::toEntry, lastSequence);
+            for (InventoryJournalEntry entry : page) {
+                if (createdBefore != null && !entry.getCreatedAt().isBefore(createdBefore)) {
+                    return lastSequence;
+                }
+                action.accept(entry);
+                lastSequence = entry.getId();
+            }
+            if (page.size() < PAGE_SIZE) {
+                return lastSequence;
+            }
+        }
+    }
+
+    private InventoryJournalEntry toEntry(ResultSet rs, int rowNum) throws SQLException {
+        return InventoryJournalEntry.builder()
+                .id(rs.getLong(1))
+                .productId(rs.getLong(2))
+                .type(InventoryJournalEntry.Type.valueOf(rs.getString(3)))
+                .availableDelta(rs.getInt(4))
+                .reservedDelta(rs.getInt(5))
+                .availableQuantity(rs.getObject(6, Integer.class))
+                .orderId(rs.getObject(7, Long.class))
+                .createdAt(rs.getTimestamp(8).toLocalDateTime())
+                .build();
+    }
+}
@@ -0,0 +1,12 @@
+package com.ecommerce.inventory.repository;
+
+import com.ecommerce.inventory.entity.InventoryJournalEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface InventoryJournalRepository extends JpaRepository<InventoryJournalEntry, Long>, InventoryJournalOperations {
+    Optional<InventoryJournalEntry> findFirstByOrderByIdAsc();
+}
@@ -2,11 +2,40 @@ package com.ecommerce.inventory.repository;
 
 import com.ecommerce.inventory.entity.Inventory;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface InventoryRepository extends JpaRepository<Inventory, Long> {
+public interface InventoryRepository extends JpaRepository<Inventory, Long>, InventoryBatchOperations {
     Optional<Inventory> findByProductId(Long productId);
+
+    List<Inventory> findByProductIdIn(Collection<Long> productIds);
+
+    boolean existsByProductId(Long productId);
+
+    /**
+     * Moves {@code quantity} units from available to reserved in a single statement.
+     * Returns 0 when the product does not exist or does not have enough available stock.
+     */
+    @Modifying
+    @Query("UPDATE Inventory i SET i.availableQuantity = i.availableQuantity - :quantity, " +
+            "i.reservedQuantity = i.reservedQuantity + :quantity " +
+            "WHERE i.productId = :productId AND i.availableQuantity >= :quantity")
+    int reserveStock(@Param("productId") Long productId, @Param("quantity") Integer quantity);
+
+    /**
+     * Moves {@code quantity} units from reserved back to available in a single statement.
+     * Returns 0 when the product does not exist or fewer than {@code quantity} units are reserved.
+     */
+    @Modifying
+    @Query("UPDATE Inventory i SET i.availableQuantity = i.availableQuantity + :quantity, " +
+            "i.reservedQuantity = i.reservedQuantity - :quantity " +
+            "WHERE i.productId = :productId AND i.reservedQuantity >= :quantity")
+    int releaseStock(@Param("productId") Long productId, @Param("quantity") Integer quantity);
 }
@@ -0,0 +1,34 @@
+package com.ecommerce.inventory.repository;
+
+import com.ecommerce.inventory.entity.InventoryReservation;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface InventoryReservationRepository extends JpaRepository<InventoryReservation, Long> {
+    List<InventoryReservation> findByOrderId(Long orderId);
+
+    /**
+     * Oldest expired holds first; served by a range scan on the expiry index.
+     */
+    List<InventoryReservation> findByExpiresAtBeforeOrderByExpiresAt(LocalDateTime now, Pageable pageable);
+
+    /**
+     * Returns how many of the holds were still present, so callers can detect a concurrent release.
+     */
+    @Modifying
+    @Query("DELETE FROM InventoryReservation r WHERE r.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("DELETE FROM InventoryReservation r WHERE r.orderId = :orderId")
+    int deleteByOrderId(@Param("orderId") Long orderId);
+}
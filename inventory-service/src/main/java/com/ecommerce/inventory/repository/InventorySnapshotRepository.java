@@ -0,0 +1,25 @@
+package com.ecommerce.inventory.repository;
+
+import com.ecommerce.inventory.entity.InventorySnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface InventorySnapshotRepository extends JpaRepository<InventorySnapshot, Long> {
+    Optional<InventorySnapshot> findFirstByOrderByJournalSequenceDesc();
+
+    Optional<InventorySnapshot> findFirstByOrderByJournalSequenceAsc();
+
+    @Query("SELECT s.journalSequence FROM InventorySnapshot s ORDER BY s.journalSequence DESC")
+    List<Long> findJournalSequencesNewestFirst();
+
+    @Modifying
+    @Query("DELETE FROM InventorySnapshot s WHERE s.journalSequence < :journalSequence")
+    int deleteOlderThan(@Param("journalSequence") Long journalSequence);
+}
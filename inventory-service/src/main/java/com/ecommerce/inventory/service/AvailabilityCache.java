@@ -0,0 +1,132 @@
+package com.ecommerce.inventory.service;
+
+import com.ecommerce.inventory.dto.StockLevel;
+import com.ecommerce.inventory.entity.Inventory;
+import com.ecommerce.inventory.repository.InventoryRepository;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Bounded in-process cache of available stock per product, kept up to date write-through.
+ *
+ * <p>Reservations, releases and stock updates change the cached figure once their transaction
+ * commits, so availability checks are answered without a query. Entries are also reloaded
+ * after {@code inventory.availability-cache.ttl} to pick up changes made outside this
+ * instance. In approximate mode stale entries keep being served while they reload in the
+ * background, so no storefront read waits on the database once a product is cached.
+ *
+ * <p>Hot SKUs are answered by the {@link HotSkuLedger} and are not cached here. Hit and miss
+ * counts are published as the {@code cache.*} meters of the {@code inventory.availability} cache.
+ */
+@Component
+public class AvailabilityCache {
+
+    private final boolean enabled;
+    private final int lowStockThreshold;
+    private final InventoryRepository inventoryRepository;
+    private final LoadingCache<Long, Integer> cache;
+
+    public AvailabilityCache(
+            @Value("${inventory.availability-cache.enabled:true}") boolean enabled,
+            @Value("${inventory.availability-cache.maximum-size:100000}") long maximumSize,
+            @Value("${inventory.availability-cache.ttl:PT30S}") Duration ttl,
+            @Value("${inventory.availability-cache.approximate:false}") boolean approximate,
+            @Value("${inventory.availability-cache.low-stock-threshold:10}") int lowStockThreshold,
+            InventoryRepository inventoryRepository,
+            MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.lowStockThreshold = lowStockThreshold;
+        this.inventoryRepository = inventoryRepository;
+
+        Caffeine<Object, Object> builder = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .recordStats();
+        if (approximate) {
+            builder.refreshAfterWrite(ttl);
+        } else {
+            builder.expireAfterWrite(ttl);
+        }
+        this.cache = builder.build(this::load);
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "inventory.availability");
+    }
+
+    /**
+     * Returns the available quantity of a product, or {@code null} if it has no inventory record.
+     */
+    public Integer getAvailable(Long productId) {
+        return enabled ? cache.get(productId) : load(productId);
+    }
+
+    /**
+     * Buckets an available quantity for storefront display.
+     */
+    public StockLevel toStockLevel(int available) {
+        if (available <= 0) {
+            return StockLevel.OUT_OF_STOCK;
+        }
+        return available <= lowStockThreshold ? StockLevel.LOW_STOCK : StockLevel.IN_STOCK;
+    }
+
+    /**
+     * Moves the cached figure of each product by its delta once the current transaction
+     * commits. Products that are not cached are left to load on their next read.
+     */
+    public void applyAfterCommit(Map<Long, Integer> availableDeltas) {
+        if (!enabled || availableDeltas.isEmpty()) {
+            return;
+        }
+        afterCommit(() -> availableDeltas.forEach((productId, delta) ->
+                cache.asMap().computeIfPresent(productId, (id, available) -> available + delta)));
+    }
+
+    public void applyAfterCommit(Long productId, int availableDelta) {
+        applyAfterCommit(Map.of(productId, availableDelta));
+    }
+
+    /**
+     * Caches {@code available} as the product's figure once the current transaction commits.
+     */
+    public void putAfterCommit(Long productId, int available) {
+        if (enabled) {
+            afterCommit(() -> cache.put(productId, available));
+        }
+    }
+
+    /**
+     * Replaces the cached figures of those products that are cached once the current
+     * transaction commits, so bulk writes do not push cold products into the cache.
+     */
+    public void refreshAllAfterCommit(Map<Long, Integer> availableByProductId) {
+        if (enabled && !availableByProductId.isEmpty()) {
+            afterCommit(() -> availableByProductId.forEach(cache.asMap()::replace));
+        }
+    }
+
+    private Integer load(Long productId) {
+        return inventoryRepository.findByProductId(productId)
+                .map(Inventory::getAvailableQuantity)
+                .orElse(null);
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
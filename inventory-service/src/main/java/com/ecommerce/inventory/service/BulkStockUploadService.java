@@ -0,0 +1,342 @@
+package com.ecommerce.inventory.service;
+
+import com.ecommerce.inventory.dto.BulkStockUploadResponse;
+import com.ecommerce.inventory.entity.InventoryJournalEntry;
+import com.ecommerce.inventory.event.InventoryChangePublisher;
+import com.ecommerce.inventory.exception.InvalidStockUploadException;
+import com.ecommerce.inventory.repository.InventoryJournalRepository;
+import com.ecommerce.inventory.repository.InventoryRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Applies warehouse stock files of {@code productId, quantity} rows, setting the available
+ * stock of each product and creating the records of unknown products.
+ *
+ * <p>The input is parsed line by line as it arrives and applied in chunks of
+ * {@code inventory.bulk-upload.batch-size} products, each in its own transaction: one query
+ * reads the current figures of the chunk, then one batched UPDATE writes those that differ
+ * and one batched INSERT creates the missing ones, followed by one batch of journal entries.
+ * Chunks that were applied stay applied if a later chunk fails. Within a chunk the last row
+ * for a product wins, and the summary counts products rather than rows.
+ */
+@Service
+@Slf4j
+public class BulkStockUploadService {
+
+    private static final int MAX_REPORTED_ERRORS = 100;
+
+    public enum Format {
+        CSV,
+        NDJSON
+    }
+
+    private final InventoryRepository inventoryRepository;
+    private final InventoryJournalRepository journalRepository;
+    private final HotSkuLedger hotSkuLedger;
+    private final AvailabilityCache availabilityCache;
+    private final InventoryChangePublisher inventoryChangePublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectReader rowReader;
+    private final int batchSize;
+
+    public BulkStockUploadService(
+            InventoryRepository inventoryRepository,
+            InventoryJournalRepository journalRepository,
+            HotSkuLedger hotSkuLedger,
+            AvailabilityCache availabilityCache,
+            InventoryChangePublisher inventoryChangePublisher,
+            TransactionTemplate transactionTemplate,
+            ObjectMapper objectMapper,
+            @Value("${inventory.bulk-upload.batch-size:1000}") int batchSize) {
+        this.inventoryRepository = inventoryRepository;
+        this.journalRepository = journalRepository;
+        this.hotSkuLedger = hotSkuLedger;
+        this.availabilityCache = availabilityCache;
+        this.inventoryChangePublisher = inventoryChangePublisher;
+        this.transactionTemplate = transactionTemplate;
+        this.rowReader = objectMapper.readerFor(StockRow.class);
+        this.batchSize = batchSize;
+    }
+
+    public BulkStockUploadResponse upload(InputStream input, Format format) {
+        long startNanos = System.nanoTime();
+        log.info("Starting {} bulk stock upload", format);
+
+        Summary summary = new Summary();
+        CsvColumns csvColumns = format == Format.CSV ? new CsvColumns() : null;
+        SortedMap<Long, Integer> chunk = new TreeMap<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8), 64 * 1024)) {
+            long lineNumber = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank() || (csvColumns != null && csvColumns.consumeHeader(line))) {
+                    continue;
+                }
+                summary.rowsRead++;
+                StockRow row;
+                try {
+                    row = csvColumns != null ? csvColumns.parse(line) : parseJson(line);
+                } catch (IllegalArgumentException ex) {
+                    summary.reject(lineNumber, ex.getMessage());
+                    continue;
+                }
+                chunk.put(row.productId(), row.quantity());
+                if (chunk.size() >= batchSize) {
+                    summary.add(applyChunk(chunk));
+                    chunk = new TreeMap<>();
+                }
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to read bulk stock upload", ex);
+        }
+        if (!chunk.isEmpty()) {
+            summary.add(applyChunk(chunk));
+        }
+
+        BulkStockUploadResponse response = summary.toResponse((System.nanoTime() - startNanos) / 1_000_000);
+        log.info("Bulk stock upload finished: {} rows, {} created, {} updated, {} unchanged, {} rejected in {} ms",
+                response.getRowsRead(), response.getCreated(), response.getUpdated(), response.getUnchanged(),
+                response.getRejected(), response.getElapsedMillis());
+        return response;
+    }
+
+    private ChunkResult applyChunk(SortedMap<Long, Integer> quantities) {
+        try {
+            return applyChunkOnce(quantities);
+        } catch (DuplicateKeyException ex) {
+            // A product of the chunk was created concurrently; the retry sees it and updates it
+            log.warn("Inventory created concurrently with bulk upload, retrying chunk");
+            return applyChunkOnce(quantities);
+        }
+    }
+
+    private ChunkResult applyChunkOnce(SortedMap<Long, Integer> quantities) {
+        return transactionTemplate.execute(status -> {
+            Map<Long, Integer> current = inventoryRepository.findAvailableQuantities(quantities.keySet());
+            SortedMap<Long, Integer> inserts = new TreeMap<>();
+            SortedMap<Long, Integer> updates = new TreeMap<>();
+            List<Long> changedProductIds = new ArrayList<>();
+            long created = 0;
+            long updated = 0;
+            long unchanged = 0;
+
+            for (Map.Entry<Long, Integer> entry : quantities.entrySet()) {
+                Long productId = entry.getKey();
+                int quantity = entry.getValue();
+                if (hotSkuLedger.isHot(productId)) {
+                    if (hotSkuLedger.available(productId) == quantity) {
+                        unchanged++;
+                    } else {
+                        hotSkuLedger.setAvailable(productId, quantity);
+                        changedProductIds.add(productId);
+                        updated++;
+                    }
+                    continue;
+                }
+
+                Integer available = current.get(productId);
+                if (available == null) {
+                    inserts.put(productId, quantity);
+                    created++;
+                } else if (available == quantity) {
+                    unchanged++;
+                    continue;
+                } else {
+                    updates.put(productId, quantity);
+                    updated++;
+                }
+                changedProductIds.add(productId);
+            }
+
+            List<InventoryJournalEntry> journalEntries = new ArrayList<>(updates.size() + inserts.size());
+            if (!updates.isEmpty()) {
+                inventoryRepository.batchSetAvailableStock(updates);
+                updates.forEach((productId, quantity) -> journalEntries.add(InventoryJournalEntry.setAvailable(productId, quantity)));
+                availabilityCache.refreshAllAfterCommit(updates);
+            }
+            if (!inserts.isEmpty()) {
+                inventoryRepository.batchInsertStock(inserts);
+                inserts.forEach((productId, quantity) -> journalEntries.add(InventoryJournalEntry.create(productId, quantity)));
+            }
+            journalRepository.append(journalEntries);
+            inventoryChangePublisher.markChangedAfterCommit(changedProductIds);
+            return new ChunkResult(created, updated, unchanged);
+        });
+    }
+
+    private StockRow parseJson(String line) {
+        StockRow row;
+        try {
+            row = rowReader.readValue(line);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalArgumentException("invalid JSON: " + ex.getOriginalMessage());
+        }
+        return validate(row.productId(), row.quantity());
+    }
+
+    private static StockRow validate(Long productId, Integer quantity) {
+        if (productId == null || quantity == null) {
+            throw new IllegalArgumentException("productId and quantity are required");
+        }
+        if (quantity < 0) {
+            throw new IllegalArgumentException("quantity must not be negative");
+        }
+        return new StockRow(productId, quantity);
+    }
+
+    record StockRow(Long productId, Integer quantity) {
+    }
+
+    private record ChunkResult(long created, long updated, long unchanged) {
+    }
+
+    /**
+     * Column positions of a CSV upload: {@code productId,quantity} unless a header row names
+     * them in another order. Header and data cells may be quoted, as spreadsheets export them.
+     */
+    private static class CsvColumns {
+
+        private boolean headerChecked;
+        private int productIdColumn = 0;
+        private int quantityColumn = 1;
+
+        boolean consumeHeader(String line) {
+            if (headerChecked) {
+                return false;
+            }
+            headerChecked = true;
+            String[] columns;
+            try {
+                columns = split(line);
+            } catch (IllegalArgumentException ex) {
+                throw new InvalidStockUploadException("CSV header has an " + ex.getMessage());
+            }
+            if (columns[0].trim().chars().allMatch(Character::isDigit)) {
+                return false;
+            }
+            productIdColumn = -1;
+            quantityColumn = -1;
+            for (int i = 0; i < columns.length; i++) {
+                String name = columns[i].trim().replace("_", "").toLowerCase();
+                if (name.equals("productid")) {
+                    productIdColumn = i;
+                } else if (name.equals("quantity") || name.equals("availablequantity")) {
+                    quantityColumn = i;
+                }
+            }
+            if (productIdColumn < 0 || quantityColumn < 0) {
+                throw new InvalidStockUploadException("CSV header must name productId and quantity columns");
+            }
+            return true;
+        }
+
+        StockRow parse(String line) {
+            String[] columns = split(line);
+            if (columns.length <= Math.max(productIdColumn, quantityColumn)) {
+                throw new IllegalArgumentException("expected productId and quantity columns");
+            }
+            try {
+                return validate(
+                        Long.parseLong(columns[productIdColumn].trim()),
+                        Integer.parseInt(columns[quantityColumn].trim()));
+            } catch (NumberFormatException ex) {
+                throw new IllegalArgumentException("productId and quantity must be whole numbers");
+            }
+        }
+
+        /**
+         * Splits a CSV line into its cells, unquoting quoted ones: a quoted cell may hold commas,
+         * and a doubled quote inside it stands for one quote.
+         *
+         * @throws IllegalArgumentException if a quoted cell is not closed
+         */
+        private static String[] split(String line) {
+            if (line.indexOf('"') < 0) {
+                return line.split(",", -1);
+            }
+            List<String> cells = new ArrayList<>();
+            StringBuilder cell = new StringBuilder();
+            boolean quoted = false;
+            for (int i = 0; i < line.length(); i++) {
+                char c = line.charAt(i);
+                if (quoted) {
+                    if (c != '"') {
+                        cell.append(c);
+                    } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        cell.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    cells.add(cell.toString());
+                    cell.setLength(0);
+                } else {
+                    cell.append(c);
+                }
+            }
+            if (quoted) {
+                throw new IllegalArgumentException("unterminated quoted cell");
+            }
+            cells.add(cell.toString());
+            return cells.toArray(String[]::new);
+        }
+    }
+
+    private static class Summary {
+
+        private long rowsRead;
+        private long created;
+        private long updated;
+        private long unchanged;
+        private long rejected;
+        private final List<String> errors = new ArrayList<>();
+
+        void add(ChunkResult result) {
+            created += result.created();
+            updated += result.updated();
+            unchanged += result.unchanged();
+        }
+
+        void reject(long lineNumber, String reason) {
+            rejected++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add("Line " + lineNumber + ": " + reason);
+            }
+        }
+
+        BulkStockUploadResponse toResponse(long elapsedMillis) {
+            return BulkStockUploadResponse.builder()
+                    .rowsRead(rowsRead)
+                    .created(created)
+                    .updated(updated)
+                    .unchanged(unchanged)
+                    .rejected(rejected)
+                    .errors(errors)
+                    .elapsedMillis(elapsedMillis)
+                    .build();
+        }
+    }
+}
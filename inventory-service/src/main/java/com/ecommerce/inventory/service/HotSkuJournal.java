@@ -0,0 +1,328 @@
+package com.ecommerce.inventory.service;
+
+import com.ecommerce.inventory.repository.InventoryBatchOperations.StockDelta;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Segmented append-only journal of hot-SKU stock deltas.
+ *
+ * <p>Every reservation, release and restock is written to the current segment before the
+ * caller is answered, so it survives a JVM crash, and is added to the pending deltas that
+ * the next write-behind flush persists. {@link #roll()} seals the current segment together
+ * with exactly the deltas it contains; once those deltas are committed the sealed segment
+ * can be deleted. Segments are fsynced when sealed, so a power loss can lose at most one
+ * flush interval.
+ *
+ * <p>Appends are group-committed: callers queue their record without locking, and whichever
+ * caller gets the writer lock next writes every queued record with one system call. Under
+ * load the callers of a batch share a write, so the lock is taken once per batch rather than
+ * once per reservation.
+ */
+public class HotSkuJournal {
+
+    private static final int RECORD_BYTES = 24;
+    private static final int MAX_BATCH = 4096;
+    private static final String SEGMENT_PREFIX = "hot-sku-";
+    private static final String SEGMENT_SUFFIX = ".journal";
+
+    private final Path directory;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Queue<Entry> queued = new ConcurrentLinkedQueue<>();
+    private final List<Entry> batch = new ArrayList<>(MAX_BATCH);
+    private final ByteBuffer records = ByteBuffer.allocateDirect(RECORD_BYTES * MAX_BATCH);
+
+    private FileChannel channel;
+    private IOException broken;
+    private Path segment;
+    private long sequence;
+    private Map<Long, StockDelta> pending = new HashMap<>();
+
+    public HotSkuJournal(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Reads every segment left in the directory and sums the deltas of records newer than
+     * {@code checkpoint}. A record torn by a crash at the end of a segment is ignored.
+     */
+    public Recovery recover(long checkpoint) {
+        Map<Long, StockDelta> deltas = new HashMap<>();
+        long lastSequence = checkpoint;
+        List<Path> segments = listSegments();
+        ByteBuffer buffer = ByteBuffer.allocate(RECORD_BYTES * 4096);
+        for (Path path : segments) {
+            try (FileChannel in = FileChannel.open(path, StandardOpenOption.READ)) {
+                buffer.clear();
+                while (in.read(buffer) > 0 || buffer.position() > 0) {
+                    buffer.flip();
+                    if (buffer.remaining() < RECORD_BYTES) {
+                        break;
+                    }
+                    while (buffer.remaining() >= RECORD_BYTES) {
+                        long recordSequence = buffer.getLong();
+                        long productId = buffer.getLong();
+                        StockDelta delta = new StockDelta(buffer.getInt(), buffer.getInt());
+                        if (recordSequence > checkpoint) {
+                            deltas.merge(productId, delta, StockDelta::plus);
+                        }
+                        lastSequence = Math.max(lastSequence, recordSequence);
+                    }
+                    buffer.compact();
+                }
+            } catch (IOException ex) {
+                throw new UncheckedIOException("Failed to read hot-SKU journal segment " + path, ex);
+            }
+        }
+        return new Recovery(deltas, lastSequence, segments);
+    }
+
+    /**
+     * Starts a fresh segment after {@code lastSequence}. Must be called before {@link #append}.
+     */
+    public void open(long lastSequence) {
+        lock.lock();
+        try {
+            sequence = lastSequence;
+            openSegment();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Writes a record to the current segment, together with whatever other callers queued
+     * meanwhile, and returns once it is written.
+     *
+     * @throws UncheckedIOException if the record could not be written; it is then not part of
+     *                              the journal and its delta is not pending
+     */
+    public void append(long productId, int reservedDelta, int availableDelta) {
+        Entry entry = new Entry(productId, reservedDelta, availableDelta);
+        queued.add(entry);
+        lock.lock();
+        try {
+            // Another caller may have written this entry while we waited for the lock
+            while (!entry.done) {
+                writeQueued();
+            }
+            if (entry.failure != null) {
+                throw new UncheckedIOException("Failed to append to hot-SKU journal", entry.failure);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Seals the current segment with the deltas appended to it and switches to a new one.
+     * Returns {@code null} when nothing was appended since the last roll.
+     */
+    public Batch roll() {
+        Batch batch;
+        FileChannel sealed;
+        lock.lock();
+        try {
+            while (!queued.isEmpty()) {
+                writeQueued();
+            }
+            if (pending.isEmpty()) {
+                if (broken != null) {
+                    replaceBrokenSegment();
+                }
+                return null;
+            }
+            batch = new Batch(pending, sequence, segment);
+            sealed = channel;
+            pending = new HashMap<>();
+            openSegment();
+        } finally {
+            lock.unlock();
+        }
+        try (sealed) {
+            sealed.force(false);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to sync hot-SKU journal segment " + batch.segment(), ex);
+        }
+        return batch;
+    }
+
+    /**
+     * Puts the deltas of a batch that could not be persisted back in front of the pending
+     * deltas so the next roll retries them. Its sealed segment must be kept until then.
+     */
+    public void restore(Batch batch) {
+        lock.lock();
+        try {
+            batch.deltas().forEach((productId, delta) -> pending.merge(productId, delta, StockDelta::plus));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void delete(List<Path> segments) {
+        for (Path path : segments) {
+            try {
+                Files.deleteIfExists(path);
+            } catch (IOException ex) {
+                throw new UncheckedIOException("Failed to delete hot-SKU journal segment " + path, ex);
+            }
+        }
+    }
+
+    public void close() {
+        lock.lock();
+        try {
+            if (channel != null) {
+                channel.force(false);
+                channel.close();
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to close hot-SKU journal", ex);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Writes up to {@value #MAX_BATCH} queued records in one go and marks them done. If the
+     * write fails the segment is cut back to its last whole record and the records are marked
+     * failed instead; if it cannot be cut back, appends fail until the next roll opens a new
+     * segment. Must be called with the lock held.
+     */
+    private void writeQueued() {
+        batch.clear();
+        records.clear();
+        Entry entry;
+        while (batch.size() < MAX_BATCH && (entry = queued.poll()) != null) {
+            batch.add(entry);
+            records.putLong(sequence + batch.size())
+                    .putLong(entry.productId)
+                    .putInt(entry.reservedDelta)
+                    .putInt(entry.availableDelta);
+        }
+        records.flip();
+        try {
+            if (broken != null) {
+                throw broken;
+            }
+            long position = channel.size();
+            try {
+                while (records.hasRemaining()) {
+                    channel.write(records);
+                }
+            } catch (IOException ex) {
+                truncate(position, ex);
+                throw ex;
+            }
+        } catch (IOException ex) {
+            for (Entry failed : batch) {
+                failed.failure = ex;
+                failed.done = true;
+            }
+            return;
+        }
+        sequence += batch.size();
+        for (Entry written : batch) {
+            pending.merge(written.productId, new StockDelta(written.reservedDelta, written.availableDelta),
+                    StockDelta::plus);
+            written.done = true;
+        }
+    }
+
+    private void truncate(long position, IOException cause) {
+        try {
+            channel.truncate(position);
+        } catch (IOException ex) {
+            // Records appended after a torn one would be unreadable, so the segment takes no more
+            broken = cause;
+        }
+    }
+
+    /**
+     * Swaps a segment that holds no whole records, only a torn one, for a fresh one of the
+     * same name.
+     */
+    private void replaceBrokenSegment() {
+        try {
+            channel.close();
+            Files.deleteIfExists(segment);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to replace hot-SKU journal segment " + segment, ex);
+        }
+        openSegment();
+    }
+
+    private void openSegment() {
+        segment = directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, sequence + 1, SEGMENT_SUFFIX));
+        try {
+            Files.createDirectories(directory);
+            broken = null;
+            channel = FileChannel.open(segment,
+                    StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to open hot-SKU journal segment " + segment, ex);
+        }
+    }
+
+    private List<Path> listSegments() {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return new ArrayList<>(files
+                    .filter(path -> {
+                        String name = path.getFileName().toString();
+                        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+                    })
+                    .sorted()
+                    .toList());
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to list hot-SKU journal directory " + directory, ex);
+        }
+    }
+
+    /**
+     * A record waiting to be written. Its state only changes under the lock.
+     */
+    private static final class Entry {
+
+        private final long productId;
+        private final int reservedDelta;
+        private final int availableDelta;
+        private boolean done;
+        private IOException failure;
+
+        private Entry(long productId, int reservedDelta, int availableDelta) {
+            this.productId = productId;
+            this.reservedDelta = reservedDelta;
+            this.availableDelta = availableDelta;
+        }
+    }
+
+    /**
+     * Deltas of a sealed segment, up to and including {@code lastSequence}.
+     */
+    public record Batch(Map<Long, StockDelta> deltas, long lastSequence, Path segment) {
+    }
+
+    /**
+     * Deltas found on disk that were never checkpointed, and the segments they were read from.
+     */
+    public record Recovery(Map<Long, StockDelta> deltas, long lastSequence, List<Path> segments) {
+    }
+}
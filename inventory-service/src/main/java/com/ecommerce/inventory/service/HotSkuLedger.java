@@ -0,0 +1,266 @@
+package com.ecommerce.inventory.service;
+
+import com.ecommerce.inventory.entity.HotSkuCheckpoint;
+import com.ecommerce.inventory.entity.Inventory;
+import com.ecommerce.inventory.entity.InventoryJournalEntry;
+import com.ecommerce.inventory.repository.HotSkuCheckpointRepository;
+import com.ecommerce.inventory.repository.InventoryBatchOperations.StockDelta;
+import com.ecommerce.inventory.repository.InventoryJournalRepository;
+import com.ecommerce.inventory.repository.InventoryRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Optional in-memory stock ledger for flash-sale SKUs.
+ *
+ * <p>Designated products are answered from {@link StripedStockCounter}s instead of row
+ * updates. Each change is appended to a {@link HotSkuJournal} before it is acknowledged and
+ * written to the inventory table in write-behind batches, together with a checkpoint of the
+ * last journal sequence applied and an inventory journal entry per product. On startup any
+ * journal records newer than the checkpoint are applied before the counters are loaded.
+ *
+ * <p>The counters are authoritative while the ledger runs, so only one inventory-service
+ * instance may own a given hot SKU.
+ */
+@Component
+@Slf4j
+public class HotSkuLedger implements SmartLifecycle {
+
+    private final boolean enabled;
+    private final Set<Long> productIds;
+    private final int stripes;
+    private final long flushIntervalMs;
+    private final String ownerId;
+    private final HotSkuJournal journal;
+    private final InventoryRepository inventoryRepository;
+    private final HotSkuCheckpointRepository checkpointRepository;
+    private final InventoryJournalRepository inventoryJournalRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Map<Long, HotSku> skus = new ConcurrentHashMap<>();
+    private final List<Path> sealedSegments = new ArrayList<>();
+    private ScheduledExecutorService flusher;
+    private volatile boolean running;
+
+    public HotSkuLedger(
+            @Value("${inventory.hot-sku.enabled:false}") boolean enabled,
+            @Value("${inventory.hot-sku.product-ids:}") Set<Long> productIds,
+            @Value("${inventory.hot-sku.stripes:16}") int stripes,
+            @Value("${inventory.hot-sku.flush-interval-ms:100}") long flushIntervalMs,
+            @Value("${inventory.hot-sku.journal-dir:data/hot-sku-journal}") Path journalDir,
+            @Value("${spring.application.name}") String ownerId,
+            InventoryRepository inventoryRepository,
+            HotSkuCheckpointRepository checkpointRepository,
+            InventoryJournalRepository inventoryJournalRepository,
+            TransactionTemplate transactionTemplate) {
+        this.enabled = enabled;
+        this.productIds = productIds;
+        this.stripes = stripes;
+        this.flushIntervalMs = flushIntervalMs;
+        this.ownerId = ownerId;
+        this.journal = new HotSkuJournal(journalDir);
+        this.inventoryRepository = inventoryRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.inventoryJournalRepository = inventoryJournalRepository;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    public boolean isHot(Long productId) {
+        return running && skus.containsKey(productId);
+    }
+
+    public boolean tryReserve(Long productId, int quantity) {
+        HotSku sku = skus.get(productId);
+        if (!sku.available.tryReserve(quantity)) {
+            return false;
+        }
+        sku.reserved.addAndGet(quantity);
+        try {
+            journal.append(productId, quantity, 0);
+        } catch (RuntimeException ex) {
+            // Not journaled, so not reserved: the units go back on sale
+            sku.reserved.addAndGet(-quantity);
+            sku.available.release(quantity);
+            throw ex;
+        }
+        return true;
+    }
+
+    public boolean release(Long productId, int quantity) {
+        HotSku sku = skus.get(productId);
+        while (true) {
+            long reserved = sku.reserved.get();
+            if (reserved < quantity) {
+                return false;
+            }
+            if (sku.reserved.compareAndSet(reserved, reserved - quantity)) {
+                break;
+            }
+        }
+        try {
+            journal.append(productId, -quantity, 0);
+        } catch (RuntimeException ex) {
+            sku.reserved.addAndGet(quantity);
+            throw ex;
+        }
+        sku.available.release(quantity);
+        return true;
+    }
+
+    /**
+     * Moves available stock to {@code quantity}. Reservations racing with the call are not
+     * lost but may leave the result a few units off the requested figure; stock is only ever
+     * removed when the counter still holds it, so a decrease never lets reservations take
+     * units that are gone.
+     */
+    public void setAvailable(Long productId, int quantity) {
+        HotSku sku = skus.get(productId);
+        while (true) {
+            int adjustment = (int) (quantity - sku.available.available());
+            if (adjustment >= 0) {
+                journal.append(productId, 0, adjustment);
+                sku.available.add(adjustment);
+                return;
+            }
+            // Falls short only when reservations took units in the meantime; recompute then
+            if (sku.available.tryRemove(-adjustment)) {
+                try {
+                    journal.append(productId, 0, adjustment);
+                } catch (RuntimeException ex) {
+                    sku.available.add(-adjustment);
+                    throw ex;
+                }
+                return;
+            }
+        }
+    }
+
+    public int available(Long productId) {
+        return (int) skus.get(productId).available.available();
+    }
+
+    public int reserved(Long productId) {
+        return (int) skus.get(productId).reserved.get();
+    }
+
+    /**
+     * Writes every delta journaled since the previous flush to the inventory table. Called by
+     * the background flusher; safe to call directly, e.g. before reading the table.
+     */
+    public synchronized void flush() {
+        HotSkuJournal.Batch batch = journal.roll();
+        if (batch == null) {
+            return;
+        }
+        sealedSegments.add(batch.segment());
+        try {
+            persist(batch.deltas(), batch.lastSequence());
+        } catch (RuntimeException ex) {
+            journal.restore(batch);
+            log.error("Hot-SKU write-behind flush failed, will retry: {}", ex.getMessage());
+            return;
+        }
+        journal.delete(sealedSegments);
+        sealedSegments.clear();
+    }
+
+    @Override
+    public void start() {
+        if (!enabled || productIds.isEmpty()) {
+            return;
+        }
+        long checkpoint = checkpointRepository.findById(ownerId)
+                .map(HotSkuCheckpoint::getJournalSequence)
+                .orElse(0L);
+        HotSkuJournal.Recovery recovery = journal.recover(checkpoint);
+        if (!recovery.deltas().isEmpty()) {
+            log.info("Replaying hot-SKU journal deltas for {} products after sequence {}",
+                    recovery.deltas().size(), checkpoint);
+            persist(recovery.deltas(), recovery.lastSequence());
+        }
+        journal.delete(recovery.segments());
+        journal.open(recovery.lastSequence());
+
+        skus.clear();
+        for (Inventory inventory : inventoryRepository.findByProductIdIn(productIds)) {
+            skus.put(inventory.getProductId(), new HotSku(
+                    new StripedStockCounter(inventory.getAvailableQuantity(), stripes),
+                    new AtomicLong(inventory.getReservedQuantity())));
+        }
+        productIds.stream()
+                .filter(productId -> !skus.containsKey(productId))
+                .forEach(productId -> log.warn("Hot SKU {} has no inventory record and is served from the database", productId));
+
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "hot-sku-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flush, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+        running = true;
+        log.info("Hot-SKU ledger serving products {} with {} stripes", skus.keySet(), stripes);
+    }
+
+    @Override
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(flushIntervalMs * 10, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+        journal.close();
+        log.info("Hot-SKU ledger stopped");
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Starts before and stops after the web server and Kafka listeners that call into it.
+     */
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+
+    private void persist(Map<Long, StockDelta> deltas, long lastSequence) {
+        transactionTemplate.executeWithoutResult(status -> {
+            TreeMap<Long, StockDelta> sortedDeltas = new TreeMap<>(deltas);
+            inventoryRepository.batchApplyStockDeltas(sortedDeltas);
+            List<InventoryJournalEntry> entries = new ArrayList<>(sortedDeltas.size());
+            sortedDeltas.forEach((productId, delta) -> entries.add(InventoryJournalEntry.hotSkuFlush(
+                    productId, delta.availableAdjustment() - delta.reserved(), delta.reserved())));
+            inventoryJournalRepository.append(entries);
+            checkpointRepository.save(HotSkuCheckpoint.builder()
+                    .ownerId(ownerId)
+                    .journalSequence(lastSequence)
+                    .build());
+        });
+    }
+
+    private record HotSku(StripedStockCounter available, AtomicLong reserved) {
+    }
+}
@@ -0,0 +1,202 @@
+package com.ecommerce.inventory.service;
+
+import com.ecommerce.inventory.dto.JournalVerificationResponse;
+import com.ecommerce.inventory.entity.InventoryJournalEntry;
+import com.ecommerce.inventory.entity.InventorySnapshot;
+import com.ecommerce.inventory.repository.InventoryBatchOperations.StockQuantities;
+import com.ecommerce.inventory.repository.InventoryJournalRepository;
+import com.ecommerce.inventory.repository.InventoryRepository;
+import com.ecommerce.inventory.repository.InventorySnapshotRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Rebuilds the stock of every product from the latest {@link InventorySnapshot} and the
+ * journal entries after it, and checks the result against the inventory table.
+ *
+ * <p>Hot-SKU changes reach the journal with the ledger's write-behind batches, the same
+ * transactions that write them to the table, so both sides agree on them too.
+ */
+@Component
+@Slf4j
+public class InventoryJournalReplayer {
+
+    private static final int SNAPSHOT_FORMAT_VERSION = 1;
+    private static final int MAX_REPORTED_MISMATCHES = 100;
+
+    private final InventoryRepository inventoryRepository;
+    private final InventoryJournalRepository journalRepository;
+    private final InventorySnapshotRepository snapshotRepository;
+    private final TransactionTemplate consistentRead;
+
+    public InventoryJournalReplayer(
+            InventoryRepository inventoryRepository,
+            InventoryJournalRepository journalRepository,
+            InventorySnapshotRepository snapshotRepository,
+            PlatformTransactionManager transactionManager) {
+        this.inventoryRepository = inventoryRepository;
+        this.journalRepository = journalRepository;
+        this.snapshotRepository = snapshotRepository;
+        // One repeatable read sees the journal and the table as of the same commit
+        this.consistentRead = new TransactionTemplate(transactionManager);
+        this.consistentRead.setReadOnly(true);
+        this.consistentRead.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+    }
+
+    /**
+     * Stock of every product after the latest committed journal entry.
+     */
+    public Replay rebuild() {
+        long startNanos = System.nanoTime();
+        Replay replay = consistentRead.execute(status -> replayFrom(snapshotRepository.findFirstByOrderByJournalSequenceDesc(), null));
+        log.info("Rebuilt stock of {} products from snapshot {} and {} journal entries in {} ms",
+                replay.stock().size(), replay.snapshotSequence(), replay.entriesReplayed(),
+                (System.nanoTime() - startNanos) / 1_000_000);
+        return replay;
+    }
+
+    /**
+     * Replays the journal segment after the latest snapshot, or after the oldest retained one
+     * when {@code fromOldestSnapshot} is set, and compares the result with the inventory table.
+     */
+    public JournalVerificationResponse verify(boolean fromOldestSnapshot) {
+        long startNanos = System.nanoTime();
+        JournalVerificationResponse response = consistentRead.execute(status -> {
+            Replay replay = replayFrom(fromOldestSnapshot
+                    ? snapshotRepository.findFirstByOrderByJournalSequenceAsc()
+                    : snapshotRepository.findFirstByOrderByJournalSequenceDesc(), null);
+            return compare(replay, inventoryRepository.findAllStockQuantities());
+        });
+        response.setElapsedMillis((System.nanoTime() - startNanos) / 1_000_000);
+        if (response.getMismatchCount() > 0) {
+            log.warn("Inventory journal verification found {} mismatching products after sequence {}",
+                    response.getMismatchCount(), response.getLastSequence());
+        } else {
+            log.info("Inventory journal verified {} products up to sequence {}",
+                    response.getProductsChecked(), response.getLastSequence());
+        }
+        return response;
+    }
+
+    /**
+     * Applies the entries after {@code snapshot}, or all entries if there is none, stopping
+     * at the first one created at or after {@code createdBefore} when it is not null.
+     */
+    Replay replayFrom(Optional<InventorySnapshot> snapshot, LocalDateTime createdBefore) {
+        SortedMap<Long, StockQuantities> stock = snapshot.map(s -> decode(s.getData())).orElseGet(TreeMap::new);
+        long snapshotSequence = snapshot.map(InventorySnapshot::getJournalSequence).orElse(0L);
+        long[] entries = new long[1];
+        long lastSequence = journalRepository.replay(snapshotSequence, createdBefore, entry -> {
+            apply(stock, entry);
+            entries[0]++;
+        });
+        return new Replay(snapshotSequence, lastSequence, entries[0], stock);
+    }
+
+    static void apply(Map<Long, StockQuantities> stock, InventoryJournalEntry entry) {
+        Long productId = entry.getProductId();
+        StockQuantities current = stock.getOrDefault(productId, new StockQuantities(0, 0));
+        stock.put(productId, switch (entry.getType()) {
+            case CREATE -> new StockQuantities(entry.getAvailableQuantity(), 0);
+            case SET_AVAILABLE -> new StockQuantities(entry.getAvailableQuantity(), current.reserved());
+            case RESERVE, RELEASE, HOT_SKU_FLUSH -> new StockQuantities(
+                    current.available() + entry.getAvailableDelta(),
+                    current.reserved() + entry.getReservedDelta());
+        });
+    }
+
+    /**
+     * Product IDs are delta-encoded and the whole stream is deflated, which keeps a snapshot
+     * of a large catalogue to a few bytes per product.
+     */
+    static byte[] encode(SortedMap<Long, StockQuantities> stock) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new DeflaterOutputStream(bytes), 64 * 1024))) {
+            out.writeInt(SNAPSHOT_FORMAT_VERSION);
+            out.writeInt(stock.size());
+            long previousProductId = 0;
+            for (Map.Entry<Long, StockQuantities> entry : stock.entrySet()) {
+                out.writeLong(entry.getKey() - previousProductId);
+                out.writeInt(entry.getValue().available());
+                out.writeInt(entry.getValue().reserved());
+                previousProductId = entry.getKey();
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to encode inventory snapshot", ex);
+        }
+        return bytes.toByteArray();
+    }
+
+    static SortedMap<Long, StockQuantities> decode(byte[] data) {
+        SortedMap<Long, StockQuantities> stock = new TreeMap<>();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new InflaterInputStream(new ByteArrayInputStream(data)), 64 * 1024))) {
+            int version = in.readInt();
+            if (version != SNAPSHOT_FORMAT_VERSION) {
+                throw new IllegalStateException("Unsupported inventory snapshot format " + version);
+            }
+            int size = in.readInt();
+            long productId = 0;
+            for (int i = 0; i < size; i++) {
+                productId += in.readLong();
+                stock.put(productId, new StockQuantities(in.readInt(), in.readInt()));
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to decode inventory snapshot", ex);
+        }
+        return stock;
+    }
+
+    private static JournalVerificationResponse compare(Replay replay, SortedMap<Long, StockQuantities> table) {
+        TreeSet<Long> productIds = new TreeSet<>(replay.stock().keySet());
+        productIds.addAll(table.keySet());
+        List<JournalVerificationResponse.Mismatch> mismatches = new ArrayList<>();
+        long mismatchCount = 0;
+        for (Long productId : productIds) {
+            StockQuantities journal = replay.stock().get(productId);
+            StockQuantities stored = table.get(productId);
+            if (journal != null && journal.equals(stored)) {
+                continue;
+            }
+            mismatchCount++;
+            if (mismatches.size() < MAX_REPORTED_MISMATCHES) {
+                mismatches.add(new JournalVerificationResponse.Mismatch(productId,
+                        journal == null ? null : journal.available(), journal == null ? null : journal.reserved(),
+                        stored == null ? null : stored.available(), stored == null ? null : stored.reserved()));
+            }
+        }
+        return JournalVerificationResponse.builder()
+                .snapshotSequence(replay.snapshotSequence())
+                .lastSequence(replay.lastSequence())
+                .entriesReplayed(replay.entriesReplayed())
+                .productsChecked(productIds.size())
+                .mismatchCount(mismatchCount)
+                .mismatches(mismatches)
+                .build();
+    }
+
+    public record Replay(long snapshotSequence, long lastSequence, long entriesReplayed,
+                         SortedMap<Long, StockQuantities> stock) {
+    }
+}
@@ -1,15 +1,31 @@
 package com.ecommerce.inventory.service;
 
 import com.ecommerce.inventory.dto.InventoryResponse;
+import com.ecommerce.inventory.dto.StockLevel;
 import com.ecommerce.inventory.entity.Inventory;
+import com.ecommerce.inventory.entity.InventoryJournalEntry;
+import com.ecommerce.inventory.entity.InventoryReservation;
+import com.ecommerce.inventory.event.InventoryChangePublisher;
 import com.ecommerce.inventory.exception.InventoryNotFoundException;
+import com.ecommerce.inventory.repository.InventoryJournalRepository;
 import com.ecommerce.inventory.repository.InventoryRepository;
+import com.ecommerce.inventory.repository.InventoryReservationRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
 import java.util.stream.Collectors;
 
 @Service
@@ -18,6 +34,14 @@ import java.util.stream.Collectors;
 public class InventoryService {
 
     private final InventoryRepository inventoryRepository;
+    private final InventoryReservationRepository reservationRepository;
+    private final InventoryJournalRepository journalRepository;
+    private final HotSkuLedger hotSkuLedger;
+    private final AvailabilityCache availabilityCache;
+    private final InventoryChangePublisher inventoryChangePublisher;
+
+    @Value("${inventory.reservation.hold-ttl:PT15M}")
+    private Duration holdTtl;
 
     @Transactional
     public InventoryResponse createInventory(Long productId, Integer quantity) {
@@ -30,6 +54,9 @@ public class InventoryService {
                 .build();
         
         Inventory saved = inventoryRepository.save(inventory);
+        journalRepository.append(List.of(InventoryJournalEntry.create(productId, quantity)));
+        availabilityCache.putAfterCommit(productId, quantity);
+        inventoryChangePublisher.markChangedAfterCommit(List.of(productId));
         log.info("Inventory created with ID: {}", saved.getId());
         
         return toResponse(saved);
@@ -53,29 +80,188 @@ public class InventoryService {
     @Transactional
     public void reserveInventory(Long productId, Integer quantity) {
         log.info("Reserving {} units of product ID: {}", quantity, productId);
-        
-        Inventory inventory = inventoryRepository.findByProductId(productId)
-                .orElseThrow(() -> new InventoryNotFoundException("Inventory not found for product ID: " + productId));
-        
-        inventory.reserveStock(quantity);
-        inventoryRepository.save(inventory);
-        
-        log.info("Reserved {} units of product ID: {}. Available: {}, Reserved: {}", 
-                quantity, productId, inventory.getAvailableQuantity(), inventory.getReservedQuantity());
+
+        if (hotSkuLedger.isHot(productId)) {
+            if (!hotSkuLedger.tryReserve(productId, quantity)) {
+                throw new IllegalStateException("Insufficient stock for product ID: " + productId);
+            }
+        } else if (inventoryRepository.reserveStock(productId, quantity) == 0) {
+            if (!inventoryRepository.existsByProductId(productId)) {
+                throw new InventoryNotFoundException("Inventory not found for product ID: " + productId);
+            }
+            throw new IllegalStateException("Insufficient stock for product ID: " + productId);
+        } else {
+            journalRepository.append(List.of(InventoryJournalEntry.reserve(productId, quantity, null)));
+            availabilityCache.applyAfterCommit(productId, -quantity);
+        }
+
+        inventoryChangePublisher.markChangedAfterCommit(List.of(productId));
+        log.info("Reserved {} units of product ID: {}", quantity, productId);
     }
 
     @Transactional
     public void releaseInventory(Long productId, Integer quantity) {
         log.info("Releasing {} units of product ID: {}", quantity, productId);
-        
-        Inventory inventory = inventoryRepository.findByProductId(productId)
-                .orElseThrow(() -> new InventoryNotFoundException("Inventory not found for product ID: " + productId));
-        
-        inventory.releaseStock(quantity);
-        inventoryRepository.save(inventory);
-        
-        log.info("Released {} units of product ID: {}. Available: {}, Reserved: {}", 
-                quantity, productId, inventory.getAvailableQuantity(), inventory.getReservedQuantity());
+
+        if (hotSkuLedger.isHot(productId)) {
+            if (!hotSkuLedger.release(productId, quantity)) {
+                throw new IllegalStateException("Cannot release more than the reserved stock for product ID: " + productId);
+            }
+        } else if (inventoryRepository.releaseStock(productId, quantity) == 0) {
+            if (!inventoryRepository.existsByProductId(productId)) {
+                throw new InventoryNotFoundException("Inventory not found for product ID: " + productId);
+            }
+            throw new IllegalStateException("Cannot release more than the reserved stock for product ID: " + productId);
+        } else {
+            journalRepository.append(List.of(InventoryJournalEntry.release(productId, quantity, null)));
+            availabilityCache.applyAfterCommit(productId, quantity);
+        }
+
+        inventoryChangePublisher.markChangedAfterCommit(List.of(productId));
+        log.info("Released {} units of product ID: {}", quantity, productId);
+    }
+
+    /**
+     * Reserves every item of an order in one transaction. Products are updated in ascending ID
+     * order so concurrent orders cannot deadlock, and any shortfall rolls back the whole order.
+     * The reserved quantities are recorded as holds against the order that {@link #releaseOrder}
+     * can undo and that expire after {@code inventory.reservation.hold-ttl}.
+     * Hot SKUs are reserved in the {@link HotSkuLedger} and handed back if the transaction rolls back.
+     */
+    @Transactional
+    public void reserveOrder(Long orderId, Map<Long, Integer> quantitiesByProductId) {
+        SortedMap<Long, Integer> quantities = new TreeMap<>(quantitiesByProductId);
+        log.info("Reserving {} products for order ID: {}", quantities.size(), orderId);
+
+        SortedMap<Long, Integer> databaseQuantities = new TreeMap<>();
+        Map<Long, Integer> hotReserved = new TreeMap<>();
+        releaseHotSkusUnlessCommitted(hotReserved);
+        for (Map.Entry<Long, Integer> entry : quantities.entrySet()) {
+            Long productId = entry.getKey();
+            if (!hotSkuLedger.isHot(productId)) {
+                databaseQuantities.put(productId, entry.getValue());
+            } else if (hotSkuLedger.tryReserve(productId, entry.getValue())) {
+                hotReserved.put(productId, entry.getValue());
+            } else {
+                throw new IllegalStateException("Insufficient stock for product ID: " + productId);
+            }
+        }
+
+        int[] updated = databaseQuantities.isEmpty() ? new int[0] : inventoryRepository.batchReserveStock(databaseQuantities);
+        int index = 0;
+        for (Long productId : databaseQuantities.keySet()) {
+            if (updated[index++] == 0) {
+                if (!inventoryRepository.existsByProductId(productId)) {
+                    throw new InventoryNotFoundException("Inventory not found for product ID: " + productId);
+                }
+                throw new IllegalStateException("Insufficient stock for product ID: " + productId);
+            }
+        }
+        Map<Long, Integer> availableDeltas = new TreeMap<>();
+        List<InventoryJournalEntry> journalEntries = new ArrayList<>(databaseQuantities.size());
+        databaseQuantities.forEach((productId, quantity) -> {
+            availableDeltas.put(productId, -quantity);
+            journalEntries.add(InventoryJournalEntry.reserve(productId, quantity, orderId));
+        });
+        journalRepository.append(journalEntries);
+        availabilityCache.applyAfterCommit(availableDeltas);
+
+        LocalDateTime expiresAt = LocalDateTime.now().plus(holdTtl);
+        List<InventoryReservation> reservations = new ArrayList<>(quantities.size());
+        quantities.forEach((productId, quantity) -> reservations.add(InventoryReservation.builder()
+                .orderId(orderId)
+                .productId(productId)
+                .quantity(quantity)
+                .expiresAt(expiresAt)
+                .build()));
+        reservationRepository.saveAll(reservations);
+        inventoryChangePublisher.markChangedAfterCommit(quantities.keySet());
+
+        log.info("Reserved {} products for order ID: {}", quantities.size(), orderId);
+    }
+
+    /**
+     * Returns the stock held for an order to the available pool and drops its holds.
+     * Releasing an order with no holds, e.g. one already released or expired, is a no-op.
+     */
+    @Transactional
+    public void releaseOrder(Long orderId) {
+        log.info("Releasing reservations for order ID: {}", orderId);
+
+        List<InventoryReservation> reservations = reservationRepository.findByOrderId(orderId);
+        if (reservations.isEmpty()) {
+            log.info("No reservations recorded for order ID: {}", orderId);
+            return;
+        }
+        releaseHolds(reservations);
+
+        log.info("Released reservations for order ID: {}", orderId);
+    }
+
+    /**
+     * Drops the holds of a paid order without returning its stock, so the sweeper no longer
+     * expires them.
+     */
+    @Transactional
+    public void confirmOrder(Long orderId) {
+        int confirmed = reservationRepository.deleteByOrderId(orderId);
+        log.info("Confirmed {} reservations for order ID: {}", confirmed, orderId);
+    }
+
+    /**
+     * Releases up to {@code batchSize} holds whose TTL has passed, oldest first, in one
+     * transaction. Returns how many were released.
+     */
+    @Transactional
+    public int releaseExpiredReservations(int batchSize) {
+        List<InventoryReservation> expired = reservationRepository.findByExpiresAtBeforeOrderByExpiresAt(
+                LocalDateTime.now(), PageRequest.of(0, batchSize));
+        if (expired.isEmpty()) {
+            return 0;
+        }
+        releaseHolds(expired);
+
+        log.info("Released {} expired reservations", expired.size());
+        return expired.size();
+    }
+
+    /**
+     * Deletes the holds first and fails if any of them was already gone, so a hold released
+     * concurrently by an event and the sweeper is only returned to stock once.
+     */
+    private void releaseHolds(List<InventoryReservation> reservations) {
+        List<Long> ids = reservations.stream().map(InventoryReservation::getId).toList();
+        if (reservationRepository.deleteByIdIn(ids) != ids.size()) {
+            throw new IllegalStateException("Reservations were released concurrently");
+        }
+
+        SortedMap<Long, Integer> quantities = new TreeMap<>();
+        Map<Long, Integer> hotQuantities = new TreeMap<>();
+        for (InventoryReservation reservation : reservations) {
+            Long productId = reservation.getProductId();
+            (hotSkuLedger.isHot(productId) ? hotQuantities : quantities)
+                    .merge(productId, reservation.getQuantity(), Integer::sum);
+        }
+
+        int[] updated = quantities.isEmpty() ? new int[0] : inventoryRepository.batchReleaseStock(quantities);
+        Map<Long, Integer> availableDeltas = new TreeMap<>();
+        int index = 0;
+        for (Map.Entry<Long, Integer> entry : quantities.entrySet()) {
+            if (updated[index++] == 0) {
+                log.warn("Reserved stock for product ID: {} was lower than its released holds", entry.getKey());
+            } else {
+                availableDeltas.put(entry.getKey(), entry.getValue());
+            }
+        }
+        journalRepository.append(reservations.stream()
+                .filter(reservation -> availableDeltas.containsKey(reservation.getProductId()))
+                .map(reservation -> InventoryJournalEntry.release(
+                        reservation.getProductId(), reservation.getQuantity(), reservation.getOrderId()))
+                .toList());
+        availabilityCache.applyAfterCommit(availableDeltas);
+        releaseHotSkusAfterCommit(hotQuantities);
+        inventoryChangePublisher.markChangedAfterCommit(
+                reservations.stream().map(InventoryReservation::getProductId).toList());
     }
 
     @Transactional
@@ -85,28 +271,87 @@ public class InventoryService {
         Inventory inventory = inventoryRepository.findByProductId(productId)
                 .orElseThrow(() -> new InventoryNotFoundException("Inventory not found for product ID: " + productId));
         
-        inventory.setAvailableQuantity(quantity);
-        Inventory updated = inventoryRepository.save(inventory);
+        if (hotSkuLedger.isHot(productId)) {
+            hotSkuLedger.setAvailable(productId, quantity);
+            inventoryChangePublisher.markChangedAfterCommit(List.of(productId));
+            log.info("Inventory updated for hot product ID: {}", productId);
+            return toResponse(inventory);
+        }
+
+        // A statement rather than saving the entity, so reserved stock changed meanwhile is kept
+        // and the journal entry is sequenced after the row lock
+        inventoryRepository.batchSetAvailableStock(new TreeMap<>(Map.of(productId, quantity)));
+        journalRepository.append(List.of(InventoryJournalEntry.setAvailable(productId, quantity)));
+        availabilityCache.putAfterCommit(productId, quantity);
+        inventoryChangePublisher.markChangedAfterCommit(List.of(productId));
         
         log.info("Inventory updated for product ID: {}", productId);
-        return toResponse(updated);
+        return InventoryResponse.builder()
+                .id(inventory.getId())
+                .productId(productId)
+                .availableQuantity(quantity)
+                .reservedQuantity(inventory.getReservedQuantity())
+                .build();
     }
 
     public boolean checkAvailability(Long productId, Integer quantity) {
         log.info("Checking availability of {} units for product ID: {}", quantity, productId);
-        
-        Inventory inventory = inventoryRepository.findByProductId(productId)
-                .orElseThrow(() -> new InventoryNotFoundException("Inventory not found for product ID: " + productId));
-        
-        return inventory.hasAvailableStock(quantity);
+
+        return getAvailableQuantity(productId) >= quantity;
+    }
+
+    /**
+     * Coarse availability for storefront display, answered from the availability cache.
+     */
+    public StockLevel getStockLevel(Long productId) {
+        return availabilityCache.toStockLevel(getAvailableQuantity(productId));
+    }
+
+    private int getAvailableQuantity(Long productId) {
+        if (hotSkuLedger.isHot(productId)) {
+            return hotSkuLedger.available(productId);
+        }
+        Integer available = availabilityCache.getAvailable(productId);
+        if (available == null) {
+            throw new InventoryNotFoundException("Inventory not found for product ID: " + productId);
+        }
+        return available;
+    }
+
+    private void releaseHotSkusUnlessCommitted(Map<Long, Integer> hotReserved) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    hotReserved.forEach(hotSkuLedger::release);
+                }
+            }
+        });
+    }
+
+    private void releaseHotSkusAfterCommit(Map<Long, Integer> hotQuantities) {
+        if (hotQuantities.isEmpty()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                hotQuantities.forEach((productId, quantity) -> {
+                    if (!hotSkuLedger.release(productId, quantity)) {
+                        log.warn("Reserved stock for hot product ID: {} was lower than its released holds", productId);
+                    }
+                });
+            }
+        });
     }
 
     private InventoryResponse toResponse(Inventory inventory) {
+        boolean hot = hotSkuLedger.isHot(inventory.getProductId());
         return InventoryResponse.builder()
                 .id(inventory.getId())
                 .productId(inventory.getProductId())
-                .availableQuantity(inventory.getAvailableQuantity())
-                .reservedQuantity(inventory.getReservedQuantity())
+                .availableQuantity(hot ? hotSkuLedger.available(inventory.getProductId()) : inventory.getAvailableQuantity())
+                .reservedQuantity(hot ? hotSkuLedger.reserved(inventory.getProductId()) : inventory.getReservedQuantity())
                 .build();
     }
 }
@@ -0,0 +1,140 @@
+package com.ecommerce.inventory.service;
+
+import com.ecommerce.inventory.entity.InventorySnapshot;
+import com.ecommerce.inventory.repository.InventoryBatchOperations.StockQuantities;
+import com.ecommerce.inventory.repository.InventoryJournalRepository;
+import com.ecommerce.inventory.repository.InventoryRepository;
+import com.ecommerce.inventory.repository.InventorySnapshotRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.SortedMap;
+
+/**
+ * Periodically folds the inventory journal into a new {@link InventorySnapshot}.
+ *
+ * <p>Journal sequences are assigned when an entry is inserted, not when its transaction
+ * commits, so only entries older than {@code inventory.journal.snapshot-lag} are folded;
+ * the lag must exceed the longest stock transaction. The newest
+ * {@code inventory.journal.snapshots-retained} snapshots are kept.
+ *
+ * <p>Inventory records that predate the journal are captured by a baseline snapshot at
+ * sequence 0, taken on startup while the journal is still empty.
+ */
+@Component
+@Slf4j
+public class InventorySnapshotter implements SmartLifecycle {
+
+    private final boolean enabled;
+    private final Duration lag;
+    private final int retained;
+    private final InventoryJournalReplayer replayer;
+    private final InventoryRepository inventoryRepository;
+    private final InventoryJournalRepository journalRepository;
+    private final InventorySnapshotRepository snapshotRepository;
+    private final TransactionTemplate transactionTemplate;
+    private volatile boolean running;
+
+    public InventorySnapshotter(
+            @Value("${inventory.journal.snapshot-enabled:true}") boolean enabled,
+            @Value("${inventory.journal.snapshot-lag:PT1M}") Duration lag,
+            @Value("${inventory.journal.snapshots-retained:3}") int retained,
+            InventoryJournalReplayer replayer,
+            InventoryRepository inventoryRepository,
+            InventoryJournalRepository journalRepository,
+            InventorySnapshotRepository snapshotRepository,
+            TransactionTemplate transactionTemplate) {
+        this.enabled = enabled;
+        this.lag = lag;
+        this.retained = retained;
+        this.replayer = replayer;
+        this.inventoryRepository = inventoryRepository;
+        this.journalRepository = journalRepository;
+        this.snapshotRepository = snapshotRepository;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.journal.snapshot-interval-ms:600000}")
+    public void scheduledSnapshot() {
+        if (running) {
+            takeSnapshot();
+        }
+    }
+
+    /**
+     * Writes a snapshot of the journal up to the last entry older than the lag. Returns its
+     * sequence, or the latest existing one if no entry was old enough to fold.
+     */
+    public long takeSnapshot() {
+        long startNanos = System.nanoTime();
+        Optional<InventorySnapshot> latest = snapshotRepository.findFirstByOrderByJournalSequenceDesc();
+        InventoryJournalReplayer.Replay replay = replayer.replayFrom(latest, LocalDateTime.now().minus(lag));
+        if (replay.entriesReplayed() == 0) {
+            return replay.snapshotSequence();
+        }
+
+        save(replay.lastSequence(), replay.stock());
+        transactionTemplate.executeWithoutResult(status -> {
+            List<Long> sequences = snapshotRepository.findJournalSequencesNewestFirst();
+            if (sequences.size() > retained) {
+                snapshotRepository.deleteOlderThan(sequences.get(retained - 1));
+            }
+        });
+        log.info("Inventory snapshot of {} products at sequence {} folded {} journal entries in {} ms",
+                replay.stock().size(), replay.lastSequence(), replay.entriesReplayed(),
+                (System.nanoTime() - startNanos) / 1_000_000);
+        return replay.lastSequence();
+    }
+
+    @Override
+    public void start() {
+        running = enabled;
+        if (!enabled) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            if (snapshotRepository.count() > 0 || journalRepository.findFirstByOrderByIdAsc().isPresent()) {
+                return;
+            }
+            SortedMap<Long, StockQuantities> stock = inventoryRepository.findAllStockQuantities();
+            if (!stock.isEmpty()) {
+                save(0L, stock);
+                log.info("Took baseline inventory snapshot of {} products", stock.size());
+            }
+        });
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Takes the baseline before the hot-SKU ledger starts and journals its recovered deltas.
+     */
+    @Override
+    public int getPhase() {
+        return -1;
+    }
+
+    private void save(long journalSequence, SortedMap<Long, StockQuantities> stock) {
+        snapshotRepository.save(InventorySnapshot.builder()
+                .journalSequence(journalSequence)
+                .productCount(stock.size())
+                .data(InventoryJournalReplayer.encode(stock))
+                .build());
+    }
+}
@@ -0,0 +1,36 @@
+package com.ecommerce.inventory.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Periodically returns the stock of holds whose TTL passed without the order being paid,
+ * failed or cancelled, one bounded batch per transaction.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ReservationExpirySweeper {
+
+    private final InventoryService inventoryService;
+
+    @Value("${inventory.reservation.sweep-batch-size:500}")
+    private int batchSize;
+
+    @Scheduled(fixedDelayString = "${inventory.reservation.sweep-interval-ms:30000}")
+    public void releaseExpiredReservations() {
+        int released;
+        do {
+            try {
+                released = inventoryService.releaseExpiredReservations(batchSize);
+            } catch (IllegalStateException ex) {
+                // Another sweeper or a release event took part of the batch, retry on the next run
+                log.warn("Expired reservation sweep interrupted: {}", ex.getMessage());
+                return;
+            }
+        } while (released == batchSize);
+    }
+}
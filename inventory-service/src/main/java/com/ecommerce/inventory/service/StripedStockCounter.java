@@ -0,0 +1,127 @@
+package com.ecommerce.inventory.service;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free available-stock counter split across padded stripes so that concurrent
+ * reservations of the same product CAS different cache lines instead of one hot word.
+ *
+ * <p>A reservation is served from the caller's home stripe when possible and otherwise
+ * gathered from the other stripes; units taken from stripes are handed back if the total
+ * falls short. Stock removed by a restock is gathered the same way, so no stripe ever goes
+ * below zero and every unit a stripe holds really exists. A reservation or removal racing
+ * with others for the very last units may be rejected even though the sum would have
+ * covered it.
+ */
+public class StripedStockCounter {
+
+    /** Spacing between stripes in longs: 16 * 8 bytes keeps each stripe on its own cache line pair. */
+    private static final int PADDING = 16;
+
+    private final AtomicLongArray cells;
+    private final int mask;
+
+    public StripedStockCounter(long initialStock, int stripes) {
+        if (stripes <= 0 || Integer.bitCount(stripes) != 1) {
+            throw new IllegalArgumentException("Stripe count must be a positive power of two: " + stripes);
+        }
+        this.cells = new AtomicLongArray(stripes * PADDING);
+        this.mask = stripes - 1;
+        long share = initialStock / stripes;
+        long remainder = initialStock % stripes;
+        for (int stripe = 0; stripe < stripes; stripe++) {
+            cells.set(stripe * PADDING, share + (stripe < remainder ? 1 : 0));
+        }
+    }
+
+    public boolean tryReserve(int quantity) {
+        int home = homeStripe();
+        return tryTakeAll(home, quantity) || gather(home, quantity);
+    }
+
+    public void release(int quantity) {
+        cells.addAndGet(homeStripe() * PADDING, quantity);
+    }
+
+    /**
+     * Adds restocked units.
+     */
+    public void add(long quantity) {
+        cells.addAndGet(homeStripe() * PADDING, quantity);
+    }
+
+    /**
+     * Removes {@code quantity} units, draining one stripe after another, or nothing if the
+     * stripes do not hold that many between them.
+     */
+    public boolean tryRemove(long quantity) {
+        return gather(homeStripe(), quantity);
+    }
+
+    public long available() {
+        long sum = 0;
+        for (int stripe = 0; stripe <= mask; stripe++) {
+            sum += cells.get(stripe * PADDING);
+        }
+        return sum;
+    }
+
+    /**
+     * Takes {@code quantity} units from the stripes starting at {@code home}, handing back
+     * whatever was taken if they fall short.
+     */
+    private boolean gather(int home, long quantity) {
+        long taken = 0;
+        long[] takenPerStripe = new long[mask + 1];
+        for (int i = 0; i <= mask && taken < quantity; i++) {
+            int stripe = (home + i) & mask;
+            long got = tryTake(stripe, quantity - taken);
+            takenPerStripe[stripe] = got;
+            taken += got;
+        }
+        if (taken == quantity) {
+            return true;
+        }
+        for (int stripe = 0; stripe <= mask; stripe++) {
+            if (takenPerStripe[stripe] > 0) {
+                cells.addAndGet(stripe * PADDING, takenPerStripe[stripe]);
+            }
+        }
+        return false;
+    }
+
+    private boolean tryTakeAll(int stripe, int quantity) {
+        int index = stripe * PADDING;
+        while (true) {
+            long current = cells.get(index);
+            if (current < quantity) {
+                return false;
+            }
+            if (cells.compareAndSet(index, current, current - quantity)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Takes up to {@code wanted} units from one stripe and returns how many it got.
+     */
+    private long tryTake(int stripe, long wanted) {
+        int index = stripe * PADDING;
+        while (true) {
+            long current = cells.get(index);
+            if (current <= 0) {
+                return 0;
+            }
+            long take = Math.min(current, wanted);
+            if (cells.compareAndSet(index, current, current - take)) {
+                return take;
+            }
+        }
+    }
+
+    private int homeStripe() {
+        long id = Thread.currentThread().getId();
+        return (int) (id ^ (id >>> 16)) & mask;
+    }
+}
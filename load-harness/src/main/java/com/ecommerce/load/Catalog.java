@@ -0,0 +1,56 @@
+package com.ecommerce.load;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * The products a run browses and orders, created through the services' APIs before the run
+ * with stock that outlasts it. Popularity is skewed, as in a real catalog: a few products
+ * draw most views and orders.
+ */
+final class Catalog {
+
+    static final List<String> CATEGORIES = List.of("Electronics", "Books", "Home", "Garden", "Toys", "Sports");
+
+    private static final int STOCK = 1_000_000;
+
+    record Product(long id, BigDecimal price, String category) {
+    }
+
+    private final List<Product> products;
+
+    private Catalog(List<Product> products) {
+        this.products = List.copyOf(products);
+    }
+
+    /**
+     * Creates the products one at a time: H2 can hand out the same identity to concurrent
+     * inserts, and seeding is not what a run measures.
+     */
+    static Catalog seed(StorefrontClient client, int size, Random random) {
+        List<Product> products = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            String category = CATEGORIES.get(i % CATEGORIES.size());
+            BigDecimal price = BigDecimal.valueOf(5 + random.nextDouble() * 495).setScale(2, RoundingMode.HALF_UP);
+            long id = client.createProduct("Product " + i, category, price, STOCK).join().path("id").asLong();
+            client.createInventory(id, STOCK).join();
+            products.add(new Product(id, price, category));
+        }
+        return new Catalog(products);
+    }
+
+    int size() {
+        return products.size();
+    }
+
+    /**
+     * A product, the first ones far likelier than the last.
+     */
+    Product pick(Random random) {
+        double skewed = Math.pow(random.nextDouble(), 3);
+        return products.get((int) (skewed * products.size()));
+    }
+}
@@ -0,0 +1,37 @@
+package com.ecommerce.load;
+
+import com.ecommerce.inventory.InventoryServiceApplication;
+import com.ecommerce.order.OrderServiceApplication;
+import com.ecommerce.payment.PaymentServiceApplication;
+import com.ecommerce.product.ProductServiceApplication;
+
+/**
+ * The services a load run exercises, in start order: consumers start before the services that
+ * publish to them, and order-service, which calls inventory-service, last.
+ */
+enum HarnessService {
+
+    PRODUCT(ProductServiceApplication.class, "product"),
+    INVENTORY(InventoryServiceApplication.class, "inventory"),
+    PAYMENT(PaymentServiceApplication.class, "payment"),
+    ORDER(OrderServiceApplication.class, "order");
+
+    private final Class<?> application;
+    private final String database;
+
+    HarnessService(Class<?> application, String database) {
+        this.application = application;
+        this.database = database;
+    }
+
+    Class<?> application() {
+        return application;
+    }
+
+    /**
+     * Name of the service's in-memory H2 database.
+     */
+    String database() {
+        return database;
+    }
+}
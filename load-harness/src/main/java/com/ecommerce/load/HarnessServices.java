@@ -0,0 +1,148 @@
+package com.ecommerce.load;
+
+import com.ecommerce.common.id.SnowflakeIdGenerator;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Boots the services a load run exercises as they run in production, talking over HTTP and
+ * Kafka, but against local stand-ins: an embedded Kafka broker, an in-memory H2 database per
+ * service and Spring Cloud's simple discovery client with fixed addresses in place of Eureka.
+ * Nothing outside the JVM is needed, so a run works offline.
+ *
+ * <p>Every service jar carries its own {@code application.properties}, so the one on the
+ * harness classpath is not necessarily the service's. The service's file is read from its
+ * own jar instead and applied as default properties; each service then gets a free port.
+ */
+final class HarnessServices implements AutoCloseable {
+
+    private static final int PARTITIONS = 3;
+
+    private final EmbeddedKafkaKraftBroker broker;
+    private final Deque<ConfigurableApplicationContext> contexts = new ArrayDeque<>();
+    private final Map<HarnessService, URI> addresses = new EnumMap<>(HarnessService.class);
+
+    private HarnessServices(EmbeddedKafkaKraftBroker broker) {
+        this.broker = broker;
+    }
+
+    /**
+     * @param properties applied to every service, over its own configuration
+     */
+    static HarnessServices start(Map<String, Object> properties) {
+        EmbeddedKafkaKraftBroker broker = new EmbeddedKafkaKraftBroker(1, PARTITIONS);
+        // As in docker-compose: consumers start first and auto-create the topics they subscribe to
+        broker.brokerProperty("num.partitions", String.valueOf(PARTITIONS));
+        broker.afterPropertiesSet();
+        HarnessServices services = new HarnessServices(broker);
+        try {
+            services.startServices(properties);
+        } catch (RuntimeException ex) {
+            services.close();
+            throw ex;
+        }
+        return services;
+    }
+
+    URI address(HarnessService service) {
+        return addresses.get(service);
+    }
+
+    private void startServices(Map<String, Object> properties) {
+        // Every service writes its own in-memory database, so one node ID serves them all
+        SnowflakeIdGenerator.defaultNodeId(0);
+        Map<HarnessService, Properties> serviceProperties = new EnumMap<>(HarnessService.class);
+        Map<String, Object> discovery = new LinkedHashMap<>();
+        for (HarnessService service : HarnessService.values()) {
+            Properties defaults = applicationProperties(service.application());
+            URI address = URI.create("http://localhost:" + freePort());
+            serviceProperties.put(service, defaults);
+            addresses.put(service, address);
+            discovery.put("spring.cloud.discovery.client.simple.instances."
+                    + defaults.getProperty("spring.application.name") + "[0].uri", address.toString());
+        }
+        for (HarnessService service : HarnessService.values()) {
+            Map<String, Object> overrides = new LinkedHashMap<>(discovery);
+            overrides.put("server.port", addresses.get(service).getPort());
+            overrides.put("spring.config.location", "optional:classpath:/load-harness-no-config/");
+            overrides.put("spring.main.banner-mode", "off");
+            overrides.put("logging.include-application-name", "false");
+            overrides.put("logging.level.root", "WARN");
+            overrides.put("logging.level." + service.application().getPackageName(), "WARN");
+            overrides.put("logging.level.org.springframework.kafka", "WARN");
+            overrides.put("spring.datasource.url",
+                    "jdbc:h2:mem:" + service.database() + ";DB_CLOSE_DELAY=-1;MODE=MySQL");
+            overrides.put("spring.datasource.driver-class-name", "org.h2.Driver");
+            overrides.put("spring.datasource.username", "sa");
+            overrides.put("spring.datasource.password", "");
+            overrides.put("spring.jpa.properties.hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+            overrides.put("spring.jpa.hibernate.ddl-auto", "create-drop");
+            overrides.put("spring.jpa.show-sql", "false");
+            overrides.put("spring.kafka.bootstrap-servers", broker.getBrokersAsString());
+            overrides.put("eureka.client.enabled", "false");
+            // Every service sees product-service's Redis starter on the harness classpath
+            overrides.put("management.health.redis.enabled", "false");
+            overrides.put("spring.data.redis.repositories.enabled", "false");
+            overrides.putAll(properties);
+
+            StandardEnvironment environment = new StandardEnvironment();
+            environment.getPropertySources().addFirst(new MapPropertySource("load-harness", overrides));
+            contexts.push(new SpringApplicationBuilder(service.application())
+                    .main(service.application())
+                    .environment(environment)
+                    .properties(serviceProperties.get(service))
+                    .registerShutdownHook(false)
+                    .run());
+        }
+    }
+
+    /**
+     * Stops the services in reverse start order and then the broker.
+     */
+    @Override
+    public void close() {
+        while (!contexts.isEmpty()) {
+            contexts.pop().close();
+        }
+        broker.destroy();
+    }
+
+    private static int freePort() {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to find a free port", ex);
+        }
+    }
+
+    private static Properties applicationProperties(Class<?> application) {
+        URL serviceJar = application.getProtectionDomain().getCodeSource().getLocation();
+        Properties properties = new Properties();
+        try (URLClassLoader loader = new URLClassLoader(new URL[]{serviceJar}, null);
+             InputStream input = loader.getResourceAsStream("application.properties")) {
+            if (input != null) {
+                properties.load(input);
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to read application.properties of " + serviceJar, ex);
+        }
+        return properties;
+    }
+}
@@ -0,0 +1,74 @@
+package com.ecommerce.load;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latencies and failures per {@link Operation} for one phase of a run, in HdrHistograms with
+ * microsecond resolution and three significant digits, so that p99.9 stays accurate however
+ * many operations are recorded.
+ */
+final class LatencyRecorder {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(5);
+
+    private final Map<Operation, Histogram> histograms = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> errors = new EnumMap<>(Operation.class);
+    private final Map<Operation, String> firstErrors = new ConcurrentHashMap<>();
+
+    LatencyRecorder() {
+        for (Operation operation : Operation.values()) {
+            histograms.put(operation, new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3));
+            errors.put(operation, new LongAdder());
+        }
+    }
+
+    void record(Operation operation, long nanos) {
+        long micros = Math.max(1, TimeUnit.NANOSECONDS.toMicros(nanos));
+        histograms.get(operation).recordValue(Math.min(micros, HIGHEST_TRACKABLE_MICROS));
+    }
+
+    void error(Operation operation, Throwable cause) {
+        errors.get(operation).increment();
+        firstErrors.putIfAbsent(operation, String.valueOf(cause.getMessage()));
+    }
+
+    /**
+     * The first failure of every operation that failed, to tell why without a log.
+     */
+    Map<Operation, String> firstErrors() {
+        return Map.copyOf(firstErrors);
+    }
+
+    /**
+     * @param offeredNanos how long load was offered, which throughput is relative to
+     */
+    LoadReport report(double targetRate, long offeredNanos) {
+        double seconds = offeredNanos / 1e9;
+        List<LoadReport.Row> rows = new ArrayList<>();
+        for (Operation operation : Operation.values()) {
+            Histogram histogram = histograms.get(operation);
+            long count = histogram.getTotalCount();
+            long failed = errors.get(operation).sum();
+            if (count == 0 && failed == 0) {
+                continue;
+            }
+            rows.add(new LoadReport.Row(operation, count, failed, count / seconds,
+                    millis(histogram.getValueAtPercentile(50)), millis(histogram.getValueAtPercentile(99)),
+                    millis(histogram.getValueAtPercentile(99.9)), millis(histogram.getMaxValue())));
+        }
+        return new LoadReport(targetRate, seconds, rows);
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+}
@@ -0,0 +1,171 @@
+package com.ecommerce.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.time.Duration;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drives the services at a fixed arrival rate, whatever their response times: an open loop.
+ * Every scenario is due at a point on a fixed schedule and its first step is timed from that
+ * point rather than from when it was actually sent, so a stall that delays later arrivals
+ * shows up in their latency instead of silently lowering the offered load (coordinated
+ * omission). Later steps of an order are timed from when they are sent.
+ *
+ * <p>Orders are followed to the end of their saga by polling the order every
+ * {@value #POLL_INTERVAL_MILLIS} ms, which bounds the resolution of the saga latency.
+ */
+final class LoadDriver {
+
+    private static final long POLL_INTERVAL_MILLIS = 10;
+    private static final Duration SAGA_TIMEOUT = Duration.ofSeconds(60);
+    private static final int PAGE_SIZE = 20;
+    private static final int USERS = 10_000;
+
+    private final StorefrontClient client;
+    private final Catalog catalog;
+    private final LoadMix mix;
+    private final int maxInFlight;
+    private final ScheduledExecutorService poller;
+    private final Random random;
+
+    LoadDriver(StorefrontClient client, Catalog catalog, LoadMix mix, int maxInFlight,
+               ScheduledExecutorService poller, long seed) {
+        this.client = client;
+        this.catalog = catalog;
+        this.mix = mix;
+        this.maxInFlight = maxInFlight;
+        this.poller = poller;
+        this.random = new Random(seed);
+    }
+
+    /**
+     * Offers {@code rate} scenarios per second for {@code duration} and waits for those still in
+     * flight, up to the saga timeout.
+     */
+    LatencyRecorder run(double rate, Duration duration) throws InterruptedException {
+        LatencyRecorder recorder = new LatencyRecorder();
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / rate);
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        for (long arrival = 0; ; arrival++) {
+            long due = start + arrival * intervalNanos;
+            if (due - end >= 0) {
+                break;
+            }
+            long wait = due - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            LoadMix.Scenario scenario = mix.next(random);
+            if (!inFlight.tryAcquire()) {
+                recorder.error(firstStep(scenario), new IllegalStateException(
+                        maxInFlight + " scenarios already in flight, dropped an arrival"));
+                continue;
+            }
+            CompletableFuture<?> running;
+            try {
+                running = start(scenario, due, recorder);
+            } catch (RuntimeException ex) {
+                running = CompletableFuture.failedFuture(ex);
+            }
+            running.whenComplete((result, ex) -> inFlight.release());
+        }
+        if (inFlight.tryAcquire(maxInFlight, SAGA_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)) {
+            inFlight.release(maxInFlight);
+        }
+        return recorder;
+    }
+
+    private CompletableFuture<?> start(LoadMix.Scenario scenario, long due, LatencyRecorder recorder) {
+        return switch (scenario) {
+            case BROWSE -> browse(due, recorder);
+            case VIEW -> timed(Operation.VIEW_PRODUCT, due, recorder, client.viewProduct(catalog.pick(random).id()));
+            case ORDER -> order(due, recorder);
+        };
+    }
+
+    private CompletableFuture<?> browse(long due, LatencyRecorder recorder) {
+        String category = random.nextBoolean()
+                ? Catalog.CATEGORIES.get(random.nextInt(Catalog.CATEGORIES.size()))
+                : null;
+        int products = category == null ? catalog.size() : catalog.size() / Catalog.CATEGORIES.size();
+        int pages = Math.max(1, products / PAGE_SIZE);
+        return timed(Operation.BROWSE, due, recorder, client.browse(random.nextInt(pages), PAGE_SIZE, category));
+    }
+
+    private CompletableFuture<?> order(long due, LatencyRecorder recorder) {
+        Catalog.Product product = catalog.pick(random);
+        long userId = 1 + random.nextInt(USERS);
+        int quantity = 1 + random.nextInt(3);
+        return timed(Operation.CREATE_ORDER, due, recorder,
+                client.createOrder(userId, product.id(), quantity, product.price()))
+                .thenCompose(order -> approve(order.path("id").asLong(), recorder));
+    }
+
+    private CompletableFuture<?> approve(long orderId, LatencyRecorder recorder) {
+        long sent = System.nanoTime();
+        return timed(Operation.APPROVE_ORDER, sent, recorder, client.approveOrder(orderId))
+                .thenCompose(approved -> {
+                    CompletableFuture<Void> completed = new CompletableFuture<>();
+                    poll(orderId, sent, sent + SAGA_TIMEOUT.toNanos(), recorder, completed);
+                    return completed;
+                });
+    }
+
+    private void poll(long orderId, long sent, long deadline, LatencyRecorder recorder,
+                      CompletableFuture<Void> completed) {
+        poller.schedule(() -> client.orderStatus(orderId).whenComplete((status, ex) -> {
+            if (ex != null) {
+                fail(Operation.SAGA, recorder, completed, unwrap(ex));
+            } else if ("COMPLETED".equals(status)) {
+                recorder.record(Operation.SAGA, System.nanoTime() - sent);
+                completed.complete(null);
+            } else if ("FAILED".equals(status) || "CANCELLED".equals(status) || "REJECTED".equals(status)) {
+                fail(Operation.SAGA, recorder, completed,
+                        new IllegalStateException("Order " + orderId + " ended " + status));
+            } else if (System.nanoTime() - deadline >= 0) {
+                fail(Operation.SAGA, recorder, completed, new IllegalStateException(
+                        "Order " + orderId + " still " + status + " after " + SAGA_TIMEOUT));
+            } else {
+                poll(orderId, sent, deadline, recorder, completed);
+            }
+        }), POLL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    private static CompletableFuture<JsonNode> timed(Operation operation, long start, LatencyRecorder recorder,
+                                                     CompletableFuture<JsonNode> call) {
+        return call.whenComplete((response, ex) -> {
+            if (ex == null) {
+                recorder.record(operation, System.nanoTime() - start);
+            } else {
+                recorder.error(operation, unwrap(ex));
+            }
+        });
+    }
+
+    private static void fail(Operation operation, LatencyRecorder recorder, CompletableFuture<Void> completed,
+                             Throwable cause) {
+        recorder.error(operation, cause);
+        completed.completeExceptionally(cause);
+    }
+
+    private static Operation firstStep(LoadMix.Scenario scenario) {
+        return switch (scenario) {
+            case BROWSE -> Operation.BROWSE;
+            case VIEW -> Operation.VIEW_PRODUCT;
+            case ORDER -> Operation.CREATE_ORDER;
+        };
+    }
+
+    private static Throwable unwrap(Throwable ex) {
+        return ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+    }
+}
@@ -0,0 +1,118 @@
+package com.ecommerce.load;
+
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs the order saga end to end under load, offline: boots the product, inventory, payment
+ * and order services against an embedded Kafka broker and H2, seeds a catalog, drives a mix
+ * of catalog browsing, product views and orders that are approved and followed to completion
+ * at a fixed arrival rate, and reports throughput and p50/p99/p99.9 latency per operation.
+ * A warm-up at the same rate comes first and is not reported.
+ *
+ * <p>Given a {@code baseline} report from an earlier run, e.g. of the previous commit, the run
+ * fails when an operation's throughput drops or its p99 grows by more than {@code tolerance};
+ * it also fails when more than 1% of an operation's attempts fail.
+ *
+ * <p>Usage: {@code LoadHarness [rate=50] [seconds=60] [warmup=15] [mix=browse:60,view:30,order:10]
+ * [products=200] [gatewayLatencyMs=50] [maxInFlight=5000] [seed=42] [report=<csv>] [baseline=<csv>]
+ * [tolerance=0.25] [--<service property>=<value>...]}
+ *
+ * <p>{@code --} arguments are set on every service, e.g. {@code --inventory.hot-sku.enabled=true}.
+ */
+public final class LoadHarness {
+
+    private static final List<String> OPTIONS = List.of("rate", "seconds", "warmup", "mix", "products",
+            "gatewayLatencyMs", "maxInFlight", "seed", "report", "baseline", "tolerance");
+
+    private LoadHarness() {
+        // Entry point only
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new LinkedHashMap<>();
+        Map<String, Object> serviceProperties = new LinkedHashMap<>();
+        for (String arg : args) {
+            int equals = arg.indexOf('=');
+            if (equals < 0) {
+                throw new IllegalArgumentException("Expected <name>=<value>, was " + arg);
+            }
+            String name = arg.substring(0, equals);
+            if (name.startsWith("--")) {
+                serviceProperties.put(name.substring(2), arg.substring(equals + 1));
+            } else if (OPTIONS.contains(name)) {
+                options.put(name, arg.substring(equals + 1));
+            } else {
+                throw new IllegalArgumentException("Unknown option " + name + ", expected one of " + OPTIONS);
+            }
+        }
+        double rate = Double.parseDouble(options.getOrDefault("rate", "50"));
+        Duration measured = Duration.ofSeconds(Long.parseLong(options.getOrDefault("seconds", "60")));
+        Duration warmup = Duration.ofSeconds(Long.parseLong(options.getOrDefault("warmup", "15")));
+        LoadMix mix = LoadMix.parse(options.getOrDefault("mix", "browse:60,view:30,order:10"));
+        int products = Integer.parseInt(options.getOrDefault("products", "200"));
+        int maxInFlight = Integer.parseInt(options.getOrDefault("maxInFlight", "5000"));
+        long seed = Long.parseLong(options.getOrDefault("seed", "42"));
+        double tolerance = Double.parseDouble(options.getOrDefault("tolerance", "0.25"));
+        LoadReport baseline = options.containsKey("baseline") ? LoadReport.read(Path.of(options.get("baseline"))) : null;
+        // The simulator's default second per payment would make the saga all gateway wait
+        serviceProperties.putIfAbsent("payment.gateway.simulator.latency",
+                Duration.ofMillis(Long.parseLong(options.getOrDefault("gatewayLatencyMs", "50"))).toString());
+
+        PrintStream out = System.out;
+        long bootStart = System.nanoTime();
+        ExecutorService httpExecutor = Executors.newFixedThreadPool(8, daemonThreads("load-http"));
+        ScheduledExecutorService poller = Executors.newSingleThreadScheduledExecutor(daemonThreads("load-poll"));
+        List<String> problems;
+        try (HarnessServices services = HarnessServices.start(serviceProperties)) {
+            out.printf("Started %d services in %d ms%n", HarnessService.values().length,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - bootStart));
+            StorefrontClient client = new StorefrontClient(services, httpExecutor);
+            Catalog catalog = Catalog.seed(client, products, new Random(seed));
+            LoadDriver driver = new LoadDriver(client, catalog, mix, maxInFlight, poller, seed);
+            out.printf("Seeded %d products; mix=%s rate=%.1f/s warmup=%ds seconds=%ds%n",
+                    catalog.size(), mix, rate, warmup.toSeconds(), measured.toSeconds());
+
+            if (!warmup.isZero()) {
+                driver.run(rate, warmup);
+            }
+            LatencyRecorder recorder = driver.run(rate, measured);
+            LoadReport report = recorder.report(rate, measured.toNanos());
+            report.print(out);
+            recorder.firstErrors().forEach((operation, error) ->
+                    out.printf("first %s error: %s%n", operation.label(), error));
+            if (options.containsKey("report")) {
+                report.write(Path.of(options.get("report")));
+            }
+            problems = report.problems(baseline, tolerance);
+        } finally {
+            httpExecutor.shutdownNow();
+            poller.shutdownNow();
+        }
+        if (!problems.isEmpty()) {
+            problems.forEach(problem -> System.err.println("FAILED: " + problem));
+            System.exit(1);
+        }
+        System.exit(0);
+    }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,80 @@
+package com.ecommerce.load;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+/**
+ * How arrivals split between the scenarios, as relative weights, e.g.
+ * {@code browse:60,view:30,order:10}.
+ */
+final class LoadMix {
+
+    enum Scenario {
+        /**
+         * A page of the catalog, filtered by category half of the time.
+         */
+        BROWSE("browse"),
+        /**
+         * One product's details.
+         */
+        VIEW("view"),
+        /**
+         * Places an order, approves it and waits for its saga to complete.
+         */
+        ORDER("order");
+
+        private final String label;
+
+        Scenario(String label) {
+            this.label = label;
+        }
+    }
+
+    private final Map<Scenario, Integer> weights;
+    private final Scenario[] slots;
+
+    private LoadMix(Map<Scenario, Integer> weights) {
+        this.weights = weights;
+        this.slots = weights.entrySet().stream()
+                .flatMap(entry -> Collections.nCopies(entry.getValue(), entry.getKey()).stream())
+                .toArray(Scenario[]::new);
+        if (slots.length == 0) {
+            throw new IllegalArgumentException("The load mix needs at least one positive weight");
+        }
+    }
+
+    static LoadMix parse(String spec) {
+        Map<Scenario, Integer> weights = new EnumMap<>(Scenario.class);
+        for (String part : spec.split(",")) {
+            String[] nameAndWeight = part.trim().split(":");
+            if (nameAndWeight.length != 2) {
+                throw new IllegalArgumentException("Expected <scenario>:<weight> in the load mix, was " + part);
+            }
+            weights.put(scenario(nameAndWeight[0]), Integer.parseInt(nameAndWeight[1]));
+        }
+        return new LoadMix(weights);
+    }
+
+    Scenario next(Random random) {
+        return slots[random.nextInt(slots.length)];
+    }
+
+    @Override
+    public String toString() {
+        return weights.entrySet().stream()
+                .map(entry -> entry.getKey().label + ":" + entry.getValue())
+                .collect(Collectors.joining(","));
+    }
+
+    private static Scenario scenario(String label) {
+        for (Scenario scenario : Scenario.values()) {
+            if (scenario.label.equals(label)) {
+                return scenario;
+            }
+        }
+        throw new IllegalArgumentException("Unknown scenario " + label + ", expected browse, view or order");
+    }
+}
@@ -0,0 +1,124 @@
+package com.ecommerce.load;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Throughput and latency percentiles per operation of one measured run. Reports are written
+ * as CSV, so that a later run, e.g. of the next commit, can be checked against one as its
+ * baseline.
+ */
+final class LoadReport {
+
+    private static final String HEADER = "operation,count,errors,throughput,p50_ms,p99_ms,p999_ms,max_ms";
+    /**
+     * Share of an operation's attempts that may fail before a run fails whatever its baseline.
+     */
+    private static final double MAX_ERROR_RATE = 0.01;
+
+    record Row(Operation operation, long count, long errors, double throughput,
+               double p50, double p99, double p999, double max) {
+
+        double errorRate() {
+            long attempts = count + errors;
+            return attempts == 0 ? 0 : (double) errors / attempts;
+        }
+    }
+
+    private final double targetRate;
+    private final double seconds;
+    private final List<Row> rows;
+
+    LoadReport(double targetRate, double seconds, List<Row> rows) {
+        this.targetRate = targetRate;
+        this.seconds = seconds;
+        this.rows = List.copyOf(rows);
+    }
+
+    void print(PrintStream out) {
+        out.printf(Locale.ROOT, "target=%.1f/s measured=%.0fs%n", targetRate, seconds);
+        out.printf(Locale.ROOT, "%-14s %9s %7s %10s %9s %9s %9s %9s%n",
+                "operation", "count", "errors", "ops/s", "p50 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (Row row : rows) {
+            out.printf(Locale.ROOT, "%-14s %9d %7d %10.1f %9.2f %9.2f %9.2f %9.2f%n",
+                    row.operation().label(), row.count(), row.errors(), row.throughput(),
+                    row.p50(), row.p99(), row.p999(), row.max());
+        }
+    }
+
+    void write(Path file) {
+        List<String> lines = new ArrayList<>();
+        lines.add(HEADER);
+        for (Row row : rows) {
+            lines.add(String.format(Locale.ROOT, "%s,%d,%d,%.3f,%.3f,%.3f,%.3f,%.3f",
+                    row.operation().label(), row.count(), row.errors(), row.throughput(),
+                    row.p50(), row.p99(), row.p999(), row.max()));
+        }
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            Files.write(file, lines);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to write the load report to " + file, ex);
+        }
+    }
+
+    static LoadReport read(Path file) {
+        List<String> lines;
+        try {
+            lines = Files.readAllLines(file);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to read the load report " + file, ex);
+        }
+        if (lines.isEmpty() || !lines.get(0).equals(HEADER)) {
+            throw new IllegalArgumentException(file + " is not a load report");
+        }
+        List<Row> rows = new ArrayList<>();
+        for (String line : lines.subList(1, lines.size())) {
+            String[] fields = line.split(",");
+            rows.add(new Row(Operation.of(fields[0]), Long.parseLong(fields[1]), Long.parseLong(fields[2]),
+                    Double.parseDouble(fields[3]), Double.parseDouble(fields[4]), Double.parseDouble(fields[5]),
+                    Double.parseDouble(fields[6]), Double.parseDouble(fields[7])));
+        }
+        return new LoadReport(0, 0, rows);
+    }
+
+    /**
+     * Why this run fails: operations failing more than {@value #MAX_ERROR_RATE} of the time and,
+     * given a baseline, operations whose throughput dropped or whose p99 grew by more than
+     * {@code tolerance}, as a fraction of the baseline's. Empty if the run passes.
+     */
+    List<String> problems(LoadReport baseline, double tolerance) {
+        List<String> problems = new ArrayList<>();
+        for (Row row : rows) {
+            if (row.errorRate() > MAX_ERROR_RATE) {
+                problems.add(String.format(Locale.ROOT, "%s failed %d of %d times",
+                        row.operation().label(), row.errors(), row.count() + row.errors()));
+            }
+            Row before = baseline == null ? null : baseline.row(row.operation());
+            if (before == null) {
+                continue;
+            }
+            if (row.throughput() < before.throughput() * (1 - tolerance)) {
+                problems.add(String.format(Locale.ROOT, "%s throughput fell from %.1f/s to %.1f/s",
+                        row.operation().label(), before.throughput(), row.throughput()));
+            }
+            if (row.p99() > before.p99() * (1 + tolerance)) {
+                problems.add(String.format(Locale.ROOT, "%s p99 rose from %.2f ms to %.2f ms",
+                        row.operation().label(), before.p99(), row.p99()));
+            }
+        }
+        return problems;
+    }
+
+    private Row row(Operation operation) {
+        return rows.stream().filter(row -> row.operation() == operation).findFirst().orElse(null);
+    }
+}
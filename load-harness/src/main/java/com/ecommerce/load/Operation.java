@@ -0,0 +1,36 @@
+package com.ecommerce.load;
+
+/**
+ * A step of a load scenario whose latency the harness reports.
+ */
+enum Operation {
+
+    BROWSE("browse"),
+    VIEW_PRODUCT("view-product"),
+    CREATE_ORDER("create-order"),
+    APPROVE_ORDER("approve-order"),
+    /**
+     * From sending the approval until the order reads as completed: the inventory reservation,
+     * the payment and every Kafka hop in between.
+     */
+    SAGA("saga");
+
+    private final String label;
+
+    Operation(String label) {
+        this.label = label;
+    }
+
+    String label() {
+        return label;
+    }
+
+    static Operation of(String label) {
+        for (Operation operation : values()) {
+            if (operation.label.equals(label)) {
+                return operation;
+            }
+        }
+        throw new IllegalArgumentException("Unknown operation " + label);
+    }
+}
@@ -0,0 +1,108 @@
+package com.ecommerce.load;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * The calls a storefront makes to the services, over HTTP and without blocking, so one client
+ * keeps many requests in flight. A response outside 2xx completes the call exceptionally.
+ */
+final class StorefrontClient {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final HttpClient http;
+    private final ObjectMapper json = new ObjectMapper();
+    private final URI products;
+    private final URI inventory;
+    private final URI orders;
+
+    StorefrontClient(HarnessServices services, Executor executor) {
+        this.http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(executor)
+                .build();
+        this.products = services.address(HarnessService.PRODUCT).resolve("/api/products");
+        this.inventory = services.address(HarnessService.INVENTORY).resolve("/api/inventory");
+        this.orders = services.address(HarnessService.ORDER).resolve("/api/orders");
+    }
+
+    CompletableFuture<JsonNode> createProduct(String name, String category, BigDecimal price, int stock) {
+        return send(post(products, Map.of("name", name, "description", name + " for load runs",
+                "category", category, "price", price, "stock", stock)));
+    }
+
+    CompletableFuture<JsonNode> createInventory(long productId, int quantity) {
+        return send(request(URI.create(inventory + "?productId=" + productId + "&quantity=" + quantity))
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .build());
+    }
+
+    CompletableFuture<JsonNode> browse(int page, int size, String category) {
+        String query = "?page=" + page + "&size=" + size + (category == null ? "" : "&category=" + category);
+        return send(request(URI.create(products + "/page" + query)).GET().build());
+    }
+
+    CompletableFuture<JsonNode> viewProduct(long productId) {
+        return send(request(URI.create(products + "/" + productId)).GET().build());
+    }
+
+    CompletableFuture<JsonNode> createOrder(long userId, long productId, int quantity, BigDecimal price) {
+        return send(post(orders, Map.of("userId", userId, "orderItems",
+                List.of(Map.of("productId", productId, "quantity", quantity, "price", price)))));
+    }
+
+    CompletableFuture<JsonNode> approveOrder(long orderId) {
+        return send(request(URI.create(orders + "/" + orderId + "/approve"))
+                .PUT(HttpRequest.BodyPublishers.noBody())
+                .build());
+    }
+
+    CompletableFuture<String> orderStatus(long orderId) {
+        return send(request(URI.create(orders + "/" + orderId)).GET().build())
+                .thenApply(order -> order.path("status").asText());
+    }
+
+    private HttpRequest post(URI uri, Object body) {
+        try {
+            return request(uri)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(json.writeValueAsBytes(body)))
+                    .build();
+        } catch (JsonProcessingException ex) {
+            throw new IllegalArgumentException("Failed to write the request body", ex);
+        }
+    }
+
+    private static HttpRequest.Builder request(URI uri) {
+        return HttpRequest.newBuilder(uri).timeout(REQUEST_TIMEOUT);
+    }
+
+    private CompletableFuture<JsonNode> send(HttpRequest request) {
+        return http.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray()).thenApply(response -> {
+            if (response.statusCode() / 100 != 2) {
+                throw new IllegalStateException(request.method() + " " + request.uri().getPath() + " returned "
+                        + response.statusCode() + ": " + new String(response.body()));
+            }
+            try {
+                return response.body().length == 0 ? json.nullNode() : json.readTree(response.body());
+            } catch (IOException ex) {
+                throw new IllegalStateException("Unreadable response from " + request.uri().getPath(), ex);
+            }
+        });
+    }
+}
@@ -0,0 +1,58 @@
+package com.ecommerce.order.actuator;
+
+import com.ecommerce.common.trace.SagaTracer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code /actuator/saga}: where the time of completed order sagas went, from the order
+ * leaving this service to its payment outcome coming back, per stage of the saga's traces.
+ */
+@Component
+@Endpoint(id = "saga")
+@RequiredArgsConstructor
+public class SagaLatencyEndpoint {
+
+    private final MeterRegistry meterRegistry;
+
+    @ReadOperation
+    public Map<String, Object> sagaLatency() {
+        Map<String, StageLatency> stages = new TreeMap<>();
+        for (Timer timer : meterRegistry.find(SagaTracer.STAGE_TIMER).timers()) {
+            stages.put(timer.getId().getTag("stage"), StageLatency.of(timer));
+        }
+        Map<String, Object> latency = new LinkedHashMap<>();
+        Timer duration = meterRegistry.find(SagaTracer.DURATION_TIMER).timer();
+        latency.put("total", duration == null ? null : StageLatency.of(duration));
+        latency.put("stages", stages);
+        return latency;
+    }
+
+    /**
+     * Latencies in milliseconds; percentiles cover the last few minutes.
+     */
+    public record StageLatency(long count, double mean, double p50, double p95, double p99, double max) {
+
+        static StageLatency of(Timer timer) {
+            HistogramSnapshot snapshot = timer.takeSnapshot();
+            Map<Double, Double> percentiles = new TreeMap<>();
+            for (ValueAtPercentile value : snapshot.percentileValues()) {
+                percentiles.put(value.percentile(), value.value(TimeUnit.MILLISECONDS));
+            }
+            return new StageLatency(snapshot.count(), snapshot.mean(TimeUnit.MILLISECONDS),
+                    percentiles.getOrDefault(0.5, 0.0), percentiles.getOrDefault(0.95, 0.0),
+                    percentiles.getOrDefault(0.99, 0.0), snapshot.max(TimeUnit.MILLISECONDS));
+        }
+    }
+}
@@ -32,4 +32,12 @@ public class KafkaTopicConfig {
                 .replicas(1)
                 .build();
     }
+
+    @Bean
+    public NewTopic orderCancelledTopic() {
+        return TopicBuilder.name(TopicNames.ORDER_CANCELLED)
+                .partitions(3)
+                .replicas(1)
+                .build();
+    }
 }
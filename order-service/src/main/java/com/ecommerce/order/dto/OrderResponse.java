@@ -1,6 +1,8 @@
 package com.ecommerce.order.dto;
 
 import com.ecommerce.order.entity.Order.OrderStatus;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -10,11 +12,16 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 
+/**
+ * Order and item IDs are Snowflake IDs, which JavaScript numbers cannot hold exactly, so they
+ * are written as JSON strings.
+ */
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 public class OrderResponse {
+    @JsonSerialize(using = ToStringSerializer.class)
     private Long id;
     private Long userId;
     private BigDecimal totalAmount;
@@ -28,6 +35,7 @@ public class OrderResponse {
     @NoArgsConstructor
     @AllArgsConstructor
     public static class OrderItemResponse {
+        @JsonSerialize(using = ToStringSerializer.class)
         private Long id;
         private Long productId;
         private Integer quantity;
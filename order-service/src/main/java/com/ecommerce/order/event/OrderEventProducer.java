@@ -1,10 +1,12 @@
 package com.ecommerce.order.event;
 
+import com.ecommerce.common.bus.EventBus;
+import com.ecommerce.common.event.OrderCancelledEvent;
 import com.ecommerce.common.event.OrderCreatedEvent;
 import com.ecommerce.common.event.TopicNames;
+import com.ecommerce.common.trace.SagaTracer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Component;
 
 @Component
@@ -12,11 +14,18 @@ import org.springframework.stereotype.Component;
 @Slf4j
 public class OrderEventProducer {
 
-    private final KafkaTemplate<String, OrderCreatedEvent> kafkaTemplate;
+    private final EventBus eventBus;
+    private final SagaTracer sagaTracer;
 
     public void publishOrderCreatedEvent(OrderCreatedEvent event) {
         log.info("Publishing OrderCreatedEvent for order ID: {}", event.getOrderId());
-        kafkaTemplate.send(TopicNames.ORDER_CREATED, event.getOrderId().toString(), event);
-        log.info("OrderCreatedEvent published successfully for order ID: {}", event.getOrderId());
+        eventBus.publish(TopicNames.ORDER_CREATED, event.getOrderId().toString(), event, sagaTracer.begin())
+                .thenRun(() -> log.info("OrderCreatedEvent published successfully for order ID: {}", event.getOrderId()));
+    }
+
+    public void publishOrderCancelledEvent(OrderCancelledEvent event) {
+        log.info("Publishing OrderCancelledEvent for order ID: {}", event.getOrderId());
+        eventBus.publish(TopicNames.ORDER_CANCELLED, event.getOrderId().toString(), event)
+                .thenRun(() -> log.info("OrderCancelledEvent published successfully for order ID: {}", event.getOrderId()));
     }
 }
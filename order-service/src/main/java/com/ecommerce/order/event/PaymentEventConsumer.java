@@ -1,24 +1,71 @@
 package com.ecommerce.order.event;
 
+import com.ecommerce.common.bus.EventSubscriber;
+import com.ecommerce.common.bus.EventSubscriptions;
+import com.ecommerce.common.dedupe.ProcessedEventStore;
 import com.ecommerce.common.event.PaymentCompletedEvent;
 import com.ecommerce.common.event.TopicNames;
+import com.ecommerce.common.kafka.RetryTopics;
+import com.ecommerce.common.trace.SagaTrace;
+import com.ecommerce.common.trace.SagaTracer;
+import com.ecommerce.order.exception.OrderNotFoundException;
 import com.ecommerce.order.service.OrderService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.annotation.DltHandler;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.annotation.RetryableTopic;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.retry.annotation.Backoff;
 import org.springframework.stereotype.Component;
 
+/**
+ * Completes or fails orders as their payment outcome arrives. A payment outcome that cannot be
+ * applied is retried on the retry topics and ends up on the dead-letter topic, so it never holds
+ * up the outcomes of other orders; outcomes for unknown orders go there directly.
+ */
 @Component
 @RequiredArgsConstructor
 @Slf4j
-public class PaymentEventConsumer {
+public class PaymentEventConsumer implements EventSubscriber {
+
+    private static final String GROUP = "order-service-group";
 
     private final OrderService orderService;
+    private final ProcessedEventStore processedEventStore;
+    private final SagaTracer sagaTracer;
 
-    @KafkaListener(topics = TopicNames.PAYMENT_COMPLETED, groupId = "order-service-group")
-    public void handlePaymentCompletedEvent(PaymentCompletedEvent event) {
+    @RetryableTopic(attempts = RetryTopics.ATTEMPTS, numPartitions = RetryTopics.PARTITIONS,
+            backoff = @Backoff(delayExpression = RetryTopics.DELAY_MS, multiplierExpression = RetryTopics.MULTIPLIER,
+                    maxDelayExpression = RetryTopics.MAX_DELAY_MS),
+            retryTopicSuffix = RetryTopics.RETRY_SUFFIX, dltTopicSuffix = RetryTopics.DLT_SUFFIX,
+            exclude = OrderNotFoundException.class)
+    @KafkaListener(topics = TopicNames.PAYMENT_COMPLETED, groupId = GROUP)
+    public void handlePaymentCompletedEvent(PaymentCompletedEvent event,
+                                            @Header(name = SagaTrace.HEADER, required = false) byte[] sagaTrace) {
         log.info("Received PaymentCompletedEvent for order ID: {}", event.getOrderId());
-        
+
+        if (processedEventStore.processOnce("payment-completed:" + event.getOrderId(), () -> updateOrder(event))) {
+            sagaTracer.completed(TopicNames.PAYMENT_COMPLETED, sagaTrace);
+        } else {
+            log.info("Skipping duplicate PaymentCompletedEvent for order ID: {}", event.getOrderId());
+        }
+    }
+
+    @Override
+    public void subscribe(EventSubscriptions subscriptions) {
+        subscriptions.subscribe(TopicNames.PAYMENT_COMPLETED, GROUP, PaymentCompletedEvent.class,
+                (event, headers) -> handlePaymentCompletedEvent(event, headers.get(SagaTrace.HEADER)));
+    }
+
+    @DltHandler
+    public void handleDeadLetter(PaymentCompletedEvent event, @Header(KafkaHeaders.RECEIVED_TOPIC) String topic) {
+        log.error("PaymentCompletedEvent for order ID: {} failed all retries and was moved to {}",
+                event.getOrderId(), topic);
+    }
+
+    private void updateOrder(PaymentCompletedEvent event) {
         if (event.isPaymentSuccessful()) {
             log.info("Payment successful for order ID: {}. Updating order status to COMPLETED", event.getOrderId());
             orderService.completeOrder(event.getOrderId());
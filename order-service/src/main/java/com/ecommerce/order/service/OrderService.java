@@ -1,5 +1,6 @@
 package com.ecommerce.order.service;
 
+import com.ecommerce.common.event.OrderCancelledEvent;
 import com.ecommerce.common.event.OrderCreatedEvent;
 import com.ecommerce.order.dto.OrderRequest;
 import com.ecommerce.order.dto.OrderResponse;
@@ -178,9 +179,19 @@ public class OrderService {
             throw new IllegalStateException("Cannot cancel completed order");
         }
         
+        OrderStatus previousStatus = order.getStatus();
         order.setStatus(OrderStatus.CANCELLED);
         order.setUpdatedAt(LocalDateTime.now());
         orderRepository.save(order);
+
+        // Orders past approval may hold reserved stock, let inventory release it
+        if (previousStatus != OrderStatus.AWAITING_APPROVAL && previousStatus != OrderStatus.REJECTED) {
+            orderEventProducer.publishOrderCancelledEvent(OrderCancelledEvent.builder()
+                    .orderId(orderId)
+                    .userId(order.getUserId())
+                    .cancelledAt(order.getUpdatedAt())
+                    .build());
+        }
         log.info("Order {} cancelled", orderId);
     }
 }
@@ -0,0 +1,70 @@
+package com.ecommerce.payment.config;
+
+import com.ecommerce.common.event.TopicNames;
+import com.ecommerce.common.kafka.RetryTopics;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.kafka.ConcurrentKafkaListenerContainerFactoryConfigurer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.kafka.core.ConsumerFactory;
+
+@Configuration
+public class KafkaConfig {
+
+    /**
+     * Payments parked while the gateway is saturated or its circuit is open, keyed by order ID.
+     */
+    @Bean
+    public NewTopic paymentRetryTopic() {
+        return TopicBuilder.name(TopicNames.PAYMENT_RETRY)
+                .partitions(3)
+                .replicas(1)
+                .build();
+    }
+
+    /**
+     * Payments that failed all their attempts, for the dead-letter endpoint to replay.
+     */
+    @Bean
+    public NewTopic paymentDeadLetterTopic(@Value(RetryTopics.DLT_SUFFIX) String dltSuffix) {
+        return TopicBuilder.name(TopicNames.INVENTORY_RESERVED + dltSuffix)
+                .partitions(3)
+                .replicas(1)
+                .build();
+    }
+
+    /**
+     * Container for the parked-payment listener: batches with in-order manual acks, so it can
+     * nack from the first record that is not due yet and have it redelivered after a pause.
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<Object, Object> paymentRetryListenerContainerFactory(
+            ConcurrentKafkaListenerContainerFactoryConfigurer configurer,
+            ConsumerFactory<Object, Object> consumerFactory) {
+        return batchListenerContainerFactory(configurer, consumerFactory);
+    }
+
+    /**
+     * Container for the batch mode of the reserved-inventory listener, which acknowledges or
+     * nacks each poll as a whole.
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<Object, Object> paymentBatchListenerContainerFactory(
+            ConcurrentKafkaListenerContainerFactoryConfigurer configurer,
+            ConsumerFactory<Object, Object> consumerFactory) {
+        return batchListenerContainerFactory(configurer, consumerFactory);
+    }
+
+    private static ConcurrentKafkaListenerContainerFactory<Object, Object> batchListenerContainerFactory(
+            ConcurrentKafkaListenerContainerFactoryConfigurer configurer,
+            ConsumerFactory<Object, Object> consumerFactory) {
+        ConcurrentKafkaListenerContainerFactory<Object, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        configurer.configure(factory, consumerFactory);
+        factory.setBatchListener(true);
+        factory.getContainerProperties().setAsyncAcks(false);
+        return factory;
+    }
+}
@@ -0,0 +1,67 @@
+package com.ecommerce.payment.config;
+
+import com.ecommerce.payment.gateway.AimdConcurrencyLimiter;
+import com.ecommerce.payment.gateway.CircuitBreaker;
+import com.ecommerce.payment.gateway.PaymentGateway;
+import com.ecommerce.payment.gateway.PaymentGatewayGuard;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+@Configuration
+public class PaymentProcessingConfig {
+
+    /**
+     * Threads that make blocking gateway calls, one per call the concurrency limit can admit.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService paymentGatewayExecutor(@Value("${payment.processing.max-in-flight:64}") int maxInFlight) {
+        return Executors.newFixedThreadPool(maxInFlight, daemonThreads("payment-gateway-"));
+    }
+
+    /**
+     * Runs gateway timeouts and delayed retries; its tasks only interrupt or resubmit work.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ScheduledExecutorService paymentScheduler() {
+        return Executors.newSingleThreadScheduledExecutor(daemonThreads("payment-scheduler-"));
+    }
+
+    @Bean
+    public PaymentGatewayGuard paymentGatewayGuard(
+            PaymentGateway paymentGateway,
+            ScheduledExecutorService paymentScheduler,
+            MeterRegistry meterRegistry,
+            @Value("${payment.processing.max-in-flight:64}") int maxInFlight,
+            @Value("${payment.gateway.timeout:PT3S}") Duration timeout,
+            @Value("${payment.gateway.limiter.initial-limit:16}") int initialLimit,
+            @Value("${payment.gateway.limiter.min-limit:1}") int minLimit,
+            @Value("${payment.gateway.limiter.backoff-ratio:0.9}") double backoffRatio,
+            @Value("${payment.gateway.limiter.latency-threshold:PT2S}") Duration latencyThreshold,
+            @Value("${payment.gateway.circuit-breaker.window-size:50}") int windowSize,
+            @Value("${payment.gateway.circuit-breaker.minimum-calls:20}") int minimumCalls,
+            @Value("${payment.gateway.circuit-breaker.failure-rate-threshold:0.5}") double failureRateThreshold,
+            @Value("${payment.gateway.circuit-breaker.open-duration:PT10S}") Duration openDuration,
+            @Value("${payment.gateway.circuit-breaker.half-open-calls:5}") int halfOpenCalls) {
+        return new PaymentGatewayGuard(
+                paymentGateway,
+                new AimdConcurrencyLimiter(initialLimit, minLimit, maxInFlight, backoffRatio, latencyThreshold.toNanos()),
+                new CircuitBreaker(windowSize, minimumCalls, failureRateThreshold, openDuration.toNanos(), halfOpenCalls),
+                timeout,
+                paymentScheduler,
+                meterRegistry);
+    }
+
+    private static CustomizableThreadFactory daemonThreads(String prefix) {
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory(prefix);
+        threadFactory.setDaemon(true);
+        return threadFactory;
+    }
+}
@@ -1,6 +1,8 @@
 package com.ecommerce.payment.controller;
 
+import com.ecommerce.payment.dto.PaymentPageResponse;
 import com.ecommerce.payment.dto.PaymentResponse;
+import com.ecommerce.payment.dto.UserPaymentSummaryResponse;
 import com.ecommerce.payment.entity.Payment.PaymentStatus;
 import com.ecommerce.payment.service.PaymentService;
 import lombok.RequiredArgsConstructor;
@@ -34,15 +36,47 @@ public class PaymentController {
         return ResponseEntity.ok(payments);
     }
 
+    @GetMapping("/page")
+    public ResponseEntity<PaymentPageResponse> getPaymentsPage(
+            @RequestParam(required = false) Long before,
+            @RequestParam(defaultValue = "20") int size) {
+        PaymentPageResponse response = paymentService.getPaymentsPage(before, size);
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping("/user/{userId}")
     public ResponseEntity<List<PaymentResponse>> getPaymentsByUserId(@PathVariable Long userId) {
         List<PaymentResponse> payments = paymentService.getPaymentsByUserId(userId);
         return ResponseEntity.ok(payments);
     }
 
+    @GetMapping("/user/{userId}/page")
+    public ResponseEntity<PaymentPageResponse> getPaymentsByUserIdPage(
+            @PathVariable Long userId,
+            @RequestParam(required = false) Long before,
+            @RequestParam(defaultValue = "20") int size) {
+        PaymentPageResponse response = paymentService.getPaymentsByUserIdPage(userId, before, size);
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/user/{userId}/summary")
+    public ResponseEntity<UserPaymentSummaryResponse> getUserPaymentSummary(@PathVariable Long userId) {
+        UserPaymentSummaryResponse response = paymentService.getUserPaymentSummary(userId);
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping("/status/{status}")
     public ResponseEntity<List<PaymentResponse>> getPaymentsByStatus(@PathVariable PaymentStatus status) {
         List<PaymentResponse> payments = paymentService.getPaymentsByStatus(status);
         return ResponseEntity.ok(payments);
     }
+
+    @GetMapping("/status/{status}/page")
+    public ResponseEntity<PaymentPageResponse> getPaymentsByStatusPage(
+            @PathVariable PaymentStatus status,
+            @RequestParam(required = false) Long before,
+            @RequestParam(defaultValue = "20") int size) {
+        PaymentPageResponse response = paymentService.getPaymentsByStatusPage(status, before, size);
+        return ResponseEntity.ok(response);
+    }
 }
@@ -0,0 +1,26 @@
+package com.ecommerce.payment.dto;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of payments, newest first. The next page is requested with
+ * {@code before=nextCursor}; like the payment IDs it is made of, the cursor is a JSON string.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaymentPageResponse {
+    private List<PaymentResponse> items;
+    private int size;
+    @JsonSerialize(using = ToStringSerializer.class)
+    private Long nextCursor;
+    private boolean hasNext;
+}
@@ -1,6 +1,8 @@
 package com.ecommerce.payment.dto;
 
 import com.ecommerce.payment.entity.Payment.PaymentStatus;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -9,12 +11,18 @@ import lombok.NoArgsConstructor;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
+/**
+ * Payment and order IDs are Snowflake IDs, which JavaScript numbers cannot hold exactly, so
+ * they are written as JSON strings.
+ */
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 public class PaymentResponse {
+    @JsonSerialize(using = ToStringSerializer.class)
     private Long id;
+    @JsonSerialize(using = ToStringSerializer.class)
     private Long orderId;
     private Long userId;
     private BigDecimal amount;
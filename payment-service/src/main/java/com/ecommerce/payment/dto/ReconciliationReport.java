@@ -0,0 +1,41 @@
+package com.ecommerce.payment.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Outcome of reconciling completed payments against a settlement file. Each mismatch is a
+ * row of the CSV report at {@code reportFile}.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReconciliationReport {
+
+    public enum MismatchType {
+        /** A completed payment the provider did not settle. */
+        MISSING_SETTLEMENT,
+        /** A settlement with no completed payment. */
+        MISSING_PAYMENT,
+        AMOUNT_MISMATCH,
+        ORDER_MISMATCH,
+        /** A transaction settled more than once; the first settlement is the one compared. */
+        DUPLICATE_SETTLEMENT
+    }
+
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private long payments;
+    private long settlements;
+    private long malformedSettlementRows;
+    private long matched;
+    private Map<MismatchType, Long> mismatches;
+    private String reportFile;
+    private long elapsedMillis;
+}
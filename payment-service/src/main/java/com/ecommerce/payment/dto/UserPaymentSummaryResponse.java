@@ -0,0 +1,22 @@
+package com.ecommerce.payment.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserPaymentSummaryResponse {
+    private Long userId;
+    private long paymentCount;
+    private long completedCount;
+    private long failedCount;
+    private BigDecimal completedAmount;
+    private LocalDateTime lastPaymentAt;
+}
@@ -1,5 +1,6 @@
 package com.ecommerce.payment.entity;
 
+import com.ecommerce.common.id.SnowflakeId;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -10,7 +11,14 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "payments")
+@Table(
+        name = "payments",
+        indexes = {
+                @Index(name = "idx_payments_created_at", columnList = "createdAt"),
+                @Index(name = "idx_payments_user_id_id", columnList = "userId, id"),
+                @Index(name = "idx_payments_status_id", columnList = "status, id")
+        }
+)
 @Data
 @Builder
 @NoArgsConstructor
@@ -18,7 +26,7 @@ import java.time.LocalDateTime;
 public class Payment {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @SnowflakeId
     private Long id;
 
     @Column(nullable = false, unique = true)
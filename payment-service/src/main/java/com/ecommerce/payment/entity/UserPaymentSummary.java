@@ -0,0 +1,41 @@
+package com.ecommerce.payment.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Running payment totals of one user, maintained as payments are recorded so summaries are
+ * read from a single row instead of aggregated from {@code payments}.
+ */
+@Entity
+@Table(name = "user_payment_summaries")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserPaymentSummary {
+
+    @Id
+    private Long userId;
+
+    @Column(nullable = false)
+    private Long paymentCount;
+
+    @Column(nullable = false)
+    private Long completedCount;
+
+    @Column(nullable = false)
+    private Long failedCount;
+
+    @Column(nullable = false)
+    private BigDecimal completedAmount;
+
+    @Column(nullable = false)
+    private LocalDateTime lastPaymentAt;
+}
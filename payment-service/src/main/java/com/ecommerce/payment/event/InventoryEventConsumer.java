@@ -1,72 +1,274 @@
 package com.ecommerce.payment.event;
 
+import com.ecommerce.common.bus.EventSubscriber;
+import com.ecommerce.common.bus.EventSubscriptions;
+import com.ecommerce.common.dedupe.EventInProgressException;
+import com.ecommerce.common.dedupe.ProcessedEventStore;
 import com.ecommerce.common.event.InventoryReservedEvent;
-import com.ecommerce.common.event.PaymentCompletedEvent;
 import com.ecommerce.common.event.TopicNames;
-import com.ecommerce.payment.service.PaymentService;
+import com.ecommerce.common.trace.SagaTrace;
+import com.ecommerce.common.trace.SagaTracer;
+import com.ecommerce.payment.gateway.GatewayRejectedException;
+import com.ecommerce.payment.service.PaymentProcessor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hands reserved orders to the {@link PaymentProcessor} and acknowledges each record once its
+ * payment event has been published. The listener runs with manual, out-of-order acks, so the
+ * container only commits an offset when every record before it has completed too.
+ *
+ * <p>A payment the gateway turns away is not waited for: it is parked on the retry topic for
+ * {@code payment.processing.park-delay} and its record acknowledged, so the listener keeps
+ * moving while the gateway recovers. Any other failure is retried after
+ * {@code payment.processing.retry-backoff}. Parks and retries both count as attempts, carried
+ * across parks in the attempt header, and after {@code payment.processing.max-attempts} the
+ * payment goes to {@code inventory-reserved-topic-<owner>-dlt}, where the dead-letter
+ * endpoint can replay it.
+ *
+ * <p>With {@code payment.processing.batch-listener=true} a batch listener takes over: each
+ * poll's payments are charged concurrently, recorded in one transaction and published
+ * together, and the poll is acknowledged once all of them are done.
+ *
+ * <p>Delivered in process, there are no offsets to acknowledge, and a parked payment waits on
+ * the payment scheduler until it is due instead of being polled for again. There is no
+ * dead-letter topic either, so an exhausted payment is only logged.
+ */
 @Component
 @RequiredArgsConstructor
 @Slf4j
-public class InventoryEventConsumer {
+public class InventoryEventConsumer implements EventSubscriber {
+
+    private static final String GROUP = "payment-service-group";
+    private static final String BATCH_LISTENER = "${payment.processing.batch-listener:false}";
+    private static final String AUTO_STARTUP = "${spring.kafka.listener.auto-startup:true}";
+    private static final Acknowledgment NO_ACK = () -> {
+    };
 
-    private final PaymentService paymentService;
+    private final PaymentProcessor paymentProcessor;
     private final PaymentEventProducer paymentEventProducer;
+    private final ProcessedEventStore processedEventStore;
+    private final ScheduledExecutorService paymentScheduler;
+    private final SagaTracer sagaTracer;
+
+    @Value("${payment.processing.retry-backoff:PT1S}")
+    private Duration retryBackoff;
+
+    @Value("${payment.processing.park-delay:PT5S}")
+    private Duration parkDelay;
 
-    @KafkaListener(topics = TopicNames.INVENTORY_RESERVED, groupId = "payment-service-group")
-    public void handleInventoryReservedEvent(InventoryReservedEvent event) {
+    @Value("${payment.processing.max-attempts:20}")
+    private int maxAttempts;
+
+    @KafkaListener(topics = TopicNames.INVENTORY_RESERVED, groupId = GROUP,
+            autoStartup = "#{" + AUTO_STARTUP + " && !" + BATCH_LISTENER + "}")
+    public void handleInventoryReservedEvent(InventoryReservedEvent event, Acknowledgment acknowledgment,
+                                             @Header(name = SagaTrace.HEADER, required = false) byte[] sagaTrace) {
         log.info("Received InventoryReservedEvent for order ID: {}", event.getOrderId());
+        sagaTracer.received(TopicNames.INVENTORY_RESERVED, event.getOrderId().toString(), sagaTrace);
+        process(event, 1, acknowledgment);
+    }
+
+    /**
+     * Payments that fail to be recorded or published fail the rest of the poll with them: the
+     * batch is nacked from the first failed record, and records after it that did complete are
+     * recognised as duplicates when redelivered. Redelivered orders whose payment was recorded
+     * but not published are published again without a new charge.
+     */
+    @KafkaListener(topics = TopicNames.INVENTORY_RESERVED, groupId = GROUP,
+            containerFactory = "paymentBatchListenerContainerFactory",
+            autoStartup = "#{" + AUTO_STARTUP + " && " + BATCH_LISTENER + "}")
+    public void handleInventoryReservedBatch(List<ConsumerRecord<String, InventoryReservedEvent>> records,
+                                             Acknowledgment acknowledgment) {
+        log.info("Received {} InventoryReservedEvents", records.size());
+        List<InventoryReservedEvent> events = new ArrayList<>(records.size());
+        for (ConsumerRecord<String, InventoryReservedEvent> record : records) {
+            sagaTracer.received(record.topic(), record.key(), headerValue(record, SagaTrace.HEADER));
+            events.add(record.value());
+        }
+        PaymentProcessor.Batch batch = paymentProcessor.newBatch();
+        List<CompletableFuture<Void>> handled = new ArrayList<>(events.size());
+        for (InventoryReservedEvent event : events) {
+            CompletableFuture<Void> done = new CompletableFuture<>();
+            processedEventStore.processOnceAsync("inventory-reserved:" + event.getOrderId(), () -> batch.add(event))
+                    .whenComplete((processed, ex) -> {
+                        Throwable cause = unwrap(ex);
+                        if (cause instanceof GatewayRejectedException) {
+                            park(event, 1, () -> done.complete(null), cause.getMessage());
+                        } else if (cause != null) {
+                            done.completeExceptionally(cause);
+                        } else {
+                            if (!processed) {
+                                log.info("Skipping duplicate InventoryReservedEvent for order ID: {}", event.getOrderId());
+                            }
+                            done.complete(null);
+                        }
+                    });
+            handled.add(done);
+        }
+        batch.complete();
 
-        if (!event.isReservationSuccessful()) {
-            log.error("Inventory reservation failed for order ID: {}. Message: {}", 
-                    event.getOrderId(), event.getMessage());
-            
-            // Publish PaymentCompletedEvent (failure due to inventory)
-            PaymentCompletedEvent paymentEvent = PaymentCompletedEvent.builder()
-                    .orderId(event.getOrderId())
-                    .userId(event.getUserId())
-                    .amount(null)
-                    .paymentSuccessful(false)
-                    .transactionId(null)
-                    .message("Payment skipped: " + event.getMessage())
-                    .completedAt(event.getReservedAt())
-                    .build();
-            
-            paymentEventProducer.publishPaymentCompletedEvent(paymentEvent);
-            return;
+        int firstFailed = -1;
+        for (int i = 0; i < handled.size(); i++) {
+            try {
+                handled.get(i).join();
+            } catch (CompletionException ex) {
+                if (firstFailed < 0) {
+                    firstFailed = i;
+                    log.error("Payment processing failed for order ID: {}, retrying the batch from it in {}: {}",
+                            events.get(i).getOrderId(), retryBackoff, unwrap(ex).getMessage());
+                }
+            }
+        }
+        if (firstFailed < 0) {
+            acknowledgment.acknowledge();
+        } else {
+            acknowledgment.nack(firstFailed, retryBackoff);
         }
+    }
 
-        try {
-            // Process payment
-            log.info("Processing payment for order ID: {}", event.getOrderId());
-            PaymentCompletedEvent paymentEvent = paymentService.processPayment(
-                    event.getOrderId(), 
-                    event.getUserId()
-            );
-            
-            // Publish PaymentCompletedEvent
-            paymentEventProducer.publishPaymentCompletedEvent(paymentEvent);
-            
-        } catch (Exception ex) {
-            log.error("Payment processing failed for order ID: {}. Error: {}", 
-                    event.getOrderId(), ex.getMessage());
-            
-            // Publish PaymentCompletedEvent (failure)
-            PaymentCompletedEvent paymentEvent = PaymentCompletedEvent.builder()
-                    .orderId(event.getOrderId())
-                    .userId(event.getUserId())
-                    .amount(null)
-                    .paymentSuccessful(false)
-                    .transactionId(null)
-                    .message("Payment failed: " + ex.getMessage())
-                    .completedAt(event.getReservedAt())
-                    .build();
-            
-            paymentEventProducer.publishPaymentCompletedEvent(paymentEvent);
+    /**
+     * Every record on the retry topic is parked for the same delay, so records fall due in
+     * offset order. The due records of a batch are retried together and the batch is nacked at
+     * the first one that is not due yet, which pauses the partition for the time remaining
+     * instead of spinning on it.
+     */
+    @KafkaListener(topics = TopicNames.PAYMENT_RETRY, groupId = GROUP,
+            containerFactory = "paymentRetryListenerContainerFactory")
+    public void handleParkedPayments(List<ConsumerRecord<String, InventoryReservedEvent>> records, Acknowledgment acknowledgment) {
+        List<CompletableFuture<Void>> retries = new ArrayList<>();
+        long remainingMillis = 0;
+        for (ConsumerRecord<String, InventoryReservedEvent> record : records) {
+            remainingMillis = header(record, PaymentEventProducer.NOT_BEFORE_HEADER) - System.currentTimeMillis();
+            if (remainingMillis > 0) {
+                break;
+            }
+            InventoryReservedEvent event = record.value();
+            int attempt = (int) header(record, PaymentEventProducer.ATTEMPT_HEADER);
+            log.info("Retrying parked payment for order ID: {} (attempt {})", event.getOrderId(), attempt);
+            CompletableFuture<Void> handled = new CompletableFuture<>();
+            process(event, attempt, () -> handled.complete(null));
+            retries.add(handled);
+        }
+        CompletableFuture.allOf(retries.toArray(CompletableFuture[]::new)).join();
+        if (retries.size() < records.size()) {
+            acknowledgment.nack(retries.size(), Duration.ofMillis(remainingMillis));
+        } else {
+            acknowledgment.acknowledge();
         }
     }
+
+    @Override
+    public void subscribe(EventSubscriptions subscriptions) {
+        subscriptions.subscribe(TopicNames.INVENTORY_RESERVED, GROUP, InventoryReservedEvent.class,
+                (event, headers) -> handleInventoryReservedEvent(event, NO_ACK, headers.get(SagaTrace.HEADER)));
+        subscriptions.subscribe(TopicNames.PAYMENT_RETRY, GROUP, InventoryReservedEvent.class, this::scheduleParkedPayment);
+    }
+
+    private void scheduleParkedPayment(InventoryReservedEvent event, Map<String, byte[]> headers) {
+        int attempt = (int) parseLong(headers.get(PaymentEventProducer.ATTEMPT_HEADER));
+        long remainingMillis = parseLong(headers.get(PaymentEventProducer.NOT_BEFORE_HEADER)) - System.currentTimeMillis();
+        paymentScheduler.schedule(() -> {
+            log.info("Retrying parked payment for order ID: {} (attempt {})", event.getOrderId(), attempt);
+            process(event, attempt, NO_ACK);
+        }, Math.max(0, remainingMillis), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * A payment that could not be recorded or published is retried, since its offset cannot be
+     * committed before, until it has used up its attempts and is dead-lettered.
+     */
+    private void process(InventoryReservedEvent event, int attempt, Acknowledgment acknowledgment) {
+        processedEventStore.processOnceAsync("inventory-reserved:" + event.getOrderId(), () -> paymentProcessor.process(event))
+                .whenComplete((processed, ex) -> {
+                    if (ex != null) {
+                        Throwable cause = unwrap(ex);
+                        if (cause instanceof EventInProgressException) {
+                            // Not a failure of this payment: wait for the claim to finish or go stale
+                            log.info("Payment for order ID: {} is being processed elsewhere, retrying in {}",
+                                    event.getOrderId(), retryBackoff);
+                            retryLater(event, attempt, acknowledgment);
+                        } else if (attempt >= maxAttempts) {
+                            deadLetter(event, attempt, acknowledgment, cause);
+                        } else if (cause instanceof GatewayRejectedException) {
+                            park(event, attempt, acknowledgment, cause.getMessage());
+                        } else {
+                            log.error("Payment processing failed for order ID: {} (attempt {}), retrying in {}: {}",
+                                    event.getOrderId(), attempt, retryBackoff, cause.getMessage());
+                            retryLater(event, attempt + 1, acknowledgment);
+                        }
+                        return;
+                    }
+                    if (!processed) {
+                        log.info("Skipping duplicate InventoryReservedEvent for order ID: {}", event.getOrderId());
+                    }
+                    acknowledgment.acknowledge();
+                });
+    }
+
+    private void park(InventoryReservedEvent event, int attempt, Acknowledgment acknowledgment, String reason) {
+        log.warn("Parking payment for order ID: {} for {}: {}", event.getOrderId(), parkDelay, reason);
+        paymentEventProducer.parkPayment(event, attempt + 1, System.currentTimeMillis() + parkDelay.toMillis())
+                .whenComplete((sent, ex) -> {
+                    if (ex == null) {
+                        acknowledgment.acknowledge();
+                    } else {
+                        retryLater(event, attempt + 1, acknowledgment);
+                    }
+                });
+    }
+
+    private void deadLetter(InventoryReservedEvent event, int attempts, Acknowledgment acknowledgment, Throwable cause) {
+        log.error("Payment for order ID: {} failed {} attempts, moving it to the dead-letter topic: {}",
+                event.getOrderId(), attempts, cause.getMessage());
+        paymentEventProducer.deadLetterPayment(event, attempts, cause)
+                .whenComplete((sent, ex) -> {
+                    if (ex == null) {
+                        acknowledgment.acknowledge();
+                    } else {
+                        log.error("Failed to dead-letter payment for order ID: {}, retrying in {}: {}",
+                                event.getOrderId(), retryBackoff, unwrap(ex).getMessage());
+                        paymentScheduler.schedule(() -> deadLetter(event, attempts, acknowledgment, cause),
+                                retryBackoff.toMillis(), TimeUnit.MILLISECONDS);
+                    }
+                });
+    }
+
+    private void retryLater(InventoryReservedEvent event, int attempt, Acknowledgment acknowledgment) {
+        paymentScheduler.schedule(() -> process(event, attempt, acknowledgment),
+                retryBackoff.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private static Throwable unwrap(Throwable ex) {
+        return ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+    }
+
+    private static long header(ConsumerRecord<?, ?> record, String name) {
+        return parseLong(headerValue(record, name));
+    }
+
+    private static long parseLong(byte[] value) {
+        return value == null ? 0 : Long.parseLong(new String(value, StandardCharsets.UTF_8));
+    }
+
+    private static byte[] headerValue(ConsumerRecord<?, ?> record, String name) {
+        org.apache.kafka.common.header.Header header = record.headers().lastHeader(name);
+        return header == null ? null : header.value();
+    }
 }
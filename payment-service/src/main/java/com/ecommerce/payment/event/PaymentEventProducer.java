@@ -1,22 +1,70 @@
 package com.ecommerce.payment.event;
 
+import com.ecommerce.common.bus.EventBus;
+import com.ecommerce.common.event.InventoryReservedEvent;
 import com.ecommerce.common.event.PaymentCompletedEvent;
 import com.ecommerce.common.event.TopicNames;
+import com.ecommerce.common.kafka.RetryTopics;
+import com.ecommerce.common.trace.SagaTracer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.support.KafkaHeaders;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class PaymentEventProducer {
 
-    private final KafkaTemplate<String, PaymentCompletedEvent> kafkaTemplate;
+    public static final String ATTEMPT_HEADER = "payment-attempt";
+    public static final String NOT_BEFORE_HEADER = "payment-not-before";
+
+    private final EventBus eventBus;
+    private final SagaTracer sagaTracer;
 
-    public void publishPaymentCompletedEvent(PaymentCompletedEvent event) {
+    @Value(RetryTopics.DLT_SUFFIX)
+    private String dltSuffix;
+
+    /**
+     * Publishes the event keyed by order ID; the future completes once the bus has taken it
+     * over, on Kafka once the broker has acknowledged it.
+     */
+    public CompletableFuture<Void> publishPaymentCompletedEvent(PaymentCompletedEvent event) {
         log.info("Publishing PaymentCompletedEvent for order ID: {}", event.getOrderId());
-        kafkaTemplate.send(TopicNames.PAYMENT_COMPLETED, event.getOrderId().toString(), event);
-        log.info("PaymentCompletedEvent published successfully for order ID: {}", event.getOrderId());
+        String key = event.getOrderId().toString();
+        return eventBus.publish(TopicNames.PAYMENT_COMPLETED, key, event, sagaTracer.traced(key))
+                .whenComplete((result, ex) -> {
+                    if (ex == null) {
+                        log.info("PaymentCompletedEvent published successfully for order ID: {}", event.getOrderId());
+                    }
+                });
+    }
+
+    /**
+     * Parks a payment the gateway could not take on the retry topic, to be picked up again no
+     * earlier than {@code notBeforeMillis} (epoch milliseconds).
+     */
+    public CompletableFuture<Void> parkPayment(InventoryReservedEvent event, int attempt, long notBeforeMillis) {
+        return eventBus.publish(TopicNames.PAYMENT_RETRY, event.getOrderId().toString(), event, Map.of(
+                ATTEMPT_HEADER, Integer.toString(attempt).getBytes(StandardCharsets.UTF_8),
+                NOT_BEFORE_HEADER, Long.toString(notBeforeMillis).getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Publishes a payment that failed {@code attempts} times to the reserved-inventory topic's
+     * dead-letter topic, with the headers the dead-letter replayer reads to send it back.
+     */
+    public CompletableFuture<Void> deadLetterPayment(InventoryReservedEvent event, int attempts, Throwable cause) {
+        String message = cause.getMessage() == null ? "" : cause.getMessage();
+        return eventBus.publish(TopicNames.INVENTORY_RESERVED + dltSuffix, event.getOrderId().toString(), event, Map.of(
+                ATTEMPT_HEADER, Integer.toString(attempts).getBytes(StandardCharsets.UTF_8),
+                KafkaHeaders.DLT_ORIGINAL_TOPIC, TopicNames.INVENTORY_RESERVED.getBytes(StandardCharsets.UTF_8),
+                KafkaHeaders.DLT_EXCEPTION_FQCN, cause.getClass().getName().getBytes(StandardCharsets.UTF_8),
+                KafkaHeaders.DLT_EXCEPTION_MESSAGE, message.getBytes(StandardCharsets.UTF_8)));
     }
 }
@@ -0,0 +1,68 @@
+package com.ecommerce.payment.gateway;
+
+/**
+ * Concurrency limit that adapts to the gateway's behaviour, additive-increase /
+ * multiplicative-decrease as in TCP congestion control.
+ *
+ * <p>A call that succeeds within {@code latencyThreshold} while the limit is at least half
+ * used raises the limit by {@code 1 / limit}, so by about one per limit's worth of calls. A
+ * call that fails, times out or exceeds the threshold multiplies it by {@code backoffRatio}.
+ * The limit stays within {@code [minLimit, maxLimit]}.
+ */
+public class AimdConcurrencyLimiter {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final long latencyThresholdNanos;
+
+    private double limit;
+    private int inFlight;
+
+    public AimdConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, double backoffRatio, long latencyThresholdNanos) {
+        if (minLimit < 1 || maxLimit < minLimit || backoffRatio <= 0 || backoffRatio >= 1) {
+            throw new IllegalArgumentException("Invalid concurrency limiter settings");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.backoffRatio = backoffRatio;
+        this.latencyThresholdNanos = latencyThresholdNanos;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+
+    public synchronized boolean tryAcquire() {
+        if (inFlight >= (int) limit) {
+            return false;
+        }
+        inFlight++;
+        return true;
+    }
+
+    /**
+     * Ends a call and adjusts the limit by its outcome.
+     */
+    public synchronized void release(long latencyNanos, boolean failed) {
+        boolean saturated = inFlight * 2 >= limit;
+        inFlight--;
+        if (failed || latencyNanos > latencyThresholdNanos) {
+            limit = Math.max(minLimit, limit * backoffRatio);
+        } else if (saturated) {
+            limit = Math.min(maxLimit, limit + 1 / limit);
+        }
+    }
+
+    /**
+     * Ends a call that never reached the gateway, leaving the limit as it is.
+     */
+    public synchronized void cancel() {
+        inFlight--;
+    }
+
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+}
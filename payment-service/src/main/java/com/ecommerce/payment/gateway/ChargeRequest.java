@@ -0,0 +1,6 @@
+package com.ecommerce.payment.gateway;
+
+import java.math.BigDecimal;
+
+public record ChargeRequest(Long orderId, Long userId, BigDecimal amount) {
+}
@@ -0,0 +1,15 @@
+package com.ecommerce.payment.gateway;
+
+/**
+ * Provider decision on a charge; {@code transactionId} is only set for approved charges.
+ */
+public record ChargeResult(boolean approved, String transactionId, String message) {
+
+    public static ChargeResult approved(String transactionId) {
+        return new ChargeResult(true, transactionId, "Payment processed successfully");
+    }
+
+    public static ChargeResult declined(String message) {
+        return new ChargeResult(false, null, message);
+    }
+}
@@ -0,0 +1,108 @@
+package com.ecommerce.payment.gateway;
+
+/**
+ * Count-based circuit breaker. It opens when at least {@code failureRateThreshold} of the
+ * last {@code windowSize} calls failed, once {@code minimumCalls} have been recorded, and
+ * rejects calls for {@code openDurationNanos}. Then it lets {@code halfOpenCalls} trial calls
+ * through: it closes again if all of them succeed and reopens on the first failure.
+ */
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final boolean[] window;
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final long openDurationNanos;
+    private final int halfOpenCalls;
+
+    private State state = State.CLOSED;
+    private int recorded;
+    private int failures;
+    private int next;
+    private long openedAtNanos;
+    private int halfOpenPermits;
+    private int halfOpenSuccesses;
+
+    public CircuitBreaker(int windowSize, int minimumCalls, double failureRateThreshold, long openDurationNanos, int halfOpenCalls) {
+        if (windowSize < 1 || minimumCalls > windowSize || halfOpenCalls < 1) {
+            throw new IllegalArgumentException("Invalid circuit breaker settings");
+        }
+        this.window = new boolean[windowSize];
+        this.minimumCalls = minimumCalls;
+        this.failureRateThreshold = failureRateThreshold;
+        this.openDurationNanos = openDurationNanos;
+        this.halfOpenCalls = halfOpenCalls;
+    }
+
+    public synchronized boolean tryAcquire() {
+        if (state == State.OPEN) {
+            if (System.nanoTime() - openedAtNanos < openDurationNanos) {
+                return false;
+            }
+            state = State.HALF_OPEN;
+            halfOpenPermits = halfOpenCalls;
+            halfOpenSuccesses = 0;
+        }
+        if (state == State.HALF_OPEN) {
+            if (halfOpenPermits == 0) {
+                return false;
+            }
+            halfOpenPermits--;
+        }
+        return true;
+    }
+
+    public synchronized void record(boolean success) {
+        if (state == State.HALF_OPEN) {
+            if (!success) {
+                open();
+            } else if (++halfOpenSuccesses == halfOpenCalls) {
+                state = State.CLOSED;
+                recorded = 0;
+                failures = 0;
+                next = 0;
+            }
+            return;
+        }
+        if (state == State.OPEN) {
+            // A call that started before the breaker opened
+            return;
+        }
+
+        if (recorded == window.length) {
+            failures -= window[next] ? 0 : 1;
+        } else {
+            recorded++;
+        }
+        window[next] = success;
+        failures += success ? 0 : 1;
+        next = (next + 1) % window.length;
+        if (recorded >= minimumCalls && failures >= failureRateThreshold * recorded) {
+            open();
+        }
+    }
+
+    /**
+     * Returns the permit of a call that was acquired but never made. A call acquired while the
+     * breaker was closed took no trial permit, so at most {@code halfOpenCalls} are handed back.
+     */
+    public synchronized void cancel() {
+        if (state == State.HALF_OPEN && halfOpenPermits < halfOpenCalls) {
+            halfOpenPermits++;
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openedAtNanos = System.nanoTime();
+    }
+}
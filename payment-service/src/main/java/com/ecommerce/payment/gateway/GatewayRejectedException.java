@@ -0,0 +1,11 @@
+package com.ecommerce.payment.gateway;
+
+/**
+ * Thrown instead of calling the gateway when its concurrency limit is reached or its circuit
+ * is open. The payment was not attempted and can be retried later.
+ */
+public class GatewayRejectedException extends RuntimeException {
+    public GatewayRejectedException(String message) {
+        super(message);
+    }
+}
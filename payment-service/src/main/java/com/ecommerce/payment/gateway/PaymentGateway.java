@@ -0,0 +1,18 @@
+package com.ecommerce.payment.gateway;
+
+/**
+ * Charges a customer through an external payment provider. Implementations may block for
+ * the duration of the provider call; callers run them on the payment gateway executor.
+ *
+ * <p>An order is charged at most once: implementations for real providers pass the request's
+ * order ID as the provider's idempotency key, so that a charge repeated after a crash between
+ * the call and recording the payment returns the original decision instead of charging again.
+ */
+public interface PaymentGateway {
+
+    /**
+     * Returns the provider's decision, or throws {@link PaymentGatewayException} if the
+     * provider could not be reached or did not answer.
+     */
+    ChargeResult charge(ChargeRequest request);
+}
@@ -0,0 +1,166 @@
+package com.ecommerce.payment.gateway;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.time.Duration;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Admission control and timeout around the {@link PaymentGateway}.
+ *
+ * <p>{@link #acquire} admits a call only while the {@link AimdConcurrencyLimiter} has room and
+ * the {@link CircuitBreaker} is not open; it runs on the caller's thread, before any work is
+ * queued, so a slow gateway turns into rejections rather than a growing backlog.
+ * {@link #charge} then makes the admitted call. A call still running after {@code timeout}
+ * is interrupted and fails with a {@link PaymentGatewayException}, and so does a call that
+ * fails with any other exception; errors and timeouts count as failures for both the limiter
+ * and the breaker, declines do not.
+ *
+ * <p>The limit, in-flight calls, breaker state, rejections and call latencies are published
+ * as {@code payment.gateway.*} metrics.
+ */
+public class PaymentGatewayGuard {
+
+    private final PaymentGateway delegate;
+    private final AimdConcurrencyLimiter limiter;
+    private final CircuitBreaker circuitBreaker;
+    private final long timeoutNanos;
+    private final ScheduledExecutorService timeoutScheduler;
+    private final Counter limitRejections;
+    private final Counter circuitRejections;
+    private final Timer approvedCalls;
+    private final Timer declinedCalls;
+    private final Timer failedCalls;
+    private final Timer timedOutCalls;
+
+    public PaymentGatewayGuard(PaymentGateway delegate, AimdConcurrencyLimiter limiter, CircuitBreaker circuitBreaker,
+                               Duration timeout, ScheduledExecutorService timeoutScheduler, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.limiter = limiter;
+        this.circuitBreaker = circuitBreaker;
+        this.timeoutNanos = timeout.toNanos();
+        this.timeoutScheduler = timeoutScheduler;
+        this.limitRejections = Counter.builder("payment.gateway.rejected").tag("reason", "limit").register(meterRegistry);
+        this.circuitRejections = Counter.builder("payment.gateway.rejected").tag("reason", "circuit-open").register(meterRegistry);
+        this.approvedCalls = callTimer("approved", meterRegistry);
+        this.declinedCalls = callTimer("declined", meterRegistry);
+        this.failedCalls = callTimer("error", meterRegistry);
+        this.timedOutCalls = callTimer("timeout", meterRegistry);
+        Gauge.builder("payment.gateway.limit", limiter, AimdConcurrencyLimiter::getLimit).register(meterRegistry);
+        Gauge.builder("payment.gateway.in-flight", limiter, AimdConcurrencyLimiter::getInFlight).register(meterRegistry);
+        Gauge.builder("payment.gateway.circuit.state", circuitBreaker, breaker -> breaker.getState().ordinal())
+                .description("0 closed, 1 open, 2 half-open")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Admits one call, which must be followed by exactly one {@link #charge} or {@link #cancel}.
+     */
+    public void acquire() {
+        if (!limiter.tryAcquire()) {
+            limitRejections.increment();
+            throw new GatewayRejectedException("Payment gateway concurrency limit of " + limiter.getLimit() + " reached");
+        }
+        if (!circuitBreaker.tryAcquire()) {
+            limiter.cancel();
+            circuitRejections.increment();
+            throw new GatewayRejectedException("Payment gateway circuit is open");
+        }
+    }
+
+    /**
+     * Gives back an admitted call that will not be made.
+     */
+    public void cancel() {
+        circuitBreaker.cancel();
+        limiter.cancel();
+    }
+
+    public ChargeResult charge(ChargeRequest request) {
+        long startNanos = System.nanoTime();
+        Timer outcome = failedCalls;
+        Deadline deadline = new Deadline(Thread.currentThread());
+        deadline.timer = timeoutScheduler.schedule(deadline::expire, timeoutNanos, TimeUnit.NANOSECONDS);
+        try {
+            ChargeResult result = delegate.charge(request);
+            outcome = result.approved() ? approvedCalls : declinedCalls;
+            return result;
+        } catch (RuntimeException ex) {
+            if (deadline.finish()) {
+                outcome = timedOutCalls;
+                throw new PaymentGatewayException("Payment gateway timed out after " + timeoutNanos / 1_000_000 + " ms");
+            }
+            if (ex instanceof PaymentGatewayException) {
+                throw ex;
+            }
+            // A bug or an unexpected answer in the client is still a failed call, not a retryable one
+            throw new PaymentGatewayException("Payment gateway call failed: " + ex, ex);
+        } finally {
+            // An answer that arrives despite the interrupt still counts, but its latency shrinks the limit
+            deadline.finish();
+            long latencyNanos = System.nanoTime() - startNanos;
+            boolean failed = outcome == failedCalls || outcome == timedOutCalls;
+            limiter.release(latencyNanos, failed);
+            circuitBreaker.record(!failed);
+            outcome.record(latencyNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public int getLimit() {
+        return limiter.getLimit();
+    }
+
+    public int getInFlight() {
+        return limiter.getInFlight();
+    }
+
+    public CircuitBreaker.State getCircuitState() {
+        return circuitBreaker.getState();
+    }
+
+    private static Timer callTimer(String outcome, MeterRegistry meterRegistry) {
+        return Timer.builder("payment.gateway.calls").tag("outcome", outcome).register(meterRegistry);
+    }
+
+    /**
+     * Interrupts the calling thread if the call outlives the timeout. Both sides synchronize,
+     * so an interrupt can never land after the call has finished.
+     */
+    private static class Deadline {
+
+        private final Thread caller;
+        private ScheduledFuture<?> timer;
+        private boolean finished;
+        private boolean expired;
+
+        Deadline(Thread caller) {
+            this.caller = caller;
+        }
+
+        synchronized void expire() {
+            if (!finished) {
+                expired = true;
+                caller.interrupt();
+            }
+        }
+
+        /**
+         * Stops the deadline and clears its interrupt; returns whether it had expired.
+         */
+        synchronized boolean finish() {
+            if (!finished) {
+                finished = true;
+                timer.cancel(false);
+                if (expired) {
+                    Thread.interrupted();
+                }
+            }
+            return expired;
+        }
+    }
+}
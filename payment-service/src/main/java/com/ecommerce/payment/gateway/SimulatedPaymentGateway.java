@@ -0,0 +1,100 @@
+package com.ecommerce.payment.gateway;
+
+import com.ecommerce.common.id.Ulid;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Local stand-in for a payment provider. Each charge blocks the calling thread for a latency
+ * drawn from {@code payment.gateway.simulator.latency-distribution}, then is declined with
+ * probability {@code decline-rate} or fails with a {@link PaymentGatewayException} with
+ * probability {@code error-rate}; every other charge is approved.
+ */
+@Component
+@ConditionalOnProperty(name = "payment.gateway.type", havingValue = "simulator", matchIfMissing = true)
+@Slf4j
+public class SimulatedPaymentGateway implements PaymentGateway {
+
+    public enum LatencyDistribution {
+        /** Always {@code latency}. */
+        FIXED,
+        /** Uniform within {@code latency} ± {@code latency-spread} of it. */
+        UNIFORM,
+        /** Exponential with mean {@code latency}. */
+        EXPONENTIAL,
+        /** Log-normal with median {@code latency} and shape {@code latency-spread}, for a long tail. */
+        LOG_NORMAL
+    }
+
+    private final LatencyDistribution distribution;
+    private final double spread;
+    private final double declineRate;
+    private volatile long latencyNanos;
+    private volatile double errorRate;
+
+    public SimulatedPaymentGateway(
+            @Value("${payment.gateway.simulator.latency:PT1S}") Duration latency,
+            @Value("${payment.gateway.simulator.latency-distribution:FIXED}") LatencyDistribution distribution,
+            @Value("${payment.gateway.simulator.latency-spread:0.5}") double spread,
+            @Value("${payment.gateway.simulator.decline-rate:0}") double declineRate,
+            @Value("${payment.gateway.simulator.error-rate:0}") double errorRate) {
+        this.latencyNanos = latency.toNanos();
+        this.distribution = distribution;
+        this.spread = spread;
+        this.declineRate = declineRate;
+        this.errorRate = errorRate;
+    }
+
+    /**
+     * Changes the typical latency at runtime, e.g. to inject a slowdown.
+     */
+    public void setLatency(Duration latency) {
+        this.latencyNanos = latency.toNanos();
+    }
+
+    /**
+     * Changes the error rate at runtime, e.g. to inject an outage.
+     */
+    public void setErrorRate(double errorRate) {
+        this.errorRate = errorRate;
+    }
+
+    @Override
+    public ChargeResult charge(ChargeRequest request) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        try {
+            TimeUnit.NANOSECONDS.sleep(sampleLatencyNanos(random));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new PaymentGatewayException("Payment gateway call interrupted");
+        }
+
+        double outcome = random.nextDouble();
+        double errorRate = this.errorRate;
+        if (outcome < errorRate) {
+            throw new PaymentGatewayException("Payment gateway unavailable");
+        }
+        if (outcome < errorRate + declineRate) {
+            log.info("Simulated gateway declined payment for order ID: {}", request.orderId());
+            return ChargeResult.declined("Payment declined by gateway");
+        }
+        return ChargeResult.approved("TXN-" + Ulid.next());
+    }
+
+    private long sampleLatencyNanos(ThreadLocalRandom random) {
+        long latency = latencyNanos;
+        double sample = switch (distribution) {
+            case FIXED -> latency;
+            case UNIFORM -> latency * (1 + spread * (2 * random.nextDouble() - 1));
+            case EXPONENTIAL -> -latency * Math.log(1 - random.nextDouble());
+            case LOG_NORMAL -> latency * Math.exp(spread * random.nextGaussian());
+        };
+        return Math.max(0, (long) sample);
+    }
+}
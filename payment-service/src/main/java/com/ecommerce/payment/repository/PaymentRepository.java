@@ -2,6 +2,7 @@ package com.ecommerce.payment.repository;
 
 import com.ecommerce.payment.entity.Payment;
 import com.ecommerce.payment.entity.Payment.PaymentStatus;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
@@ -9,8 +10,14 @@ import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface PaymentRepository extends JpaRepository<Payment, Long> {
+public interface PaymentRepository extends JpaRepository<Payment, Long>, PaymentScanOperations {
     Optional<Payment> findByOrderId(Long orderId);
     List<Payment> findByUserId(Long userId);
     List<Payment> findByStatus(PaymentStatus status);
+
+    // Keyset pages, newest first. Payment IDs are time-ordered, so each page continues below
+    // the last ID of the previous one; the (user_id, id) and (status, id) indexes serve them.
+    List<Payment> findByIdLessThanOrderByIdDesc(Long before, Limit limit);
+    List<Payment> findByUserIdAndIdLessThanOrderByIdDesc(Long userId, Long before, Limit limit);
+    List<Payment> findByStatusAndIdLessThanOrderByIdDesc(PaymentStatus status, Long before, Limit limit);
 }
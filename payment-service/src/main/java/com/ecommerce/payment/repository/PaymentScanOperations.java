@@ -0,0 +1,21 @@
+package com.ecommerce.payment.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
+
+/**
+ * Forward-only scans over the payments table for jobs that read it end to end.
+ */
+public interface PaymentScanOperations {
+
+    /**
+     * Streams the completed payments created in {@code [from, to)} through a forward-only,
+     * read-only cursor and returns how many were read. Rows are not held in memory, so the
+     * range may be arbitrarily large.
+     */
+    long scanCompletedPayments(LocalDateTime from, LocalDateTime to, Consumer<CompletedPayment> action);
+
+    record CompletedPayment(String transactionId, long orderId, BigDecimal amount) {
+    }
+}
@@ -0,0 +1,50 @@
+package com.ecommerce.payment.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
+
+@RequiredArgsConstructor
+public class PaymentScanOperationsImpl implements PaymentScanOperations {
+
+    private static final int FETCH_SIZE = 10_000;
+
+    private static final String COMPLETED_SQL =
+            "SELECT transaction_id, order_id, amount FROM payments " +
+            "WHERE created_at >= ? AND created_at < ? AND status = 'COMPLETED' AND transaction_id IS NOT NULL";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public long scanCompletedPayments(LocalDateTime from, LocalDateTime to, Consumer<CompletedPayment> action) {
+        long[] count = new long[1];
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(
+                    COMPLETED_SQL, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(fetchSize(connection));
+            statement.setTimestamp(1, Timestamp.valueOf(from));
+            statement.setTimestamp(2, Timestamp.valueOf(to));
+            return statement;
+        }, (RowCallbackHandler) rs -> {
+            action.accept(new CompletedPayment(rs.getString(1), rs.getLong(2), rs.getBigDecimal(3)));
+            count[0]++;
+        });
+        return count[0];
+    }
+
+    /**
+     * MySQL Connector/J buffers the whole result unless the fetch size is
+     * {@code Integer.MIN_VALUE}, which streams it row by row; other drivers take a page size.
+     */
+    private static int fetchSize(Connection connection) throws SQLException {
+        return connection.getMetaData().getDatabaseProductName().equals("MySQL") ? Integer.MIN_VALUE : FETCH_SIZE;
+    }
+}
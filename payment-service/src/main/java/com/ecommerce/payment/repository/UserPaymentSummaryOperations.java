@@ -0,0 +1,31 @@
+package com.ecommerce.payment.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.SortedMap;
+
+/**
+ * JDBC-batched increments of the per-user payment summaries.
+ */
+public interface UserPaymentSummaryOperations {
+
+    /**
+     * Adds each user's totals to their summary, creating it if the user has none yet. Users
+     * are updated in ascending ID order so concurrent writers lock rows in the same order.
+     */
+    int[] batchAddPaymentTotals(SortedMap<Long, PaymentTotals> totalsByUserId);
+
+    /**
+     * Payments recorded for one user in a transaction.
+     */
+    record PaymentTotals(long completedCount, long failedCount, BigDecimal completedAmount, LocalDateTime lastPaymentAt) {
+
+        public PaymentTotals plus(PaymentTotals other) {
+            return new PaymentTotals(
+                    completedCount + other.completedCount,
+                    failedCount + other.failedCount,
+                    completedAmount.add(other.completedAmount),
+                    lastPaymentAt.isAfter(other.lastPaymentAt) ? lastPaymentAt : other.lastPaymentAt);
+        }
+    }
+}
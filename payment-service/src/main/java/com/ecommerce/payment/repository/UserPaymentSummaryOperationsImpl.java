@@ -0,0 +1,42 @@
+package com.ecommerce.payment.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+
+@RequiredArgsConstructor
+public class UserPaymentSummaryOperationsImpl implements UserPaymentSummaryOperations {
+
+    private static final String UPSERT_SQL =
+            "INSERT INTO user_payment_summaries " +
+            "(user_id, payment_count, completed_count, failed_count, completed_amount, last_payment_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE payment_count = payment_count + VALUES(payment_count), " +
+            "completed_count = completed_count + VALUES(completed_count), " +
+            "failed_count = failed_count + VALUES(failed_count), " +
+            "completed_amount = completed_amount + VALUES(completed_amount), " +
+            "last_payment_at = GREATEST(last_payment_at, VALUES(last_payment_at))";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public int[] batchAddPaymentTotals(SortedMap<Long, PaymentTotals> totalsByUserId) {
+        List<Object[]> batchArgs = new ArrayList<>(totalsByUserId.size());
+        for (Map.Entry<Long, PaymentTotals> entry : totalsByUserId.entrySet()) {
+            PaymentTotals totals = entry.getValue();
+            batchArgs.add(new Object[]{
+                    entry.getKey(),
+                    totals.completedCount() + totals.failedCount(),
+                    totals.completedCount(),
+                    totals.failedCount(),
+                    totals.completedAmount(),
+                    Timestamp.valueOf(totals.lastPaymentAt())});
+        }
+        return jdbcTemplate.batchUpdate(UPSERT_SQL, batchArgs);
+    }
+}
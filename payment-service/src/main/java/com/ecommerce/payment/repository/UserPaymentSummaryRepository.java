@@ -0,0 +1,9 @@
+package com.ecommerce.payment.repository;
+
+import com.ecommerce.payment.entity.UserPaymentSummary;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface UserPaymentSummaryRepository extends JpaRepository<UserPaymentSummary, Long>, UserPaymentSummaryOperations {
+}
@@ -0,0 +1,11 @@
+package com.ecommerce.payment.service;
+
+import com.ecommerce.payment.gateway.ChargeResult;
+
+import java.math.BigDecimal;
+
+/**
+ * A payment the gateway has decided on, waiting to be recorded.
+ */
+public record ChargedPayment(Long orderId, Long userId, BigDecimal amount, ChargeResult result) {
+}
@@ -0,0 +1,234 @@
+package com.ecommerce.payment.service;
+
+import com.ecommerce.common.event.InventoryReservedEvent;
+import com.ecommerce.common.event.PaymentCompletedEvent;
+import com.ecommerce.payment.event.PaymentEventProducer;
+import com.ecommerce.payment.gateway.ChargeRequest;
+import com.ecommerce.payment.gateway.ChargeResult;
+import com.ecommerce.payment.gateway.GatewayRejectedException;
+import com.ecommerce.payment.gateway.PaymentGateway;
+import com.ecommerce.payment.gateway.PaymentGatewayException;
+import com.ecommerce.payment.gateway.PaymentGatewayGuard;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Takes payments for reserved orders off the Kafka listener thread.
+ *
+ * <p>Each payment is charged through the {@link PaymentGateway} and recorded on the gateway
+ * executor, then its {@link PaymentCompletedEvent} is published. Calls are admitted by the
+ * {@link PaymentGatewayGuard} before anything is queued; when it has no room {@link #process}
+ * throws a {@link GatewayRejectedException} at once rather than blocking the listener.
+ *
+ * <p>The amount charged is the order total carried by the {@link InventoryReservedEvent}.
+ *
+ * <p>A payment is retried when its event could not be published or, in a batch, when the
+ * batch could not be recorded. Before charging, the processor therefore looks the order's
+ * payment up, and if an earlier attempt recorded one it publishes that payment's event again
+ * instead of charging the customer a second time.
+ */
+@Service
+@Slf4j
+public class PaymentProcessor {
+
+    private final PaymentGatewayGuard gatewayGuard;
+    private final PaymentService paymentService;
+    private final PaymentEventProducer paymentEventProducer;
+    private final ExecutorService executor;
+
+    public PaymentProcessor(
+            PaymentGatewayGuard gatewayGuard,
+            PaymentService paymentService,
+            PaymentEventProducer paymentEventProducer,
+            @Qualifier("paymentGatewayExecutor") ExecutorService executor) {
+        this.gatewayGuard = gatewayGuard;
+        this.paymentService = paymentService;
+        this.paymentEventProducer = paymentEventProducer;
+        this.executor = executor;
+    }
+
+    /**
+     * Starts the payment for an order. The future completes once the resulting event has been
+     * published, and fails if the payment could not be recorded or the event not sent.
+     * Gateway declines, errors and timeouts are not failures; they produce an unsuccessful
+     * payment event.
+     *
+     * @throws GatewayRejectedException if the gateway is saturated or its circuit is open
+     */
+    public CompletableFuture<PaymentCompletedEvent> process(InventoryReservedEvent event) {
+        PaymentCompletedEvent skipped = skipped(event);
+        if (skipped != null) {
+            return publish(skipped);
+        }
+        return startCharge(event).thenCompose(charge -> publish(charge.decided() != null
+                ? charge.decided()
+                : paymentService.recordPayment(event.getOrderId(), event.getUserId(), event.getTotalAmount(), charge.result())));
+    }
+
+    /**
+     * Starts a batch of payments that are charged individually but recorded in one transaction
+     * and published together when the batch is {@linkplain Batch#complete() completed}.
+     */
+    public Batch newBatch() {
+        return new Batch();
+    }
+
+    public class Batch {
+
+        private final List<CompletableFuture<Charge>> charges = new ArrayList<>();
+        private final List<CompletableFuture<PaymentCompletedEvent>> results = new ArrayList<>();
+
+        private Batch() {
+        }
+
+        /**
+         * Starts charging one payment. The future completes once the batch has been completed
+         * and the payment's event published.
+         *
+         * @throws GatewayRejectedException if the gateway is saturated or its circuit is open
+         */
+        public CompletableFuture<PaymentCompletedEvent> add(InventoryReservedEvent event) {
+            PaymentCompletedEvent skipped = skipped(event);
+            CompletableFuture<Charge> charge = skipped != null
+                    ? CompletableFuture.completedFuture(new Charge(event, null, skipped))
+                    : startCharge(event);
+            CompletableFuture<PaymentCompletedEvent> result = new CompletableFuture<>();
+            charges.add(charge);
+            results.add(result);
+            return result;
+        }
+
+        /**
+         * Waits for the batch's gateway calls, records the payments in one transaction and sends
+         * all events before waiting for any acknowledgement. If recording fails, every payment in
+         * the batch fails with it.
+         */
+        public void complete() {
+            CompletableFuture.allOf(charges.toArray(CompletableFuture[]::new)).handle((done, ex) -> null).join();
+            List<Charge> completed = new ArrayList<>(charges.size());
+            List<ChargedPayment> charged = new ArrayList<>();
+            for (int i = 0; i < charges.size(); i++) {
+                Charge charge = null;
+                try {
+                    charge = charges.get(i).join();
+                } catch (CompletionException ex) {
+                    // The payment lookup failed, so the order was not charged
+                    results.get(i).completeExceptionally(ex.getCause());
+                }
+                completed.add(charge);
+                if (charge != null && charge.decided() == null) {
+                    InventoryReservedEvent event = charge.event();
+                    charged.add(new ChargedPayment(event.getOrderId(), event.getUserId(), event.getTotalAmount(), charge.result()));
+                }
+            }
+
+            List<PaymentCompletedEvent> recorded;
+            try {
+                recorded = charged.isEmpty() ? List.of() : paymentService.recordPayments(charged);
+            } catch (RuntimeException ex) {
+                results.forEach(result -> result.completeExceptionally(ex));
+                return;
+            }
+
+            int next = 0;
+            for (int i = 0; i < completed.size(); i++) {
+                Charge charge = completed.get(i);
+                if (charge == null) {
+                    continue;
+                }
+                PaymentCompletedEvent paymentEvent = charge.decided() != null ? charge.decided() : recorded.get(next++);
+                CompletableFuture<PaymentCompletedEvent> result = results.get(i);
+                publish(paymentEvent).whenComplete((published, ex) -> {
+                    if (ex == null) {
+                        result.complete(published);
+                    } else {
+                        result.completeExceptionally(ex);
+                    }
+                });
+            }
+        }
+    }
+
+    /**
+     * The event for a payment that is not attempted at all, or null if it should be.
+     */
+    private static PaymentCompletedEvent skipped(InventoryReservedEvent event) {
+        if (!event.isReservationSuccessful()) {
+            log.error("Inventory reservation failed for order ID: {}. Message: {}",
+                    event.getOrderId(), event.getMessage());
+            return failed(event, "Payment skipped: " + event.getMessage());
+        }
+        if (event.getTotalAmount() == null) {
+            log.error("InventoryReservedEvent for order ID: {} carries no order total", event.getOrderId());
+            return failed(event, "Payment skipped: order total missing");
+        }
+        return null;
+    }
+
+    private CompletableFuture<Charge> startCharge(InventoryReservedEvent event) {
+        gatewayGuard.acquire();
+        try {
+            return CompletableFuture.supplyAsync(() -> charge(event), executor);
+        } catch (RejectedExecutionException ex) {
+            gatewayGuard.cancel();
+            throw ex;
+        }
+    }
+
+    private CompletableFuture<PaymentCompletedEvent> publish(PaymentCompletedEvent paymentEvent) {
+        return paymentEventProducer.publishPaymentCompletedEvent(paymentEvent).thenApply(sent -> paymentEvent);
+    }
+
+    private Charge charge(InventoryReservedEvent event) {
+        Optional<PaymentCompletedEvent> recorded;
+        try {
+            recorded = paymentService.findRecordedPayment(event.getOrderId());
+        } catch (RuntimeException ex) {
+            gatewayGuard.cancel();
+            throw ex;
+        }
+        if (recorded.isPresent()) {
+            gatewayGuard.cancel();
+            log.info("Payment for order ID: {} was already recorded, publishing it again", event.getOrderId());
+            return new Charge(event, null, recorded.get());
+        }
+
+        log.info("Processing payment of {} for order ID: {}", event.getTotalAmount(), event.getOrderId());
+        try {
+            ChargeResult result = gatewayGuard.charge(new ChargeRequest(event.getOrderId(), event.getUserId(), event.getTotalAmount()));
+            return new Charge(event, result, null);
+        } catch (PaymentGatewayException ex) {
+            log.error("Payment processing failed for order ID: {}. Error: {}", event.getOrderId(), ex.getMessage());
+            return new Charge(event, null, failed(event, "Payment failed: " + ex.getMessage()));
+        }
+    }
+
+    private static PaymentCompletedEvent failed(InventoryReservedEvent event, String message) {
+        return PaymentCompletedEvent.builder()
+                .orderId(event.getOrderId())
+                .userId(event.getUserId())
+                .amount(null)
+                .paymentSuccessful(false)
+                .transactionId(null)
+                .message(message)
+                .completedAt(event.getReservedAt())
+                .build();
+    }
+
+    /**
+     * Outcome of a gateway call: the gateway's decision to record, or the event for a payment
+     * that needs no recording because it failed before the gateway decided or an earlier
+     * attempt already recorded it.
+     */
+    private record Charge(InventoryReservedEvent event, ChargeResult result, PaymentCompletedEvent decided) {
+    }
+}
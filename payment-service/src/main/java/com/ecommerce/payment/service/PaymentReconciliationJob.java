@@ -0,0 +1,61 @@
+package com.ecommerce.payment.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+
+/**
+ * Nightly reconciliation of the previous day's payments against the provider's settlement
+ * file {@code settlement-<date>.csv} in {@code payment.reconciliation.settlement-dir}. The
+ * mismatch report is written to {@code reconciliation-<date>.csv} in
+ * {@code payment.reconciliation.report-dir}.
+ *
+ * <p>Payments completed just before midnight may only settle in the next day's file, so a few
+ * {@code MISSING_SETTLEMENT} rows at the end of the day are expected.
+ */
+@Component
+@ConditionalOnProperty(name = "payment.reconciliation.enabled", havingValue = "true")
+@Slf4j
+public class PaymentReconciliationJob {
+
+    private final PaymentReconciliationService reconciliationService;
+    private final Path settlementDir;
+    private final Path reportDir;
+
+    public PaymentReconciliationJob(
+            PaymentReconciliationService reconciliationService,
+            @Value("${payment.reconciliation.settlement-dir:settlements}") Path settlementDir,
+            @Value("${payment.reconciliation.report-dir:reconciliation-reports}") Path reportDir) {
+        this.reconciliationService = reconciliationService;
+        this.settlementDir = settlementDir;
+        this.reportDir = reportDir;
+    }
+
+    @Scheduled(cron = "${payment.reconciliation.cron:0 30 2 * * *}")
+    public void reconcileYesterday() {
+        reconcile(LocalDate.now().minusDays(1));
+    }
+
+    public void reconcile(LocalDate day) {
+        Path settlementFile = settlementDir.resolve("settlement-" + day + ".csv");
+        if (!Files.isReadable(settlementFile)) {
+            log.warn("No settlement file {} for {}; skipping reconciliation", settlementFile, day);
+            return;
+        }
+        try {
+            Files.createDirectories(reportDir);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        reconciliationService.reconcile(settlementFile, day.atStartOfDay(), day.plusDays(1).atStartOfDay(),
+                reportDir.resolve("reconciliation-" + day + ".csv"));
+    }
+}
@@ -0,0 +1,366 @@
+package com.ecommerce.payment.service;
+
+import com.ecommerce.payment.dto.ReconciliationReport;
+import com.ecommerce.payment.dto.ReconciliationReport.MismatchType;
+import com.ecommerce.payment.repository.PaymentRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Reconciles completed payments against a provider settlement file, a CSV with a header
+ * naming its {@code transactionId}, {@code orderId} and {@code amount} columns.
+ *
+ * <p>Memory stays bounded however large both sides are, using a partitioned hash join: the
+ * settlement file is read line by line and the payments are streamed from the database, and
+ * both are spilled to {@code payment.reconciliation.partitions} temporary files by a hash of
+ * the transaction ID. Each pair of partitions is then joined with an in-memory hash table of
+ * its settlements, so only one partition's settlements are held at a time. Every mismatch is
+ * written to the CSV report as it is found.
+ */
+@Service
+@Slf4j
+public class PaymentReconciliationService {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final PaymentRepository paymentRepository;
+    private final int partitions;
+
+    public PaymentReconciliationService(
+            PaymentRepository paymentRepository,
+            @Value("${payment.reconciliation.partitions:64}") int partitions) {
+        this.paymentRepository = paymentRepository;
+        this.partitions = partitions;
+    }
+
+    /**
+     * Compares the payments completed in {@code [from, to)} with {@code settlementFile} and
+     * writes the mismatches to {@code reportFile}.
+     */
+    public ReconciliationReport reconcile(Path settlementFile, LocalDateTime from, LocalDateTime to, Path reportFile) {
+        long startNanos = System.nanoTime();
+        log.info("Reconciling payments from {} to {} against {}", from, to, settlementFile);
+        Path workDir = null;
+        try {
+            workDir = Files.createTempDirectory("payment-reconciliation");
+
+            Partitions settlements = new Partitions(workDir, "settlements", partitions);
+            SettlementColumns columns = new SettlementColumns();
+            try (settlements; BufferedReader reader = new BufferedReader(new InputStreamReader(
+                    Files.newInputStream(settlementFile), StandardCharsets.UTF_8), BUFFER_SIZE)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (!line.isBlank() && !columns.consumeHeader(line)) {
+                        Row settlement = columns.parse(line);
+                        if (settlement != null) {
+                            settlements.write(settlement);
+                        }
+                    }
+                }
+            }
+
+            Partitions payments = new Partitions(workDir, "payments", partitions);
+            try (payments) {
+                paymentRepository.scanCompletedPayments(from, to, payment -> payments.write(
+                        new Row(payment.transactionId(), payment.orderId(), payment.amount())));
+            }
+
+            Join join = new Join();
+            try (MismatchWriter report = new MismatchWriter(reportFile)) {
+                for (int i = 0; i < partitions; i++) {
+                    join.joinPartition(settlements.file(i), payments.file(i), report);
+                }
+            }
+
+            ReconciliationReport result = ReconciliationReport.builder()
+                    .from(from)
+                    .to(to)
+                    .payments(payments.rows)
+                    .settlements(settlements.rows)
+                    .malformedSettlementRows(columns.malformedRows)
+                    .matched(join.matched)
+                    .mismatches(join.mismatches)
+                    .reportFile(reportFile.toString())
+                    .elapsedMillis((System.nanoTime() - startNanos) / 1_000_000)
+                    .build();
+            log.info("Reconciliation finished: {} payments, {} settlements, {} matched, mismatches {}, {} malformed rows in {} ms",
+                    result.getPayments(), result.getSettlements(), result.getMatched(), result.getMismatches(),
+                    result.getMalformedSettlementRows(), result.getElapsedMillis());
+            return result;
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Payment reconciliation failed", ex);
+        } finally {
+            deleteRecursively(workDir);
+        }
+    }
+
+    private static void deleteRecursively(Path dir) {
+        if (dir == null) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(dir)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        } catch (IOException ex) {
+            log.warn("Could not delete reconciliation work directory {}", dir, ex);
+        }
+    }
+
+    private record Row(String transactionId, long orderId, BigDecimal amount) {
+    }
+
+    /**
+     * Spill files of one side of the join, one per hash partition of the transaction ID.
+     */
+    private static class Partitions implements Closeable {
+
+        private final Path[] files;
+        private final DataOutputStream[] outputs;
+        private long rows;
+
+        Partitions(Path dir, String side, int count) throws IOException {
+            files = new Path[count];
+            outputs = new DataOutputStream[count];
+            for (int i = 0; i < count; i++) {
+                files[i] = dir.resolve(side + "-" + i);
+                outputs[i] = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(files[i]), BUFFER_SIZE));
+            }
+        }
+
+        void write(Row row) {
+            DataOutputStream output = outputs[Math.floorMod(row.transactionId().hashCode(), outputs.length)];
+            try {
+                output.writeUTF(row.transactionId());
+                output.writeLong(row.orderId());
+                output.writeUTF(row.amount().toPlainString());
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+            rows++;
+        }
+
+        Path file(int partition) {
+            return files[partition];
+        }
+
+        @Override
+        public void close() throws IOException {
+            for (DataOutputStream output : outputs) {
+                output.close();
+            }
+        }
+
+        static void read(Path file, Consumer<Row> action) throws IOException {
+            try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), BUFFER_SIZE))) {
+                while (true) {
+                    String transactionId;
+                    try {
+                        transactionId = input.readUTF();
+                    } catch (EOFException end) {
+                        return;
+                    }
+                    action.accept(new Row(transactionId, input.readLong(), new BigDecimal(input.readUTF())));
+                }
+            }
+        }
+    }
+
+    private static class Join {
+
+        private final Map<MismatchType, Long> mismatches = new EnumMap<>(MismatchType.class);
+        private long matched;
+
+        void joinPartition(Path settlementFile, Path paymentFile, MismatchWriter report) throws IOException {
+            Map<String, Row> settlements = new HashMap<>();
+            Partitions.read(settlementFile, settlement -> {
+                if (settlements.putIfAbsent(settlement.transactionId(), settlement) != null) {
+                    mismatch(report, MismatchType.DUPLICATE_SETTLEMENT, settlement.transactionId(), null, settlement);
+                }
+            });
+            Partitions.read(paymentFile, payment -> {
+                Row settlement = settlements.remove(payment.transactionId());
+                if (settlement == null) {
+                    mismatch(report, MismatchType.MISSING_SETTLEMENT, payment.transactionId(), payment, null);
+                } else if (settlement.orderId() != payment.orderId()) {
+                    mismatch(report, MismatchType.ORDER_MISMATCH, payment.transactionId(), payment, settlement);
+                } else if (settlement.amount().compareTo(payment.amount()) != 0) {
+                    mismatch(report, MismatchType.AMOUNT_MISMATCH, payment.transactionId(), payment, settlement);
+                } else {
+                    matched++;
+                }
+            });
+            for (Row settlement : settlements.values()) {
+                mismatch(report, MismatchType.MISSING_PAYMENT, settlement.transactionId(), null, settlement);
+            }
+        }
+
+        private void mismatch(MismatchWriter report, MismatchType type, String transactionId, Row payment, Row settlement) {
+            mismatches.merge(type, 1L, Long::sum);
+            report.write(type, transactionId, payment, settlement);
+        }
+    }
+
+    private static class MismatchWriter implements Closeable {
+
+        private final BufferedWriter writer;
+
+        MismatchWriter(Path file) throws IOException {
+            writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+            writer.write("type,transactionId,paymentOrderId,paymentAmount,settlementOrderId,settlementAmount\n");
+        }
+
+        void write(MismatchType type, String transactionId, Row payment, Row settlement) {
+            try {
+                writer.write(type.name() + "," + quote(transactionId) + ","
+                        + (payment != null ? payment.orderId() + "," + payment.amount().toPlainString() : ",") + ","
+                        + (settlement != null ? settlement.orderId() + "," + settlement.amount().toPlainString() : ",") + "\n");
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.close();
+        }
+
+        /**
+         * Quotes a cell that holds a comma, quote or line break, doubling its quotes, so that
+         * it reads back as the same value.
+         */
+        private static String quote(String cell) {
+            for (int i = 0; i < cell.length(); i++) {
+                char c = cell.charAt(i);
+                if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                    return '"' + cell.replace("\"", "\"\"") + '"';
+                }
+            }
+            return cell;
+        }
+    }
+
+    /**
+     * Column positions taken from the settlement file's header row. Rows that cannot be parsed
+     * are counted and skipped.
+     */
+    private static class SettlementColumns {
+
+        private boolean headerRead;
+        private int transactionIdColumn = -1;
+        private int orderIdColumn = -1;
+        private int amountColumn = -1;
+        private long lineNumber;
+        private long malformedRows;
+
+        boolean consumeHeader(String line) {
+            lineNumber++;
+            if (headerRead) {
+                return false;
+            }
+            headerRead = true;
+            // Spreadsheets often save UTF-8 with a byte order mark, which the reader leaves in
+            if (line.startsWith("\uFEFF")) {
+                line = line.substring(1);
+            }
+            String[] columns = split(line);
+            for (int i = 0; i < columns.length; i++) {
+                String name = columns[i].trim().replace("_", "").toLowerCase();
+                switch (name) {
+                    case "transactionid" -> transactionIdColumn = i;
+                    case "orderid" -> orderIdColumn = i;
+                    case "amount" -> amountColumn = i;
+                    default -> {
+                    }
+                }
+            }
+            if (transactionIdColumn < 0 || orderIdColumn < 0 || amountColumn < 0) {
+                throw new IllegalStateException("Settlement file header must name transactionId, orderId and amount columns");
+            }
+            return true;
+        }
+
+        Row parse(String line) {
+            String[] columns;
+            try {
+                columns = split(line);
+                String transactionId = columns[transactionIdColumn].trim();
+                if (transactionId.isEmpty()) {
+                    throw new IllegalArgumentException("missing transaction ID");
+                }
+                return new Row(transactionId,
+                        Long.parseLong(columns[orderIdColumn].trim()),
+                        new BigDecimal(columns[amountColumn].trim()));
+            } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException ex) {
+                if (malformedRows++ < 10) {
+                    log.warn("Skipping malformed settlement row at line {}: {}", lineNumber, line);
+                }
+                return null;
+            }
+        }
+
+        /**
+         * Splits a CSV line into its cells, unquoting quoted ones: a quoted cell may hold commas,
+         * and a doubled quote inside it stands for one quote.
+         *
+         * @throws IllegalArgumentException if a quoted cell is not closed
+         */
+        private static String[] split(String line) {
+            if (line.indexOf('"') < 0) {
+                return line.split(",", -1);
+            }
+            List<String> cells = new ArrayList<>();
+            StringBuilder cell = new StringBuilder();
+            boolean quoted = false;
+            for (int i = 0; i < line.length(); i++) {
+                char c = line.charAt(i);
+                if (quoted) {
+                    if (c != '"') {
+                        cell.append(c);
+                    } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        cell.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    cells.add(cell.toString());
+                    cell.setLength(0);
+                } else {
+                    cell.append(c);
+                }
+            }
+            if (quoted) {
+                throw new IllegalArgumentException("unterminated quoted cell");
+            }
+            cells.add(cell.toString());
+            return cells.toArray(String[]::new);
+        }
+    }
+}
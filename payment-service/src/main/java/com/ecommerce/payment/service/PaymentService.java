@@ -1,20 +1,28 @@
 package com.ecommerce.payment.service;
 
 import com.ecommerce.common.event.PaymentCompletedEvent;
+import com.ecommerce.payment.dto.PaymentPageResponse;
 import com.ecommerce.payment.dto.PaymentResponse;
+import com.ecommerce.payment.dto.UserPaymentSummaryResponse;
 import com.ecommerce.payment.entity.Payment;
 import com.ecommerce.payment.entity.Payment.PaymentStatus;
 import com.ecommerce.payment.exception.PaymentNotFoundException;
+import com.ecommerce.payment.gateway.ChargeResult;
 import com.ecommerce.payment.repository.PaymentRepository;
+import com.ecommerce.payment.repository.UserPaymentSummaryOperations.PaymentTotals;
+import com.ecommerce.payment.repository.UserPaymentSummaryRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
-import java.time.LocalDateTime;
 import java.util.List;
-import java.util.UUID;
+import java.util.Optional;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -22,54 +30,40 @@ import java.util.stream.Collectors;
 @Slf4j
 public class PaymentService {
 
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final PaymentRepository paymentRepository;
+    private final UserPaymentSummaryRepository userPaymentSummaryRepository;
 
+    /**
+     * Stores the gateway's decision on an order's payment and returns the event announcing it.
+     */
     @Transactional
-    public PaymentCompletedEvent processPayment(Long orderId, Long userId) {
-        log.info("Processing payment for order ID: {}", orderId);
-
-        // Simulate payment processing (in real scenario, integrate with payment gateway)
-        try {
-            // Simulate payment delay
-            Thread.sleep(1000);
-
-            // Generate transaction ID
-            String transactionId = "TXN-" + UUID.randomUUID().toString();
-
-            // For simulation, we'll use a dummy amount
-            // In real scenario, this would come from the order details
-            BigDecimal amount = BigDecimal.valueOf(100.00);
-
-            // Create payment record
-            Payment payment = Payment.builder()
-                    .orderId(orderId)
-                    .userId(userId)
-                    .amount(amount)
-                    .status(PaymentStatus.COMPLETED)
-                    .transactionId(transactionId)
-                    .message("Payment processed successfully")
-                    .build();
-
-            Payment savedPayment = paymentRepository.save(payment);
-            log.info("Payment completed successfully for order ID: {}. Transaction ID: {}", 
-                    orderId, transactionId);
-
-            // Build and return PaymentCompletedEvent
-            return PaymentCompletedEvent.builder()
-                    .orderId(savedPayment.getOrderId())
-                    .userId(savedPayment.getUserId())
-                    .amount(savedPayment.getAmount())
-                    .paymentSuccessful(true)
-                    .transactionId(savedPayment.getTransactionId())
-                    .message(savedPayment.getMessage())
-                    .completedAt(savedPayment.getCreatedAt())
-                    .build();
-
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            log.error("Payment processing interrupted for order ID: {}", orderId);
-            throw new RuntimeException("Payment processing interrupted");
-        }
+    public PaymentCompletedEvent recordPayment(Long orderId, Long userId, BigDecimal amount, ChargeResult result) {
+        Payment savedPayment = paymentRepository.save(toPayment(new ChargedPayment(orderId, userId, amount, result)));
+        updateUserSummaries(List.of(savedPayment));
+        logOutcome(savedPayment);
+        return toEvent(savedPayment);
+    }
+
+    /**
+     * Stores a batch of gateway decisions in one transaction. The IDs are assigned up front, so
+     * Hibernate sends the rows as batched inserts.
+     */
+    @Transactional
+    public List<PaymentCompletedEvent> recordPayments(List<ChargedPayment> charges) {
+        List<Payment> savedPayments = paymentRepository.saveAll(charges.stream().map(PaymentService::toPayment).toList());
+        updateUserSummaries(savedPayments);
+        savedPayments.forEach(PaymentService::logOutcome);
+        return savedPayments.stream().map(PaymentService::toEvent).toList();
+    }
+
+    /**
+     * The event for an order's payment if an earlier attempt already recorded it, so that a
+     * retried payment is announced again instead of being charged twice.
+     */
+    public Optional<PaymentCompletedEvent> findRecordedPayment(Long orderId) {
+        return paymentRepository.findByOrderId(orderId).map(PaymentService::toEvent);
     }
 
     public PaymentResponse getPaymentByOrderId(Long orderId) {
@@ -110,6 +104,110 @@ public class PaymentService {
                 .collect(Collectors.toList());
     }
 
+    public PaymentPageResponse getPaymentsPage(Long before, int size) {
+        log.info("Fetching payments page before={} size={}", before, size);
+        return toPage(size, limit -> paymentRepository.findByIdLessThanOrderByIdDesc(cursor(before), limit));
+    }
+
+    public PaymentPageResponse getPaymentsByUserIdPage(Long userId, Long before, int size) {
+        log.info("Fetching payments page for user ID: {} before={} size={}", userId, before, size);
+        return toPage(size, limit -> paymentRepository.findByUserIdAndIdLessThanOrderByIdDesc(userId, cursor(before), limit));
+    }
+
+    public PaymentPageResponse getPaymentsByStatusPage(PaymentStatus status, Long before, int size) {
+        log.info("Fetching payments page with status: {} before={} size={}", status, before, size);
+        return toPage(size, limit -> paymentRepository.findByStatusAndIdLessThanOrderByIdDesc(status, cursor(before), limit));
+    }
+
+    public UserPaymentSummaryResponse getUserPaymentSummary(Long userId) {
+        log.info("Fetching payment summary for user ID: {}", userId);
+        return userPaymentSummaryRepository.findById(userId)
+                .map(summary -> UserPaymentSummaryResponse.builder()
+                        .userId(summary.getUserId())
+                        .paymentCount(summary.getPaymentCount())
+                        .completedCount(summary.getCompletedCount())
+                        .failedCount(summary.getFailedCount())
+                        .completedAmount(summary.getCompletedAmount())
+                        .lastPaymentAt(summary.getLastPaymentAt())
+                        .build())
+                .orElseGet(() -> UserPaymentSummaryResponse.builder()
+                        .userId(userId)
+                        .completedAmount(BigDecimal.ZERO)
+                        .build());
+    }
+
+    /**
+     * Adds the payments to their users' summaries in the same transaction, so a summary never
+     * counts a payment that was rolled back.
+     */
+    private void updateUserSummaries(List<Payment> payments) {
+        SortedMap<Long, PaymentTotals> totalsByUserId = new TreeMap<>();
+        for (Payment payment : payments) {
+            boolean completed = payment.getStatus() == PaymentStatus.COMPLETED;
+            PaymentTotals totals = new PaymentTotals(
+                    completed ? 1 : 0,
+                    completed ? 0 : 1,
+                    completed ? payment.getAmount() : BigDecimal.ZERO,
+                    payment.getCreatedAt());
+            totalsByUserId.merge(payment.getUserId(), totals, PaymentTotals::plus);
+        }
+        userPaymentSummaryRepository.batchAddPaymentTotals(totalsByUserId);
+    }
+
+    private static Long cursor(Long before) {
+        return before != null ? before : Long.MAX_VALUE;
+    }
+
+    /**
+     * Runs a keyset query for one row more than the page holds, to tell whether another page
+     * follows without counting the rest.
+     */
+    private PaymentPageResponse toPage(int size, Function<Limit, List<Payment>> query) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        List<Payment> rows = query.apply(Limit.of(pageSize + 1));
+        boolean hasNext = rows.size() > pageSize;
+        List<Payment> page = hasNext ? rows.subList(0, pageSize) : rows;
+        return PaymentPageResponse.builder()
+                .items(page.stream().map(this::toResponse).toList())
+                .size(pageSize)
+                .nextCursor(hasNext ? page.get(pageSize - 1).getId() : null)
+                .hasNext(hasNext)
+                .build();
+    }
+
+    private static Payment toPayment(ChargedPayment charge) {
+        ChargeResult result = charge.result();
+        return Payment.builder()
+                .orderId(charge.orderId())
+                .userId(charge.userId())
+                .amount(charge.amount())
+                .status(result.approved() ? PaymentStatus.COMPLETED : PaymentStatus.FAILED)
+                .transactionId(result.transactionId())
+                .message(result.message())
+                .build();
+    }
+
+    private static void logOutcome(Payment payment) {
+        if (payment.getStatus() == PaymentStatus.COMPLETED) {
+            log.info("Payment completed successfully for order ID: {}. Transaction ID: {}",
+                    payment.getOrderId(), payment.getTransactionId());
+        } else {
+            log.info("Payment declined for order ID: {}. Message: {}", payment.getOrderId(), payment.getMessage());
+        }
+    }
+
+    private static PaymentCompletedEvent toEvent(Payment payment) {
+        return PaymentCompletedEvent.builder()
+                .orderId(payment.getOrderId())
+                .userId(payment.getUserId())
+                .amount(payment.getAmount())
+                .paymentSuccessful(payment.getStatus() == PaymentStatus.COMPLETED)
+                .transactionId(payment.getTransactionId())
+                .message(payment.getMessage())
+                .completedAt(payment.getCreatedAt())
+                .build();
+    }
+
     private PaymentResponse toResponse(Payment payment) {
         return PaymentResponse.builder()
                 .id(payment.getId())
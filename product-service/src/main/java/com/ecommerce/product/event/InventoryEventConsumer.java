@@ -0,0 +1,48 @@
+package com.ecommerce.product.event;
+
+import com.ecommerce.common.bus.EventSubscriber;
+import com.ecommerce.common.bus.EventSubscriptions;
+import com.ecommerce.common.event.InventoryChangedEvent;
+import com.ecommerce.common.event.TopicNames;
+import com.ecommerce.product.service.ProductService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps {@code Product.stock} in line with the available quantity published by
+ * inventory-service. Events carry absolute figures, so each poll only applies the last one
+ * per product and redeliveries are harmless. Delivered in process, events are applied one
+ * at a time.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class InventoryEventConsumer implements EventSubscriber {
+
+    private static final String GROUP = "product-service-group";
+
+    private final ProductService productService;
+
+    @KafkaListener(topics = TopicNames.INVENTORY_CHANGED, groupId = GROUP, batch = "true")
+    public void handleInventoryChangedEvents(List<InventoryChangedEvent> events) {
+        log.debug("Received {} InventoryChangedEvents", events.size());
+
+        Map<Long, Integer> stockByProductId = new HashMap<>();
+        for (InventoryChangedEvent event : events) {
+            stockByProductId.put(event.getProductId(), event.getAvailableQuantity());
+        }
+        productService.syncStock(stockByProductId);
+    }
+
+    @Override
+    public void subscribe(EventSubscriptions subscriptions) {
+        subscriptions.subscribe(TopicNames.INVENTORY_CHANGED, GROUP, InventoryChangedEvent.class,
+                (event, headers) -> handleInventoryChangedEvents(List.of(event)));
+    }
+}
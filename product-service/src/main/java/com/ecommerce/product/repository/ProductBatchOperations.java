@@ -0,0 +1,16 @@
+package com.ecommerce.product.repository;
+
+import java.util.SortedMap;
+
+/**
+ * JDBC-batched writes for bulk stock synchronisation.
+ */
+public interface ProductBatchOperations {
+
+    /**
+     * Sets the stock of every product in one batch, in ascending product ID order, and
+     * returns the affected-row count per product in that order; 0 means the product does
+     * not exist.
+     */
+    int[] batchUpdateStock(SortedMap<Long, Integer> stockByProductId);
+}
@@ -0,0 +1,26 @@
+package com.ecommerce.product.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+
+@RequiredArgsConstructor
+public class ProductBatchOperationsImpl implements ProductBatchOperations {
+
+    private static final String UPDATE_STOCK_SQL = "UPDATE products SET stock = ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public int[] batchUpdateStock(SortedMap<Long, Integer> stockByProductId) {
+        List<Object[]> batchArgs = new ArrayList<>(stockByProductId.size());
+        for (Map.Entry<Long, Integer> entry : stockByProductId.entrySet()) {
+            batchArgs.add(new Object[]{entry.getValue(), entry.getKey()});
+        }
+        return jdbcTemplate.batchUpdate(UPDATE_STOCK_SQL, batchArgs);
+    }
+}
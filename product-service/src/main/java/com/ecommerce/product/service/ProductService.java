@@ -9,6 +9,8 @@ import com.ecommerce.product.mapper.ProductMapper;
 import com.ecommerce.product.repository.ProductRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
@@ -18,9 +20,15 @@ import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.math.BigDecimal;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
 import java.util.stream.Collectors;
 
 @Service
@@ -30,6 +38,7 @@ public class ProductService {
 
     private final ProductRepository productRepository;
     private final ProductMapper productMapper;
+    private final CacheManager cacheManager;
 
     @Transactional
     @CacheEvict(cacheNames = {"productsAll", "productsPaged", "productById"}, allEntries = true)
@@ -60,7 +69,7 @@ public class ProductService {
 
     @Cacheable(
             cacheNames = "productsPaged",
-            key = "T(String).valueOf(#page).concat('-').concat(T(String).valueOf(#size)).concat('-').concat(#sortBy).concat('-').concat(#sortDir).concat('-').concat(T(String).valueOf(#category)).concat('-').concat(T(String).valueOf(#name)).concat('-').concat(T(String).valueOf(#minPrice)).concat('-').concat(T(String).valueOf(#maxPrice))"
+            key = "T(java.util.Objects).toString(#page).concat('-').concat(T(java.util.Objects).toString(#size)).concat('-').concat(#sortBy).concat('-').concat(#sortDir).concat('-').concat(T(java.util.Objects).toString(#category)).concat('-').concat(T(java.util.Objects).toString(#name)).concat('-').concat(T(java.util.Objects).toString(#minPrice)).concat('-').concat(T(java.util.Objects).toString(#maxPrice))"
     )
     public ProductPageResponse findProducts(
             int page,
@@ -142,4 +151,47 @@ public class ProductService {
         productRepository.deleteById(id);
         log.info("Product deleted: {}", id);
     }
+
+    /**
+     * Applies stock figures published by inventory-service in one batch. Once committed, the
+     * cached {@code productById} entries of the affected products are updated in place;
+     * products that are not cached load the new figure on their next read.
+     */
+    @Transactional
+    public void syncStock(Map<Long, Integer> stockByProductId) {
+        SortedMap<Long, Integer> stock = new TreeMap<>(stockByProductId);
+        int[] updated = productRepository.batchUpdateStock(stock);
+
+        Map<Long, Integer> applied = new HashMap<>();
+        int index = 0;
+        for (Map.Entry<Long, Integer> entry : stock.entrySet()) {
+            if (updated[index++] == 0) {
+                log.debug("Ignoring stock for unknown product ID: {}", entry.getKey());
+            } else {
+                applied.put(entry.getKey(), entry.getValue());
+            }
+        }
+        log.info("Synchronised stock of {} products", applied.size());
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                refreshCachedStock(applied);
+            }
+        });
+    }
+
+    private void refreshCachedStock(Map<Long, Integer> stockByProductId) {
+        Cache cache = cacheManager.getCache("productById");
+        if (cache == null) {
+            return;
+        }
+        stockByProductId.forEach((productId, stock) -> {
+            ProductResponse cached = cache.get(productId, ProductResponse.class);
+            if (cached != null) {
+                cached.setStock(stock);
+                cache.put(productId, cached);
+            }
+        });
+    }
 }